@@ -0,0 +1,295 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.benchmark;
+
+import br.usp.poli.lta.cereda.xml2aa.server.Framing;
+import br.usp.poli.lta.cereda.xml2aa.server.MessageChannel;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga do servidor de reconhecimento. Cada conexão envia
+ * requisições de reconhecimento continuamente, mantendo até um número
+ * máximo de requisições pendentes, e mede a latência de cada uma desde o
+ * envio até o recebimento da resposta. As medições do primeiro segundo são
+ * descartadas como aquecimento. Os argumentos são o endereço do servidor, o
+ * nome da especificação e, opcionalmente, o número de conexões, o número
+ * máximo de requisições pendentes por conexão, a duração da medição, em
+ * segundos, e um arquivo com uma cadeia por linha; sem o arquivo, são
+ * enviadas cadeias aleatórias sobre os símbolos 'a' e 'b'. A propriedade
+ * 'xml2aa.server.framing' define a delimitação das mensagens.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class LoadGenerator {
+
+    // aquecimento, em nanossegundos
+    private static final long WARMUP = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Método principal.
+     *
+     * @param args Argumentos de linha de comando.
+     * @throws Exception Erro de conexão ou de leitura das cadeias.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Uso: LoadGenerator endereço especificação "
+                    + "[conexões] [pendentes] [duração] [arquivo]");
+            return;
+        }
+        String address = args[0];
+        String spec = args[1];
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        long duration = TimeUnit.SECONDS.toNanos(args.length > 4
+                ? Long.parseLong(args[4]) : 10);
+        Framing framing = Framing.of(System.getProperty(
+                "xml2aa.server.framing"));
+        if (framing == null) {
+            framing = Framing.LINE;
+        }
+
+        // cadeias do arquivo
+        // ou aleatórias
+        List<String> inputs = new ArrayList<>();
+        if (args.length > 5) {
+            inputs.addAll(Files.readAllLines(Paths.get(args[5]),
+                    StandardCharsets.UTF_8));
+        } else {
+            Random random = new Random(42);
+            for (int i = 0; i < 4096; i++) {
+                StringBuilder input = new StringBuilder();
+                int length = random.nextInt(16);
+                for (int j = 0; j < length; j++) {
+                    input.append(random.nextBoolean() ? 'a' : 'b');
+                }
+                inputs.add(input.toString());
+            }
+        }
+        String[] requests = new String[inputs.size()];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = "recognize " + spec + " - " + inputs.get(i);
+        }
+
+        long start = System.nanoTime();
+        long measured = start + WARMUP;
+        long deadline = measured + duration;
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            clients.add(new Client(MessageChannel.connect(address, framing),
+                    requests, depth, i, measured, deadline));
+        }
+        for (Client client : clients) {
+            client.start();
+        }
+
+        // junta as latências de
+        // todas as conexões
+        long total = 0;
+        long errors = 0;
+        long[] latencies = new long[0];
+        for (Client client : clients) {
+            client.join();
+            if (client.failure != null) {
+                throw client.failure;
+            }
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset,
+                    client.count);
+            total += client.count;
+            errors += client.errors;
+        }
+        Arrays.sort(latencies);
+        double elapsed = (System.nanoTime() - measured) / 1e9;
+
+        System.out.printf("%8s %10s %10s %14s %10s %10s %10s %10s%n",
+                "conexões", "pendentes", "erros", "requisições/s",
+                "p50 (µs)", "p99 (µs)", "p99.9 (µs)", "máx. (µs)");
+        System.out.printf("%8d %10d %10d %14.1f %10.1f %10.1f %10.1f "
+                + "%10.1f%n", connections, depth, errors, total / elapsed,
+                percentile(latencies, 50) / 1e3,
+                percentile(latencies, 99) / 1e3,
+                percentile(latencies, 99.9) / 1e3,
+                latencies.length == 0 ? 0
+                        : latencies[latencies.length - 1] / 1e3);
+    }
+
+    /**
+     * Obtém o percentil das latências ordenadas.
+     *
+     * @param latencies Latências ordenadas.
+     * @param percentile Percentil, entre 0 e 100.
+     * @return Latência, em nanossegundos, ou zero sem medições.
+     */
+    private static long percentile(long[] latencies, double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(latencies.length * percentile / 100);
+        return latencies[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Conexão do gerador de carga, com uma linha de execução de envio e
+     * outra de recebimento. O número de requisições pendentes é controlado
+     * por um semáforo, e os instantes de envio são mantidos em uma fila, na
+     * ordem das respostas.
+     */
+    private static class Client {
+
+        // atributos da classe
+        private final MessageChannel channel;
+        private final String[] requests;
+        private final int depth;
+        private final int first;
+        private final long measured;
+        private final long deadline;
+        private final Semaphore permits;
+        private final BlockingQueue<Long> sent;
+        private final Thread sender;
+        private final Thread receiver;
+
+        // medições
+        private long[] latencies;
+        private int count;
+        private long errors;
+        private volatile Exception failure;
+
+        /**
+         * Construtor.
+         *
+         * @param channel Canal de mensagens conectado.
+         * @param requests Requisições, enviadas circularmente.
+         * @param depth Número máximo de requisições pendentes.
+         * @param first Posição da primeira requisição enviada.
+         * @param measured Início das medições.
+         * @param deadline Término do envio.
+         */
+        Client(MessageChannel channel, String[] requests, int depth,
+                int first, long measured, long deadline) {
+            this.channel = channel;
+            this.requests = requests;
+            this.depth = depth;
+            this.first = first;
+            this.measured = measured;
+            this.deadline = deadline;
+            this.permits = new Semaphore(depth);
+            this.sent = new ArrayBlockingQueue<>(depth);
+            this.latencies = new long[1 << 16];
+            this.sender = new Thread(this::send, "xml2aa-load-sender");
+            this.receiver = new Thread(this::receive, "xml2aa-load-receiver");
+        }
+
+        /**
+         * Inicia o envio e o recebimento.
+         */
+        void start() {
+            receiver.start();
+            sender.start();
+        }
+
+        /**
+         * Aguarda o término do envio e do recebimento.
+         *
+         * @throws InterruptedException A espera foi interrompida.
+         */
+        void join() throws InterruptedException {
+            sender.join();
+            receiver.join();
+        }
+
+        /**
+         * Envia as requisições até o término, esvaziando o buffer de
+         * escrita apenas quando não é possível enviar mais requisições sem
+         * aguardar respostas. Ao término, aguarda todas as respostas e
+         * fecha a conexão.
+         */
+        private void send() {
+            int next = first;
+            try {
+                while (System.nanoTime() < deadline) {
+                    if (!permits.tryAcquire()) {
+                        channel.flush();
+                        permits.acquire();
+                    }
+                    sent.put(System.nanoTime());
+                    channel.write(requests[next++ % requests.length]);
+                }
+                channel.flush();
+                permits.acquire(depth);
+            } catch (IOException | InterruptedException exception) {
+                failure = exception;
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException nothandled) {
+                    // a conexão já foi
+                    // encerrada
+                }
+            }
+        }
+
+        /**
+         * Recebe as respostas, registrando a latência de cada uma a partir
+         * do início das medições.
+         */
+        private void receive() {
+            try {
+                String response;
+                while ((response = channel.read()) != null) {
+                    long now = System.nanoTime();
+                    long start = sent.take();
+                    if (start >= measured) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = now - start;
+                        if (!response.startsWith("OK")) {
+                            errors++;
+                        }
+                    }
+                    permits.release();
+                }
+            } catch (IOException exception) {
+                // a conexão foi fechada
+                // pelo envio ao término
+            } catch (InterruptedException exception) {
+                failure = exception;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.benchmark;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Compara o tempo de conversão e o pico de memória das transformações XML
+ * disponíveis sobre especificações sintéticas de tamanhos variados. Os
+ * tamanhos (em número de transições) podem ser informados na linha de
+ * comando.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class LoaderBenchmark {
+
+    // transformações avaliadas
+    private static final String[] LOADERS = {"xstream", "stax"};
+
+    // número de execuções de
+    // aquecimento e de medição
+    private static final int WARMUP = 2;
+    private static final int RUNS = 5;
+
+    /**
+     * Método principal.
+     *
+     * @param args Tamanhos das especificações.
+     * @throws Exception Erro na geração ou conversão das especificações.
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length == 0
+                ? new int[]{10000, 100000, 500000}
+                : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-10s %12s %14s %14s%n", "parser",
+                "transições", "tempo (ms)", "pico (MB)");
+        for (int size : sizes) {
+            File file = SpecGenerator.generate(size);
+            for (String name : LOADERS) {
+                Transformation loader = Transformation.of(name);
+
+                // execuções de aquecimento
+                for (int i = 0; i < WARMUP; i++) {
+                    loader.get(file);
+                }
+
+                // execuções medidas, guardando
+                // o melhor tempo e o maior pico
+                long best = Long.MAX_VALUE;
+                long peak = 0;
+                for (int i = 0; i < RUNS; i++) {
+                    long baseline = reset();
+                    long start = System.nanoTime();
+                    XMLAdaptiveAutomaton xml = loader.get(file);
+                    long elapsed = System.nanoTime() - start;
+                    peak = Math.max(peak, peak() - baseline);
+                    best = Math.min(best, elapsed);
+
+                    // mantém a especificação viva
+                    // até o final da medição
+                    if (xml.getTransitions() == null) {
+                        throw new IllegalStateException();
+                    }
+                }
+
+                System.out.printf("%-10s %12d %14.2f %14.2f%n", name, size,
+                        best / 1e6, peak / (1024.0 * 1024.0));
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * Executa a coleta de lixo e reinicia os picos de memória do heap.
+     *
+     * @return Memória do heap em uso após a coleta.
+     */
+    private static long reset() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Obtém a soma dos picos de memória do heap.
+     *
+     * @return Pico de memória do heap.
+     */
+    private static long peak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+}
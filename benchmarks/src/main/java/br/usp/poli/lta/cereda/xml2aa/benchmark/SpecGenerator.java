@@ -0,0 +1,144 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Gera especificações XML sintéticas de autômatos adaptativos para as
+ * medições de desempenho. A especificação gerada é válida e descreve uma
+ * cadeia de estados sobre um alfabeto fixo, com chamadas periódicas a uma
+ * ação adaptativa que apenas consulta o mapeamento.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SpecGenerator {
+
+    // alfabeto das transições
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    // intervalo entre chamadas
+    // de funções adaptativas
+    private static final int PERIOD = 10;
+
+    /**
+     * Gera um arquivo temporário contendo a especificação com o número
+     * informado de transições.
+     *
+     * @param transitions Número de transições.
+     * @return Arquivo contendo a especificação.
+     * @throws IOException Erro de escrita.
+     */
+    public static File generate(int transitions) throws IOException {
+        File file = File.createTempFile("xml2aa-", ".xml");
+        file.deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            write(writer, transitions);
+        }
+        return file;
+    }
+
+    /**
+     * Obtém a cadeia aceita pela especificação com o número informado de
+     * transições.
+     *
+     * @param transitions Número de transições.
+     * @return Cadeia aceita.
+     */
+    public static String word(int transitions) {
+        StringBuilder sb = new StringBuilder(transitions);
+        for (int i = 0; i < transitions; i++) {
+            sb.append(ALPHABET.charAt(i % ALPHABET.length()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escreve a especificação.
+     *
+     * @param writer Escritor.
+     * @param transitions Número de transições.
+     * @throws IOException Erro de escrita.
+     */
+    private static void write(Writer writer, int transitions)
+            throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n");
+        writer.write("<adaptiveAutomaton>\n");
+
+        // transições em cadeia, com chamadas
+        // periódicas à ação adaptativa
+        writer.write("  <transitions>\n");
+        for (int i = 0; i < transitions; i++) {
+            writer.write("    <transition from=\"" + i + "\" symbol=\""
+                    + ALPHABET.charAt(i % ALPHABET.length()) + "\" to=\""
+                    + (i + 1) + "\"");
+            if (i % PERIOD == PERIOD - 1) {
+                writer.write(">\n");
+                writer.write("      <postAdaptiveFunction name=\"Q\">\n");
+                writer.write("        <parameter>" + (i + 1)
+                        + "</parameter>\n");
+                writer.write("      </postAdaptiveFunction>\n");
+                writer.write("    </transition>\n");
+            } else {
+                writer.write("/>\n");
+            }
+        }
+        writer.write("  </transitions>\n");
+
+        // submáquina principal
+        // com todos os estados
+        writer.write("  <submachines>\n");
+        writer.write("    <submachine name=\"M\" main=\"true\">\n");
+        for (int i = 0; i <= transitions; i++) {
+            writer.write("      <state name=\"" + i + "\"");
+            if (i == 0) {
+                writer.write(" start=\"true\"");
+            }
+            if (i == transitions) {
+                writer.write(" accepting=\"true\"");
+            }
+            writer.write("/>\n");
+        }
+        writer.write("    </submachine>\n");
+        writer.write("  </submachines>\n");
+
+        // ação adaptativa que apenas
+        // consulta o mapeamento
+        writer.write("  <actions>\n");
+        writer.write("    <adaptiveAction name=\"Q\">\n");
+        writer.write("      <parameter>p</parameter>\n");
+        writer.write("      <variable>?x</variable>\n");
+        writer.write("      <action type=\"query\" from=\"?x\" "
+                + "symbol=\"a\" to=\"p\"/>\n");
+        writer.write("    </adaptiveAction>\n");
+        writer.write("  </actions>\n");
+
+        writer.write("</adaptiveAutomaton>\n");
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.benchmark;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o número de conversões de especificações por segundo de uma única
+ * instância compartilhada de cada transformação XML, variando o número de
+ * linhas de execução de 1 até N. Os argumentos opcionais são o número de
+ * transições da especificação, o número máximo de linhas de execução e a
+ * duração, em segundos, de cada medição.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class ThroughputBenchmark {
+
+    // transformações avaliadas
+    private static final String[] LOADERS = {"xstream", "stax"};
+
+    /**
+     * Método principal.
+     *
+     * @param args Argumentos de linha de comando.
+     * @throws Exception Erro na geração ou conversão das especificações.
+     */
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        long duration = TimeUnit.SECONDS.toNanos(args.length > 2
+                ? Long.parseLong(args[2]) : 5);
+
+        // a especificação é mantida em memória,
+        // de modo que a medição não inclua
+        // o acesso ao disco
+        File file = SpecGenerator.generate(size);
+        ByteBuffer spec = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        file.delete();
+
+        System.out.printf("%-10s %8s %16s%n", "parser", "threads",
+                "conversões/s");
+        for (String name : LOADERS) {
+
+            // uma única instância, compartilhada
+            // por todas as linhas de execução
+            Transformation loader = Transformation.of(name);
+
+            // aquecimento
+            for (int i = 0; i < 20; i++) {
+                loader.get(spec);
+            }
+
+            for (int n = 1; n <= threads; n = n < threads
+                    ? Math.min(n * 2, threads) : n + 1) {
+                ExecutorService pool = Executors.newFixedThreadPool(n);
+                List<Future<Long>> results = new ArrayList<>();
+                long deadline = System.nanoTime() + duration;
+                for (int i = 0; i < n; i++) {
+                    results.add(pool.submit(() -> {
+                        long count = 0;
+                        while (System.nanoTime() < deadline) {
+                            loader.get(spec);
+                            count++;
+                        }
+                        return count;
+                    }));
+                }
+                long total = 0;
+                for (Future<Long> result : results) {
+                    total += result.get();
+                }
+                pool.shutdown();
+                System.out.printf("%-10s %8d %16.1f%n", name, n,
+                        total / (duration / 1e9));
+            }
+        }
+    }
+
+}
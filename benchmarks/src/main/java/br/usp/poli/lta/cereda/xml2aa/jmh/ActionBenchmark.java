@@ -0,0 +1,148 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import br.usp.poli.lta.cereda.aa.model.sets.Mapping;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.ListAction;
+import br.usp.poli.lta.cereda.xml2aa.model.StateGenerator;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a execução isolada de uma ação adaptativa sobre o mapeamento inicial
+ * de transições da especificação, com os argumentos da primeira chamada de
+ * função adaptativa encontrada. No exemplo {@code aa}, a ação inclui e
+ * remove transições; nas especificações sintéticas, a ação apenas consulta
+ * o mapeamento, cujo tamanho é o número de transições. Cada invocação
+ * executa a ação sobre um lote de mapeamentos restaurados antes desta, de
+ * modo que o custo da preparação de cada invocação seja diluído no lote, e
+ * o tempo informado é o de uma única execução.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionBenchmark {
+
+    // execuções por invocação
+    private static final int BATCH = 64;
+
+    // exemplo ou número de
+    // transições da especificação
+    @Param({"aa", "100", "1000", "10000"})
+    public String spec;
+
+    // variáveis da classe
+    private XMLAdaptiveAutomaton xml;
+    private ActionPlan plan;
+    private StateGenerator generator;
+    private ListAction action;
+    private Object[] arguments;
+    private Mapping[] mappings;
+    private int start;
+
+    /**
+     * Compila a ação adaptativa chamada pela especificação.
+     *
+     * @throws Exception Erro na obtenção ou na validação da especificação.
+     */
+    @Setup
+    public void setup() throws Exception {
+        xml = Transformation.of("stax").get(Specs.load(spec));
+        start = new AutomatonValidator(xml).validate().getMaximum() + 1;
+        XMLActionCall call = Specs.call(xml);
+        if (call == null) {
+            throw new IllegalStateException(String.format("A especificação "
+                    + "'%s' não possui chamadas de funções adaptativas.",
+                    spec));
+        }
+        for (XMLAdaptiveAction candidate : xml.getActions()) {
+            if (candidate.getName().equals(call.getName())) {
+                plan = ActionPlan.compile(candidate);
+            }
+        }
+        generator = new StateGenerator(start);
+        action = new ListAction(plan.getName(), plan, generator);
+        arguments = Specs.arguments(call);
+    }
+
+    /**
+     * Restaura o lote de mapeamentos iniciais antes de cada invocação, caso
+     * a ação altere o mapeamento; ações que apenas consultam reutilizam um
+     * único mapeamento em todas as execuções.
+     */
+    @Setup(Level.Invocation)
+    public void restore() {
+        if (mappings == null) {
+            mappings = new Mapping[BATCH];
+        } else if (!plan.isModifying()) {
+            return;
+        }
+        Mapping shared = plan.isModifying() ? null : Specs.mapping(xml);
+        for (int i = 0; i < BATCH; i++) {
+            mappings[i] = shared != null ? shared : Specs.mapping(xml);
+        }
+        generator.reset(start);
+    }
+
+    /**
+     * Executa a ação adaptativa sobre cada mapeamento do lote.
+     *
+     * @return Último mapeamento resultante.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Mapping execute() {
+
+        // a transição corrente não é
+        // utilizada pelas ações do
+        // modelo de listas
+        for (Mapping mapping : mappings) {
+            action.execute(mapping, null, arguments);
+        }
+        return mappings[BATCH - 1];
+    }
+
+}
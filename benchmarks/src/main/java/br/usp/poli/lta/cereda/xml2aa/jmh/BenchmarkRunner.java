@@ -0,0 +1,58 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa as medições com as opções de linha de comando da JMH, incluindo
+ * sempre o perfilador de coleta de lixo, que informa a taxa de alocação e o
+ * número de bytes alocados por operação. Por exemplo, {@code java -jar
+ * target/benchmarks.jar Recognition -p length=128} executa apenas as
+ * medições de reconhecimento com cadeias de comprimento 128. As ferramentas
+ * de medição avulsas do pacote 'benchmark' (carregamento, vazão e carga do
+ * servidor) acompanham o mesmo arquivo, sendo executadas pela classe, como
+ * em {@code java -cp target/benchmarks.jar
+ * br.usp.poli.lta.cereda.xml2aa.benchmark.LoaderBenchmark}.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Método principal.
+     *
+     * @param args Argumentos de linha de comando da JMH.
+     * @throws Exception Erro nas opções ou na execução das medições.
+     */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().
+                parent(new CommandLineOptions(args)).
+                addProfiler(GCProfiler.class).
+                build()).run();
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
+import br.usp.poli.lta.cereda.aa.model.Symbol;
+import br.usp.poli.lta.cereda.xml2aa.Utils;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonBuilder;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede o reconhecimento de cadeias aceitas pelos exemplos do projeto com o
+ * autômato adaptativo da biblioteca AA4J, variando o comprimento da cadeia.
+ * Cada linha de execução possui a sua própria instância do autômato, dado
+ * que o reconhecimento altera o mapeamento de transições.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecognitionBenchmark {
+
+    // exemplo do projeto
+    @Param({"af", "ape", "aa"})
+    public String spec;
+
+    // comprimento aproximado
+    // da cadeia de entrada
+    @Param({"8", "32", "128"})
+    public int length;
+
+    // variáveis da classe
+    private AdaptiveAutomaton automaton;
+    private List<Symbol> symbols;
+
+    /**
+     * Constrói o autômato e a cadeia de entrada uma única vez.
+     *
+     * @throws Exception Erro na obtenção ou na validação da especificação.
+     */
+    @Setup
+    public void setup() throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(Specs.load(spec));
+        automaton = new AutomatonBuilder().build(xml,
+                new AutomatonValidator(xml).validate());
+        symbols = Utils.toSymbols(Specs.word(spec, length));
+        if (!automaton.recognize(symbols)) {
+            throw new IllegalStateException(String.format("A cadeia de "
+                    + "entrada não foi aceita pelo exemplo '%s'.", spec));
+        }
+    }
+
+    /**
+     * Reconhece a cadeia de entrada.
+     *
+     * @return Valor lógico indicando a aceitação.
+     */
+    @Benchmark
+    public boolean recognize() {
+        return automaton.recognize(symbols);
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonBuilder;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a validação da especificação XML e a construção do autômato
+ * adaptativo na biblioteca AA4J a partir da especificação já convertida.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecBenchmark {
+
+    // exemplo ou número de
+    // transições da especificação
+    @Param({"af", "ape", "aa", "100", "1000", "10000"})
+    public String spec;
+
+    // variáveis da classe
+    private XMLAdaptiveAutomaton xml;
+    private SpecIndex index;
+    private AutomatonBuilder builder;
+
+    /**
+     * Converte e valida a especificação uma única vez.
+     *
+     * @throws Exception Erro na obtenção ou na validação da especificação.
+     */
+    @Setup
+    public void setup() throws Exception {
+        xml = Transformation.of("stax").get(Specs.load(spec));
+        index = new AutomatonValidator(xml).validate();
+        builder = new AutomatonBuilder();
+    }
+
+    /**
+     * Valida a especificação.
+     *
+     * @return Índice da especificação.
+     * @throws Exception A especificação é inválida.
+     */
+    @Benchmark
+    public SpecIndex validate() throws Exception {
+        return new AutomatonValidator(xml).validate();
+    }
+
+    /**
+     * Constrói o autômato adaptativo a partir da especificação validada.
+     *
+     * @return Autômato adaptativo.
+     */
+    @Benchmark
+    public AdaptiveAutomaton build() {
+        return builder.build(xml, index);
+    }
+
+}
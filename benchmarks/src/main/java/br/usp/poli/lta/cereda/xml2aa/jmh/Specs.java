@@ -0,0 +1,206 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import br.usp.poli.lta.cereda.aa.examples.ExampleState;
+import br.usp.poli.lta.cereda.aa.examples.ExampleSymbol;
+import br.usp.poli.lta.cereda.aa.model.Transition;
+import br.usp.poli.lta.cereda.aa.model.sets.Mapping;
+import br.usp.poli.lta.cereda.xml2aa.benchmark.SpecGenerator;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Especificações e cadeias de entrada utilizadas pelas medições. Uma
+ * especificação é identificada pelo nome de um dos exemplos do projeto
+ * ({@code af}, {@code ape} ou {@code aa}) ou pelo número de transições de
+ * uma especificação sintética obtida de {@link SpecGenerator}.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+final class Specs {
+
+    /**
+     * Construtor privado, a classe possui apenas métodos estáticos.
+     */
+    private Specs() {
+    }
+
+    /**
+     * Obtém o conteúdo da especificação, mantido em memória de modo que as
+     * medições não incluam o acesso ao disco.
+     *
+     * @param spec Nome do exemplo ou número de transições.
+     * @return Conteúdo da especificação.
+     * @throws IOException Erro de leitura ou de escrita.
+     */
+    static ByteBuffer load(String spec) throws IOException {
+        if (isSynthetic(spec)) {
+            File file = SpecGenerator.generate(Integer.parseInt(spec));
+            try {
+                return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            } finally {
+                file.delete();
+            }
+        }
+
+        // os exemplos são copiados
+        // para o arquivo do módulo
+        // na construção deste
+        try (InputStream stream = Specs.class.getResourceAsStream(
+                "/samples/" + spec + ".xml")) {
+            if (stream == null) {
+                throw new IOException(String.format("O exemplo '%s' não foi "
+                        + "encontrado. Por favor, informe um dos exemplos do "
+                        + "projeto ou o número de transições de uma "
+                        + "especificação sintética.", spec));
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return ByteBuffer.wrap(output.toByteArray());
+        }
+    }
+
+    /**
+     * Obtém uma cadeia aceita pela especificação, com aproximadamente o
+     * comprimento informado. Especificações sintéticas aceitam uma única
+     * cadeia, cujo comprimento é o número de transições.
+     *
+     * @param spec Nome do exemplo ou número de transições.
+     * @param length Comprimento desejado.
+     * @return Cadeia aceita.
+     */
+    static String word(String spec, int length) {
+        if (isSynthetic(spec)) {
+            return SpecGenerator.word(Integer.parseInt(spec));
+        }
+        switch (spec) {
+            case "af":
+                return repeat("ab", Math.max(1, length / 2));
+            case "ape":
+                return repeat("a", length / 2) + repeat("b", length / 2);
+            default:
+                int n = Math.max(1, length / 3);
+                return repeat("a", n) + repeat("b", n) + repeat("c", n);
+        }
+    }
+
+    /**
+     * Constrói o mapeamento inicial de transições da especificação, do
+     * mesmo modo que o modelo do autômato na biblioteca AA4J.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @return Mapeamento de transições.
+     */
+    static Mapping mapping(XMLAdaptiveAutomaton xml) {
+        Mapping mapping = new Mapping();
+        for (XMLTransition t : xml.getTransitions().getTransitions()) {
+            Transition transition = new Transition();
+            transition.setSourceState(new ExampleState(t.getFrom()));
+            transition.setTargetState(new ExampleState(t.getTo()));
+            if (t.getCall() != null) {
+                transition.setSubmachineCall(t.getCall());
+            } else if (t.getSymbol() != null) {
+                transition.setSymbol(new ExampleSymbol(t.getSymbol()));
+            }
+            XMLActionCall prior = t.getPreAdaptiveFunction();
+            if (prior != null) {
+                transition.setPriorActionCall(prior.getName());
+                transition.setPriorActionArguments(arguments(prior));
+            }
+            XMLActionCall post = t.getPostAdaptiveFunction();
+            if (post != null) {
+                transition.setPostActionCall(post.getName());
+                transition.setPostActionArguments(arguments(post));
+            }
+            mapping.add(transition);
+        }
+        return mapping;
+    }
+
+    /**
+     * Obtém a primeira chamada de função adaptativa da especificação.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @return Chamada de função adaptativa, ou nulo.
+     */
+    static XMLActionCall call(XMLAdaptiveAutomaton xml) {
+        for (XMLTransition t : xml.getTransitions().getTransitions()) {
+            if (t.getPreAdaptiveFunction() != null) {
+                return t.getPreAdaptiveFunction();
+            }
+            if (t.getPostAdaptiveFunction() != null) {
+                return t.getPostAdaptiveFunction();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtém os argumentos da chamada de função adaptativa.
+     *
+     * @param call Chamada de função adaptativa.
+     * @return Argumentos da chamada, ou nulo.
+     */
+    static Object[] arguments(XMLActionCall call) {
+        return call.getParameters() == null ? null
+                : call.getParameters().toArray();
+    }
+
+    /**
+     * Verifica se a especificação é sintética.
+     *
+     * @param spec Nome do exemplo ou número de transições.
+     * @return Valor lógico indicando se a especificação é sintética.
+     */
+    private static boolean isSynthetic(String spec) {
+        return !spec.isEmpty() && Character.isDigit(spec.charAt(0));
+    }
+
+    /**
+     * Repete o texto.
+     *
+     * @param text Texto.
+     * @param count Número de repetições.
+     * @return Texto repetido.
+     */
+    private static String repeat(String text, int count) {
+        StringBuilder sb = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(text);
+        }
+        return sb.toString();
+    }
+
+}
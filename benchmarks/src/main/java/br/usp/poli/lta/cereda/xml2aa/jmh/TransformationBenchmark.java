@@ -0,0 +1,90 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.jmh;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a conversão da especificação XML para o modelo de objetos, com a
+ * transformação baseada na XStream e com a transformação por fluxo.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformationBenchmark {
+
+    // transformação avaliada
+    @Param({"xstream", "stax"})
+    public String parser;
+
+    // exemplo ou número de
+    // transições da especificação
+    @Param({"af", "ape", "aa", "100", "1000", "10000"})
+    public String spec;
+
+    // variáveis da classe
+    private Transformation transformation;
+    private ByteBuffer content;
+
+    /**
+     * Prepara a transformação e o conteúdo da especificação.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Setup
+    public void setup() throws Exception {
+        transformation = Transformation.of(parser);
+        content = Specs.load(spec);
+    }
+
+    /**
+     * Converte a especificação.
+     *
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception Erro na conversão.
+     */
+    @Benchmark
+    public XMLAdaptiveAutomaton get() throws Exception {
+        return transformation.get(content.duplicate());
+    }
+
+}
@@ -22,14 +22,33 @@ package br.usp.poli.lta.cereda.xml2aa;
 
 import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
 import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonBuilder;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonPool;
 import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
-import br.usp.poli.lta.cereda.xml2aa.xml.XMLTransformation;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.batch.BatchRecognizer;
+import br.usp.poli.lta.cereda.xml2aa.batch.BatchReport;
+import br.usp.poli.lta.cereda.xml2aa.batch.Format;
+import br.usp.poli.lta.cereda.xml2aa.model.AutomatonSpecException;
+import br.usp.poli.lta.cereda.xml2aa.model.Violation;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Engine;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Limits;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.NativeEngine;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Result;
+import br.usp.poli.lta.cereda.xml2aa.snapshot.Snapshot;
+import br.usp.poli.lta.cereda.xml2aa.snapshot.SnapshotCache;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.time.StopWatch;
 
 /**
@@ -66,27 +85,101 @@ public class Main {
 
             // transforma o arquivo XML em
             // uma representação XML do
-            // autômato adaptativo
-            XMLTransformation transformation = new XMLTransformation();
-            XMLAdaptiveAutomaton xml = transformation.get(file);
-
-            // realiza uma validação prévia
-            // da representação XML do
-            // autômato adaptativo
-            AutomatonValidator validator = new AutomatonValidator(xml);
-            validator.validate();
-
-            // constrói efetivamente o
-            // autômato adaptativo a
-            // partir da representação
-            // XML avaliada anteriormente
-            AutomatonBuilder builder = new AutomatonBuilder();
-            AdaptiveAutomaton automaton = builder.build(xml);
-            
-            // realiza um reconhecimento inicial para
-            // permitir a visualização inicial, ainda
-            // sem cadeias previamente submetidas
-            automaton.recognize(Utils.toSymbols(""));
+            // autômato adaptativo, de acordo
+            // com a transformação escolhida
+            // na propriedade 'xml2aa.parser'
+            Transformation transformation = Transformation.
+                    of(System.getProperty("xml2aa.parser"));
+
+            // obtém a representação XML do
+            // autômato adaptativo já validada
+            // e o seu índice, reaproveitando a
+            // representação binária quando a
+            // propriedade 'xml2aa.snapshot' tem
+            // o valor 'true' e o arquivo não foi
+            // alterado desde a última execução;
+            // a propriedade 'xml2aa.report' com
+            // o valor 'all' faz com que todas
+            // as violações sejam reportadas
+            SnapshotCache cache = new SnapshotCache(transformation,
+                    Boolean.getBoolean("xml2aa.snapshot"),
+                    "all".equals(System.getProperty("xml2aa.report")));
+            Snapshot snapshot = cache.get(file);
+            XMLAdaptiveAutomaton xml = snapshot.getSpecification();
+            AutomatonValidator validator = new AutomatonValidator(xml,
+                    snapshot.getIndex());
+
+            // a instância da biblioteca AA4J
+            // é necessária apenas no modo
+            // completo e na visualização das
+            // topologias, sendo construída no
+            // primeiro uso, com um reconhecimento
+            // inicial que permite a visualização
+            // ainda sem cadeias submetidas
+            AtomicReference<AdaptiveAutomaton> library
+                    = new AtomicReference<>();
+            Supplier<AdaptiveAutomaton> instance = () -> {
+                if (library.get() == null) {
+                    AdaptiveAutomaton automaton = new AutomatonBuilder().
+                            build(xml, validator.getIndex());
+                    automaton.recognize(Utils.toSymbols(""));
+                    library.set(automaton);
+                }
+                return library.get();
+            };
+
+            // compila o autômato e seleciona o
+            // modo de reconhecimento pela
+            // propriedade 'xml2aa.mode': 'first'
+            // e 'count' utilizam a tabela de
+            // transições determinística, quando
+            // possível, ou o mecanismo nativo,
+            // sem registrar caminhos; 'full'
+            // utiliza a biblioteca; por padrão,
+            // apenas os autômatos sem funções
+            // adaptativas e sem não-determinismo
+            // utilizam a tabela, e as estruturas
+            // dos modos rápidos são construídas
+            // apenas no primeiro uso destes
+            CompiledAutomaton compiled = new AutomatonCompiler().
+                    compile(xml, validator.getIndex());
+            Mode mode = Mode.of(System.getProperty("xml2aa.mode"));
+            if (mode == null) {
+                mode = Engine.select(compiled) == Engine.DETERMINISTIC
+                        ? Mode.ACCEPT_FIRST : Mode.FULL;
+            }
+            Engine engine = Engine.select(compiled, mode);
+
+            // a propriedade 'xml2aa.parallelism'
+            // define o número de threads para a
+            // exploração paralela das ramificações
+            // no mecanismo nativo, as propriedades
+            // 'xml2aa.limit.*' definem os limites
+            // de execução de cada reconhecimento e
+            // a propriedade 'xml2aa.checkpoints'
+            // define o número de pontos de retomada
+            // dos prefixos já reconhecidos; com
+            // chamadas ou pontos de retomada, a
+            // exploração em largura é mantida e
+            // as threads não são criadas
+            int parallelism = Integer.getInteger("xml2aa.parallelism", 1);
+            Limits limits = Limits.fromSystem();
+            int checkpoints = Integer.getInteger("xml2aa.checkpoints", 0);
+            boolean parallel = engine == Engine.NATIVE && parallelism > 1
+                    && !NativeEngine.isBreadthFirst(compiled, mode,
+                            checkpoints);
+            ForkJoinPool pool = parallel ? new ForkJoinPool(parallelism)
+                    : null;
+            String batch = System.getProperty("xml2aa.batch");
+            Recognizer recognizer = new Recognizer(compiled,
+                    mode == Mode.FULL && batch == null ? instance.get()
+                    : null, pool, limits, checkpoints);
+            Mode selected = mode;
+
+            // cadeia consultada fora da biblioteca
+            // e ainda não submetida a esta,
+            // necessária para a visualização
+            AtomicReference<String> pending = new AtomicReference<>();
 
             // imprime as informações
             // obtidas a partir da
@@ -94,6 +187,66 @@ public class Main {
             // autômato adaptativo
             Utils.linebreak(validator.getInformation());
             Utils.line();
+            Utils.linebreak("Mecanismo de reconhecimento: ".
+                    concat(Engine.describe(compiled, mode, parallelism,
+                            checkpoints)));
+            Utils.linebreak("Modo de reconhecimento: ".
+                    concat(mode.getDescription()));
+            if (limits.isBounded() && engine == Engine.NATIVE) {
+                Utils.linebreak("Limites de execução: ".
+                        concat(limits.toString()));
+            }
+            if (engine == Engine.NATIVE && recognizer.getPrefixes() != null) {
+                Utils.linebreak(String.format("Pontos de retomada: até %d "
+                        + "prefixos, a cada %d símbolos", checkpoints,
+                        recognizer.getPrefixes().getInterval()));
+            }
+            Utils.line();
+
+            // a propriedade 'xml2aa.batch' indica
+            // um arquivo com uma cadeia por linha,
+            // reconhecido em lote no lugar do
+            // terminal; 'xml2aa.output' define o
+            // arquivo de resultados, 'xml2aa.format'
+            // o formato destes ('csv' ou 'jsonl') e
+            // 'xml2aa.workers' o número de threads,
+            // que compartilham o reconhecedor, com
+            // uma instância da biblioteca por
+            // thread no modo completo
+            if (batch != null) {
+                File input = new File(batch);
+                if (!input.isFile()) {
+                    throw new Exception("O arquivo de entrada '" + batch
+                            + "' informado para o reconhecimento em lote não "
+                            + "existe. Por favor, verifique o caminho "
+                            + "informado e tente novamente. O programa será "
+                            + "encerrado.");
+                }
+                Format format = Format.of(System.getProperty("xml2aa.format"));
+                if (format == null) {
+                    format = Format.CSV;
+                }
+                int workers = Integer.getInteger("xml2aa.workers",
+                        Runtime.getRuntime().availableProcessors());
+                File output = new File(System.getProperty("xml2aa.output",
+                        batch + "." + format.getExtension()));
+                Recognizer shared = new Recognizer(compiled,
+                        selected == Mode.FULL ? new AutomatonPool(
+                                new AutomatonBuilder().template(xml,
+                                        validator.getIndex()), workers)
+                        : null, null, limits, checkpoints);
+                BatchRecognizer processor = new BatchRecognizer(() -> shared,
+                        selected, workers, format);
+                Utils.linebreak(String.format("Reconhecendo o arquivo '%s' "
+                        + "com %d threads, por favor, aguarde...", batch,
+                        workers));
+                BatchReport report = processor.run(input.toPath(),
+                        output.toPath());
+                Utils.linebreak(String.format("Resultados em '%s': %s",
+                        output.getPath(), report));
+                Utils.line();
+                return;
+            }
 
             // imprime a informação do terminal,
             // incluindo a instrução para encerrar
@@ -137,21 +290,30 @@ public class Main {
                 watch.reset();
                 watch.start();
                 
-                // realiza a consulta
-                // da cadeia ao autômato
-                boolean accept = automaton.
-                        recognize(Utils.toSymbols(argument));
+                // realiza a consulta da cadeia
+                // ao autômato no modo selecionado
+                Result outcome = recognizer.recognize(argument, selected);
                 
                 // o cronômetro é interrompido
                 // após o término da execução
                 watch.stop();
+                pending.set(engine != Engine.ADAPTIVE ? argument : null);
                 
                 // constrói os resultados a
                 // serem impressos no terminal
-                String pertinence = "cadeia ".
-                        concat(accept ? "aceita" : "rejeitada");
-                String type = automaton.getRecognitionPaths().
-                        size() == 1 ? "(determinístico)"
+                String pertinence = outcome.getVerdict().getDescription();
+                if (outcome.isInconclusive()) {
+                    pertinence = pertinence.concat(" (limite atingido: ").
+                            concat(outcome.getLimit().getDescription()).
+                            concat(")");
+                }
+                String type = engine == Engine.DETERMINISTIC
+                        ? "(determinístico, por tabela)"
+                        : selected == Mode.COUNT
+                        ? String.format("(mecanismo nativo, %d caminhos de "
+                                + "aceitação)", outcome.getPaths())
+                        : engine == Engine.NATIVE ? "(mecanismo nativo)"
+                        : outcome.getPaths() == 1 ? "(determinístico)"
                         : "(não-determinístico)";
                 
                 // retorna o resultado da
@@ -176,6 +338,17 @@ public class Main {
                             + "executar a ação ':view' novamente.";
                 }
                 
+                // a tabela determinística e o mecanismo
+                // nativo não registram as topologias,
+                // então a última cadeia é submetida
+                // à biblioteca
+                AdaptiveAutomaton automaton = instance.get();
+                String input = pending.getAndSet(null);
+                if (input != null) {
+                    automaton.recognize(Utils.toSymbols(input,
+                            compiled.getAlphabet()));
+                }
+                
                 // verifica se a submissão da cadeia resultou
                 // em um reconhecimento não-determinístico
                 if (automaton.getRecognitionPaths().size() != 1) {
@@ -336,6 +509,20 @@ public class Main {
             Utils.center("O programa encontrou uma exceção!");
             Utils.line("-");
             Utils.linebreak(Utils.maybe(exception));
+
+            // a especificação possui diversas
+            // violações, que são listadas
+            // com as respectivas localizações
+            if (exception instanceof AutomatonSpecException
+                    && ((AutomatonSpecException) exception).
+                            getViolations().size() > 1) {
+                for (Violation violation : ((AutomatonSpecException)
+                        exception).getViolations()) {
+                    Utils.line("-");
+                    Utils.linebreak(violation.getLocation());
+                    Utils.linebreak(violation.getMessage());
+                }
+            }
         }
 
     }
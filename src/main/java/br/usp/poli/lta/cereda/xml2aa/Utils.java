@@ -22,6 +22,8 @@ package br.usp.poli.lta.cereda.xml2aa;
 
 import br.usp.poli.lta.cereda.aa.examples.ExampleSymbol;
 import br.usp.poli.lta.cereda.aa.model.Symbol;
+import br.usp.poli.lta.cereda.xml2aa.automaton.Alphabet;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SymbolBuffer;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -142,25 +144,53 @@ public class Utils {
      */
     public static List<Symbol> toSymbols(String string) {
 
-        List<Symbol> symbols = new ArrayList<>();
-
-        // cada símbolo da cadeia é
-        // transformado em um elemento
-        // da lista de símbolos
-        for (char symbol : string.toCharArray()) {
-            symbols.add(new ExampleSymbol(String.valueOf(symbol)));
+        List<Symbol> symbols = new ArrayList<>(string.length());
+
+        // cada ponto de código da cadeia
+        // é transformado em um elemento
+        // da lista de símbolos, mantendo
+        // os pares substitutos juntos
+        for (int i = 0; i < string.length();) {
+            int code = string.codePointAt(i);
+            int next = i + Character.charCount(code);
+            symbols.add(new ExampleSymbol(string.substring(i, next)));
+            i = next;
         }
 
         return symbols;
     }
 
+    /**
+     * Retorna uma lista de símbolos a partir de uma cadeia de símbolos,
+     * dividida pelo alfabeto do autômato compilado com a maior
+     * correspondência, de modo que símbolos de mais de um ponto de código
+     * sejam preservados.
+     *
+     * @param string Cadeia de símbolos.
+     * @param alphabet Alfabeto do autômato compilado.
+     * @return Lista de símbolos.
+     */
+    public static List<Symbol> toSymbols(String string, Alphabet alphabet) {
+        if (!alphabet.isTokenized()) {
+            return toSymbols(string);
+        }
+        SymbolBuffer buffer = new SymbolBuffer(string.length());
+        alphabet.encode(string, buffer);
+        List<Symbol> symbols = new ArrayList<>(buffer.getLength());
+        for (int i = 0; i < buffer.getLength(); i++) {
+            symbols.add(new ExampleSymbol(alphabet.getText(
+                    buffer.getSymbols()[i])));
+        }
+        return symbols;
+    }
+
     /**
      * Tenta exibir a mensagem da exceção.
      *
      * @param exception Mensagem da exceção.
      * @return Mensagem da exceção.
      */
-    static String maybe(Exception exception) {
+    public static String maybe(Exception exception) {
         return exception.getMessage() != null
                 ? exception.getMessage()
                 : "Não foi possível obter detalhes sobre a exceção lançada. "
@@ -0,0 +1,581 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Call;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Operand;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.OperandType;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Operation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alfabeto do autômato compilado, construído uma única vez na compilação.
+ * Os símbolos da especificação mantêm os seus identificadores, seguidos dos
+ * símbolos que as ações adaptativas podem criar a partir de valores
+ * constantes. Cada símbolo formado por um único ponto de código, inclusive
+ * fora do plano multilíngue básico, é obtido sem alocações: diretamente por
+ * uma tabela no intervalo ASCII e por busca binária nos demais. Quando
+ * existem símbolos com mais de um ponto de código, a cadeia é dividida em
+ * símbolos por uma árvore de prefixos, com a maior correspondência a partir
+ * de cada posição. O alfabeto é fechado quando nenhuma ação adaptativa pode
+ * criar símbolos a partir de variáveis ou de estados gerados; neste caso,
+ * uma cadeia com um símbolo ausente pode ser rejeitada já na codificação.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Alphabet {
+
+    // símbolo ausente do alfabeto
+    public static final int ABSENT = -1;
+
+    // pontos de código no intervalo
+    // ASCII são obtidos diretamente
+    private static final int ASCII = 128;
+
+    // raiz da árvore de prefixos e
+    // ausência de nó
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    // nomes e identificadores
+    // dos símbolos
+    private final String[] names;
+    private final Map<String, Integer> ids;
+
+    // símbolos de um ponto de código:
+    // tabela ASCII e pontos de código
+    // ordenados, com os identificadores
+    private final int[] ascii;
+    private final int[] codes;
+    private final int[] values;
+
+    // árvore de prefixos dos nomes: arestas
+    // em endereçamento aberto pelo par (nó,
+    // ponto de código), símbolo de cada nó
+    // e existência de filhos
+    private final long[] keys;
+    private final int[] children;
+    private final int[] tokens;
+    private final boolean[] inner;
+
+    // maior quantidade de pontos de
+    // código de um símbolo
+    private final int depth;
+
+    // o alfabeto não pode ser
+    // estendido durante a execução
+    private final boolean closed;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     */
+    Alphabet(CompiledAutomaton automaton) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (int i = 0; i < automaton.getSymbolCount(); i++) {
+            symbols.add(automaton.getSymbolName(i));
+        }
+
+        // símbolos adicionados pelas ações a
+        // partir de constantes; variáveis e
+        // estados gerados podem produzir
+        // quaisquer nomes, e parâmetros recebem
+        // os argumentos das chamadas
+        boolean open = false;
+        int count = automaton.getActionCount();
+        boolean[][] labels = new boolean[count][];
+        for (int action = 0; action < count; action++) {
+            ActionPlan plan = automaton.getPlan(action);
+            labels[action] = new boolean[plan.getParameters().length];
+            for (Operation operation : plan.getOperations()) {
+                if (operation.getType() == ActionPlan.ActionType.ADD
+                        && !operation.isCall()) {
+                    Operand label = operation.getLabel();
+                    if (label.getType() == OperandType.LITERAL) {
+                        if (label.getValue() != null) {
+                            symbols.add(label.getValue());
+                        }
+                    } else if (label.getType() == OperandType.SYMBOL) {
+                        mark(labels[action], plan.getParameters(),
+                                label.getSlot());
+                    } else {
+                        open = true;
+                    }
+                }
+            }
+        }
+
+        // parâmetros repassados como argumentos
+        // a parâmetros utilizados como símbolos
+        // também o são, até não haver mudanças
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int action = 0; action < count; action++) {
+                ActionPlan plan = automaton.getPlan(action);
+                for (Operation operation : plan.getOperations()) {
+                    for (Call call : calls(operation)) {
+                        Operand[] arguments = call.getArguments();
+                        for (int callee : targets(automaton, call)) {
+                            for (int i = 0; i < arguments.length
+                                    && i < labels[callee].length; i++) {
+                                if (labels[callee][i] && arguments[i].
+                                        getType() == OperandType.VALUE) {
+                                    changed |= mark(labels[action],
+                                            plan.getParameters(),
+                                            arguments[i].getSlot());
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // apenas os argumentos ligados a
+        // parâmetros utilizados como símbolos
+        // são incluídos; estados e argumentos
+        // de consultas não formam símbolos
+        for (int action = 0; action < count; action++) {
+            for (Operation operation : automaton.getPlan(action).
+                    getOperations()) {
+                for (Call call : calls(operation)) {
+                    Operand[] arguments = call.getArguments();
+                    for (int callee : targets(automaton, call)) {
+                        for (int i = 0; i < arguments.length
+                                && i < labels[callee].length; i++) {
+                            if (!labels[callee][i]) {
+                                continue;
+                            }
+                            if (arguments[i].getType()
+                                    == OperandType.LITERAL) {
+                                symbols.add(arguments[i].getValue());
+                            } else if (arguments[i].getType()
+                                    != OperandType.VALUE) {
+                                open = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (int edge = 0; edge < automaton.getTransitionCount(); edge++) {
+            include(symbols, labels, automaton.getPrior(edge),
+                    automaton.getPriorArguments(edge));
+            include(symbols, labels, automaton.getPost(edge),
+                    automaton.getPostArguments(edge));
+        }
+        this.closed = !open;
+
+        // identificadores, mantendo os
+        // da especificação
+        names = symbols.toArray(new String[symbols.size()]);
+        ids = new HashMap<>(names.length * 2);
+        ascii = new int[ASCII];
+        Arrays.fill(ascii, ABSENT);
+        List<int[]> pairs = new ArrayList<>();
+        for (int id = 0; id < names.length; id++) {
+            String name = names[id];
+            ids.put(name, id);
+            if (!name.isEmpty() && name.codePointCount(0, name.length()) == 1) {
+                int code = name.codePointAt(0);
+                if (code < ASCII) {
+                    ascii[code] = id;
+                } else {
+                    pairs.add(new int[]{code, id});
+                }
+            }
+        }
+        pairs.sort((int[] a, int[] b) -> Integer.compare(a[0], b[0]));
+        codes = new int[pairs.size()];
+        values = new int[pairs.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = pairs.get(i)[0];
+            values[i] = pairs.get(i)[1];
+        }
+
+        // árvore de prefixos, com um
+        // nó por prefixo dos nomes
+        Map<Long, Integer> edges = new HashMap<>();
+        List<Integer> marks = new ArrayList<>();
+        marks.add(ABSENT);
+        int longest = 0;
+        for (int id = 0; id < names.length; id++) {
+            String name = names[id];
+            int node = ROOT;
+            int length = 0;
+            for (int i = 0; i < name.length();) {
+                int code = name.codePointAt(i);
+                i += Character.charCount(code);
+                length++;
+                Integer next = edges.get(key(node, code));
+                if (next == null) {
+                    next = marks.size();
+                    marks.add(ABSENT);
+                    edges.put(key(node, code), next);
+                }
+                node = next;
+            }
+            if (node != ROOT && marks.get(node) == ABSENT) {
+                marks.set(node, id);
+            }
+            longest = Math.max(longest, length);
+        }
+        depth = longest;
+        tokens = new int[marks.size()];
+        inner = new boolean[marks.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = marks.get(i);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2,
+                edges.size() * 2) - 1) << 1;
+        keys = new long[capacity];
+        children = new int[capacity];
+        Arrays.fill(keys, -1L);
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            long key = edge.getKey();
+            int slot = slot(key);
+            while (keys[slot] != -1L) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = key;
+            children[slot] = edge.getValue();
+            inner[(int) (key >>> 32)] = true;
+        }
+    }
+
+    /**
+     * Marca as posições dos parâmetros que ocupam a posição informada do
+     * quadro.
+     *
+     * @param labels Parâmetros utilizados como símbolos.
+     * @param parameters Posições dos parâmetros no quadro.
+     * @param slot Posição no quadro.
+     * @return Valor lógico indicando se alguma posição foi marcada.
+     */
+    private static boolean mark(boolean[] labels, int[] parameters,
+            int slot) {
+        boolean changed = false;
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == slot && !labels[i]) {
+                labels[i] = true;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Obtém as chamadas de funções adaptativas da ação elementar que
+     * possuem argumentos.
+     *
+     * @param operation Ação elementar.
+     * @return Chamadas com argumentos.
+     */
+    private static List<Call> calls(Operation operation) {
+        List<Call> result = new ArrayList<>(2);
+        for (Call call : new Call[]{operation.getPrior(),
+            operation.getPost()}) {
+            if (call != null && call.getArguments() != null) {
+                result.add(call);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtém as ações que podem ser chamadas; um nome obtido do quadro pode
+     * corresponder a qualquer ação.
+     *
+     * @param automaton Autômato compilado.
+     * @param call Chamada de função adaptativa.
+     * @return Identificadores das ações.
+     */
+    private static int[] targets(CompiledAutomaton automaton, Call call) {
+        Operand target = call.getTarget();
+        if (target.getType() == OperandType.LITERAL) {
+            int id = automaton.getAction(target.getValue());
+            return id < 0 ? new int[0] : new int[]{id};
+        }
+        int[] all = new int[automaton.getActionCount()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    /**
+     * Inclui os argumentos da chamada na transição da especificação que
+     * estão ligados a parâmetros utilizados como símbolos.
+     *
+     * @param symbols Símbolos do alfabeto.
+     * @param labels Parâmetros utilizados como símbolos.
+     * @param action Ação adaptativa chamada, ou
+     * {@link CompiledAutomaton#NONE}.
+     * @param arguments Argumentos da chamada, ou nulo.
+     */
+    private static void include(Set<String> symbols, boolean[][] labels,
+            int action, Object[] arguments) {
+        if (action == CompiledAutomaton.NONE || arguments == null) {
+            return;
+        }
+        for (int i = 0; i < arguments.length
+                && i < labels[action].length; i++) {
+            if (labels[action][i]) {
+                symbols.add(arguments[i].toString());
+            }
+        }
+    }
+
+    /**
+     * Obtém a chave da aresta da árvore de prefixos.
+     *
+     * @param node Nó de origem.
+     * @param code Ponto de código.
+     * @return Chave da aresta.
+     */
+    private static long key(int node, int code) {
+        return ((long) node << 32) | (code & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtém a posição inicial da chave na tabela de arestas.
+     *
+     * @param key Chave da aresta.
+     * @return Posição inicial.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 40) & (keys.length - 1);
+    }
+
+    /**
+     * Obtém o nó seguinte da árvore de prefixos.
+     *
+     * @param node Nó corrente.
+     * @param code Ponto de código.
+     * @return Nó seguinte, ou {@link #NONE} se não existir.
+     */
+    int child(int node, int code) {
+        long key = key(node, code);
+        int slot = slot(key);
+        while (keys[slot] != -1L) {
+            if (keys[slot] == key) {
+                return children[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return NONE;
+    }
+
+    /**
+     * Obtém o símbolo cujo nome termina no nó da árvore de prefixos.
+     *
+     * @param node Nó da árvore.
+     * @return Identificador do símbolo, ou {@link #ABSENT}.
+     */
+    int token(int node) {
+        return tokens[node];
+    }
+
+    /**
+     * Verifica se o nó da árvore de prefixos possui filhos.
+     *
+     * @param node Nó da árvore.
+     * @return Valor lógico indicando se existem nomes mais longos.
+     */
+    boolean isInner(int node) {
+        return inner[node];
+    }
+
+    /**
+     * Obtém a quantidade de símbolos.
+     *
+     * @return Quantidade de símbolos.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Obtém o nome do símbolo.
+     *
+     * @param symbol Identificador do símbolo.
+     * @return Nome do símbolo.
+     */
+    public String getName(int symbol) {
+        return names[symbol];
+    }
+
+    /**
+     * Obtém o identificador do símbolo a partir do nome.
+     *
+     * @param name Nome do símbolo.
+     * @return Identificador do símbolo, ou {@link #ABSENT}.
+     */
+    public int getSymbol(String name) {
+        Integer id = ids.get(name);
+        return id == null ? ABSENT : id;
+    }
+
+    /**
+     * Verifica se o alfabeto é fechado, isto é, se nenhum símbolo pode ser
+     * criado durante a execução.
+     *
+     * @return Valor lógico indicando se o alfabeto é fechado.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Verifica se algum símbolo possui mais de um ponto de código, caso em
+     * que a cadeia é dividida pela árvore de prefixos.
+     *
+     * @return Valor lógico indicando a divisão pela árvore de prefixos.
+     */
+    public boolean isTokenized() {
+        return depth > 1;
+    }
+
+    /**
+     * Obtém a maior quantidade de pontos de código de um símbolo.
+     *
+     * @return Quantidade de pontos de código.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Obtém o identificador do símbolo formado pelo ponto de código.
+     *
+     * @param code Ponto de código.
+     * @return Identificador do símbolo, ou {@link #ABSENT}.
+     */
+    public int get(int code) {
+        if (code < ASCII) {
+            return code < 0 ? ABSENT : ascii[code];
+        }
+        int i = Arrays.binarySearch(codes, code);
+        return i < 0 ? ABSENT : values[i];
+    }
+
+    /**
+     * Codifica a cadeia no buffer. Cada ponto de código corresponde a um
+     * símbolo ou, com símbolos de mais de um ponto de código, a cadeia é
+     * dividida em uma única passagem, com a maior correspondência a partir de
+     * cada posição. Os pontos de código que não iniciam nenhum símbolo são
+     * codificados como valores negativos.
+     *
+     * @param input Cadeia de entrada.
+     * @param buffer Buffer reutilizável.
+     * @return Valor lógico indicando se a cadeia pode ser reconhecida, ou
+     * seja, falso se um símbolo ausente foi encontrado em um alfabeto
+     * fechado.
+     */
+    public boolean encode(CharSequence input, SymbolBuffer buffer) {
+        buffer.clear();
+        int length = input.length();
+        buffer.reserve(length);
+        if (depth <= 1) {
+            for (int i = 0; i < length;) {
+                int code = Character.codePointAt(input, i);
+                i += Character.charCount(code);
+                int symbol = get(code);
+                buffer.add(symbol == ABSENT ? absent(code) : symbol);
+            }
+        } else {
+            for (int i = 0; i < length;) {
+
+                // maior correspondência
+                // a partir da posição
+                int node = ROOT;
+                int symbol = ABSENT;
+                int end = i;
+                for (int j = i; j < length;) {
+                    int code = Character.codePointAt(input, j);
+                    node = child(node, code);
+                    if (node == NONE) {
+                        break;
+                    }
+                    j += Character.charCount(code);
+                    if (tokens[node] != ABSENT) {
+                        symbol = tokens[node];
+                        end = j;
+                    }
+                }
+                if (symbol == ABSENT) {
+                    int code = Character.codePointAt(input, i);
+                    buffer.add(absent(code));
+                    i += Character.charCount(code);
+                } else {
+                    buffer.add(symbol);
+                    i = end;
+                }
+            }
+        }
+        return !closed || !buffer.hasAbsent();
+    }
+
+    /**
+     * Obtém o nome do valor codificado, ou seja, o nome do símbolo ou o
+     * ponto de código ausente do alfabeto.
+     *
+     * @param value Valor codificado.
+     * @return Nome correspondente.
+     */
+    public String getText(int value) {
+        return value >= 0 ? names[value]
+                : new String(Character.toChars(codePoint(value)));
+    }
+
+    /**
+     * Obtém o valor negativo que representa o ponto de código ausente.
+     *
+     * @param code Ponto de código.
+     * @return Valor negativo.
+     */
+    public static int absent(int code) {
+        return -1 - code;
+    }
+
+    /**
+     * Obtém o ponto de código a partir do valor negativo que o representa.
+     *
+     * @param value Valor negativo.
+     * @return Ponto de código.
+     */
+    public static int codePoint(int value) {
+        return -1 - value;
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import java.util.BitSet;
+
+/**
+ * Análise estrutural do autômato compilado, realizada uma única vez na
+ * compilação. Para cada submáquina, são considerados os estados alcançáveis a
+ * partir do seu estado inicial, verificando se as transições correspondentes
+ * possuem chamadas de funções adaptativas, transições em vazio, chamadas de
+ * submáquinas ou não-determinismo (mais de uma transição para o mesmo par de
+ * estado e símbolo). Submáquinas sem nenhuma dessas características podem
+ * ser executadas diretamente como autômatos finitos determinísticos.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AutomatonAnalysis {
+
+    // características de
+    // cada submáquina
+    private final BitSet[] reachable;
+    private final boolean[] adaptive;
+    private final boolean[] empty;
+    private final boolean[] calls;
+    private final boolean[] nondeterministic;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     */
+    AutomatonAnalysis(CompiledAutomaton automaton) {
+        int size = automaton.getSubmachineCount();
+        reachable = new BitSet[size];
+        adaptive = new boolean[size];
+        empty = new boolean[size];
+        calls = new boolean[size];
+        nondeterministic = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            analyze(automaton, i);
+        }
+    }
+
+    /**
+     * Analisa a submáquina, percorrendo os estados alcançáveis a partir do
+     * seu estado inicial.
+     *
+     * @param automaton Autômato compilado.
+     * @param submachine Identificador da submáquina.
+     */
+    private void analyze(CompiledAutomaton automaton, int submachine) {
+        BitSet visited = new BitSet(automaton.getStateCount());
+        reachable[submachine] = visited;
+        int start = automaton.getInitial(submachine);
+        if (start < 0) {
+            return;
+        }
+
+        // busca em profundidade
+        // pelos estados alcançáveis
+        int[] stack = new int[automaton.getStateCount()];
+        int top = 0;
+        stack[top++] = start;
+        visited.set(start);
+        while (top > 0) {
+            int state = stack[--top];
+
+            // as transições de cada linha
+            // estão ordenadas pela coluna
+            int end = automaton.end(state);
+            for (int edge = automaton.begin(state); edge < end; edge++) {
+                int label = automaton.getLabel(edge);
+
+                // mais de uma transição
+                // com o mesmo símbolo
+                if (label >= 0 && edge > automaton.begin(state)
+                        && automaton.getLabel(edge - 1) == label) {
+                    nondeterministic[submachine] = true;
+                }
+                if (label == CompiledAutomaton.EPSILON) {
+                    empty[submachine] = true;
+                }
+                if (CompiledAutomaton.isCall(label)) {
+                    calls[submachine] = true;
+                }
+                if (automaton.isAdaptive(edge)) {
+                    adaptive[submachine] = true;
+                }
+                int next = automaton.getTarget(edge);
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    stack[top++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtém os estados alcançáveis a partir do estado inicial da submáquina.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Conjunto de estados alcançáveis.
+     */
+    public BitSet getReachable(int submachine) {
+        return (BitSet) reachable[submachine].clone();
+    }
+
+    /**
+     * Verifica se a submáquina alcança transições com chamadas de funções
+     * adaptativas.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Valor lógico indicando se a submáquina é adaptativa.
+     */
+    public boolean isAdaptive(int submachine) {
+        return adaptive[submachine];
+    }
+
+    /**
+     * Verifica se a submáquina alcança transições em vazio.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Valor lógico indicando a existência de transições em vazio.
+     */
+    public boolean hasEmptyTransitions(int submachine) {
+        return empty[submachine];
+    }
+
+    /**
+     * Verifica se a submáquina alcança chamadas de submáquinas.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Valor lógico indicando a existência de chamadas.
+     */
+    public boolean hasCalls(int submachine) {
+        return calls[submachine];
+    }
+
+    /**
+     * Verifica se a submáquina alcança estados com mais de uma transição
+     * para o mesmo símbolo.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Valor lógico indicando o não-determinismo.
+     */
+    public boolean isNondeterministic(int submachine) {
+        return nondeterministic[submachine];
+    }
+
+    /**
+     * Verifica se a submáquina pode ser executada como um autômato finito
+     * determinístico.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Valor lógico indicando se a submáquina é determinística.
+     */
+    public boolean isDeterministic(int submachine) {
+        return !adaptive[submachine] && !empty[submachine]
+                && !calls[submachine] && !nondeterministic[submachine];
+    }
+
+    /**
+     * Descreve o motivo pelo qual a submáquina não é determinística.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Descrição textual, ou nulo se a submáquina é determinística.
+     */
+    public String describe(int submachine) {
+        if (adaptive[submachine]) {
+            return "possui chamadas de funções adaptativas";
+        }
+        if (calls[submachine]) {
+            return "possui chamadas de submáquinas";
+        }
+        if (empty[submachine]) {
+            return "possui transições em vazio";
+        }
+        if (nondeterministic[submachine]) {
+            return "possui transições não-determinísticas";
+        }
+        return null;
+    }
+
+}
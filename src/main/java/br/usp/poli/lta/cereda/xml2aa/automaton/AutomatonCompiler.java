@@ -0,0 +1,320 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.AutomatonSpecException;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementa o compilador da especificação XML do autômato adaptativo para a
+ * sua representação inteira, com as transições em tabelas no formato de
+ * linhas esparsas comprimidas, com uma linha por estado. A especificação deve
+ * ter sido validada previamente.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AutomatonCompiler {
+
+    /**
+     * Compila a especificação XML do autômato adaptativo.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @return Representação compilada do autômato.
+     * @throws AutomatonSpecException A especificação é inválida.
+     */
+    public CompiledAutomaton compile(XMLAdaptiveAutomaton xml)
+            throws AutomatonSpecException {
+        return compile(xml, new AutomatonValidator(xml).validate());
+    }
+
+    /**
+     * Compila a especificação XML do autômato adaptativo a partir do índice
+     * obtido na validação desta.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @param index Índice da especificação.
+     * @return Representação compilada do autômato.
+     */
+    public CompiledAutomaton compile(XMLAdaptiveAutomaton xml,
+            SpecIndex index) {
+
+        Tables tables = new Tables();
+        List<XMLTransition> transitions = xml.getTransitions().
+                getTransitions();
+        List<XMLSubmachine> submachines = xml.getSubmachines().
+                getSubmachines();
+        List<XMLAdaptiveAction> actions = xml.getActions() != null
+                ? xml.getActions()
+                : Collections.<XMLAdaptiveAction>emptyList();
+
+        // estados, na ordem em que
+        // aparecem nas transições e
+        // nas submáquinas
+        Map<String, Integer> states = new HashMap<>();
+        for (XMLTransition t : transitions) {
+            intern(states, t.getFrom());
+            intern(states, t.getTo());
+        }
+        for (XMLSubmachine submachine : submachines) {
+            for (XMLState state : submachine.getStates()) {
+                intern(states, state.getName());
+            }
+        }
+        tables.stateIds = states;
+        tables.states = names(states);
+
+        // símbolos, na ordem
+        // do índice
+        Map<String, Integer> symbols = new HashMap<>();
+        for (String symbol : index.getSymbols()) {
+            intern(symbols, symbol);
+        }
+        tables.symbolIds = symbols;
+        tables.symbols = names(symbols);
+
+        // submáquinas, com os estados,
+        // o estado inicial e os estados
+        // de aceitação de cada uma
+        Map<String, Integer> names = new HashMap<>();
+        tables.initial = new int[submachines.size()];
+        tables.members = new BitSet[submachines.size()];
+        tables.accepting = new BitSet[submachines.size()];
+        tables.main = -1;
+        for (XMLSubmachine submachine : submachines) {
+            int id = intern(names, submachine.getName());
+            tables.members[id] = new BitSet(tables.states.length);
+            tables.accepting[id] = new BitSet(tables.states.length);
+            tables.initial[id] = -1;
+            for (XMLState state : submachine.getStates()) {
+                int s = states.get(state.getName());
+                tables.members[id].set(s);
+                if (state.getAccepting() != null) {
+                    tables.accepting[id].set(s);
+                }
+                if (state.getStart() != null && tables.initial[id] == -1) {
+                    tables.initial[id] = s;
+                }
+            }
+            if (submachine.getMain() != null) {
+                tables.main = id;
+            }
+        }
+        tables.submachineIds = names;
+        tables.submachines = names(names);
+
+        // ações adaptativas, compiladas
+        // em planos de execução
+        Map<String, Integer> plans = new HashMap<>();
+        tables.plans = new ActionPlan[actions.size()];
+        for (XMLAdaptiveAction action : actions) {
+            tables.plans[intern(plans, action.getName())]
+                    = ActionPlan.compile(action);
+        }
+        tables.plans = Arrays.copyOf(tables.plans, plans.size());
+        tables.actionIds = plans;
+        tables.actions = names(plans);
+
+        // rótulo e coluna de cada transição:
+        // uma coluna por símbolo, seguida das
+        // colunas de transições em vazio e de
+        // chamadas de submáquinas
+        int size = transitions.size();
+        int count = tables.states.length;
+        int[] labels = new int[size];
+        int[] from = new int[size];
+        tables.rows = new int[count + 1];
+        for (int i = 0; i < size; i++) {
+            XMLTransition t = transitions.get(i);
+            if (t.getCall() != null) {
+                labels[i] = CompiledAutomaton.call(names.get(t.getCall()));
+            } else if (t.getSymbol() != null) {
+                labels[i] = symbols.get(t.getSymbol());
+            } else {
+                labels[i] = CompiledAutomaton.EPSILON;
+            }
+            from[i] = states.get(t.getFrom());
+            tables.rows[from[i] + 1]++;
+        }
+
+        // soma de prefixos, obtendo o
+        // início da linha de cada estado
+        for (int i = 1; i <= count; i++) {
+            tables.rows[i] += tables.rows[i - 1];
+        }
+
+        // distribui as transições nas linhas
+        // e as ordena pela coluna, mantendo a
+        // ordem da especificação dentro de
+        // cada coluna
+        int[] next = Arrays.copyOf(tables.rows, count);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[next[from[i]]++] = ((long) column(labels[i],
+                    tables.symbols.length) << 32) | i;
+        }
+        for (int state = 0; state < count; state++) {
+            if (tables.rows[state + 1] - tables.rows[state] > 1) {
+                Arrays.sort(keys, tables.rows[state],
+                        tables.rows[state + 1]);
+            }
+        }
+        tables.source = new int[size];
+        tables.target = new int[size];
+        tables.label = new int[size];
+        tables.order = new int[size];
+        tables.prior = new int[size];
+        tables.post = new int[size];
+        tables.priorArguments = new Object[size][];
+        tables.postArguments = new Object[size][];
+        for (int edge = 0; edge < size; edge++) {
+            int i = (int) keys[edge];
+            XMLTransition t = transitions.get(i);
+            tables.source[edge] = from[i];
+            tables.target[edge] = states.get(t.getTo());
+            tables.label[edge] = labels[i];
+            tables.order[edge] = i;
+            tables.prior[edge] = action(plans, t.getPreAdaptiveFunction());
+            tables.post[edge] = action(plans, t.getPostAdaptiveFunction());
+            tables.priorArguments[edge] = arguments(
+                    t.getPreAdaptiveFunction());
+            tables.postArguments[edge] = arguments(
+                    t.getPostAdaptiveFunction());
+        }
+
+        tables.maximum = index.getMaximum();
+        return new CompiledAutomaton(tables);
+    }
+
+    /**
+     * Obtém a coluna correspondente ao rótulo, com os símbolos seguidos das
+     * transições em vazio e das chamadas de submáquinas.
+     *
+     * @param label Rótulo da transição.
+     * @param symbols Quantidade de símbolos.
+     * @return Coluna do rótulo.
+     */
+    private static int column(int label, int symbols) {
+        return label >= 0 ? label : label == CompiledAutomaton.EPSILON
+                ? symbols : symbols + 1;
+    }
+
+    /**
+     * Obtém o identificador do nome, atribuindo o próximo identificador
+     * disponível caso o nome ainda não exista.
+     *
+     * @param ids Mapa de identificadores.
+     * @param name Nome a ser identificado.
+     * @return Identificador do nome.
+     */
+    private static int intern(Map<String, Integer> ids, String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size();
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Obtém o vetor de nomes indexado pelos identificadores.
+     *
+     * @param ids Mapa de identificadores.
+     * @return Vetor de nomes.
+     */
+    private static String[] names(Map<String, Integer> ids) {
+        String[] result = new String[ids.size()];
+        ids.forEach((String name, Integer id) -> {
+            result[id] = name;
+        });
+        return result;
+    }
+
+    /**
+     * Obtém o identificador da ação adaptativa chamada.
+     *
+     * @param ids Identificadores das ações adaptativas.
+     * @param call Chamada de função adaptativa.
+     * @return Identificador da ação, ou {@link CompiledAutomaton#NONE}.
+     */
+    private static int action(Map<String, Integer> ids, XMLActionCall call) {
+        return call == null ? CompiledAutomaton.NONE : ids.get(call.getName());
+    }
+
+    /**
+     * Obtém os argumentos da chamada de função adaptativa.
+     *
+     * @param call Chamada de função adaptativa.
+     * @return Argumentos da chamada, ou nulo.
+     */
+    private static Object[] arguments(XMLActionCall call) {
+        return call == null || call.getParameters() == null
+                ? null : call.getParameters().toArray();
+    }
+
+    /**
+     * Estruturas construídas durante a compilação, repassadas à
+     * representação compilada.
+     */
+    static class Tables {
+
+        // estruturas descritas na
+        // representação compilada
+        String[] states;
+        String[] symbols;
+        String[] submachines;
+        Map<String, Integer> stateIds;
+        Map<String, Integer> symbolIds;
+        Map<String, Integer> submachineIds;
+        int[] rows;
+        int[] source;
+        int[] target;
+        int[] label;
+        int[] order;
+        int[] prior;
+        int[] post;
+        Object[][] priorArguments;
+        Object[][] postArguments;
+        int[] initial;
+        BitSet[] members;
+        BitSet[] accepting;
+        int main;
+        String[] actions;
+        ActionPlan[] plans;
+        Map<String, Integer> actionIds;
+        int maximum;
+
+    }
+
+}
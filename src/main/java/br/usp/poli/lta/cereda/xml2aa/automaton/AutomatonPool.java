@@ -0,0 +1,304 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto de instâncias do autômato adaptativo na biblioteca AA4J, que não
+ * podem ser compartilhadas entre reconhecimentos simultâneos. Cada instância
+ * é obtida para um único reconhecimento e devolvida ao término deste; as
+ * instâncias são criadas sob demanda até o número máximo informado, e as
+ * obtenções seguintes aguardam a devolução de alguma instância. Como a
+ * biblioteca prepara a instância a partir do modelo no início de cada
+ * reconhecimento, a instância devolvida volta ao mapeamento inicial no
+ * próximo uso, sem a necessidade de uma nova construção.
+ *
+ * São mantidas as métricas de disputa: o número de obtenções, o número de
+ * obtenções que aguardaram uma devolução, o tempo total e o maior tempo de
+ * espera e o número de esperas encerradas pelo tempo máximo.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AutomatonPool {
+
+    // criação das instâncias
+    // e número máximo destas
+    private final Supplier<AdaptiveAutomaton> factory;
+    private final int maximum;
+
+    // instâncias ociosas e
+    // permissões de obtenção
+    private final Queue<AdaptiveAutomaton> idle;
+    private final Semaphore permits;
+
+    // instâncias criadas, em uso
+    // e maior número em uso
+    private final AtomicInteger created;
+    private final AtomicInteger busy;
+    private final AtomicInteger peak;
+
+    // métricas de disputa
+    private final AtomicLong borrowed;
+    private final AtomicLong contended;
+    private final AtomicLong waited;
+    private final AtomicLong longest;
+    private final AtomicLong expired;
+
+    /**
+     * Construtor.
+     *
+     * @param template Modelo do autômato adaptativo.
+     * @param maximum Número máximo de instâncias.
+     */
+    public AutomatonPool(AutomatonTemplate template, int maximum) {
+        this(template::instantiate, maximum);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param factory Criação das instâncias.
+     * @param maximum Número máximo de instâncias.
+     */
+    public AutomatonPool(Supplier<AdaptiveAutomaton> factory, int maximum) {
+        if (maximum <= 0) {
+            throw new IllegalArgumentException(String.format("O conjunto de "
+                    + "instâncias do autômato adaptativo requer um número "
+                    + "máximo positivo de instâncias, mas foi informado %d. "
+                    + "Por favor, verifique o valor informado. O programa "
+                    + "será encerrado.", maximum));
+        }
+        this.factory = factory;
+        this.maximum = maximum;
+        this.idle = new ConcurrentLinkedQueue<>();
+        this.permits = new Semaphore(maximum, true);
+        this.created = new AtomicInteger();
+        this.busy = new AtomicInteger();
+        this.peak = new AtomicInteger();
+        this.borrowed = new AtomicLong();
+        this.contended = new AtomicLong();
+        this.waited = new AtomicLong();
+        this.longest = new AtomicLong();
+        this.expired = new AtomicLong();
+    }
+
+    /**
+     * Obtém uma instância, aguardando a devolução de alguma instância
+     * quando todas estão em uso.
+     *
+     * @return Instância do autômato adaptativo.
+     * @throws InterruptedException A espera foi interrompida.
+     */
+    public AdaptiveAutomaton borrow() throws InterruptedException {
+        if (!permits.tryAcquire()) {
+            long start = System.nanoTime();
+            permits.acquire();
+            contend(System.nanoTime() - start);
+        }
+        return take();
+    }
+
+    /**
+     * Obtém uma instância, aguardando no máximo o tempo informado pela
+     * devolução de alguma instância quando todas estão em uso.
+     *
+     * @param timeout Tempo máximo de espera.
+     * @param unit Unidade do tempo máximo.
+     * @return Instância do autômato adaptativo, ou nulo se o tempo máximo
+     * foi atingido.
+     * @throws InterruptedException A espera foi interrompida.
+     */
+    public AdaptiveAutomaton borrow(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!permits.tryAcquire()) {
+            long start = System.nanoTime();
+            boolean acquired = permits.tryAcquire(timeout, unit);
+            contend(System.nanoTime() - start);
+            if (!acquired) {
+                expired.incrementAndGet();
+                return null;
+            }
+        }
+        return take();
+    }
+
+    /**
+     * Registra uma obtenção que aguardou a devolução de alguma instância.
+     *
+     * @param elapsed Tempo de espera, em nanossegundos.
+     */
+    private void contend(long elapsed) {
+        contended.incrementAndGet();
+        waited.addAndGet(elapsed);
+        long current = longest.get();
+        while (elapsed > current && !longest.compareAndSet(current,
+                elapsed)) {
+            current = longest.get();
+        }
+    }
+
+    /**
+     * Obtém uma instância ociosa, criando uma nova se não houver, após a
+     * obtenção da permissão correspondente.
+     *
+     * @return Instância do autômato adaptativo.
+     */
+    private AdaptiveAutomaton take() {
+        borrowed.incrementAndGet();
+        int current = busy.incrementAndGet();
+        int highest = peak.get();
+        while (current > highest && !peak.compareAndSet(highest, current)) {
+            highest = peak.get();
+        }
+        AdaptiveAutomaton automaton = idle.poll();
+        if (automaton == null) {
+            try {
+                automaton = factory.get();
+                created.incrementAndGet();
+            } catch (RuntimeException | Error exception) {
+                busy.decrementAndGet();
+                permits.release();
+                throw exception;
+            }
+        }
+        return automaton;
+    }
+
+    /**
+     * Devolve a instância obtida anteriormente.
+     *
+     * @param automaton Instância do autômato adaptativo.
+     */
+    public void release(AdaptiveAutomaton automaton) {
+        idle.offer(automaton);
+        busy.decrementAndGet();
+        permits.release();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Obtém o número de instâncias criadas.
+     *
+     * @return Número de instâncias.
+     */
+    public int getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Obtém o número de instâncias em uso.
+     *
+     * @return Número de instâncias.
+     */
+    public int getBusy() {
+        return busy.get();
+    }
+
+    /**
+     * Obtém o maior número de instâncias em uso simultâneo.
+     *
+     * @return Número de instâncias.
+     */
+    public int getPeak() {
+        return peak.get();
+    }
+
+    /**
+     * Obtém o número de obtenções.
+     *
+     * @return Número de obtenções.
+     */
+    public long getBorrowed() {
+        return borrowed.get();
+    }
+
+    /**
+     * Obtém o número de obtenções que aguardaram uma devolução.
+     *
+     * @return Número de obtenções.
+     */
+    public long getContended() {
+        return contended.get();
+    }
+
+    /**
+     * Obtém o tempo total de espera pelas devoluções.
+     *
+     * @return Tempo total, em nanossegundos.
+     */
+    public long getWaited() {
+        return waited.get();
+    }
+
+    /**
+     * Obtém o maior tempo de espera por uma devolução.
+     *
+     * @return Maior tempo, em nanossegundos.
+     */
+    public long getLongest() {
+        return longest.get();
+    }
+
+    /**
+     * Obtém o número de esperas encerradas pelo tempo máximo.
+     *
+     * @return Número de esperas.
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    /**
+     * Obtém a representação textual do conjunto e das métricas de disputa.
+     *
+     * @return Representação textual.
+     */
+    @Override
+    public String toString() {
+        long contentions = contended.get();
+        return String.format("%d de %d instâncias criadas (%d em uso, no "
+                + "máximo %d), %d obtenções, %d com espera (%.1f µs em "
+                + "média, no máximo %.1f µs), %d esperas esgotadas",
+                created.get(), maximum, busy.get(), peak.get(),
+                borrowed.get(), contentions, contentions == 0 ? 0
+                        : waited.get() / 1e3 / contentions,
+                longest.get() / 1e3, expired.get());
+    }
+
+}
@@ -0,0 +1,327 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.aa.examples.ExampleState;
+import br.usp.poli.lta.cereda.aa.examples.ExampleSymbol;
+import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
+import br.usp.poli.lta.cereda.aa.model.State;
+import br.usp.poli.lta.cereda.aa.model.Submachine;
+import br.usp.poli.lta.cereda.aa.model.Symbol;
+import br.usp.poli.lta.cereda.aa.model.Transition;
+import br.usp.poli.lta.cereda.aa.model.sets.ActionsSet;
+import br.usp.poli.lta.cereda.aa.model.sets.Mapping;
+import br.usp.poli.lta.cereda.aa.model.sets.SubmachinesSet;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.ListAction;
+import br.usp.poli.lta.cereda.xml2aa.model.StateGenerator;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modelo imutável do autômato adaptativo na biblioteca AA4J, construído uma
+ * única vez a partir da especificação XML. Os estados, os símbolos, os
+ * argumentos das chamadas de funções adaptativas e os planos de execução
+ * das ações são obtidos na construção do modelo. Cada instância cria as
+ * transições, as submáquinas e as ações uma única vez, e a preparação
+ * realizada pela biblioteca no início de cada reconhecimento reutiliza o
+ * mapeamento inicial enquanto as ações adaptativas não o alterarem.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AutomatonTemplate {
+
+    // transições: estados de origem e
+    // destino, símbolo ou chamada de
+    // submáquina, e chamadas de funções
+    // adaptativas anteriores e posteriores
+    private final State[] sources;
+    private final State[] targets;
+    private final Symbol[] symbols;
+    private final String[] calls;
+    private final String[] priorCalls;
+    private final Object[][] priorArguments;
+    private final String[] postCalls;
+    private final Object[][] postArguments;
+
+    // submáquinas: nome, estados, estado
+    // inicial e estados de aceitação
+    private final String[] names;
+    private final List<Set<State>> members;
+    private final State[] initials;
+    private final List<Set<State>> accepting;
+    private final String main;
+
+    // ações adaptativas compiladas e
+    // primeiro estado novo de cada
+    // execução do autômato
+    private final ActionPlan[] plans;
+    private final int start;
+
+    /**
+     * Construtor.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @param index Índice da especificação.
+     */
+    public AutomatonTemplate(XMLAdaptiveAutomaton xml, SpecIndex index) {
+
+        // estados e símbolos são
+        // compartilhados por todas as
+        // transições que os utilizam
+        Map<String, State> states = new HashMap<>();
+        Map<String, Symbol> alphabet = new HashMap<>();
+
+        List<XMLTransition> transitions = xml.getTransitions().
+                getTransitions();
+        int size = transitions.size();
+        sources = new State[size];
+        targets = new State[size];
+        symbols = new Symbol[size];
+        calls = new String[size];
+        priorCalls = new String[size];
+        priorArguments = new Object[size][];
+        postCalls = new String[size];
+        postArguments = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            XMLTransition t = transitions.get(i);
+            sources[i] = state(states, t.getFrom());
+            targets[i] = state(states, t.getTo());
+            if (t.getCall() != null) {
+                calls[i] = t.getCall();
+            } else if (t.getSymbol() != null) {
+                symbols[i] = alphabet.computeIfAbsent(t.getSymbol(),
+                        ExampleSymbol::new);
+            }
+            if (t.getPreAdaptiveFunction() != null) {
+                priorCalls[i] = t.getPreAdaptiveFunction().getName();
+                priorArguments[i] = arguments(t.getPreAdaptiveFunction());
+            }
+            if (t.getPostAdaptiveFunction() != null) {
+                postCalls[i] = t.getPostAdaptiveFunction().getName();
+                postArguments[i] = arguments(t.getPostAdaptiveFunction());
+            }
+        }
+
+        List<XMLSubmachine> submachines = xml.getSubmachines().
+                getSubmachines();
+        int count = submachines.size();
+        names = new String[count];
+        members = new ArrayList<>(count);
+        initials = new State[count];
+        accepting = new ArrayList<>(count);
+        String principal = null;
+        for (int i = 0; i < count; i++) {
+            XMLSubmachine s = submachines.get(i);
+            Set<State> all = new HashSet<>();
+            Set<State> finals = new HashSet<>();
+            for (XMLState x : s.getStates()) {
+                State state = state(states, x.getName());
+                all.add(state);
+                if (x.getAccepting() != null) {
+                    finals.add(state);
+                }
+                if (x.getStart() != null && initials[i] == null) {
+                    initials[i] = state;
+                }
+            }
+            names[i] = s.getName();
+            members.add(all);
+            accepting.add(finals);
+            if (s.getMain() != null) {
+                principal = s.getName();
+            }
+        }
+        main = principal;
+
+        List<XMLAdaptiveAction> actions = xml.getActions();
+        plans = new ActionPlan[actions == null ? 0 : actions.size()];
+        for (int i = 0; i < plans.length; i++) {
+            plans[i] = ActionPlan.compile(actions.get(i));
+        }
+        start = index.getMaximum() + 1;
+    }
+
+    /**
+     * Obtém o estado correspondente ao nome, compartilhado pelo modelo.
+     *
+     * @param states Estados já obtidos.
+     * @param name Nome do estado.
+     * @return Estado correspondente.
+     */
+    private static State state(Map<String, State> states, String name) {
+        return states.computeIfAbsent(name, ExampleState::new);
+    }
+
+    /**
+     * Obtém os argumentos da chamada de função adaptativa.
+     *
+     * @param call Chamada de função adaptativa.
+     * @return Argumentos da chamada, ou nulo.
+     */
+    private static Object[] arguments(XMLActionCall call) {
+        return call.getParameters() == null ? null
+                : call.getParameters().toArray();
+    }
+
+    /**
+     * Cria uma nova instância do autômato adaptativo a partir do modelo.
+     *
+     * @return Autômato adaptativo.
+     */
+    public AdaptiveAutomaton instantiate() {
+        return new Instance();
+    }
+
+    /**
+     * Instância do autômato adaptativo construída a partir do modelo. As
+     * transições, as ações e as submáquinas são criadas uma única vez, na
+     * construção da instância, e o mapeamento inicial é reutilizado pelas
+     * execuções seguintes enquanto nenhuma ação adaptativa incluir ou
+     * remover transições; somente nesse caso o mapeamento é construído
+     * novamente na preparação seguinte. Execuções sem alterações do
+     * mapeamento têm, portanto, preparação em tempo constante.
+     */
+    private class Instance extends AdaptiveAutomaton {
+
+        // transições do modelo, criadas
+        // uma única vez por instância
+        private final Transition[] edges;
+
+        // gerador de estados novos, ações
+        // e submáquinas da instância
+        private final StateGenerator generator;
+        private final ActionsSet operations;
+        private final SubmachinesSet machines;
+
+        // mapeamento inicial, íntegro
+        // enquanto nenhuma ação alterá-lo
+        private Mapping initial;
+
+        // indica se alguma ação adaptativa
+        // alterou o mapeamento inicial
+        private volatile boolean modified;
+
+        /**
+         * Construtor.
+         */
+        Instance() {
+            edges = new Transition[sources.length];
+            for (int i = 0; i < edges.length; i++) {
+                Transition t = new Transition();
+                t.setSourceState(sources[i]);
+                t.setTargetState(targets[i]);
+                if (calls[i] != null) {
+                    t.setSubmachineCall(calls[i]);
+                } else if (symbols[i] != null) {
+                    t.setSymbol(symbols[i]);
+                }
+                if (priorCalls[i] != null) {
+                    t.setPriorActionCall(priorCalls[i]);
+                    if (priorArguments[i] != null) {
+                        t.setPriorActionArguments(priorArguments[i].clone());
+                    }
+                }
+                if (postCalls[i] != null) {
+                    t.setPostActionCall(postCalls[i]);
+                    if (postArguments[i] != null) {
+                        t.setPostActionArguments(postArguments[i].clone());
+                    }
+                }
+                edges[i] = t;
+            }
+
+            // ações com inclusões ou remoções
+            // sinalizam a alteração do mapeamento
+            // antes de serem executadas
+            generator = new StateGenerator(start);
+            operations = new ActionsSet();
+            for (ActionPlan plan : plans) {
+                operations.add(new ListAction(plan.getName(), plan,
+                        generator, () -> modified = true));
+            }
+
+            // as submáquinas recebem cópias
+            // dos conjuntos de estados do
+            // modelo, que não são alterados
+            machines = new SubmachinesSet();
+            for (int i = 0; i < names.length; i++) {
+                machines.add(new Submachine(names[i],
+                        new HashSet<>(members.get(i)), initials[i],
+                        new HashSet<>(accepting.get(i))));
+            }
+        }
+
+        @Override
+        public void setup() {
+
+            // o mapeamento é construído
+            // novamente apenas se a execução
+            // anterior o alterou
+            if (initial == null || modified) {
+                modified = false;
+                initial = new Mapping();
+                for (Transition t : edges) {
+                    initial.add(t);
+                }
+            }
+            transitions = initial;
+            actions = operations;
+            submachines = machines;
+            generator.reset(start);
+            if (main != null) {
+                setMainSubmachine(main);
+            }
+        }
+
+    }
+
+    /**
+     * Obtém o número de transições do modelo.
+     *
+     * @return Número de transições.
+     */
+    public int getTransitionCount() {
+        return sources.length;
+    }
+
+    /**
+     * Obtém o número de submáquinas do modelo.
+     *
+     * @return Número de submáquinas.
+     */
+    public int getSubmachineCount() {
+        return names.length;
+    }
+
+}
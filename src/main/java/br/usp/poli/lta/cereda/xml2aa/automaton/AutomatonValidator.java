@@ -21,18 +21,30 @@
 package br.usp.poli.lta.cereda.xml2aa.automaton;
 
 import br.usp.poli.lta.cereda.xml2aa.model.AutomatonSpecException;
+import br.usp.poli.lta.cereda.xml2aa.model.Violation;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
 
 /**
- * Valida a especificação XML do autômato adaptativo.
+ * Valida a especificação XML do autômato adaptativo. A validação pode ser
+ * interrompida na primeira violação encontrada ou, alternativamente, coletar
+ * todas as violações da especificação, verificando as submáquinas e as ações
+ * adaptativas em paralelo.
  *
  * @author Paulo Roberto Massa Cereda
  * @version 1.1
@@ -40,9 +52,46 @@ import java.util.stream.Collectors;
  */
 public class AutomatonValidator {
 
+    // localizações dos elementos
+    // da especificação XML, na
+    // forma de expressões XPath
+    private static final String TRANSITIONS = "/adaptiveAutomaton/transitions";
+    private static final String TRANSITION = TRANSITIONS + "/transition[%d]";
+    private static final String SUBMACHINES = "/adaptiveAutomaton/submachines";
+    private static final String SUBMACHINE = SUBMACHINES + "/submachine[%d]";
+    private static final String STATE = SUBMACHINE + "/state[%d]";
+    private static final String ACTIONS = "/adaptiveAutomaton/actions";
+    private static final String ACTION = ACTIONS + "/adaptiveAction[%d]";
+    private static final String VARIABLE = ACTION + "/variable[%d]";
+    private static final String GENERATOR = ACTION + "/generator[%d]";
+    private static final String ELEMENTARY = ACTION + "/action[%d]";
+
+    // tipos de ações
+    // adaptativas elementares
+    private static final Set<String> TYPES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("remove", "query", "add")));
+
+    // relator que interrompe a
+    // validação na primeira
+    // violação encontrada
+    private static final Reporter FAIL_FAST = (Violation violation) -> {
+        throw new AutomatonSpecException(violation);
+    };
+
     // variáveis da classe
     private final XMLAdaptiveAutomaton automaton;
-    private final Set<String> calls;
+    private SpecIndex index;
+
+    // posições das transições com
+    // problemas, registradas durante
+    // a passagem única; as chamadas
+    // anônimas são codificadas como
+    // 2 * posição (anterior) ou
+    // 2 * posição + 1 (posterior)
+    private final List<Integer> incomplete = new ArrayList<>();
+    private final List<Integer> nonInteger = new ArrayList<>();
+    private final List<Integer> ambiguous = new ArrayList<>();
+    private final List<Integer> anonymous = new ArrayList<>();
 
     /**
      * Construtor.
@@ -51,81 +100,372 @@ public class AutomatonValidator {
      */
     public AutomatonValidator(XMLAdaptiveAutomaton automaton) {
         this.automaton = automaton;
-        this.calls = new HashSet<>();
     }
 
     /**
-     * Faz a validação da especificação XML do autômato adaptativo.
+     * Construtor, utilizado com uma especificação previamente validada
+     * cujo índice já é conhecido, como o restaurado da representação
+     * binária da especificação; a passagem pelas transições não é refeita.
+     *
+     * @param automaton Especificação XML do autômato adaptativo.
+     * @param index Índice da especificação.
+     */
+    public AutomatonValidator(XMLAdaptiveAutomaton automaton,
+            SpecIndex index) {
+        this.automaton = automaton;
+        this.index = index;
+    }
+
+    /**
+     * Faz a validação da especificação XML do autômato adaptativo. As
+     * transições são percorridas uma única vez, e as verificações sobre
+     * estas consultam o resultado dessa passagem, mantendo a mesma ordem de
+     * precedência das mensagens de erro.
      *
+     * @return Índice da especificação validada.
      * @throws AutomatonSpecException A especificação é inválida.
      */
-    public void validate() throws AutomatonSpecException {
+    public SpecIndex validate() throws AutomatonSpecException {
+
+        // a existência de transições é
+        // verificada antes da passagem
+        // única, que constrói o índice
+        hasTransitions(FAIL_FAST);
+        getIndex();
 
         // lista de validações
         // a serem aplicadas
-        hasTransitions();
-        hasFromAndTo();
-        hasSubmachines();
-        hasIntegerStates();
-        hasValidSubmachines();
-        hasValidSymbolTransitions();
-        hasValidSubmachineCalls();
-        hasActionCalls();
-        checkAdaptiveActions();
+        hasFromAndTo(FAIL_FAST);
+        hasSubmachines(FAIL_FAST);
+        hasIntegerStates(FAIL_FAST);
+        hasValidSubmachines(FAIL_FAST);
+        hasValidSymbolTransitions(FAIL_FAST);
+        hasValidSubmachineCalls(FAIL_FAST);
+        hasActionCalls(FAIL_FAST);
+        checkAdaptiveActions(FAIL_FAST);
+        return index;
+    }
+
+    /**
+     * Faz a validação da especificação XML do autômato adaptativo, reunindo
+     * todas as violações encontradas em uma única exceção.
+     *
+     * @return Índice da especificação validada.
+     * @throws AutomatonSpecException A especificação é inválida.
+     */
+    public SpecIndex validateAll() throws AutomatonSpecException {
+        List<Violation> violations = collect();
+        if (!violations.isEmpty()) {
+            throw new AutomatonSpecException(violations);
+        }
+        return index;
+    }
+
+    /**
+     * Coleta todas as violações da especificação XML do autômato adaptativo,
+     * utilizando o conjunto comum de linhas de execução.
+     *
+     * @return Lista de violações, vazia se a especificação é válida.
+     */
+    public List<Violation> collect() {
+        return collect(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Coleta todas as violações da especificação XML do autômato adaptativo.
+     * As verificações de cada submáquina e de cada ação adaptativa são
+     * independentes entre si e executadas em paralelo no conjunto de linhas
+     * de execução informado. As violações são retornadas na mesma ordem da
+     * validação sequencial.
+     *
+     * @param pool Conjunto de linhas de execução.
+     * @return Lista de violações, vazia se a especificação é válida.
+     */
+    public List<Violation> collect(ForkJoinPool pool) {
+
+        // as violações são apenas
+        // acumuladas na lista, sem
+        // interromper a validação
+        List<Violation> violations = new ArrayList<>();
+        Reporter reporter = violations::add;
+
+        // granularidade das tarefas,
+        // de modo a produzir algumas
+        // tarefas por linha de execução
+        int submachines = submachines().size();
+        int actions = actions().size();
+        int parallelism = pool.getParallelism() * 4;
+
+        try {
+            hasTransitions(reporter);
+            getIndex();
+            hasFromAndTo(reporter);
+            hasSubmachines(reporter);
+            hasIntegerStates(reporter);
+            violations.addAll(pool.invoke(new Partition(0, submachines,
+                    Math.max(1, submachines / parallelism),
+                    (int position, Reporter sink) -> {
+                        checkSubmachine(position, 0, sink);
+                    })));
+            hasSingleMainSubmachine(reporter);
+            hasValidSymbolTransitions(reporter);
+            hasValidSubmachineCalls(reporter);
+            hasActionCalls(reporter);
+            violations.addAll(pool.invoke(new Partition(0, actions,
+                    Math.max(1, actions / parallelism),
+                    this::checkAction)));
+            hasValidActionCalls(reporter);
+        } catch (AutomatonSpecException exception) {
+
+            // o relator que acumula as
+            // violações nunca lança
+            // exceções de especificação
+            throw new IllegalStateException(exception);
+        }
+        return violations;
+    }
+
+    /**
+     * Obtém o índice da especificação XML do autômato adaptativo, construindo
+     * este na primeira chamada. O índice só é consistente se a especificação
+     * for válida.
+     *
+     * @return Índice da especificação.
+     */
+    public SpecIndex getIndex() {
+        if (index == null) {
+            index = scan();
+        }
+        return index;
+    }
+
+    /**
+     * Percorre a especificação uma única vez, construindo o índice e
+     * registrando os problemas encontrados nas transições.
+     *
+     * @return Índice da especificação.
+     */
+    private SpecIndex scan() {
+
+        SpecIndex result = new SpecIndex();
+        result.symbols = new LinkedHashSet<>();
+        result.submachineCalls = new HashSet<>();
+        result.actionCalls = new HashSet<>();
+
+        List<XMLTransition> transitions = transitions();
+        result.transitions = transitions.size();
+        result.from = new int[result.transitions];
+        result.to = new int[result.transitions];
+
+        // passagem única pelas transições
+        int i = 0;
+        for (XMLTransition t : transitions) {
+
+            // estados de origem e destino,
+            // convertidos para inteiros
+            if (t.getFrom() == null || t.getTo() == null) {
+                incomplete.add(i);
+            } else {
+                try {
+                    result.from[i] = Integer.parseInt(t.getFrom());
+                    result.to[i] = Integer.parseInt(t.getTo());
+                } catch (NumberFormatException nothandled) {
+                    nonInteger.add(i);
+                }
+            }
+
+            // categoria da transição
+            // (chamada de submáquina,
+            // consumo de símbolo ou
+            // transição em vazio)
+            if (t.getCall() != null) {
+                result.submachineCalls.add(t.getCall());
+                if (t.getSymbol() != null) {
+                    ambiguous.add(i);
+                } else {
+                    result.callTransitions++;
+                }
+            } else if (t.getSymbol() != null) {
+                result.symbols.add(t.getSymbol());
+                result.symbolTransitions++;
+            } else {
+                result.emptyTransitions++;
+            }
+
+            // chamadas de funções
+            // adaptativas anteriores
+            // e posteriores
+            XMLActionCall prior = t.getPreAdaptiveFunction();
+            XMLActionCall post = t.getPostAdaptiveFunction();
+            if (prior != null) {
+                result.priorCalls++;
+                if (prior.getName() == null || prior.getName().isEmpty()) {
+                    anonymous.add(2 * i);
+                } else {
+                    result.actionCalls.add(prior.getName());
+                }
+            }
+            if (post != null) {
+                result.postCalls++;
+                if (post.getName() == null || post.getName().isEmpty()) {
+                    anonymous.add(2 * i + 1);
+                } else {
+                    result.actionCalls.add(post.getName());
+                }
+            }
+            if (prior != null || post != null) {
+                result.adaptiveTransitions++;
+            }
+
+            i++;
+        }
+
+        // estados declarados
+        // nas submáquinas
+        int[] declared = new int[0];
+        int count = 0;
+        result.submachines = submachines().size();
+        for (XMLSubmachine submachine : submachines()) {
+            if (submachine.getStates() != null) {
+                for (XMLState state : submachine.getStates()) {
+                    try {
+                        int value = Integer.parseInt(state.getName());
+                        if (count == declared.length) {
+                            declared = Arrays.copyOf(declared,
+                                    Math.max(16, count * 2));
+                        }
+                        declared[count++] = value;
+                    } catch (NumberFormatException nothandled) {
+                        // o estado inválido será
+                        // apontado na validação
+                        // das submáquinas
+                    }
+                }
+            }
+        }
+        result.submachineStates = distinct(Arrays.
+                copyOf(declared, count)).length;
+
+        // todos os estados distintos
+        // da especificação
+        int[] all = new int[2 * result.transitions + count];
+        System.arraycopy(result.from, 0, all, 0, result.transitions);
+        System.arraycopy(result.to, 0, all, result.transitions,
+                result.transitions);
+        System.arraycopy(declared, 0, all, 2 * result.transitions, count);
+        result.states = distinct(all);
+        result.maximum = result.states.length == 0 ? -1
+                : result.states[result.states.length - 1];
+
+        // ações adaptativas
+        result.actions = actions().size();
+
+        return result;
     }
 
     /**
-     * Método utilitário para lançar exceções de especificação.
+     * Obtém os valores distintos do vetor, em ordem crescente. O vetor
+     * informado é reordenado.
      *
-     * @param message Mensagem da exceção.
-     * @throws AutomatonSpecException Exceção parametrizada com a mensagem.
+     * @param values Vetor de valores.
+     * @return Valores distintos.
      */
-    private void raise(String message) throws AutomatonSpecException {
-        throw new AutomatonSpecException(message);
+    private static int[] distinct(int[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Obtém as transições da especificação.
+     *
+     * @return Lista de transições, possivelmente vazia.
+     */
+    private List<XMLTransition> transitions() {
+        return automaton.getTransitions() != null
+                && automaton.getTransitions().getTransitions() != null
+                ? automaton.getTransitions().getTransitions()
+                : Collections.<XMLTransition>emptyList();
+    }
+
+    /**
+     * Obtém as submáquinas da especificação.
+     *
+     * @return Lista de submáquinas, possivelmente vazia.
+     */
+    private List<XMLSubmachine> submachines() {
+        return automaton.getSubmachines() != null
+                && automaton.getSubmachines().getSubmachines() != null
+                ? automaton.getSubmachines().getSubmachines()
+                : Collections.<XMLSubmachine>emptyList();
+    }
+
+    /**
+     * Obtém as ações adaptativas da especificação.
+     *
+     * @return Lista de ações adaptativas, possivelmente vazia.
+     */
+    private List<XMLAdaptiveAction> actions() {
+        return automaton.getActions() != null
+                ? automaton.getActions()
+                : Collections.<XMLAdaptiveAction>emptyList();
     }
 
     /**
-     * Método utilitário para lançar exceções de especificação formatados.
+     * Método utilitário para relatar violações da especificação, com a
+     * mensagem opcionalmente formatada.
      *
-     * @param message Mensagem da exceção.
+     * @param reporter Relator de violações.
+     * @param location Localização do elemento na especificação.
+     * @param message Mensagem da violação.
      * @param args Argumentos de formatação.
-     * @throws AutomatonSpecException Exceção parametrizada com a mensagem.
+     * @throws AutomatonSpecException O relator interrompe a validação.
      */
-    private void raise(String message, Object... args)
-            throws AutomatonSpecException {
-        throw new AutomatonSpecException(String.format(message, args));
+    private void raise(Reporter reporter, String location, String message,
+            Object... args) throws AutomatonSpecException {
+        reporter.report(new Violation(location, args.length == 0
+                ? message : String.format(message, args)));
     }
 
     /**
      * Verifica se o autômato adaptativo possui transições associadas.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Não há transições.
      */
-    private void hasTransitions() throws AutomatonSpecException {
-        if (automaton.getTransitions() == null
-                || automaton.getTransitions().getTransitions().isEmpty()) {
-            raise("O autômato adaptativo não possui transições especificadas. "
-                    + "Ainda que a teoria preveja a possibilidade de um "
-                    + "conjunto vazio de transições, este não faz sentido "
-                    + "do ponto de vista prático geral. Por favor, adicione "
-                    + "transições na especificação XML do autômato adaptativo "
-                    + "e tente novamente. O programa será encerrado.");
+    private void hasTransitions(Reporter reporter)
+            throws AutomatonSpecException {
+        if (transitions().isEmpty()) {
+            raise(reporter, TRANSITIONS, "O autômato adaptativo não possui "
+                    + "transições especificadas. Ainda que a teoria preveja "
+                    + "a possibilidade de um conjunto vazio de transições, "
+                    + "este não faz sentido do ponto de vista prático geral. "
+                    + "Por favor, adicione transições na especificação XML "
+                    + "do autômato adaptativo e tente novamente. O programa "
+                    + "será encerrado.");
         }
     }
 
     /**
      * Verifica se o autômato adaptativo possui submáquinas.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Não há submáquinas.
      */
-    private void hasSubmachines() throws AutomatonSpecException {
-        if (automaton.getSubmachines() == null
-                || automaton.getSubmachines().getSubmachines().isEmpty()) {
-            raise("O autômato adaptativo não possui submáquinas especificadas. "
-                    + "É necessário definir ao menos uma submáquina no modelo,"
-                    + "incluindo todos os estados componentes e as indicações "
-                    + "de entrada e retorno. Por favor, adicione submáquinas "
-                    + "na especificação XML do autômato adaptativo e tente "
+    private void hasSubmachines(Reporter reporter)
+            throws AutomatonSpecException {
+        if (submachines().isEmpty()) {
+            raise(reporter, SUBMACHINES, "O autômato adaptativo não possui "
+                    + "submáquinas especificadas. É necessário definir ao "
+                    + "menos uma submáquina no modelo,incluindo todos os "
+                    + "estados componentes e as indicações de entrada e "
+                    + "retorno. Por favor, adicione submáquinas na "
+                    + "especificação XML do autômato adaptativo e tente "
                     + "novamente. O programa será encerrado.");
         }
     }
@@ -133,291 +473,335 @@ public class AutomatonValidator {
     /**
      * Verifica se toda transição tem estados de origem e destino.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Há transições com problemas.
      */
-    private void hasFromAndTo() throws AutomatonSpecException {
-        if (automaton.getTransitions().getTransitions().stream().
-                anyMatch((XMLTransition t) -> t.getFrom() == null
-                        || t.getTo() == null)) {
-            raise("O autômato adaptativo possui transições sem estados de "
+    private void hasFromAndTo(Reporter reporter)
+            throws AutomatonSpecException {
+        for (int position : incomplete) {
+            raise(reporter, String.format(TRANSITION, position + 1),
+                    "O autômato adaptativo possui transições sem estados de "
                     + "origem ou destino. Toda transição deve conter tais "
                     + "elementos. Por favor, adicione estados de origem e "
                     + "destino nas transições e tente novamente. O programa "
                     + "será encerrado.");
-
         }
     }
 
     /**
      * Verifica se o autômato adaptativo possui estados inteiros.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Há estados inválidos.
      */
-    private void hasIntegerStates() throws AutomatonSpecException {
-        for (XMLTransition t : automaton.getTransitions().getTransitions()) {
-            try {
-                Integer.parseInt(t.getFrom());
-                Integer.parseInt(t.getTo());
-            } catch (NumberFormatException nothandled) {
-                raise("O autômato adaptativo não possui estados com numeração "
-                        + "inteira. O modelo de autômato aqui utilizado prevê "
-                        + "um conjunto de estados representados por "
-                        + "identificadores inteiros positivos, de modo a "
-                        + "simplificar a geração de novos estados. Por favor, "
-                        + "verifique os estados e tente novamente. O programa "
-                        + "será encerrado.");
-            }
+    private void hasIntegerStates(Reporter reporter)
+            throws AutomatonSpecException {
+        for (int position : nonInteger) {
+            raise(reporter, String.format(TRANSITION, position + 1),
+                    "O autômato adaptativo não possui estados com numeração "
+                    + "inteira. O modelo de autômato aqui utilizado prevê "
+                    + "um conjunto de estados representados por "
+                    + "identificadores inteiros positivos, de modo a "
+                    + "simplificar a geração de novos estados. Por favor, "
+                    + "verifique os estados e tente novamente. O programa "
+                    + "será encerrado.");
         }
     }
 
     /**
      * Verifica se o autômato tem submáquinas válidas.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Não há submáquinas válidas.
      */
-    private void hasValidSubmachines() throws AutomatonSpecException {
+    private void hasValidSubmachines(Reporter reporter)
+            throws AutomatonSpecException {
 
-        // variáveis auxiliares
-        // para verificação
+        // variável auxiliar que conta
+        // as submáquinas principais
         int main = 0;
-        int start;
-        int accepting;
 
         // toda e qualquer submáquina da
         // especificação XML é avaliada
-        for (XMLSubmachine submachine : automaton.
-                getSubmachines().getSubmachines()) {
-
-            // inicia os valores das
-            // variáveis auxiliares
-            start = 0;
-            accepting = 0;
-
-            // toda submáquina deve ter
-            // um nome associado
-            if (submachine.getName() == null
-                    || submachine.getName().isEmpty()) {
-                raise("O autômato adaptativo possui submáquinas anônimas. É "
-                        + "necessário especificar um nome para a submáquina, "
-                        + "que será utilizado como identificador em eventuais "
-                        + "chamadas. Verifique a definição das submáquinas e "
-                        + "tente novamente. O programa será encerrado.");
+        for (int i = 0; i < submachines().size(); i++) {
+            if (checkSubmachine(i, main, reporter)) {
+                main++;
             }
+        }
+    }
 
-            // a submáquina não possui
-            // estados associados
-            if (submachine.getStates() == null
-                    || submachine.getStates().isEmpty()) {
-                raise("O autômato adaptativo possui a submáquina '%s' sem "
-                        + "estados associados. É necessário especificar "
-                        + "estados para as submáquinas, incluindo eventuais "
-                        + "marcações de entrada e retorno. Por favor, "
-                        + "verifique a definição das submáquinas e tente "
-                        + "novamente. O programa será encerrado.",
-                        submachine.getName()
-                );
-            } else {
+    /**
+     * Verifica se o autômato possui no máximo uma submáquina principal. Esta
+     * verificação é utilizada quando as submáquinas são avaliadas
+     * independentemente umas das outras.
+     *
+     * @param reporter Relator de violações.
+     * @throws AutomatonSpecException Há mais de uma submáquina principal.
+     */
+    private void hasSingleMainSubmachine(Reporter reporter)
+            throws AutomatonSpecException {
+        int main = 0;
+        List<XMLSubmachine> submachines = submachines();
+        for (int i = 0; i < submachines.size(); i++) {
+            if ("true".equals(submachines.get(i).getMain())
+                    && submachines.get(i).getStates() != null
+                    && !submachines.get(i).getStates().isEmpty()
+                    && ++main == 2) {
+                raiseMain(reporter, i);
+            }
+        }
+    }
 
-                // existe uma marcação
-                // para a submáquina principal
-                if (submachine.getMain() != null) {
-                    if (!submachine.getMain().equals("true")) {
-                        raise("O autômato adaptativo possui a submáquina '%s' "
-                                + "com marcação principal, mas o valor "
-                                + "esperado para 'main' está incorreto (o "
-                                + "modelo prevê o valor 'true' para 'main'). "
-                                + "Por favor, corrija o valor e tente "
-                                + "novamente. O programa será encerrado.",
-                                submachine.getName()
-                        );
-                    } else {
+    /**
+     * Relata a existência de mais de uma submáquina principal.
+     *
+     * @param reporter Relator de violações.
+     * @param position Posição da segunda submáquina principal.
+     * @throws AutomatonSpecException O relator interrompe a validação.
+     */
+    private void raiseMain(Reporter reporter, int position)
+            throws AutomatonSpecException {
+        raise(reporter, String.format(SUBMACHINE, position + 1),
+                "O autômato adaptativo possui mais do que uma "
+                + "submáquina definida como principal. O modelo "
+                + "admite apenas uma submáquina. Por favor, defina "
+                + "apenas uma submáquina como sendo principal e "
+                + "tente novamente. O programa será encerrado.");
+    }
 
-                        // incrementa a variável
-                        // contadora de submáquinas
-                        // principais do modelo
-                        main++;
-                    }
-                }
+    /**
+     * Verifica a submáquina na posição informada.
+     *
+     * @param position Posição da submáquina na especificação.
+     * @param main Número de submáquinas principais encontradas anteriormente;
+     * se positivo, a submáquina corrente não pode ser principal.
+     * @param reporter Relator de violações.
+     * @return Valor lógico indicando se a submáquina é principal.
+     * @throws AutomatonSpecException A submáquina é inválida.
+     */
+    private boolean checkSubmachine(int position, int main,
+            Reporter reporter) throws AutomatonSpecException {
+
+        // submáquina corrente e
+        // sua localização
+        XMLSubmachine submachine = submachines().get(position);
+        String location = String.format(SUBMACHINE, position + 1);
+
+        // variáveis auxiliares
+        // para verificação
+        boolean principal = false;
+        int start = 0;
+        int accepting = 0;
+
+        // toda submáquina deve ter
+        // um nome associado
+        if (submachine.getName() == null
+                || submachine.getName().isEmpty()) {
+            raise(reporter, location, "O autômato adaptativo possui "
+                    + "submáquinas anônimas. É necessário especificar um "
+                    + "nome para a submáquina, que será utilizado como "
+                    + "identificador em eventuais chamadas. Verifique a "
+                    + "definição das submáquinas e tente novamente. O "
+                    + "programa será encerrado.");
+        }
+
+        // a submáquina não possui
+        // estados associados
+        if (submachine.getStates() == null
+                || submachine.getStates().isEmpty()) {
+            raise(reporter, location, "O autômato adaptativo possui a "
+                    + "submáquina '%s' sem estados associados. É necessário "
+                    + "especificar estados para as submáquinas, incluindo "
+                    + "eventuais marcações de entrada e retorno. Por favor, "
+                    + "verifique a definição das submáquinas e tente "
+                    + "novamente. O programa será encerrado.",
+                    submachine.getName()
+            );
+        } else {
+
+            // existe uma marcação
+            // para a submáquina principal
+            if (submachine.getMain() != null) {
+                if (!submachine.getMain().equals("true")) {
+                    raise(reporter, location, "O autômato adaptativo possui "
+                            + "a submáquina '%s' com marcação principal, mas "
+                            + "o valor esperado para 'main' está incorreto "
+                            + "(o modelo prevê o valor 'true' para 'main'). "
+                            + "Por favor, corrija o valor e tente "
+                            + "novamente. O programa será encerrado.",
+                            submachine.getName()
+                    );
+                } else {
 
-                // caso exista mais de uma
-                // submáquina assinalada como
-                // principal, ocorreu um erro
-                if (main > 1) {
-                    raise("O autômato adaptativo possui mais do que uma "
-                            + "submáquina definida como principal. O modelo "
-                            + "admite apenas uma submáquina. Por favor, defina "
-                            + "apenas uma submáquina como sendo principal e "
-                            + "tente novamente. O programa será encerrado.");
+                    // a submáquina corrente
+                    // é principal
+                    principal = true;
                 }
+            }
 
-                // cada estado da submáquina
-                // corrente é avaliado
-                for (XMLState state : submachine.getStates()) {
+            // caso exista mais de uma
+            // submáquina assinalada como
+            // principal, ocorreu um erro
+            if (principal && main > 0) {
+                raiseMain(reporter, position);
+            }
+
+            // cada estado da submáquina
+            // corrente é avaliado
+            int i = 0;
+            for (XMLState state : submachine.getStates()) {
+
+                // localização do estado
+                // na especificação
+                String where = String.format(STATE, position + 1, ++i);
+
+                // existem estados sem
+                // identificadores
+                if (state.getName() == null || state.getName().isEmpty()) {
+                    raise(reporter, where, "O autômato adaptativo possui a "
+                            + "submáquina '%s' com estados anônimos. Por "
+                            + "favor, inclua a identificação em tais estados "
+                            + "e tente novamente. O programa será encerrado.",
+                            submachine.getName()
+                    );
+                } else {
 
-                    // existem estados sem
-                    // identificadores
-                    if (state.getName() == null || state.getName().isEmpty()) {
-                        raise("O autômato adaptativo possui a submáquina '%s' "
-                                + "com estados anônimos. Por favor, inclua a "
-                                + "identificação em tais estados e tente "
-                                + "novamente. O programa será encerrado.",
-                                submachine.getName()
+                    // verifica se os estados
+                    // das submáquinas são
+                    // números inteiros
+                    try {
+                        Integer.parseInt(state.getName());
+                    } catch (NumberFormatException nothandled) {
+                        raise(reporter, where, "O autômato adaptativo possui "
+                                + "a submáquina'%s' com o estado '%s' nomeado "
+                                + "com um valor diferente de inteiro. O "
+                                + "modelo de autômato aqui utilizado prevê um "
+                                + "conjunto de estados representados por "
+                                + "identificadores inteiros positivos, de "
+                                + "modo a simplificar a geração de novos "
+                                + "estados. Por favor, verifique os "
+                                + "estados e tente novamente. O programa "
+                                + "será encerrado.",
+                                submachine.getName(),
+                                state.getName()
                         );
-                    } else {
-
-                        // verifica se os estados
-                        // das submáquinas são
-                        // números inteiros
-                        try {
-                            Integer.parseInt(state.getName());
-                        } catch (NumberFormatException nothandled) {
-                            raise("O autômato adaptativo possui a submáquina"
-                                    + "'%s' com o estado '%s' nomeado com um "
-                                    + "valor diferente de inteiro. O modelo de "
-                                    + "autômato aqui utilizado prevê um "
-                                    + "conjunto de estados representados por "
-                                    + "identificadores inteiros positivos, de "
-                                    + "modo a simplificar a geração de novos "
-                                    + "estados. Por favor, verifique os "
-                                    + "estados e tente novamente. O programa "
+                    }
+
+                    // estado de aceitação possui
+                    // um valor incorreto
+                    if (state.getAccepting() != null) {
+                        if (!state.getAccepting().equals("true")) {
+                            raise(reporter, where, "O autômato adaptativo "
+                                    + "possui a submáquina '%s' com o estado "
+                                    + "'%s' contendo a marcação de aceitação, "
+                                    + "mas o valor esperado para "
+                                    + "'accepting' está incorreto (o "
+                                    + "modelo prevê o valor 'true' para "
+                                    + "'accepting'). Por favor, corrija o "
+                                    + "valor e tente novamente. O programa "
                                     + "será encerrado.",
                                     submachine.getName(),
                                     state.getName()
                             );
-                        }
+                        } else {
 
-                        // estado de aceitação possui
-                        // um valor incorreto
-                        if (state.getAccepting() != null) {
-                            if (!state.getAccepting().equals("true")) {
-                                raise("O autômato adaptativo possui a "
-                                        + "submáquina '%s' com o estado '%s' "
-                                        + "contendo a marcação de aceitação, "
-                                        + "mas o valor esperado para "
-                                        + "'accepting' está incorreto (o "
-                                        + "modelo prevê o valor 'true' para "
-                                        + "'accepting'). Por favor, corrija o "
-                                        + "valor e tente novamente. O programa "
-                                        + "será encerrado.",
-                                        submachine.getName(),
-                                        state.getName()
-                                );
-                            } else {
-
-                                // incrementa a variável contadora
-                                // de estados de aceitação da
-                                // submáquina corrente
-                                accepting++;
-                            }
+                            // incrementa a variável contadora
+                            // de estados de aceitação da
+                            // submáquina corrente
+                            accepting++;
                         }
+                    }
+
+                    // estado de entrada possui
+                    // um valor incorreto
+                    if (state.getStart() != null) {
+                        if (!state.getStart().equals("true")) {
+                            raise(reporter, where, "O autômato adaptativo "
+                                    + "possui a submáquina '%s' com o estado "
+                                    + "'%s' contendo a marcação de entrada, "
+                                    + "mas o valor esperado para 'start' está "
+                                    + "incorreto (o modelo prevê o valor "
+                                    + "'true' para 'start'). Por favor, "
+                                    + "corrija o valor e tente novamente. "
+                                    + "O programa será encerrado.",
+                                    submachine.getName(),
+                                    state.getName()
+                            );
+                        } else {
 
-                        // estado de entrada possui
-                        // um valor incorreto
-                        if (state.getStart() != null) {
-                            if (!state.getStart().equals("true")) {
-                                raise("O autômato adaptativo possui a "
-                                        + "submáquina '%s' com o estado '%s' "
-                                        + "contendo a marcação de entrada, mas "
-                                        + "o valor esperado para 'start' está "
-                                        + "incorreto (o modelo prevê o valor "
-                                        + "'true' para 'start'). Por favor, "
-                                        + "corrija o valor e tente novamente. "
-                                        + "O programa será encerrado.",
-                                        submachine.getName(),
-                                        state.getName()
-                                );
-                            } else {
-
-                                // incrementa a variável contadora
-                                // de estados de entrada da submáquina
-                                start++;
-                            }
+                            // incrementa a variável contadora
+                            // de estados de entrada da submáquina
+                            start++;
                         }
                     }
                 }
+            }
 
-                // é necessário um
-                // estado de entrada
-                if (start != 1) {
-                    raise("O autômato adaptativo possui a submáquina '%s' "
-                            + "%s. Toda submáquina requer apenas um estado de "
-                            + "entrada. Por favor, inclua a marcação de "
-                            + "entrada em um dos estados da submáquina e tente "
-                            + "novamente. O programa será encerrado.",
-                            submachine.getName(),
-                            (start == 0
-                                    ? "sem estado de entrada definido"
-                                    : "com múltiplos estados de entrada")
-                    );
-                }
+            // é necessário um
+            // estado de entrada
+            if (start != 1) {
+                raise(reporter, location, "O autômato adaptativo possui a "
+                        + "submáquina '%s' %s. Toda submáquina requer apenas "
+                        + "um estado de entrada. Por favor, inclua a marcação "
+                        + "de entrada em um dos estados da submáquina e tente "
+                        + "novamente. O programa será encerrado.",
+                        submachine.getName(),
+                        (start == 0
+                                ? "sem estado de entrada definido"
+                                : "com múltiplos estados de entrada")
+                );
+            }
 
-                // a submáquina não possui
-                // estados de retorno
-                if (accepting == 0) {
-                    raise("O autômato adaptativo possui a submáquina '%s' "
-                            + "sem estados de aceitação. Ainda que a teoria "
-                            + "preveja a possibilidade de um conjunto vazio "
-                            + "de estados de aceitação, este não faz sentido "
-                            + "do ponto de vista prático geral. Por favor, "
-                            + "inclua a marcação de aceitação em pelo menos "
-                            + "um dos estados da submáquina e tente novamente. "
-                            + "O programa será encerrado.",
-                            submachine.getName()
-                    );
-                }
+            // a submáquina não possui
+            // estados de retorno
+            if (accepting == 0) {
+                raise(reporter, location, "O autômato adaptativo possui a "
+                        + "submáquina '%s' sem estados de aceitação. Ainda "
+                        + "que a teoria preveja a possibilidade de um "
+                        + "conjunto vazio de estados de aceitação, este não "
+                        + "faz sentido do ponto de vista prático geral. Por "
+                        + "favor, inclua a marcação de aceitação em pelo "
+                        + "menos um dos estados da submáquina e tente "
+                        + "novamente. O programa será encerrado.",
+                        submachine.getName()
+                );
             }
         }
+        return principal;
     }
 
     /**
      * Verifica se o autômato adaptativo possui chamadas de ações adaptativas.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Estas existem e são inválidas.
      */
-    private void hasActionCalls() throws AutomatonSpecException {
-
-        // as transições do autômato são verificadas
-        // em busca de chamadas de ações adaptativas
-        for (XMLTransition t : automaton.getTransitions().getTransitions()) {
+    private void hasActionCalls(Reporter reporter)
+            throws AutomatonSpecException {
+        for (int code : anonymous) {
+            String location = String.format(TRANSITION, code / 2 + 1);
 
             // existe a chamada anterior, mas
             // não há nome associado
-            if (t.getPreAdaptiveFunction() != null) {
-                if (t.getPreAdaptiveFunction().getName() == null
-                        || t.getPreAdaptiveFunction().getName().isEmpty()) {
-                    raise("O autômato adaptativo possui transições com "
-                            + "chamadas de funções adaptativas anteriores "
-                            + "anônimas. É necessário informar o nome "
-                            + "associado corretamente. Por favor, corrija a "
-                            + "chamada da função anterior, de forma a incluir "
-                            + "seu identificador, e tente novamente. O "
-                            + "programa será encerrado.");
-                } else {
-
-                    // adiciona o nome da
-                    // chamada no conjunto
-                    calls.add(t.getPreAdaptiveFunction().getName());
-                }
-            }
-
-            // existe a chamada posterior, mas
-            // não há nome associado
-            if (t.getPostAdaptiveFunction() != null) {
-                if (t.getPostAdaptiveFunction().getName() == null
-                        || t.getPostAdaptiveFunction().getName().isEmpty()) {
-                    raise("O autômato adaptativo possui transições com "
-                            + "chamadas de funções adaptativas posteriores "
-                            + "anônimas. É necessário informar o nome "
-                            + "associado corretamente. Por favor, corrija a "
-                            + "chamada da função posterior, de forma a incluir "
-                            + "seu identificador, e tente novamente. O "
-                            + "programa será encerrado.");
-                } else {
+            if (code % 2 == 0) {
+                raise(reporter, location, "O autômato adaptativo possui "
+                        + "transições com chamadas de funções adaptativas "
+                        + "anteriores anônimas. É necessário informar o "
+                        + "nome associado corretamente. Por favor, corrija a "
+                        + "chamada da função anterior, de forma a incluir "
+                        + "seu identificador, e tente novamente. O "
+                        + "programa será encerrado.");
+            } else {
 
-                    // adiciona o nome da
-                    // chamada no conjunto
-                    calls.add(t.getPostAdaptiveFunction().getName());
-                }
+                // existe a chamada posterior, mas
+                // não há nome associado
+                raise(reporter, location, "O autômato adaptativo possui "
+                        + "transições com chamadas de funções adaptativas "
+                        + "posteriores anônimas. É necessário informar o "
+                        + "nome associado corretamente. Por favor, corrija a "
+                        + "chamada da função posterior, de forma a incluir "
+                        + "seu identificador, e tente novamente. O "
+                        + "programa será encerrado.");
             }
         }
     }
@@ -425,171 +809,192 @@ public class AutomatonValidator {
     /**
      * Verifica as ações adaptativas do autômato, se existirem.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException As ações adaptativas são inválidas.
      */
-    private void checkAdaptiveActions() throws AutomatonSpecException {
+    private void checkAdaptiveActions(Reporter reporter)
+            throws AutomatonSpecException {
 
-        // variável auxiliar que
-        // armazena os identificadores
-        // das ações adaptativas
-        Set<String> names = new HashSet<>();
-
-        // variável auxiliar que contém
-        // os tipos de ações elementares
-        Set<String> types = new HashSet<>();
-
-        // adiciona os tipos
-        // de ações elementares
-        types.add("remove");
-        types.add("query");
-        types.add("add");
-
-        // o autômato adaptativo
-        // possui ações adaptativas
-        if (automaton.getActions() != null) {
-
-            // cada ação adaptativa
-            // definida é verificada
-            for (XMLAdaptiveAction action : automaton.getActions()) {
-
-                // existem ações adaptativas
-                // anônimas no modelo
-                if (action.getName() == null || action.getName().isEmpty()) {
-                    raise("O autômato adaptativo possui ações adaptativas "
-                            + "anônimas. É necessário especificar o nome "
-                            + "da ação adaptiva para que este atue como "
-                            + "identificador na chamada de funções "
-                            + "adaptativas. Por favor, adicione os nomes às "
-                            + "ações adaptativas e tente novamente. O "
-                            + "programa será encerrado.");
-                } else {
+        // cada ação adaptativa
+        // definida é verificada
+        for (int i = 0; i < actions().size(); i++) {
+            checkAction(i, reporter);
+        }
 
-                    // adiciona o nome da ação
-                    // ao conjunto de nomes
-                    names.add(action.getName());
-                }
+        // verifica se as chamadas de
+        // funções adaptativas existem
+        hasValidActionCalls(reporter);
+    }
 
-                // existem variáveis com
-                // nomes inválidos
-                if (action.getVariables() != null) {
-                    for (String variable : action.getVariables()) {
-                        if (!variable.startsWith("?")) {
-                            raise("O autômato adaptativo possui a ação "
-                                    + "adaptativa '%s' com a variável '%s' "
-                                    + "contendo um nome inválido. O modelo de "
-                                    + "autômato aqui utilizado prevê que as "
-                                    + "variáveis sejam iniciadas por '?', por "
-                                    + "exemplo, '?x'. Por favor, verifique os "
-                                    + "nomes das variáveis e tente novamente. "
-                                    + "O programa será encerrado.",
-                                    action.getName(),
-                                    variable
-                            );
-                        }
-                    }
-                }
+    /**
+     * Verifica a ação adaptativa na posição informada.
+     *
+     * @param position Posição da ação adaptativa na especificação.
+     * @param reporter Relator de violações.
+     * @throws AutomatonSpecException A ação adaptativa é inválida.
+     */
+    private void checkAction(int position, Reporter reporter)
+            throws AutomatonSpecException {
 
-                // existem geradores com
-                // nomes inválidos
-                if (action.getGenerators() != null) {
-                    for (String generator : action.getGenerators()) {
-                        if (!generator.endsWith("*")) {
-                            raise("O autômato adaptativo possui a ação "
-                                    + "adaptativa '%s' com o gerador '%s' "
-                                    + "contendo um nome inválido. O modelo de "
-                                    + "autômato aqui utilizado prevê que os "
-                                    + "geradores sejam terminados por '*', por "
-                                    + "exemplo, 'g*'. Por favor, verifique os "
-                                    + "nomes dos geradores e tente novamente. "
-                                    + "O programa será encerrado.",
-                                    action.getName(),
-                                    generator
-                            );
-                        }
-                    }
-                }
+        // ação adaptativa corrente
+        // e sua localização
+        XMLAdaptiveAction action = actions().get(position);
+        String location = String.format(ACTION, position + 1);
+
+        // existem ações adaptativas
+        // anônimas no modelo
+        if (action.getName() == null || action.getName().isEmpty()) {
+            raise(reporter, location, "O autômato adaptativo possui ações "
+                    + "adaptativas anônimas. É necessário especificar o nome "
+                    + "da ação adaptiva para que este atue como "
+                    + "identificador na chamada de funções "
+                    + "adaptativas. Por favor, adicione os nomes às "
+                    + "ações adaptativas e tente novamente. O "
+                    + "programa será encerrado.");
+        }
+
+        // existem variáveis com
+        // nomes inválidos
+        int i = 0;
+        for (String variable : action.getVariables()) {
+            i++;
+            if (!variable.startsWith("?")) {
+                raise(reporter, String.format(VARIABLE, position + 1, i),
+                        "O autômato adaptativo possui a ação "
+                        + "adaptativa '%s' com a variável '%s' "
+                        + "contendo um nome inválido. O modelo de "
+                        + "autômato aqui utilizado prevê que as "
+                        + "variáveis sejam iniciadas por '?', por "
+                        + "exemplo, '?x'. Por favor, verifique os "
+                        + "nomes das variáveis e tente novamente. "
+                        + "O programa será encerrado.",
+                        action.getName(),
+                        variable
+                );
+            }
+        }
 
-                // a ação adaptativa não
-                // possui lista de ações
-                // adaptativas elementares
-                if (action.getActions() == null
-                        || action.getActions().isEmpty()) {
-                    raise("O autômato adaptativo possui a ação adaptativa '%s' "
-                            + "sem uma lista de ações adaptativas elementares. "
-                            + "O modelo de autômato aqui utilizado prevê uma "
-                            + "lista contendo ações adaptativas elementares. "
-                            + "Por favor, inclua ações adaptativas elementares "
-                            + "na ação adaptativa e tente novamente. O "
-                            + "programa será encerrado.",
+        // existem geradores com
+        // nomes inválidos
+        i = 0;
+        for (String generator : action.getGenerators()) {
+            i++;
+            if (!generator.endsWith("*")) {
+                raise(reporter, String.format(GENERATOR, position + 1, i),
+                        "O autômato adaptativo possui a ação "
+                        + "adaptativa '%s' com o gerador '%s' "
+                        + "contendo um nome inválido. O modelo de "
+                        + "autômato aqui utilizado prevê que os "
+                        + "geradores sejam terminados por '*', por "
+                        + "exemplo, 'g*'. Por favor, verifique os "
+                        + "nomes dos geradores e tente novamente. "
+                        + "O programa será encerrado.",
+                        action.getName(),
+                        generator
+                );
+            }
+        }
+
+        // a ação adaptativa não
+        // possui lista de ações
+        // adaptativas elementares
+        if (action.getActions() == null || action.getActions().isEmpty()) {
+            raise(reporter, location, "O autômato adaptativo possui a ação "
+                    + "adaptativa '%s' sem uma lista de ações adaptativas "
+                    + "elementares. O modelo de autômato aqui utilizado "
+                    + "prevê uma lista contendo ações adaptativas "
+                    + "elementares. Por favor, inclua ações adaptativas "
+                    + "elementares na ação adaptativa e tente novamente. O "
+                    + "programa será encerrado.",
+                    action.getName()
+            );
+        } else {
+
+            // análise da lista de ações
+            // adaptativas elementares
+            i = 0;
+            for (XMLAction elementary : action.getActions()) {
+
+                // localização da ação
+                // elementar na especificação
+                String where = String.format(ELEMENTARY, position + 1, ++i);
+
+                // toda ação deve possuir
+                // estados de origem e destino
+                if (elementary.getFrom() == null
+                        || elementary.getTo() == null
+                        || elementary.getFrom().isEmpty()
+                        || elementary.getTo().isEmpty()) {
+                    raise(reporter, where, "O autômato adaptativo possui a "
+                            + "ação adaptativa '%s' contendo ações "
+                            + "adaptativas elementares que não possuem "
+                            + "estados de origem e/ou destino. É "
+                            + "necessário que estes sejam definidos. "
+                            + "Por favor, verifique a lista de ações "
+                            + "adaptativas elementares e tente "
+                            + "novamente. O programa será encerrado.",
                             action.getName()
                     );
-                } else {
-
-                    // análise da lista de ações
-                    // adaptativas elementares
-                    for (XMLAction elementary : action.getActions()) {
-
-                        // toda ação deve possuir
-                        // estados de origem e destino
-                        if (elementary.getFrom() == null
-                                || elementary.getTo() == null
-                                || elementary.getFrom().isEmpty()
-                                || elementary.getTo().isEmpty()) {
-                            raise("O autômato adaptativo possui a ação "
-                                    + "adaptativa '%s' contendo ações "
-                                    + "adaptativas elementares que não possuem "
-                                    + "estados de origem e/ou destino. É "
-                                    + "necessário que estes sejam definidos. "
-                                    + "Por favor, verifique a lista de ações "
-                                    + "adaptativas elementares e tente "
-                                    + "novamente. O programa será encerrado.",
-                                    action.getName()
-                            );
-                        }
+                }
 
-                        // toda ação deve ter
-                        // o tipo definido
-                        if (elementary.getType() == null) {
-                            raise("O autômato adaptativo possui a ação "
-                                    + "adaptativa '%s' contendo ações "
-                                    + "adaptativas elementares que não possuem "
-                                    + "o tipo definido ('add', 'remove' ou "
-                                    + "'query'). É necessário que estes sejam "
-                                    + "definidos. Por favor, verifique a "
-                                    + "lista de ações adaptativas elementares "
-                                    + "e tente novamente. O programa será "
-                                    + "encerrado.",
-                                    action.getName()
-                            );
-                        } else if (!types.contains(elementary.getType())) {
-                            raise("O autômato adaptativo possui a ação "
-                                    + "adaptativa '%s' contendo ações "
-                                    + "adaptativas elementares que possuem "
-                                    + "tipos inválidos. É necessário que estes "
-                                    + "sejam definidos corretamente. Os tipos "
-                                    + "válidos são: 'add' para inclusão, "
-                                    + "'remove' para remoção, e 'query' para "
-                                    + "consulta. Por favor, verifique a lista "
-                                    + "de ações adaptativas elementares e "
-                                    + "tente novamente. O programa será "
-                                    + "encerrado.",
-                                    action.getName()
-                            );
-                        }
-                    }
+                // toda ação deve ter
+                // o tipo definido
+                if (elementary.getType() == null) {
+                    raise(reporter, where, "O autômato adaptativo possui a "
+                            + "ação adaptativa '%s' contendo ações "
+                            + "adaptativas elementares que não possuem "
+                            + "o tipo definido ('add', 'remove' ou "
+                            + "'query'). É necessário que estes sejam "
+                            + "definidos. Por favor, verifique a "
+                            + "lista de ações adaptativas elementares "
+                            + "e tente novamente. O programa será "
+                            + "encerrado.",
+                            action.getName()
+                    );
+                } else if (!TYPES.contains(elementary.getType())) {
+                    raise(reporter, where, "O autômato adaptativo possui a "
+                            + "ação adaptativa '%s' contendo ações "
+                            + "adaptativas elementares que possuem "
+                            + "tipos inválidos. É necessário que estes "
+                            + "sejam definidos corretamente. Os tipos "
+                            + "válidos são: 'add' para inclusão, "
+                            + "'remove' para remoção, e 'query' para "
+                            + "consulta. Por favor, verifique a lista "
+                            + "de ações adaptativas elementares e "
+                            + "tente novamente. O programa será "
+                            + "encerrado.",
+                            action.getName()
+                    );
                 }
             }
         }
+    }
+
+    /**
+     * Verifica se as chamadas de funções adaptativas nas transições
+     * correspondem a ações adaptativas definidas.
+     *
+     * @param reporter Relator de violações.
+     * @throws AutomatonSpecException Existem chamadas inválidas.
+     */
+    private void hasValidActionCalls(Reporter reporter)
+            throws AutomatonSpecException {
+
+        // variável auxiliar que
+        // armazena os identificadores
+        // das ações adaptativas
+        Set<String> names = actions().stream().
+                map(XMLAdaptiveAction::getName).collect(Collectors.toSet());
 
         // verifica se as chamadas de funções
         // adaptivas realmente existem
-        for (String call : calls) {
+        for (String call : index.getActionCalls()) {
             if (!names.contains(call)) {
-                raise("O autômato adaptativo possui chamadas de funções "
-                        + "adaptativas não existentes na especificação: '%s'. "
-                        + "Por favor, verifique as chamadas correspondentes "
-                        + "nas transições e tente novamente. O programa será "
-                        + "encerrado.",
+                raise(reporter, TRANSITIONS, "O autômato adaptativo possui "
+                        + "chamadas de funções adaptativas não existentes na "
+                        + "especificação: '%s'. Por favor, verifique as "
+                        + "chamadas correspondentes nas transições e tente "
+                        + "novamente. O programa será encerrado.",
                         call
                 );
             }
@@ -603,63 +1008,19 @@ public class AutomatonValidator {
      */
     public String getInformation() {
 
-        // todas as transições
-        int all = automaton.getTransitions().getTransitions().size();
-
-        // todas as transições
-        // com consumo de símbolo
-        int symbol = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getSymbol() != null
-                        && t.getCall() == null).count();
-
-        // todas as transiçoẽs
-        // em vazio
-        int empty = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getSymbol() == null
-                        && t.getCall() == null).count();
-
-        // todas as transições com
-        // chamada de submáquina
-        int smc = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getSymbol() == null
-                        && t.getCall() != null).count();
-
-        // todas as chamadas de
-        // funções adaptativas
-        int ac = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getPreAdaptiveFunction() != null
-                        || t.getPostAdaptiveFunction() != null).count();
-
-        // todas as chamadas de funções
-        // adaptativas anteriores
-        int prec = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getPreAdaptiveFunction() != null).
-                count();
-
-        // todas as chamadas de funções
-        // adaptativas posteriores
-        int postc = (int) automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getPostAdaptiveFunction() != null).
-                count();
-
-        // todas as submáquinas
-        int sm = automaton.getSubmachines().getSubmachines().size();
-
-        // todas as ações adaptativas
-        int aa = automaton.getActions() != null
-                ? automaton.getActions().size() : 0;
-
-        // todos os estados
-        int states = automaton.getSubmachines().getSubmachines().stream().
-                map((XMLSubmachine t) -> t.getStates().stream().
-                        map((XMLState t1) -> Integer.parseInt(t1.getName())).
-                        collect(Collectors.toSet())).reduce((Set<Integer> t,
-                Set<Integer> u) -> {
-            Set<Integer> s = new HashSet<>();
-            s.addAll(t);
-            s.addAll(u);
-            return s;
-        }).get().size();
+        // obtém as contagens a partir
+        // do índice da especificação
+        SpecIndex information = getIndex();
+        int all = information.getTransitions();
+        int symbol = information.getSymbolTransitions();
+        int empty = information.getEmptyTransitions();
+        int smc = information.getCallTransitions();
+        int ac = information.getAdaptiveTransitions();
+        int prec = information.getPriorCalls();
+        int postc = information.getPostCalls();
+        int sm = information.getSubmachines();
+        int aa = information.getActions();
+        int states = information.getSubmachineStates();
 
         // monta o texto das informações
         StringBuilder sb = new StringBuilder();
@@ -716,30 +1077,30 @@ public class AutomatonValidator {
     /**
      * Verifica se o autômato possui chamadas válidas de submáquina.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Existem chamadas inválidas.
      */
-    private void hasValidSubmachineCalls() throws AutomatonSpecException {
+    private void hasValidSubmachineCalls(Reporter reporter)
+            throws AutomatonSpecException {
 
         // obtém todas as
         // chamadas de submáquinas
-        Set<String> smc = automaton.getTransitions().getTransitions().stream().
-                filter((XMLTransition t) -> t.getCall() != null).
-                map(XMLTransition::getCall).collect(Collectors.toSet());
+        Set<String> smc = new HashSet<>(index.getSubmachineCalls());
 
         // obtém todas as
         // submáquinas definidas
-        Set<String> sm = automaton.getSubmachines().getSubmachines().stream().
+        Set<String> sm = submachines().stream().
                 map(XMLSubmachine::getName).collect(Collectors.toSet());
 
         // verifica se existem chamadas
         // a submáquinas inválidas
         smc.removeAll(sm);
         if (!smc.isEmpty()) {
-            raise("O autômato adaptativo possui chamadas %s %s %s, não %s. É "
-                    + "necessário que todas as chamadas de submáquinas sejam "
-                    + "válidas. Por favor, verifique as transições "
-                    + "correspondentes e tente novamente. O programa será "
-                    + "encerrado.",
+            raise(reporter, TRANSITIONS, "O autômato adaptativo possui "
+                    + "chamadas %s %s %s, não %s. É necessário que todas as "
+                    + "chamadas de submáquinas sejam válidas. Por favor, "
+                    + "verifique as transições correspondentes e tente "
+                    + "novamente. O programa será encerrado.",
                     plural("à", smc.size()),
                     plural("submáquina", smc.size()),
                     smc,
@@ -751,24 +1112,124 @@ public class AutomatonValidator {
     /**
      * Verifica se o autômato possui transições com consumo de símbolo válidas.
      *
+     * @param reporter Relator de violações.
      * @throws AutomatonSpecException Existem transições com consumo de símbolo
      * inválidas.
      */
-    private void hasValidSymbolTransitions() throws AutomatonSpecException {
+    private void hasValidSymbolTransitions(Reporter reporter)
+            throws AutomatonSpecException {
 
         // verifica se existem transições com
         // consumo de símbolo e com chamadas
         // de submáquina ao mesmo tempo
-        if (automaton.getTransitions().getTransitions().stream().
-                anyMatch((XMLTransition t) -> (t.getSymbol() != null
-                        && t.getCall() != null))) {
-            raise("O autômato adaptativo possui transições com consumo de "
+        for (int position : ambiguous) {
+            raise(reporter, String.format(TRANSITION, position + 1),
+                    "O autômato adaptativo possui transições com consumo de "
                     + "símbolo e chamada de submáquina ao mesmo tempo. Os dois "
                     + "tipos são mutuamente exclusivos. Por favor, verifique "
                     + "as transições e tente novamente. O programa será "
                     + "encerrado.");
+        }
+    }
+
+    /**
+     * Interface que define o destino das violações encontradas.
+     */
+    private interface Reporter {
 
+        /**
+         * Relata uma violação.
+         *
+         * @param violation Violação da especificação.
+         * @throws AutomatonSpecException A validação deve ser interrompida.
+         */
+        void report(Violation violation) throws AutomatonSpecException;
+
+    }
+
+    /**
+     * Interface que define a verificação de um elemento da especificação.
+     */
+    private interface Check {
+
+        /**
+         * Verifica o elemento na posição informada.
+         *
+         * @param position Posição do elemento na especificação.
+         * @param reporter Relator de violações.
+         * @throws AutomatonSpecException A validação deve ser interrompida.
+         */
+        void check(int position, Reporter reporter)
+                throws AutomatonSpecException;
+
+    }
+
+    /**
+     * Tarefa que verifica um intervalo de elementos da especificação,
+     * dividindo-o recursivamente enquanto este for maior que a granularidade
+     * informada. As violações são concatenadas na ordem dos elementos.
+     */
+    private static class Partition extends RecursiveTask<List<Violation>> {
+
+        // identificador de serialização
+        private static final long serialVersionUID = 1L;
+
+        // atributos da classe
+        private final int start;
+        private final int end;
+        private final int grain;
+        private final Check check;
+
+        /**
+         * Construtor.
+         *
+         * @param start Posição inicial, inclusiva.
+         * @param end Posição final, exclusiva.
+         * @param grain Granularidade da divisão.
+         * @param check Verificação de cada elemento.
+         */
+        Partition(int start, int end, int grain, Check check) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.check = check;
         }
+
+        /**
+         * Verifica o intervalo.
+         *
+         * @return Violações encontradas no intervalo.
+         */
+        @Override
+        protected List<Violation> compute() {
+
+            // o intervalo é pequeno o suficiente
+            // para ser verificado diretamente
+            if (end - start <= grain) {
+                List<Violation> violations = new ArrayList<>();
+                try {
+                    for (int i = start; i < end; i++) {
+                        check.check(i, violations::add);
+                    }
+                } catch (AutomatonSpecException exception) {
+                    throw new IllegalStateException(exception);
+                }
+                return violations;
+            }
+
+            // divide o intervalo em duas
+            // metades, verificando a
+            // primeira em paralelo
+            int middle = (start + end) >>> 1;
+            Partition left = new Partition(start, middle, grain, check);
+            left.fork();
+            List<Violation> right = new Partition(middle, end, grain,
+                    check).compute();
+            List<Violation> violations = left.join();
+            violations.addAll(right);
+            return violations;
+        }
+
     }
 
 }
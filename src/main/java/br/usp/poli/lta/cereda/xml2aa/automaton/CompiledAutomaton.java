@@ -0,0 +1,576 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Representação compilada e imutável do autômato adaptativo. Estados,
+ * símbolos, submáquinas e ações adaptativas são identificados por inteiros
+ * densos, e as transições ficam armazenadas em vetores no formato de linhas
+ * esparsas comprimidas (CSR), com uma linha por estado, de modo que o espaço
+ * ocupado é proporcional ao número de transições. Dentro de cada linha, as
+ * transições estão ordenadas pela coluna: cada símbolo ocupa uma coluna,
+ * seguido de uma coluna para as transições em vazio e de outra para as
+ * chamadas de submáquinas. As transições de um estado com um dado símbolo
+ * são obtidas por busca binária na linha, sem alocações. A análise
+ * estrutural e o alfabeto são construídos apenas quando solicitados.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class CompiledAutomaton {
+
+    // rótulo das transições
+    // em vazio; chamadas de
+    // submáquinas são rótulos
+    // negativos a partir de -2
+    public static final int EPSILON = -1;
+
+    // ausência de chamada
+    // de função adaptativa
+    public static final int NONE = -1;
+
+    // nomes dos estados,
+    // símbolos e submáquinas
+    final String[] states;
+    final String[] symbols;
+    final String[] submachines;
+
+    // identificadores a partir
+    // dos nomes correspondentes
+    final Map<String, Integer> stateIds;
+    final Map<String, Integer> symbolIds;
+    final Map<String, Integer> submachineIds;
+
+    // início das transições de cada
+    // estado, com uma posição final
+    // adicional
+    final int[] rows;
+
+    // atributos das transições,
+    // na ordem da tabela
+    final int[] source;
+    final int[] target;
+    final int[] label;
+    final int[] order;
+
+    // chamadas de funções adaptativas
+    // anteriores e posteriores de cada
+    // transição, e os seus argumentos
+    final int[] prior;
+    final int[] post;
+    final Object[][] priorArguments;
+    final Object[][] postArguments;
+
+    // submáquinas: estado inicial,
+    // estados e estados de aceitação
+    final int[] initial;
+    final BitSet[] members;
+    final BitSet[] accepting;
+    final int main;
+
+    // ações adaptativas compiladas
+    final String[] actions;
+    final ActionPlan[] plans;
+    final Map<String, Integer> actionIds;
+
+    // maior estado inteiro da
+    // especificação, utilizado para
+    // a geração de estados novos
+    final int maximum;
+
+    // análise estrutural das
+    // submáquinas, obtida apenas
+    // quando solicitada
+    private volatile AutomatonAnalysis analysis;
+
+    // alfabeto, incluindo os símbolos
+    // criados pelas ações adaptativas,
+    // obtido apenas quando solicitado
+    private volatile Alphabet alphabet;
+
+    /**
+     * Construtor.
+     *
+     * @param tables Estruturas construídas pelo compilador.
+     */
+    CompiledAutomaton(AutomatonCompiler.Tables tables) {
+        this.states = tables.states;
+        this.symbols = tables.symbols;
+        this.submachines = tables.submachines;
+        this.stateIds = tables.stateIds;
+        this.symbolIds = tables.symbolIds;
+        this.submachineIds = tables.submachineIds;
+        this.rows = tables.rows;
+        this.source = tables.source;
+        this.target = tables.target;
+        this.label = tables.label;
+        this.order = tables.order;
+        this.prior = tables.prior;
+        this.post = tables.post;
+        this.priorArguments = tables.priorArguments;
+        this.postArguments = tables.postArguments;
+        this.initial = tables.initial;
+        this.members = tables.members;
+        this.accepting = tables.accepting;
+        this.main = tables.main;
+        this.actions = tables.actions;
+        this.plans = tables.plans;
+        this.actionIds = tables.actionIds;
+        this.maximum = tables.maximum;
+    }
+
+    /**
+     * Obtém o rótulo correspondente à chamada da submáquina informada.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Rótulo da chamada.
+     */
+    public static int call(int submachine) {
+        return -2 - submachine;
+    }
+
+    /**
+     * Verifica se o rótulo corresponde a uma chamada de submáquina.
+     *
+     * @param label Rótulo da transição.
+     * @return Valor lógico indicando se o rótulo é uma chamada.
+     */
+    public static boolean isCall(int label) {
+        return label < EPSILON;
+    }
+
+    /**
+     * Obtém a submáquina chamada a partir do rótulo da transição.
+     *
+     * @param label Rótulo de chamada de submáquina.
+     * @return Identificador da submáquina.
+     */
+    public static int called(int label) {
+        return -2 - label;
+    }
+
+    /**
+     * Obtém a coluna da tabela correspondente ao rótulo.
+     *
+     * @param label Rótulo da transição.
+     * @return Coluna da tabela.
+     */
+    public int column(int label) {
+        return label >= 0 ? label : label == EPSILON
+                ? symbols.length : symbols.length + 1;
+    }
+
+    /**
+     * Obtém a coluna das transições em vazio.
+     *
+     * @return Coluna da tabela.
+     */
+    public int epsilon() {
+        return symbols.length;
+    }
+
+    /**
+     * Obtém a coluna das chamadas de submáquinas.
+     *
+     * @return Coluna da tabela.
+     */
+    public int calls() {
+        return symbols.length + 1;
+    }
+
+    /**
+     * Obtém a posição da primeira transição do estado.
+     *
+     * @param state Identificador do estado.
+     * @return Posição da primeira transição.
+     */
+    public int begin(int state) {
+        return rows[state];
+    }
+
+    /**
+     * Obtém a posição seguinte à última transição do estado.
+     *
+     * @param state Identificador do estado.
+     * @return Posição seguinte à última transição.
+     */
+    public int end(int state) {
+        return rows[state + 1];
+    }
+
+    /**
+     * Obtém a posição da primeira transição do par (estado, coluna).
+     *
+     * @param state Identificador do estado.
+     * @param column Coluna da tabela.
+     * @return Posição da primeira transição.
+     */
+    public int begin(int state, int column) {
+        return search(rows[state], rows[state + 1], column);
+    }
+
+    /**
+     * Obtém a posição seguinte à última transição do par (estado, coluna).
+     *
+     * @param state Identificador do estado.
+     * @param column Coluna da tabela.
+     * @return Posição seguinte à última transição.
+     */
+    public int end(int state, int column) {
+        return search(rows[state], rows[state + 1], column + 1);
+    }
+
+    /**
+     * Obtém, por busca binária na linha, a posição da primeira transição
+     * cuja coluna não é menor que a coluna informada.
+     *
+     * @param low Início da linha.
+     * @param high Fim da linha.
+     * @param column Coluna da tabela.
+     * @return Posição encontrada, entre o início e o fim da linha.
+     */
+    private int search(int low, int high, int column) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (column(label[middle]) < column) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Obtém o estado de origem da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Identificador do estado de origem.
+     */
+    public int getSource(int edge) {
+        return source[edge];
+    }
+
+    /**
+     * Obtém o estado de destino da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Identificador do estado de destino.
+     */
+    public int getTarget(int edge) {
+        return target[edge];
+    }
+
+    /**
+     * Obtém o rótulo da transição: o identificador do símbolo, o rótulo de
+     * transição em vazio ou o rótulo de chamada de submáquina.
+     *
+     * @param edge Posição da transição.
+     * @return Rótulo da transição.
+     */
+    public int getLabel(int edge) {
+        return label[edge];
+    }
+
+    /**
+     * Obtém a posição da transição na especificação XML.
+     *
+     * @param edge Posição da transição na tabela.
+     * @return Posição da transição na especificação.
+     */
+    public int getOrder(int edge) {
+        return order[edge];
+    }
+
+    /**
+     * Obtém a ação adaptativa anterior da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Identificador da ação adaptativa, ou {@link #NONE}.
+     */
+    public int getPrior(int edge) {
+        return prior[edge];
+    }
+
+    /**
+     * Obtém a ação adaptativa posterior da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Identificador da ação adaptativa, ou {@link #NONE}.
+     */
+    public int getPost(int edge) {
+        return post[edge];
+    }
+
+    /**
+     * Obtém os argumentos da ação adaptativa anterior da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Argumentos da chamada, ou nulo.
+     */
+    public Object[] getPriorArguments(int edge) {
+        return priorArguments[edge];
+    }
+
+    /**
+     * Obtém os argumentos da ação adaptativa posterior da transição.
+     *
+     * @param edge Posição da transição.
+     * @return Argumentos da chamada, ou nulo.
+     */
+    public Object[] getPostArguments(int edge) {
+        return postArguments[edge];
+    }
+
+    /**
+     * Verifica se a transição possui chamadas de funções adaptativas.
+     *
+     * @param edge Posição da transição.
+     * @return Valor lógico indicando se a transição é adaptativa.
+     */
+    public boolean isAdaptive(int edge) {
+        return prior[edge] != NONE || post[edge] != NONE;
+    }
+
+    /**
+     * Obtém o identificador do estado a partir do nome.
+     *
+     * @param name Nome do estado.
+     * @return Identificador do estado, ou -1 se não existir.
+     */
+    public int getState(String name) {
+        Integer id = stateIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtém o identificador do símbolo a partir do nome.
+     *
+     * @param name Nome do símbolo.
+     * @return Identificador do símbolo, ou -1 se não existir.
+     */
+    public int getSymbol(String name) {
+        Integer id = symbolIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtém o identificador da submáquina a partir do nome.
+     *
+     * @param name Nome da submáquina.
+     * @return Identificador da submáquina, ou -1 se não existir.
+     */
+    public int getSubmachine(String name) {
+        Integer id = submachineIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtém o identificador da ação adaptativa a partir do nome.
+     *
+     * @param name Nome da ação adaptativa.
+     * @return Identificador da ação, ou -1 se não existir.
+     */
+    public int getAction(String name) {
+        Integer id = actionIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtém o nome do estado.
+     *
+     * @param state Identificador do estado.
+     * @return Nome do estado.
+     */
+    public String getStateName(int state) {
+        return states[state];
+    }
+
+    /**
+     * Obtém o nome do símbolo.
+     *
+     * @param symbol Identificador do símbolo.
+     * @return Nome do símbolo.
+     */
+    public String getSymbolName(int symbol) {
+        return symbols[symbol];
+    }
+
+    /**
+     * Obtém o nome da submáquina.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Nome da submáquina.
+     */
+    public String getSubmachineName(int submachine) {
+        return submachines[submachine];
+    }
+
+    /**
+     * Obtém o plano de execução da ação adaptativa.
+     *
+     * @param action Identificador da ação adaptativa.
+     * @return Plano de execução.
+     */
+    public ActionPlan getPlan(int action) {
+        return plans[action];
+    }
+
+    /**
+     * Obtém o estado inicial da submáquina.
+     *
+     * @param submachine Identificador da submáquina.
+     * @return Identificador do estado inicial.
+     */
+    public int getInitial(int submachine) {
+        return initial[submachine];
+    }
+
+    /**
+     * Verifica se o estado pertence à submáquina.
+     *
+     * @param submachine Identificador da submáquina.
+     * @param state Identificador do estado.
+     * @return Valor lógico indicando a pertinência.
+     */
+    public boolean isMember(int submachine, int state) {
+        return members[submachine].get(state);
+    }
+
+    /**
+     * Verifica se o estado é de aceitação na submáquina.
+     *
+     * @param submachine Identificador da submáquina.
+     * @param state Identificador do estado.
+     * @return Valor lógico indicando se o estado é de aceitação.
+     */
+    public boolean isAccepting(int submachine, int state) {
+        return accepting[submachine].get(state);
+    }
+
+    /**
+     * Obtém a submáquina principal.
+     *
+     * @return Identificador da submáquina principal.
+     */
+    public int getMain() {
+        return main;
+    }
+
+    /**
+     * Obtém o número de estados.
+     *
+     * @return Número de estados.
+     */
+    public int getStateCount() {
+        return states.length;
+    }
+
+    /**
+     * Obtém o número de símbolos.
+     *
+     * @return Número de símbolos.
+     */
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Obtém o número de submáquinas.
+     *
+     * @return Número de submáquinas.
+     */
+    public int getSubmachineCount() {
+        return submachines.length;
+    }
+
+    /**
+     * Obtém o número de transições.
+     *
+     * @return Número de transições.
+     */
+    public int getTransitionCount() {
+        return target.length;
+    }
+
+    /**
+     * Obtém o número de ações adaptativas.
+     *
+     * @return Número de ações adaptativas.
+     */
+    public int getActionCount() {
+        return actions.length;
+    }
+
+    /**
+     * Obtém o maior estado inteiro da especificação.
+     *
+     * @return Maior estado inteiro.
+     */
+    public int getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Obtém a análise estrutural das submáquinas, construída na primeira
+     * solicitação.
+     *
+     * @return Análise estrutural.
+     */
+    public AutomatonAnalysis getAnalysis() {
+        AutomatonAnalysis result = analysis;
+        if (result == null) {
+            synchronized (this) {
+                result = analysis;
+                if (result == null) {
+                    result = new AutomatonAnalysis(this);
+                    analysis = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtém o alfabeto, construído na primeira solicitação.
+     *
+     * @return Alfabeto.
+     */
+    public Alphabet getAlphabet() {
+        Alphabet result = alphabet;
+        if (result == null) {
+            synchronized (this) {
+                result = alphabet;
+                if (result == null) {
+                    result = new Alphabet(this);
+                    alphabet = result;
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,293 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import java.util.Set;
+
+/**
+ * Índice da especificação XML do autômato adaptativo, obtido em uma única
+ * passagem pelas transições durante a validação. Contém os estados já
+ * convertidos para inteiros, o alfabeto, os alvos das chamadas e as
+ * contagens por categoria, de modo que o construtor e o relatório de
+ * informações não precisem percorrer a especificação novamente. O índice
+ * só é consistente para especificações válidas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SpecIndex {
+
+    // número de contagens
+    // por categoria
+    public static final int COUNTS = 9;
+
+    // estados de origem e destino
+    // de cada transição, na ordem
+    // da especificação
+    int[] from;
+    int[] to;
+
+    // estados distintos (transições e
+    // submáquinas), em ordem crescente,
+    // e o maior estado da especificação
+    int[] states;
+    int maximum;
+
+    // número de estados distintos
+    // declarados nas submáquinas
+    int submachineStates;
+
+    // alfabeto, chamadas de submáquinas
+    // e chamadas de funções adaptativas
+    Set<String> symbols;
+    Set<String> submachineCalls;
+    Set<String> actionCalls;
+
+    // contagens por categoria
+    int transitions;
+    int symbolTransitions;
+    int emptyTransitions;
+    int callTransitions;
+    int adaptiveTransitions;
+    int priorCalls;
+    int postCalls;
+    int submachines;
+    int actions;
+
+    /**
+     * Construtor.
+     */
+    SpecIndex() {
+    }
+
+    /**
+     * Construtor, utilizado na restauração de um índice previamente obtido
+     * de uma especificação válida, como o armazenado na representação
+     * binária da especificação.
+     *
+     * @param from Estados de origem de cada transição.
+     * @param to Estados de destino de cada transição.
+     * @param states Estados distintos, em ordem crescente.
+     * @param maximum Maior estado da especificação.
+     * @param submachineStates Número de estados declarados nas submáquinas.
+     * @param symbols Alfabeto, na ordem da especificação.
+     * @param submachineCalls Chamadas de submáquinas.
+     * @param actionCalls Chamadas de funções adaptativas.
+     * @param counts Contagens por categoria: transições, transições com
+     * consumo de símbolo, em vazio, com chamada de submáquina e com chamadas
+     * de funções adaptativas, chamadas anteriores e posteriores, submáquinas
+     * e ações adaptativas, nesta ordem.
+     */
+    public SpecIndex(int[] from, int[] to, int[] states, int maximum,
+            int submachineStates, Set<String> symbols,
+            Set<String> submachineCalls, Set<String> actionCalls,
+            int[] counts) {
+        if (counts.length != COUNTS) {
+            throw new IllegalArgumentException(String.format("O índice da "
+                    + "especificação requer %d contagens por categoria, mas "
+                    + "foram informadas %d. O programa será encerrado.",
+                    COUNTS, counts.length));
+        }
+        this.from = from;
+        this.to = to;
+        this.states = states;
+        this.maximum = maximum;
+        this.submachineStates = submachineStates;
+        this.symbols = symbols;
+        this.submachineCalls = submachineCalls;
+        this.actionCalls = actionCalls;
+        this.transitions = counts[0];
+        this.symbolTransitions = counts[1];
+        this.emptyTransitions = counts[2];
+        this.callTransitions = counts[3];
+        this.adaptiveTransitions = counts[4];
+        this.priorCalls = counts[5];
+        this.postCalls = counts[6];
+        this.submachines = counts[7];
+        this.actions = counts[8];
+    }
+
+    /**
+     * Obtém as contagens por categoria, na ordem do construtor.
+     *
+     * @return Contagens por categoria.
+     */
+    public int[] getCounts() {
+        return new int[]{transitions, symbolTransitions, emptyTransitions,
+            callTransitions, adaptiveTransitions, priorCalls, postCalls,
+            submachines, actions};
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int[] getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int[] getTo() {
+        return to;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int[] getStates() {
+        return states;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getSubmachineStates() {
+        return submachineStates;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Set<String> getSubmachineCalls() {
+        return submachineCalls;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Set<String> getActionCalls() {
+        return actionCalls;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getSymbolTransitions() {
+        return symbolTransitions;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getEmptyTransitions() {
+        return emptyTransitions;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getCallTransitions() {
+        return callTransitions;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getAdaptiveTransitions() {
+        return adaptiveTransitions;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getPriorCalls() {
+        return priorCalls;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getPostCalls() {
+        return postCalls;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getSubmachines() {
+        return submachines;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getActions() {
+        return actions;
+    }
+
+}
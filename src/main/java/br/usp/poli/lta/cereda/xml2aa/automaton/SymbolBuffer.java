@@ -0,0 +1,135 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import java.util.Arrays;
+
+/**
+ * Buffer reutilizável com uma cadeia codificada em identificadores de
+ * símbolos do alfabeto. Símbolos ausentes do alfabeto são armazenados como
+ * valores negativos, a partir dos quais o ponto de código original pode ser
+ * obtido por {@link Alphabet#codePoint(int)}.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SymbolBuffer {
+
+    // capacidade inicial
+    private static final int CAPACITY = 64;
+
+    // símbolos codificados, quantidade
+    // e posição do primeiro ausente
+    private int[] symbols;
+    private int length;
+    private int absent;
+
+    /**
+     * Construtor.
+     */
+    public SymbolBuffer() {
+        this(CAPACITY);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param capacity Capacidade inicial.
+     */
+    public SymbolBuffer(int capacity) {
+        this.symbols = new int[Math.max(1, capacity)];
+        this.absent = -1;
+    }
+
+    /**
+     * Obtém o vetor de símbolos, válido até a quantidade de símbolos
+     * codificados e reaproveitado nas codificações seguintes.
+     *
+     * @return Vetor de símbolos.
+     */
+    public int[] getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Obtém a posição do primeiro símbolo ausente do alfabeto.
+     *
+     * @return Posição do símbolo, ou -1 se todos os símbolos existirem.
+     */
+    public int getAbsent() {
+        return absent;
+    }
+
+    /**
+     * Verifica se algum símbolo está ausente do alfabeto.
+     *
+     * @return Valor lógico indicando a existência de símbolos ausentes.
+     */
+    public boolean hasAbsent() {
+        return absent != -1;
+    }
+
+    /**
+     * Esvazia o buffer, mantendo a capacidade.
+     */
+    public void clear() {
+        length = 0;
+        absent = -1;
+    }
+
+    /**
+     * Garante a capacidade do buffer, preservando os símbolos.
+     *
+     * @param capacity Capacidade mínima.
+     */
+    void reserve(int capacity) {
+        if (capacity > symbols.length) {
+            symbols = Arrays.copyOf(symbols, Math.max(capacity,
+                    symbols.length + (symbols.length >> 1)));
+        }
+    }
+
+    /**
+     * Inclui o símbolo ao final do buffer.
+     *
+     * @param symbol Identificador do símbolo, ou valor negativo se ausente.
+     */
+    void add(int symbol) {
+        if (length == symbols.length) {
+            reserve(length + 1);
+        }
+        if (symbol < 0 && absent == -1) {
+            absent = length;
+        }
+        symbols[length++] = symbol;
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Divisão incremental de uma cadeia em símbolos do alfabeto, com a maior
+ * correspondência a partir de cada posição, para cadeias fornecidas em
+ * partes. Os pontos de código são mantidos apenas enquanto um símbolo mais
+ * longo ainda é possível, de modo que a memória utilizada é limitada pelo
+ * maior nome do alfabeto.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Tokenizer {
+
+    // alfabeto e destino
+    // dos símbolos obtidos
+    private final Alphabet alphabet;
+    private final IntConsumer sink;
+
+    // pontos de código pendentes
+    // desde o início do símbolo
+    private final int[] pending;
+    private int size;
+
+    // nó corrente, pontos de código
+    // já percorridos e a maior
+    // correspondência encontrada
+    private int node;
+    private int scanned;
+    private int symbol;
+    private int matched;
+
+    /**
+     * Construtor.
+     *
+     * @param alphabet Alfabeto do autômato.
+     * @param sink Destino dos símbolos, com os pontos de código ausentes como
+     * valores negativos.
+     */
+    public Tokenizer(Alphabet alphabet, IntConsumer sink) {
+        this.alphabet = alphabet;
+        this.sink = sink;
+        this.pending = new int[alphabet.getDepth() + 1];
+        reset();
+    }
+
+    /**
+     * Fornece o ponto de código seguinte da cadeia.
+     *
+     * @param code Ponto de código.
+     */
+    public void push(int code) {
+        pending[size++] = code;
+        drain(false);
+    }
+
+    /**
+     * Conclui a divisão, emitindo os símbolos pendentes.
+     */
+    public void flush() {
+        drain(true);
+    }
+
+    /**
+     * Percorre os pontos de código pendentes, emitindo os símbolos cuja
+     * correspondência não pode mais ser estendida.
+     *
+     * @param end Não há pontos de código seguintes.
+     */
+    private void drain(boolean end) {
+        while (size > 0) {
+            while (scanned < size) {
+                int next = alphabet.child(node, pending[scanned]);
+                if (next == Alphabet.NONE) {
+                    break;
+                }
+                node = next;
+                scanned++;
+                if (alphabet.token(node) != Alphabet.ABSENT) {
+                    symbol = alphabet.token(node);
+                    matched = scanned;
+                }
+            }
+
+            // a correspondência ainda pode
+            // ser estendida pelos pontos
+            // de código seguintes
+            if (!end && scanned == size && alphabet.isInner(node)) {
+                return;
+            }
+
+            // emite a maior correspondência ou
+            // o primeiro ponto de código como
+            // ausente, percorrendo novamente
+            // os pontos de código restantes
+            int length;
+            if (symbol == Alphabet.ABSENT) {
+                sink.accept(Alphabet.absent(pending[0]));
+                length = 1;
+            } else {
+                sink.accept(symbol);
+                length = matched;
+            }
+            size -= length;
+            System.arraycopy(pending, length, pending, 0, size);
+            reset();
+        }
+    }
+
+    /**
+     * Reinicia a correspondência a partir da raiz da árvore de prefixos.
+     */
+    private void reset() {
+        node = Alphabet.ROOT;
+        scanned = 0;
+        symbol = Alphabet.ABSENT;
+        matched = 0;
+    }
+
+}
@@ -0,0 +1,383 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.batch;
+
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Result;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Reconhecimento em lote de um arquivo com uma cadeia por linha. O arquivo é
+ * lido por mapeamento em memória, em regiões, e as linhas são agrupadas em
+ * partes reconhecidas por N linhas de execução, cada uma com o reconhecedor
+ * obtido da fábrica informada, uma única vez por linha de execução. Os
+ * resultados de cada parte são formatados pela própria linha de execução e
+ * escritos no canal de saída na ordem das linhas, por meio de um buffer; a
+ * fila de partes pendentes é limitada, de modo que nem a entrada nem a saída
+ * sejam mantidas inteiramente em memória.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class BatchRecognizer {
+
+    // cadeias de cada parte
+    private static final int CHUNK = 1024;
+
+    // tamanho inicial de cada
+    // região mapeada do arquivo
+    private static final long REGION = 1L << 26;
+
+    // tamanho do buffer de saída
+    private static final int BUFFER = 1 << 16;
+
+    // término da leitura
+    private static final Part END = new Part(null, null);
+
+    // atributos da classe
+    private final Supplier<Recognizer> factory;
+    private final Mode mode;
+    private final int workers;
+    private final Format format;
+
+    /**
+     * Construtor.
+     *
+     * @param factory Fábrica de reconhecedores, chamada uma vez por linha de
+     * execução.
+     * @param mode Modo de reconhecimento.
+     * @param workers Número de linhas de execução.
+     * @param format Formato de saída.
+     */
+    public BatchRecognizer(Supplier<Recognizer> factory, Mode mode,
+            int workers, Format format) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException(String.format("O "
+                    + "reconhecimento em lote requer um número positivo de "
+                    + "linhas de execução, mas foi informado %d. Por favor, "
+                    + "verifique o valor informado. O programa será "
+                    + "encerrado.", workers));
+        }
+        this.factory = factory;
+        this.mode = mode;
+        this.workers = workers;
+        this.format = format;
+    }
+
+    /**
+     * Reconhece as cadeias do arquivo de entrada, escrevendo os resultados
+     * no arquivo de saída, que é criado ou substituído.
+     *
+     * @param input Arquivo de entrada, com uma cadeia por linha.
+     * @param output Arquivo de saída.
+     * @return Resumo do reconhecimento.
+     * @throws IOException Erro de leitura, escrita ou reconhecimento.
+     */
+    public BatchReport run(Path input, Path output) throws IOException {
+        try (FileChannel channel = FileChannel.open(output,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return run(input, channel);
+        }
+    }
+
+    /**
+     * Reconhece as cadeias do arquivo de entrada, escrevendo os resultados
+     * no canal de saída, que não é fechado.
+     *
+     * @param input Arquivo de entrada, com uma cadeia por linha.
+     * @param output Canal de saída.
+     * @return Resumo do reconhecimento.
+     * @throws IOException Erro de leitura, escrita ou reconhecimento.
+     */
+    public BatchReport run(Path input, WritableByteChannel output)
+            throws IOException {
+        long start = System.nanoTime();
+        BatchReport report = new BatchReport();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        ThreadLocal<Recognizer> recognizers = ThreadLocal.withInitial(factory);
+        BlockingQueue<Future<Part>> queue = new ArrayBlockingQueue<>(
+                workers * 2);
+
+        // a leitura ocorre em uma linha de
+        // execução própria, e a escrita,
+        // na linha de execução corrente
+        Thread reader = new Thread(() -> read(input, executor, recognizers,
+                queue), "xml2aa-batch-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+            write(output, buffer, ByteBuffer.wrap(format.header().
+                    getBytes(StandardCharsets.UTF_8)));
+            while (true) {
+                Part part = queue.take().get();
+                if (part == END) {
+                    break;
+                }
+                write(output, buffer, part.data);
+                report.add(part.counts);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("O reconhecimento em lote foi "
+                    + "interrompido antes do seu término. O programa será "
+                    + "encerrado.", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
+            throw new IOException("O reconhecimento em lote encontrou um "
+                    + "erro em uma das cadeias: " + exception.getCause().
+                    getMessage(), exception.getCause());
+        } finally {
+            reader.interrupt();
+            executor.shutdownNow();
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Lê o arquivo de entrada por regiões mapeadas em memória, submetendo
+     * as partes às linhas de execução e incluindo os resultados pendentes na
+     * fila, na ordem das linhas. Uma linha maior que a região corrente faz
+     * com que a região seguinte seja maior.
+     *
+     * @param input Arquivo de entrada.
+     * @param executor Linhas de execução.
+     * @param recognizers Reconhecedores de cada linha de execução.
+     * @param queue Fila de resultados pendentes.
+     */
+    private void read(Path input, ExecutorService executor,
+            ThreadLocal<Recognizer> recognizers,
+            BlockingQueue<Future<Part>> queue) {
+        try {
+            try (FileChannel channel = FileChannel.open(input,
+                    StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = 0;
+                long window = REGION;
+                long line = 1;
+                String[] inputs = new String[CHUNK];
+                int count = 0;
+                while (position < size) {
+                    long length = Math.min(window, size - position);
+                    boolean last = position + length == size;
+                    MappedByteBuffer region = channel.map(
+                            FileChannel.MapMode.READ_ONLY, position, length);
+                    int begin = 0;
+                    int limit = (int) length;
+                    for (int i = 0; i < limit; i++) {
+                        if (region.get(i) == '\n') {
+                            inputs[count++] = decode(region, begin, i);
+                            begin = i + 1;
+                            if (count == CHUNK) {
+                                submit(inputs, count, line, executor,
+                                        recognizers, queue);
+                                line += count;
+                                inputs = new String[CHUNK];
+                                count = 0;
+                            }
+                        }
+                    }
+
+                    // a última linha pode não possuir
+                    // a quebra; nas demais regiões, a
+                    // linha incompleta é relida
+                    if (last) {
+                        if (begin < limit) {
+                            inputs[count++] = decode(region, begin, limit);
+                        }
+                        position = size;
+                    } else if (begin == 0) {
+                        if (window == Integer.MAX_VALUE) {
+                            throw new IOException(String.format("A linha "
+                                    + "iniciada na posição %d do arquivo de "
+                                    + "entrada excede o tamanho máximo "
+                                    + "suportado pelo reconhecimento em "
+                                    + "lote. O programa será encerrado.",
+                                    position));
+                        }
+                        window = Math.min(window * 2, Integer.MAX_VALUE);
+                    } else {
+                        position += begin;
+                        window = REGION;
+                    }
+                }
+                if (count > 0) {
+                    submit(inputs, count, line, executor, recognizers, queue);
+                }
+            }
+            queue.put(CompletableFuture.completedFuture(END));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException exception) {
+            // a falha aguarda espaço na fila, pois
+            // a escrita aguarda o próximo resultado;
+            // a espera é interrompida apenas se a
+            // escrita for encerrada antes
+            CompletableFuture<Part> failure = new CompletableFuture<>();
+            failure.completeExceptionally(exception);
+            try {
+                queue.put(failure);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Submete a parte às linhas de execução, incluindo o resultado pendente
+     * na fila e aguardando caso esta esteja cheia.
+     *
+     * @param inputs Cadeias da parte.
+     * @param count Quantidade de cadeias.
+     * @param line Número da linha da primeira cadeia.
+     * @param executor Linhas de execução.
+     * @param recognizers Reconhecedores de cada linha de execução.
+     * @param queue Fila de resultados pendentes.
+     * @throws InterruptedException A espera foi interrompida.
+     */
+    private void submit(String[] inputs, int count, long line,
+            ExecutorService executor, ThreadLocal<Recognizer> recognizers,
+            BlockingQueue<Future<Part>> queue) throws InterruptedException {
+        queue.put(executor.submit(() -> recognize(recognizers.get(), inputs,
+                count, line)));
+    }
+
+    /**
+     * Reconhece as cadeias da parte, formatando os resultados.
+     *
+     * @param recognizer Reconhecedor da linha de execução.
+     * @param inputs Cadeias da parte.
+     * @param count Quantidade de cadeias.
+     * @param line Número da linha da primeira cadeia.
+     * @return Resultados formatados e quantidades de cada veredito.
+     */
+    private Part recognize(Recognizer recognizer, String[] inputs, int count,
+            long line) {
+        StringBuilder output = new StringBuilder(count * 48);
+        long[] counts = new long[Verdict.values().length];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            Result result = recognizer.recognize(inputs[i], mode);
+            long latency = System.nanoTime() - start;
+            format.append(output, line + i, result, latency);
+            counts[result.getVerdict().ordinal()]++;
+        }
+        return new Part(StandardCharsets.UTF_8.encode(CharBuffer.wrap(
+                output)), counts);
+    }
+
+    /**
+     * Decodifica a linha da região, sem a quebra de linha.
+     *
+     * @param region Região mapeada.
+     * @param begin Posição inicial.
+     * @param end Posição da quebra de linha, ou do término da região.
+     * @return Cadeia correspondente.
+     */
+    private static String decode(ByteBuffer region, int begin, int end) {
+        if (end > begin && region.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - begin];
+        ByteBuffer slice = region.duplicate();
+        slice.position(begin);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escreve os dados no canal por meio do buffer, que é esvaziado apenas
+     * quando cheio.
+     *
+     * @param output Canal de saída.
+     * @param buffer Buffer de saída.
+     * @param data Dados a serem escritos.
+     * @throws IOException Erro de escrita.
+     */
+    private static void write(WritableByteChannel output, ByteBuffer buffer,
+            ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    output.write(buffer);
+                }
+                buffer.clear();
+            }
+            int length = Math.min(buffer.remaining(), data.remaining());
+            ByteBuffer slice = data.duplicate();
+            slice.limit(slice.position() + length);
+            buffer.put(slice);
+            data.position(data.position() + length);
+        }
+    }
+
+    /**
+     * Parte reconhecida: os resultados formatados e as quantidades de cada
+     * veredito.
+     */
+    private static class Part {
+
+        // atributos da classe
+        final ByteBuffer data;
+        final long[] counts;
+
+        /**
+         * Construtor.
+         *
+         * @param data Resultados formatados.
+         * @param counts Quantidades indexadas pelos vereditos.
+         */
+        Part(ByteBuffer data, long[] counts) {
+            this.data = data;
+            this.counts = counts;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.batch;
+
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de um reconhecimento em lote: a quantidade de cadeias de cada
+ * veredito e o tempo total.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class BatchReport {
+
+    // cadeias de cada veredito
+    // e tempo total
+    private final long[] verdicts;
+    private long elapsed;
+
+    /**
+     * Construtor.
+     */
+    BatchReport() {
+        this.verdicts = new long[Verdict.values().length];
+    }
+
+    /**
+     * Acumula as quantidades de cadeias de cada veredito.
+     *
+     * @param counts Quantidades indexadas pelos vereditos.
+     */
+    void add(long[] counts) {
+        for (int i = 0; i < verdicts.length; i++) {
+            verdicts[i] += counts[i];
+        }
+    }
+
+    /**
+     * Define o tempo total.
+     *
+     * @param elapsed Tempo total, em nanossegundos.
+     */
+    void finish(long elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Obtém a quantidade de cadeias reconhecidas.
+     *
+     * @return Quantidade de cadeias.
+     */
+    public long getInputs() {
+        long total = 0;
+        for (long count : verdicts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Obtém a quantidade de cadeias com o veredito informado.
+     *
+     * @param verdict Veredito.
+     * @return Quantidade de cadeias.
+     */
+    public long getCount(Verdict verdict) {
+        return verdicts[verdict.ordinal()];
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Obtém a quantidade de cadeias reconhecidas por segundo.
+     *
+     * @return Cadeias por segundo.
+     */
+    public double getThroughput() {
+        return elapsed == 0 ? 0
+                : getInputs() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Obtém a representação textual do resumo.
+     *
+     * @return Representação textual.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d cadeias (%d aceitas, %d rejeitadas, %d "
+                + "inconclusivas) em %d ms, %.0f cadeias por segundo",
+                getInputs(), getCount(Verdict.ACCEPTED),
+                getCount(Verdict.REJECTED), getCount(Verdict.INCONCLUSIVE),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), getThroughput());
+    }
+
+}
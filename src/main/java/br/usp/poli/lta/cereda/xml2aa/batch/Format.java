@@ -0,0 +1,135 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.batch;
+
+import br.usp.poli.lta.cereda.xml2aa.recognition.Result;
+
+/**
+ * Formatos de saída do reconhecimento em lote. Cada cadeia produz uma linha
+ * com o número da linha de entrada, o veredito, a latência em nanossegundos,
+ * a quantidade de caminhos, a quantidade de passos e o limite atingido, se
+ * existir: em valores separados por vírgulas, com uma linha de cabeçalho, ou
+ * em um objeto JSON por linha.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Format {
+
+    CSV("csv"),
+    JSONL("jsonl");
+
+    // atributos da classe
+    private final String name;
+
+    /**
+     * Construtor.
+     *
+     * @param name Nome do formato na linha de comando, também utilizado
+     * como extensão do arquivo.
+     */
+    private Format(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Obtém a extensão do arquivo de saída.
+     *
+     * @return Extensão do arquivo.
+     */
+    public String getExtension() {
+        return name;
+    }
+
+    /**
+     * Obtém o cabeçalho do arquivo de saída.
+     *
+     * @return Cabeçalho, possivelmente vazio.
+     */
+    public String header() {
+        return this == CSV ? "line,verdict,latency_ns,paths,steps,limit\n"
+                : "";
+    }
+
+    /**
+     * Inclui a linha correspondente ao resultado.
+     *
+     * @param output Saída.
+     * @param line Número da linha de entrada, a partir de 1.
+     * @param result Resultado do reconhecimento.
+     * @param latency Latência do reconhecimento, em nanossegundos.
+     */
+    public void append(StringBuilder output, long line, Result result,
+            long latency) {
+        String limit = result.getLimit() == null ? null
+                : result.getLimit().name();
+        if (this == CSV) {
+            output.append(line).append(',').
+                    append(result.getVerdict().name()).append(',').
+                    append(latency).append(',').
+                    append(result.getPaths()).append(',').
+                    append(result.getSteps()).append(',');
+            if (limit != null) {
+                output.append(limit);
+            }
+        } else {
+            output.append("{\"line\":").append(line).
+                    append(",\"verdict\":\"").
+                    append(result.getVerdict().name()).
+                    append("\",\"latency_ns\":").append(latency).
+                    append(",\"paths\":").append(result.getPaths()).
+                    append(",\"steps\":").append(result.getSteps()).
+                    append(",\"limit\":");
+            if (limit == null) {
+                output.append("null");
+            } else {
+                output.append('"').append(limit).append('"');
+            }
+            output.append('}');
+        }
+        output.append('\n');
+    }
+
+    /**
+     * Obtém o formato de acordo com o nome informado. Os nomes válidos são
+     * 'csv' e 'jsonl'.
+     *
+     * @param name Nome do formato.
+     * @return Formato correspondente, ou nulo se o nome for nulo.
+     * @throws Exception O nome do formato é inválido.
+     */
+    public static Format of(String name) throws Exception {
+        if (name == null) {
+            return null;
+        }
+        for (Format format : values()) {
+            if (format.name.equals(name)) {
+                return format;
+            }
+        }
+        throw new Exception("O formato de saída '" + name + "' não existe. "
+                + "Os valores válidos são 'csv' e 'jsonl'. Por favor, "
+                + "verifique o valor informado e tente novamente. O "
+                + "programa será encerrado.");
+    }
+
+}
@@ -0,0 +1,567 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.model;
+
+import br.usp.poli.lta.cereda.aa.examples.ExampleState;
+import br.usp.poli.lta.cereda.aa.examples.ExampleSymbol;
+import br.usp.poli.lta.cereda.aa.model.actions.ActionQuery;
+import br.usp.poli.lta.cereda.aa.model.actions.Variable;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plano de execução de uma ação adaptativa, compilado uma única vez a partir
+ * da especificação XML. Cada nome de parâmetro, variável ou gerador ocupa uma
+ * posição em um quadro de valores, e cada operando das ações adaptativas
+ * elementares tem o seu tipo e a sua posição resolvidos na compilação, de
+ * modo que a execução não realize comparações de cadeias nem buscas em
+ * listas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class ActionPlan {
+
+    /**
+     * Tipos de ações adaptativas elementares.
+     */
+    public enum ActionType {
+        QUERY,
+        ADD,
+        REMOVE
+    }
+
+    /**
+     * Tipos de operandos, de acordo com a forma de obtenção do valor.
+     */
+    public enum OperandType {
+
+        // valor constante
+        // da especificação
+        LITERAL,
+
+        // variável ligada
+        // no quadro
+        VARIABLE,
+
+        // estado obtido a partir
+        // do valor no quadro
+        STATE,
+
+        // símbolo obtido a partir
+        // do valor no quadro
+        SYMBOL,
+
+        // nome obtido a partir
+        // do valor no quadro
+        NAME,
+
+        // próprio valor no quadro
+        VALUE
+    }
+
+    // atributos da classe
+    private final String name;
+    private final int size;
+    private final int[] parameters;
+    private final int[] variables;
+    private final int[] generators;
+    private final Operation[] operations;
+
+    // posições dos nomes no quadro,
+    // utilizadas apenas durante
+    // a compilação
+    private final Map<String, Integer> slots;
+
+    /**
+     * Construtor.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     */
+    private ActionPlan(XMLAdaptiveAction xml) {
+        this.name = xml.getName();
+        this.slots = new HashMap<>();
+
+        // as posições seguem a ordem de
+        // ligação (parâmetros, variáveis
+        // e geradores), de modo que nomes
+        // repetidos compartilhem a posição
+        this.parameters = allocate(xml.getParameters());
+        this.variables = allocate(xml.getVariables());
+        this.generators = allocate(xml.getGenerators());
+        this.size = slots.size();
+
+        // compila cada ação
+        // adaptativa elementar
+        List<XMLAction> actions = xml.getActions();
+        this.operations = new Operation[actions == null ? 0 : actions.size()];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new Operation(xml, actions.get(i));
+        }
+        slots.clear();
+    }
+
+    /**
+     * Compila a especificação XML da ação adaptativa em um plano de execução.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     * @return Plano de execução.
+     */
+    public static ActionPlan compile(XMLAdaptiveAction xml) {
+        return new ActionPlan(xml);
+    }
+
+    /**
+     * Atribui posições do quadro aos nomes informados.
+     *
+     * @param names Lista de nomes.
+     * @return Posições correspondentes aos nomes.
+     */
+    private int[] allocate(List<String> names) {
+        int[] result = new int[names.size()];
+        for (int i = 0; i < result.length; i++) {
+            Integer slot = slots.get(names.get(i));
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(names.get(i), slot);
+            }
+            result[i] = slot;
+        }
+        return result;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtém o tamanho do quadro de valores.
+     *
+     * @return Tamanho do quadro.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtém as posições dos parâmetros no quadro.
+     *
+     * @return Posições dos parâmetros.
+     */
+    public int[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Obtém as posições das variáveis no quadro.
+     *
+     * @return Posições das variáveis.
+     */
+    public int[] getVariables() {
+        return variables;
+    }
+
+    /**
+     * Obtém as posições dos geradores no quadro.
+     *
+     * @return Posições dos geradores.
+     */
+    public int[] getGenerators() {
+        return generators;
+    }
+
+    /**
+     * Obtém as operações compiladas.
+     *
+     * @return Operações compiladas.
+     */
+    public Operation[] getOperations() {
+        return operations;
+    }
+
+    /**
+     * Verifica se o plano altera o mapeamento de transições, isto é, se
+     * possui inclusões ou remoções.
+     *
+     * @return Valor lógico indicando a alteração do mapeamento.
+     */
+    public boolean isModifying() {
+        for (Operation operation : operations) {
+            if (operation.getType() != ActionType.QUERY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compila um operando, considerando a ordem de resolução de nomes
+     * informada. O primeiro conjunto de nomes que contém o valor determina a
+     * forma de obtenção deste.
+     *
+     * @param value Valor do operando na especificação.
+     * @param literal Valor constante, caso o operando não seja um nome.
+     * @param rules Pares de conjuntos de nomes e tipos de operandos.
+     * @return Operando compilado.
+     */
+    private Operand operand(String value, Object literal, Object... rules) {
+        for (int i = 0; i < rules.length; i += 2) {
+            if (((List<?>) rules[i]).contains(value)) {
+                return new Operand((OperandType) rules[i + 1],
+                        slots.get(value), null, value);
+            }
+        }
+        return new Operand(OperandType.LITERAL, -1, literal, value);
+    }
+
+    /**
+     * Compila o operando referente a um estado.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     * @param value Valor do operando.
+     * @return Operando compilado.
+     */
+    private Operand state(XMLAdaptiveAction xml, String value) {
+        return operand(value, new ExampleState(value),
+                xml.getVariables(), OperandType.VARIABLE,
+                xml.getGenerators(), OperandType.STATE,
+                xml.getParameters(), OperandType.STATE);
+    }
+
+    /**
+     * Compila o operando referente a um símbolo; o valor nulo indica uma
+     * transição em vazio.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     * @param value Valor do operando.
+     * @return Operando compilado.
+     */
+    private Operand symbol(XMLAdaptiveAction xml, String value) {
+        if (value == null) {
+            return new Operand(OperandType.LITERAL, -1, null, null);
+        }
+        return operand(value, new ExampleSymbol(value),
+                xml.getVariables(), OperandType.VARIABLE,
+                xml.getParameters(), OperandType.SYMBOL);
+    }
+
+    /**
+     * Compila o operando referente a uma submáquina.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     * @param value Valor do operando.
+     * @return Operando compilado.
+     */
+    private Operand submachine(XMLAdaptiveAction xml, String value) {
+        return operand(value, value,
+                xml.getVariables(), OperandType.VARIABLE,
+                xml.getParameters(), OperandType.NAME);
+    }
+
+    /**
+     * Compila a chamada de função adaptativa.
+     *
+     * @param xml Especificação XML da ação adaptativa.
+     * @param call Chamada de função adaptativa.
+     * @return Chamada compilada, ou nulo se não existir.
+     */
+    private Call call(XMLAdaptiveAction xml, XMLActionCall call) {
+        if (call == null) {
+            return null;
+        }
+
+        // o nome da ação adaptativa
+        // chamada pode ser uma variável
+        // ou um parâmetro
+        Operand target = operand(call.getName(), call.getName(),
+                xml.getVariables(), OperandType.VARIABLE,
+                xml.getParameters(), OperandType.VALUE);
+
+        // argumentos da chamada,
+        // se existirem
+        Operand[] arguments = null;
+        if (call.getParameters() != null) {
+            arguments = new Operand[call.getParameters().size()];
+            for (int i = 0; i < arguments.length; i++) {
+                String value = call.getParameters().get(i);
+                arguments[i] = operand(value, value,
+                        xml.getVariables(), OperandType.VARIABLE,
+                        xml.getGenerators(), OperandType.STATE,
+                        xml.getParameters(), OperandType.VALUE);
+            }
+        }
+        return new Call(target, arguments);
+    }
+
+    /**
+     * Operando compilado de uma ação adaptativa elementar.
+     */
+    public static class Operand {
+
+        // atributos da classe
+        private final OperandType type;
+        private final int slot;
+        private final Object literal;
+        private final String value;
+
+        /**
+         * Construtor.
+         *
+         * @param type Tipo do operando.
+         * @param slot Posição no quadro.
+         * @param literal Valor constante.
+         * @param value Valor textual do operando na especificação.
+         */
+        Operand(OperandType type, int slot, Object literal, String value) {
+            this.type = type;
+            this.slot = slot;
+            this.literal = literal;
+            this.value = value;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public OperandType getType() {
+            return type;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public int getSlot() {
+            return slot;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Obtém a variável correspondente ao operando no quadro informado.
+         *
+         * @param frame Quadro de valores.
+         * @return Variável correspondente.
+         */
+        Variable resolve(Object[] frame) {
+            switch (type) {
+                case VARIABLE:
+                    return (Variable) frame[slot];
+                case STATE:
+                    return new Variable(new ExampleState(
+                            frame[slot].toString()));
+                case SYMBOL:
+                    return new Variable(new ExampleSymbol(
+                            frame[slot].toString()));
+                case NAME:
+                    return new Variable(frame[slot].toString());
+                case VALUE:
+                    return new Variable(frame[slot]);
+                default:
+                    return new Variable(literal);
+            }
+        }
+
+    }
+
+    /**
+     * Chamada de função adaptativa compilada.
+     */
+    public static class Call {
+
+        // atributos da classe
+        private final Operand target;
+        private final Operand[] arguments;
+
+        /**
+         * Construtor.
+         *
+         * @param target Nome da ação adaptativa chamada.
+         * @param arguments Argumentos da chamada, ou nulo.
+         */
+        Call(Operand target, Operand[] arguments) {
+            this.target = target;
+            this.arguments = arguments;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Operand getTarget() {
+            return target;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Operand[] getArguments() {
+            return arguments;
+        }
+
+        /**
+         * Obtém a consulta de ação correspondente no quadro informado.
+         *
+         * @param frame Quadro de valores.
+         * @return Consulta de ação.
+         */
+        ActionQuery resolve(Object[] frame) {
+            Variable action = target.resolve(frame);
+            if (arguments == null) {
+                return new ActionQuery(action);
+            }
+            Variable[] args = new Variable[arguments.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = arguments[i].resolve(frame);
+            }
+            return new ActionQuery(action, args);
+        }
+
+    }
+
+    /**
+     * Ação adaptativa elementar compilada.
+     */
+    public class Operation {
+
+        // atributos da classe
+        final ActionType type;
+        final boolean call;
+        final Operand from;
+        final Operand to;
+        final Operand label;
+        final Call prior;
+        final Call post;
+
+        /**
+         * Construtor.
+         *
+         * @param xml Especificação XML da ação adaptativa.
+         * @param action Especificação XML da ação adaptativa elementar.
+         */
+        Operation(XMLAdaptiveAction xml, XMLAction action) {
+            switch (action.getType()) {
+                case "query":
+                    type = ActionType.QUERY;
+                    break;
+                case "add":
+                    type = ActionType.ADD;
+                    break;
+                default:
+                    type = ActionType.REMOVE;
+            }
+            call = action.getCall() != null;
+            from = state(xml, action.getFrom());
+            to = state(xml, action.getTo());
+            label = call ? submachine(xml, action.getCall())
+                    : symbol(xml, action.getSymbol());
+            prior = call(xml, action.getPreAdaptiveFunction());
+            post = call(xml, action.getPostAdaptiveFunction());
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public ActionType getType() {
+            return type;
+        }
+
+        /**
+         * Verifica se a operação refere-se a uma chamada de submáquina.
+         *
+         * @return Valor lógico indicando a chamada de submáquina.
+         */
+        public boolean isCall() {
+            return call;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Operand getFrom() {
+            return from;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Operand getTo() {
+            return to;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Operand getLabel() {
+            return label;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Call getPrior() {
+            return prior;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public Call getPost() {
+            return post;
+        }
+
+    }
+
+}
@@ -20,8 +20,13 @@
  */
 package br.usp.poli.lta.cereda.xml2aa.model;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Implementa a classe de exceção da especificação de um autômato adaptativo.
+ * A exceção contém a lista de violações que a originaram, com as respectivas
+ * localizações na especificação XML.
  *
  * @author Paulo Roberto Massa Cereda
  * @version 1.1
@@ -29,6 +34,9 @@ package br.usp.poli.lta.cereda.xml2aa.model;
  */
 public class AutomatonSpecException extends Exception {
 
+    // violações da especificação
+    private final List<Violation> violations;
+
     /**
      * Construtor.
      *
@@ -36,6 +44,42 @@ public class AutomatonSpecException extends Exception {
      */
     public AutomatonSpecException(String string) {
         super(string);
+        this.violations = Collections.singletonList(
+                new Violation(null, string));
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param violation Violação da especificação.
+     */
+    public AutomatonSpecException(Violation violation) {
+        super(violation.getMessage());
+        this.violations = Collections.singletonList(violation);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param violations Violações da especificação, não vazia.
+     */
+    public AutomatonSpecException(List<Violation> violations) {
+        super(violations.size() == 1
+                ? violations.get(0).getMessage()
+                : String.format("A especificação XML do autômato adaptativo "
+                        + "possui %d violações. Por favor, corrija todas "
+                        + "as violações listadas e tente novamente. O "
+                        + "programa será encerrado.", violations.size()));
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public List<Violation> getViolations() {
+        return violations;
     }
 
 }
@@ -0,0 +1,111 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Conjunto de quadros de ativação das ações adaptativas, mantido por linha
+ * de execução. Cada execução de uma ação obtém um quadro próprio, de modo que
+ * chamadas recursivas e concorrentes da mesma ação não compartilhem valores,
+ * e devolve o quadro ao término, evitando novas alocações nas execuções
+ * seguintes. Cada tamanho mantém no máximo uma pequena quantidade de
+ * quadros, e os excedentes são descartados, de modo que uma recursão
+ * profunda não retenha memória após o seu término.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class FramePool {
+
+    // conjunto de quadros
+    // de cada linha de execução
+    private static final ThreadLocal<FramePool> POOL
+            = ThreadLocal.withInitial(FramePool::new);
+
+    // quantidade máxima de
+    // quadros mantidos de
+    // cada tamanho
+    private static final int CAPACITY = 16;
+
+    // quadros disponíveis,
+    // agrupados por tamanho
+    private ArrayDeque<Object[]>[] buckets;
+
+    /**
+     * Construtor.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private FramePool() {
+        buckets = new ArrayDeque[8];
+    }
+
+    /**
+     * Obtém o conjunto de quadros da linha de execução corrente.
+     *
+     * @return Conjunto de quadros.
+     */
+    public static FramePool get() {
+        return POOL.get();
+    }
+
+    /**
+     * Obtém um quadro vazio do tamanho informado.
+     *
+     * @param size Tamanho do quadro.
+     * @return Quadro vazio.
+     */
+    public Object[] acquire(int size) {
+        if (size < buckets.length && buckets[size] != null) {
+            Object[] frame = buckets[size].pollFirst();
+            if (frame != null) {
+                return frame;
+            }
+        }
+        return new Object[size];
+    }
+
+    /**
+     * Devolve o quadro ao conjunto, limpando os valores deste para que não
+     * sejam mantidas referências a estados e variáveis já utilizados. O
+     * quadro é descartado se o conjunto já possuir a quantidade máxima de
+     * quadros do mesmo tamanho.
+     *
+     * @param frame Quadro obtido anteriormente.
+     */
+    public void release(Object[] frame) {
+        int size = frame.length;
+        if (size >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(size + 1,
+                    buckets.length * 2));
+        }
+        if (buckets[size] == null) {
+            buckets[size] = new ArrayDeque<>(CAPACITY);
+        }
+        if (buckets[size].size() < CAPACITY) {
+            Arrays.fill(frame, null);
+            buckets[size].addFirst(frame);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de novos estados de um autômato adaptativo. Cada execução do
+ * autômato possui o seu próprio gerador, iniciado a partir do maior estado
+ * da especificação, de modo que diversos autômatos e reconhecimentos
+ * simultâneos possam coexistir na mesma máquina virtual. A obtenção de novos
+ * estados não requer bloqueios.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class StateGenerator {
+
+    // próximo estado a ser gerado
+    private final AtomicInteger counter;
+
+    /**
+     * Construtor.
+     *
+     * @param start Primeiro estado a ser gerado, normalmente o sucessor do
+     * maior estado da especificação.
+     */
+    public StateGenerator(int start) {
+        this.counter = new AtomicInteger(start);
+    }
+
+    /**
+     * Gera um novo estado.
+     *
+     * @return Novo estado.
+     */
+    public String next() {
+        return String.valueOf(counter.getAndIncrement());
+    }
+
+    /**
+     * Obtém o próximo estado a ser gerado, sem consumi-lo.
+     *
+     * @return Próximo estado.
+     */
+    public int peek() {
+        return counter.get();
+    }
+
+    /**
+     * Reinicia o gerador, de modo que a mesma instância do autômato possa
+     * ser utilizada em uma nova execução.
+     *
+     * @param start Primeiro estado a ser gerado.
+     */
+    public void reset(int start) {
+        counter.set(start);
+    }
+
+}
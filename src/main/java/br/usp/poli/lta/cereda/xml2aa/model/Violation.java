@@ -0,0 +1,79 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.model;
+
+/**
+ * Representa uma violação encontrada na especificação XML do autômato
+ * adaptativo, contendo a localização do elemento correspondente, na forma de
+ * uma expressão XPath (por exemplo,
+ * {@code /adaptiveAutomaton/submachines/submachine[1]/state[2]}), e a
+ * mensagem descritiva do problema.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Violation {
+
+    // atributos da classe
+    private final String location;
+    private final String message;
+
+    /**
+     * Construtor.
+     *
+     * @param location Localização do elemento na especificação.
+     * @param message Mensagem descritiva da violação.
+     */
+    public Violation(String location, String message) {
+        this.location = location;
+        this.message = message;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Representação textual da violação.
+     *
+     * @return Localização e mensagem da violação.
+     */
+    @Override
+    public String toString() {
+        return location + ": " + message;
+    }
+
+}
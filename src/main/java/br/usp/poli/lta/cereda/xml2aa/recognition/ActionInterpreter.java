@@ -0,0 +1,444 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.ActionType;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Call;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Operand;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.OperandType;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Operation;
+import br.usp.poli.lta.cereda.xml2aa.model.StateGenerator;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interpretador dos planos de execução das ações adaptativas sobre o
+ * mapeamento nativo. Os valores do quadro de ativação são mantidos na forma
+ * textual, como na especificação; o valor nulo indica uma variável ainda não
+ * ligada. As ações elementares seguem a semântica da biblioteca AA4J: a
+ * consulta liga as variáveis a partir da primeira transição correspondente, a
+ * remoção elimina todas as transições correspondentes, com as variáveis não
+ * ligadas atuando como curingas, e a adição exige que todos os operandos
+ * estejam ligados.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class ActionInterpreter {
+
+    // valor que representa o símbolo
+    // das transições em vazio
+    private static final Object EMPTY = new Object();
+
+    // operando não ligado
+    private static final int ANY = Integer.MIN_VALUE;
+
+    // operando sem correspondência
+    // possível no mapeamento
+    private static final int ABSENT = Integer.MIN_VALUE + 1;
+
+    // atributos da classe
+    private final CompiledAutomaton automaton;
+    private final Names states;
+    private final Names symbols;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param states Tabela de nomes de estados.
+     * @param symbols Tabela de nomes de símbolos.
+     */
+    public ActionInterpreter(CompiledAutomaton automaton, Names states,
+            Names symbols) {
+        this.automaton = automaton;
+        this.states = states;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Verifica se a chamada de função adaptativa pode alterar o mapeamento,
+     * isto é, se a ação possui inclusões ou remoções; ações que apenas
+     * consultam podem ser executadas sobre o mapeamento compartilhado.
+     *
+     * @param invocation Chamada de função adaptativa.
+     * @return Valor lógico indicando a possível alteração do mapeamento.
+     */
+    public boolean isModifying(Invocation invocation) {
+        int id = automaton.getAction(invocation.getAction());
+        return id == -1 || automaton.getPlan(id).isModifying();
+    }
+
+    /**
+     * Executa a chamada de função adaptativa sobre o mapeamento informado,
+     * que deve ter sido previamente duplicado pela ramificação corrente
+     * caso a ação possa alterá-lo.
+     *
+     * @param invocation Chamada de função adaptativa.
+     * @param mapping Mapeamento da ramificação.
+     * @param generator Gerador de estados novos da execução.
+     */
+    public void execute(Invocation invocation, TransitionMapping mapping,
+            StateGenerator generator) {
+        int id = automaton.getAction(invocation.getAction());
+        if (id == -1) {
+            throw new IllegalStateException(String.format("A função "
+                    + "adaptativa '%s' foi chamada durante o reconhecimento, "
+                    + "mas não está definida na especificação do autômato "
+                    + "adaptativo. Por favor, verifique as chamadas de "
+                    + "funções adaptativas e tente novamente. O programa "
+                    + "será encerrado.", invocation.getAction()));
+        }
+        ActionPlan plan = automaton.getPlan(id);
+
+        // liga os parâmetros, as
+        // variáveis e os geradores
+        Object[] frame = new Object[plan.getSize()];
+        Object[] arguments = invocation.getArguments();
+        int[] parameters = plan.getParameters();
+        for (int i = 0; i < arguments.length && i < parameters.length; i++) {
+            frame[parameters[i]] = arguments[i];
+        }
+        for (int slot : plan.getVariables()) {
+            frame[slot] = null;
+        }
+        for (int slot : plan.getGenerators()) {
+            frame[slot] = generator.next();
+        }
+
+        // aplica cada ação
+        // adaptativa elementar
+        for (Operation operation : plan.getOperations()) {
+            if (operation.getType() == ActionType.ADD) {
+                mapping.add(build(operation, frame));
+            } else {
+                List<Edge> matches = find(operation, frame, mapping,
+                        operation.getType() == ActionType.QUERY);
+                if (operation.getType() == ActionType.QUERY) {
+                    if (!matches.isEmpty()) {
+                        bind(operation, frame, matches.get(0));
+                    }
+                } else {
+                    for (Edge edge : matches) {
+                        mapping.remove(edge);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtém o valor do operando no quadro informado.
+     *
+     * @param operand Operando.
+     * @param frame Quadro de ativação.
+     * @param symbol O operando refere-se a um símbolo.
+     * @return Valor do operando, ou nulo se não estiver ligado.
+     */
+    private static Object value(Operand operand, Object[] frame,
+            boolean symbol) {
+        if (operand.getType() == OperandType.LITERAL) {
+            return symbol && operand.getValue() == null
+                    ? EMPTY : operand.getValue();
+        }
+        Object value = frame[operand.getSlot()];
+        if (value == null || value == EMPTY
+                || operand.getType() == OperandType.VALUE) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    /**
+     * Obtém o identificador do estado representado pelo operando.
+     *
+     * @param operand Operando.
+     * @param frame Quadro de ativação.
+     * @param create Cria o estado caso ainda não exista.
+     * @return Identificador, {@link #ANY} ou {@link #ABSENT}.
+     */
+    private int state(Operand operand, Object[] frame, boolean create) {
+        Object value = value(operand, frame, false);
+        if (value == null) {
+            return ANY;
+        }
+        int id = create ? states.intern(value.toString())
+                : states.get(value.toString());
+        return id == -1 ? ABSENT : id;
+    }
+
+    /**
+     * Obtém o rótulo representado pelo operando.
+     *
+     * @param operation Operação.
+     * @param frame Quadro de ativação.
+     * @param create Cria o símbolo caso ainda não exista.
+     * @return Rótulo, {@link #ANY} ou {@link #ABSENT}.
+     */
+    private int label(Operation operation, Object[] frame, boolean create) {
+        Object value = value(operation.getLabel(), frame,
+                !operation.isCall());
+        if (value == null) {
+            return ANY;
+        }
+        if (operation.isCall()) {
+            int submachine = automaton.getSubmachine(value.toString());
+            if (submachine == -1 && create) {
+                throw new IllegalStateException(String.format("Uma ação "
+                        + "adaptativa tentou adicionar uma chamada à "
+                        + "submáquina '%s', não definida na especificação do "
+                        + "autômato adaptativo. Por favor, verifique as "
+                        + "ações adaptativas e tente novamente. O programa "
+                        + "será encerrado.", value));
+            }
+            return submachine == -1 ? ABSENT
+                    : CompiledAutomaton.call(submachine);
+        }
+        if (value == EMPTY) {
+            return CompiledAutomaton.EPSILON;
+        }
+        int id = create ? symbols.intern(value.toString())
+                : symbols.get(value.toString());
+        return id == -1 ? ABSENT : id;
+    }
+
+    /**
+     * Constrói a transição a ser adicionada; todos os operandos devem estar
+     * ligados.
+     *
+     * @param operation Operação de adição.
+     * @param frame Quadro de ativação.
+     * @return Transição.
+     */
+    private Edge build(Operation operation, Object[] frame) {
+        int from = state(operation.getFrom(), frame, true);
+        int label = label(operation, frame, true);
+        int to = state(operation.getTo(), frame, true);
+        Invocation prior = invocation(operation, operation.getPrior(),
+                frame);
+        Invocation post = invocation(operation, operation.getPost(), frame);
+        if (from == ANY || label == ANY || to == ANY) {
+            throw unbound(operation);
+        }
+        return new Edge(from, label, to, prior, post);
+    }
+
+    /**
+     * Constrói a chamada de função adaptativa a ser adicionada.
+     *
+     * @param operation Operação de adição.
+     * @param call Chamada compilada, ou nulo.
+     * @param frame Quadro de ativação.
+     * @return Chamada de função adaptativa, ou nulo.
+     */
+    private Invocation invocation(Operation operation, Call call,
+            Object[] frame) {
+        if (call == null) {
+            return null;
+        }
+        Object name = value(call.getTarget(), frame, false);
+        Operand[] operands = call.getArguments();
+        Object[] arguments = new Object[operands == null
+                ? 0 : operands.length];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = value(operands[i], frame, false);
+            if (arguments[i] == null) {
+                throw unbound(operation);
+            }
+        }
+        if (name == null) {
+            throw unbound(operation);
+        }
+        return new Invocation(name.toString(), arguments);
+    }
+
+    /**
+     * Obtém a exceção referente a uma adição com operandos não ligados.
+     *
+     * @param operation Operação de adição.
+     * @return Exceção correspondente.
+     */
+    private static IllegalStateException unbound(Operation operation) {
+        return new IllegalStateException(String.format("Uma ação adaptativa "
+                + "elementar de adição possui operandos não ligados "
+                + "(origem '%s', rótulo '%s', destino '%s'). Todos os "
+                + "operandos de uma adição devem estar ligados a valores. "
+                + "Por favor, verifique as consultas da ação adaptativa e "
+                + "tente novamente. O programa será encerrado.",
+                operation.getFrom().getValue(),
+                operation.getLabel().getValue(),
+                operation.getTo().getValue()));
+    }
+
+    /**
+     * Obtém as transições correspondentes à operação de consulta ou de
+     * remoção.
+     *
+     * @param operation Operação.
+     * @param frame Quadro de ativação.
+     * @param mapping Mapeamento.
+     * @param first Apenas a primeira transição é necessária.
+     * @return Transições correspondentes.
+     */
+    private List<Edge> find(Operation operation, Object[] frame,
+            TransitionMapping mapping, boolean first) {
+        List<Edge> result = new ArrayList<>();
+        int from = state(operation.getFrom(), frame, false);
+        int label = label(operation, frame, false);
+        int to = state(operation.getTo(), frame, false);
+        if (from == ABSENT || label == ABSENT || to == ABSENT) {
+            return result;
+        }
+        int start = from == ANY ? 0 : from;
+        int end = from == ANY ? mapping.states() : from + 1;
+        for (int state = start; state < end; state++) {
+            for (Edge edge : mapping.edges(state)) {
+                if (matches(operation, frame, edge, label, to)) {
+                    result.add(edge);
+                    if (first) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifica se a transição corresponde à operação.
+     *
+     * @param operation Operação.
+     * @param frame Quadro de ativação.
+     * @param edge Transição.
+     * @param label Rótulo da operação.
+     * @param to Estado de destino da operação.
+     * @return Valor lógico indicando a correspondência.
+     */
+    private static boolean matches(Operation operation, Object[] frame,
+            Edge edge, int label, int to) {
+        if (operation.isCall() != CompiledAutomaton.isCall(edge.getLabel())) {
+            return false;
+        }
+        if (label != ANY && label != edge.getLabel()) {
+            return false;
+        }
+        if (to != ANY && to != edge.getTo()) {
+            return false;
+        }
+        return matches(operation.getPrior(), frame, edge.getPrior())
+                && matches(operation.getPost(), frame, edge.getPost());
+    }
+
+    /**
+     * Verifica se a chamada de função adaptativa corresponde à consulta.
+     *
+     * @param call Consulta compilada, ou nulo.
+     * @param frame Quadro de ativação.
+     * @param invocation Chamada da transição, ou nulo.
+     * @return Valor lógico indicando a correspondência.
+     */
+    private static boolean matches(Call call, Object[] frame,
+            Invocation invocation) {
+        if (call == null) {
+            return true;
+        }
+        if (invocation == null) {
+            return false;
+        }
+        Object name = value(call.getTarget(), frame, false);
+        if (name != null && !name.toString().equals(
+                invocation.getAction())) {
+            return false;
+        }
+        Operand[] operands = call.getArguments();
+        Object[] arguments = invocation.getArguments();
+        int length = operands == null ? 0 : operands.length;
+        if (length != arguments.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            Object value = value(operands[i], frame, false);
+            if (value != null && !value.toString().equals(
+                    String.valueOf(arguments[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liga as variáveis da operação de consulta aos valores da transição
+     * encontrada.
+     *
+     * @param operation Operação de consulta.
+     * @param frame Quadro de ativação.
+     * @param edge Transição encontrada.
+     */
+    private void bind(Operation operation, Object[] frame, Edge edge) {
+        bind(operation.getFrom(), frame, states.name(edge.getFrom()));
+        bind(operation.getTo(), frame, states.name(edge.getTo()));
+        int label = edge.getLabel();
+        bind(operation.getLabel(), frame, CompiledAutomaton.isCall(label)
+                ? automaton.getSubmachineName(CompiledAutomaton.called(label))
+                : label == CompiledAutomaton.EPSILON
+                ? EMPTY : symbols.name(label));
+        bind(operation.getPrior(), frame, edge.getPrior());
+        bind(operation.getPost(), frame, edge.getPost());
+    }
+
+    /**
+     * Liga as variáveis da consulta de chamada aos valores da chamada
+     * encontrada.
+     *
+     * @param call Consulta compilada, ou nulo.
+     * @param frame Quadro de ativação.
+     * @param invocation Chamada encontrada.
+     */
+    private static void bind(Call call, Object[] frame,
+            Invocation invocation) {
+        if (call == null) {
+            return;
+        }
+        bind(call.getTarget(), frame, invocation.getAction());
+        Operand[] operands = call.getArguments();
+        for (int i = 0; operands != null && i < operands.length; i++) {
+            bind(operands[i], frame, invocation.getArguments()[i]);
+        }
+    }
+
+    /**
+     * Liga a variável ao valor, caso esta ainda não esteja ligada.
+     *
+     * @param operand Operando.
+     * @param frame Quadro de ativação.
+     * @param value Valor.
+     */
+    private static void bind(Operand operand, Object[] frame, Object value) {
+        if (operand.getType() == OperandType.VARIABLE
+                && frame[operand.getSlot()] == null) {
+            frame[operand.getSlot()] = value;
+        }
+    }
+
+}
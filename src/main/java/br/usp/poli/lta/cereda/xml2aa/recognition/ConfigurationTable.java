@@ -0,0 +1,211 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de dispersão com endereçamento aberto e chaves primitivas, formadas
+ * por dois valores longos e um inteiro, associadas a valores inteiros não
+ * negativos. A tabela é esvaziada em tempo constante por meio de uma geração
+ * corrente: somente as posições marcadas com esta geração estão ocupadas, de
+ * modo que a mesma tabela é reaproveitada a cada posição da cadeia sem
+ * alocações.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+class ConfigurationTable {
+
+    // capacidade inicial, sempre
+    // uma potência de dois
+    private static final int CAPACITY = 64;
+
+    // chaves, valores e geração
+    // de cada posição da tabela
+    private long[] first;
+    private long[] second;
+    private int[] third;
+    private int[] values;
+    private int[] stamps;
+
+    // geração corrente, quantidade
+    // de entradas e máscara dos índices
+    private int generation;
+    private int size;
+    private int mask;
+
+    /**
+     * Construtor.
+     */
+    ConfigurationTable() {
+        allocate(CAPACITY);
+        generation = 1;
+    }
+
+    /**
+     * Aloca os vetores da tabela.
+     *
+     * @param capacity Capacidade, uma potência de dois.
+     */
+    private void allocate(int capacity) {
+        first = new long[capacity];
+        second = new long[capacity];
+        third = new int[capacity];
+        values = new int[capacity];
+        stamps = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Obtém o valor associado à chave.
+     *
+     * @param a Primeiro componente da chave.
+     * @param b Segundo componente da chave.
+     * @param c Terceiro componente da chave.
+     * @return Valor associado, ou -1 se a chave não existir.
+     */
+    int get(long a, long b, int c) {
+        int i = index(a, b, c);
+        while (stamps[i] == generation) {
+            if (first[i] == a && second[i] == b && third[i] == c) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Associa o valor à chave, caso esta ainda não exista.
+     *
+     * @param a Primeiro componente da chave.
+     * @param b Segundo componente da chave.
+     * @param c Terceiro componente da chave.
+     * @param value Valor não negativo.
+     * @return Valor previamente associado, ou -1 se a chave foi inserida.
+     */
+    int putIfAbsent(long a, long b, int c, int value) {
+        int i = index(a, b, c);
+        while (stamps[i] == generation) {
+            if (first[i] == a && second[i] == b && third[i] == c) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        store(i, a, b, c, value);
+        if (++size > (mask + 1) >> 1) {
+            grow();
+        }
+        return -1;
+    }
+
+    /**
+     * Insere a chave, caso esta ainda não exista.
+     *
+     * @param a Primeiro componente da chave.
+     * @param b Segundo componente da chave.
+     * @param c Terceiro componente da chave.
+     * @return Valor lógico indicando se a chave foi inserida.
+     */
+    boolean add(long a, long b, int c) {
+        return putIfAbsent(a, b, c, 0) == -1;
+    }
+
+    /**
+     * Esvazia a tabela, mantendo a capacidade.
+     */
+    void clear() {
+        size = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Obtém a quantidade de entradas.
+     *
+     * @return Quantidade de entradas.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Armazena a entrada na posição informada.
+     *
+     * @param i Posição da tabela.
+     * @param a Primeiro componente da chave.
+     * @param b Segundo componente da chave.
+     * @param c Terceiro componente da chave.
+     * @param value Valor.
+     */
+    private void store(int i, long a, long b, int c, int value) {
+        first[i] = a;
+        second[i] = b;
+        third[i] = c;
+        values[i] = value;
+        stamps[i] = generation;
+    }
+
+    /**
+     * Dobra a capacidade da tabela, redistribuindo as entradas da geração
+     * corrente.
+     */
+    private void grow() {
+        long[] a = first;
+        long[] b = second;
+        int[] c = third;
+        int[] v = values;
+        int[] s = stamps;
+        int current = generation;
+        allocate(a.length << 1);
+        generation = 1;
+        for (int j = 0; j < a.length; j++) {
+            if (s[j] == current) {
+                int i = index(a[j], b[j], c[j]);
+                while (stamps[i] == generation) {
+                    i = (i + 1) & mask;
+                }
+                store(i, a[j], b[j], c[j], v[j]);
+            }
+        }
+    }
+
+    /**
+     * Obtém a posição inicial da chave na tabela.
+     *
+     * @param a Primeiro componente da chave.
+     * @param b Segundo componente da chave.
+     * @param c Terceiro componente da chave.
+     * @return Posição inicial.
+     */
+    private int index(long a, long b, int c) {
+        long h = a * 0x9E3779B97F4A7C15L;
+        h ^= b * 0xC2B2AE3D27D4EB4FL;
+        h ^= c * 0x165667B19E3779F9L;
+        h ^= h >>> 29;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+}
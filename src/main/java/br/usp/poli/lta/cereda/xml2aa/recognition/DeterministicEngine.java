@@ -0,0 +1,284 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.Alphabet;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonAnalysis;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SymbolBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reconhecedor de submáquinas determinísticas, sem funções adaptativas,
+ * transições em vazio ou chamadas de submáquinas. Os estados alcançáveis a
+ * partir do estado inicial são renumerados densamente e as transições ficam
+ * em um único vetor de inteiros indexado por (estado, símbolo), de modo que
+ * cada símbolo da cadeia custa apenas dois acessos a vetores, sem ramificações
+ * nem registro de caminhos. A instância é imutável e pode ser compartilhada
+ * entre threads.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class DeterministicEngine {
+
+    // estado de rejeição
+    private static final int DEAD = -1;
+
+    // cadeia dividida em símbolos de
+    // mais de um ponto de código,
+    // reaproveitada em cada thread
+    private static final ThreadLocal<SymbolBuffer> BUFFERS
+            = ThreadLocal.withInitial(SymbolBuffer::new);
+
+    // tabela de transições, com
+    // uma linha por estado e uma
+    // coluna por símbolo
+    private final int[] delta;
+    private final int width;
+
+    // estados de aceitação e
+    // estado inicial
+    private final boolean[] accepting;
+    private final int start;
+
+    // identificadores dos símbolos a
+    // partir dos pontos de código
+    private final Alphabet alphabet;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param submachine Identificador da submáquina a ser reconhecida.
+     */
+    public DeterministicEngine(CompiledAutomaton automaton, int submachine) {
+
+        // a submáquina deve ter sido
+        // classificada como determinística
+        AutomatonAnalysis analysis = automaton.getAnalysis();
+        if (!analysis.isDeterministic(submachine)) {
+            throw new IllegalArgumentException(String.format("A submáquina "
+                    + "'%s' %s, e portanto não pode ser reconhecida por uma "
+                    + "tabela de transições determinística. Por favor, "
+                    + "utilize o mecanismo de reconhecimento adaptativo. O "
+                    + "programa será encerrado.",
+                    automaton.getSubmachineName(submachine),
+                    analysis.describe(submachine)));
+        }
+
+        // renumera os estados
+        // alcançáveis densamente
+        BitSet reachable = analysis.getReachable(submachine);
+        int[] ids = new int[automaton.getStateCount()];
+        Arrays.fill(ids, DEAD);
+        int size = 0;
+        for (int s = reachable.nextSetBit(0); s >= 0;
+                s = reachable.nextSetBit(s + 1)) {
+            ids[s] = size++;
+        }
+
+        // preenche a tabela de transições
+        // e os estados de aceitação
+        width = automaton.getSymbolCount();
+        delta = new int[Math.max(1, size * width)];
+        Arrays.fill(delta, DEAD);
+        accepting = new boolean[Math.max(1, size)];
+        for (int s = reachable.nextSetBit(0); s >= 0;
+                s = reachable.nextSetBit(s + 1)) {
+            accepting[ids[s]] = automaton.isAccepting(submachine, s);
+            int end = automaton.end(s);
+            for (int edge = automaton.begin(s); edge < end; edge++) {
+                delta[ids[s] * width + automaton.getLabel(edge)]
+                        = ids[automaton.getTarget(edge)];
+            }
+        }
+        int initial = automaton.getInitial(submachine);
+        start = initial == -1 ? DEAD : ids[initial];
+
+        // os símbolos da cadeia são
+        // pontos de código individuais,
+        // obtidos pelo alfabeto
+        alphabet = automaton.getAlphabet();
+    }
+
+    /**
+     * Cria o reconhecedor da submáquina principal do autômato compilado.
+     *
+     * @param automaton Autômato compilado.
+     * @return Reconhecedor da submáquina principal.
+     */
+    public static DeterministicEngine of(CompiledAutomaton automaton) {
+        return new DeterministicEngine(automaton, automaton.getMain());
+    }
+
+    /**
+     * Obtém o identificador do símbolo correspondente ao ponto de código.
+     *
+     * @param code Ponto de código da cadeia.
+     * @return Identificador do símbolo, ou -1 se não existir na tabela.
+     */
+    public int symbol(int code) {
+        int symbol = alphabet.get(code);
+        return symbol >= width ? DEAD : symbol;
+    }
+
+    /**
+     * Reconhece a cadeia, em que cada ponto de código corresponde a um
+     * símbolo ou, com símbolos de mais de um ponto de código, dividida com a
+     * maior correspondência.
+     *
+     * @param input Cadeia de entrada.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean recognize(CharSequence input) {
+        if (alphabet.isTokenized()) {
+            SymbolBuffer buffer = BUFFERS.get();
+            alphabet.encode(input, buffer);
+            return recognize(buffer);
+        }
+        int state = start;
+        int length = input.length();
+        for (int i = 0; i < length && state != DEAD;) {
+            int code = Character.codePointAt(input, i);
+            i += Character.charCount(code);
+            int symbol = symbol(code);
+            state = symbol == DEAD ? DEAD : delta[state * width + symbol];
+        }
+        return state != DEAD && accepting[state];
+    }
+
+    /**
+     * Reconhece a cadeia previamente codificada pelo alfabeto.
+     *
+     * @param buffer Cadeia codificada.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean recognize(SymbolBuffer buffer) {
+        return !buffer.hasAbsent()
+                && recognize(buffer.getSymbols(), 0, buffer.getLength());
+    }
+
+    /**
+     * Reconhece a sequência de identificadores de símbolos informada.
+     *
+     * @param symbols Identificadores dos símbolos.
+     * @param offset Posição inicial, inclusiva.
+     * @param length Quantidade de símbolos.
+     * @return Valor lógico indicando se a sequência foi aceita.
+     */
+    public boolean recognize(int[] symbols, int offset, int length) {
+        int state = start;
+        int end = offset + length;
+        for (int i = offset; i < end && state != DEAD; i++) {
+            int symbol = symbols[i];
+            state = symbol < 0 || symbol >= width
+                    ? DEAD : delta[state * width + symbol];
+        }
+        return state != DEAD && accepting[state];
+    }
+
+    /**
+     * Inicia um reconhecimento incremental, cujas partes em bytes são
+     * decodificadas em UTF-8. Apenas o estado corrente é mantido.
+     *
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream() {
+        return stream(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Inicia um reconhecimento incremental.
+     *
+     * @param charset Conjunto de caracteres das partes em bytes.
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream(Charset charset) {
+        return new Stream(alphabet, charset);
+    }
+
+    /**
+     * Obtém o número de estados da tabela.
+     *
+     * @return Número de estados.
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    /**
+     * Reconhecimento incremental sobre a tabela de transições.
+     */
+    private class Stream extends RecognitionStream {
+
+        // estado corrente
+        private int state;
+
+        /**
+         * Construtor.
+         *
+         * @param alphabet Alfabeto do autômato.
+         * @param charset Conjunto de caracteres das partes em bytes.
+         */
+        Stream(Alphabet alphabet, Charset charset) {
+            super(alphabet, charset);
+            this.state = start;
+        }
+
+        /**
+         * Consome os símbolos informados.
+         *
+         * @param symbols Identificadores dos símbolos.
+         * @param offset Posição do primeiro símbolo.
+         * @param length Quantidade de símbolos.
+         */
+        @Override
+        protected void consume(int[] symbols, int offset, int length) {
+            int end = offset + length;
+            for (int i = offset; i < end && state != DEAD; i++) {
+                int symbol = symbols[i];
+                state = symbol < 0 || symbol >= width
+                        ? DEAD : delta[state * width + symbol];
+            }
+        }
+
+        /**
+         * Conclui o reconhecimento após o último caractere.
+         *
+         * @param consumed Quantidade de caracteres consumidos.
+         * @return Resultado do reconhecimento.
+         */
+        @Override
+        protected Result conclude(long consumed) {
+            boolean accepted = state != DEAD && accepting[state];
+            return new Result(accepted ? Verdict.ACCEPTED : Verdict.REJECTED,
+                    accepted ? 1 : 0, consumed, Engine.DETERMINISTIC,
+                    Mode.ACCEPT_FIRST, null);
+        }
+
+    }
+
+}
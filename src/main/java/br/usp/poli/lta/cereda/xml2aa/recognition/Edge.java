@@ -0,0 +1,143 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+
+/**
+ * Transição do mapeamento nativo. Estados e rótulos seguem a numeração do
+ * autômato compilado, com estados e símbolos criados durante a execução
+ * recebendo identificadores a partir dos existentes na especificação. A
+ * instância é imutável.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Edge {
+
+    // atributos da classe
+    private final int from;
+    private final int label;
+    private final int to;
+    private final Invocation prior;
+    private final Invocation post;
+
+    /**
+     * Construtor.
+     *
+     * @param from Estado de origem.
+     * @param label Rótulo da transição, como em {@link CompiledAutomaton}.
+     * @param to Estado de destino.
+     * @param prior Chamada da ação adaptativa anterior, ou nulo.
+     * @param post Chamada da ação adaptativa posterior, ou nulo.
+     */
+    public Edge(int from, int label, int to, Invocation prior,
+            Invocation post) {
+        this.from = from;
+        this.label = label;
+        this.to = to;
+        this.prior = prior;
+        this.post = post;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getLabel() {
+        return label;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Invocation getPrior() {
+        return prior;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Invocation getPost() {
+        return post;
+    }
+
+    /**
+     * Verifica se a transição possui chamadas de funções adaptativas.
+     *
+     * @return Valor lógico indicando se a transição é adaptativa.
+     */
+    public boolean isAdaptive() {
+        return prior != null || post != null;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Edge)) {
+            return false;
+        }
+        Edge other = (Edge) object;
+        return from == other.from && label == other.label && to == other.to
+                && Invocation.same(prior, other.prior)
+                && Invocation.same(post, other.post);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * (31 * from + label) + to;
+        hash = 31 * hash + (prior == null ? 0 : prior.hashCode());
+        return 31 * hash + (post == null ? 0 : post.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d, %d, %d, %s, %s)", from, label, to,
+                prior, post);
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+
+/**
+ * Mecanismos de reconhecimento disponíveis. A escolha é realizada uma única
+ * vez, a partir da análise estrutural do autômato compilado: especificações
+ * cuja submáquina principal não possui funções adaptativas, transições em
+ * vazio, chamadas de submáquinas ou não-determinismo são executadas por uma
+ * tabela de transições determinística; as demais utilizam a biblioteca AA4J,
+ * no modo completo, ou o mecanismo nativo, nos modos rápidos.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Engine {
+
+    DETERMINISTIC("autômato finito determinístico, por tabela"),
+    ADAPTIVE("autômato adaptativo, biblioteca AA4J"),
+    NATIVE("autômato adaptativo, mecanismo nativo");
+
+    // descrição do mecanismo
+    private final String description;
+
+    /**
+     * Construtor.
+     *
+     * @param description Descrição do mecanismo.
+     */
+    private Engine(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Seleciona o mecanismo de reconhecimento do autômato compilado.
+     *
+     * @param automaton Autômato compilado.
+     * @return Mecanismo de reconhecimento.
+     */
+    public static Engine select(CompiledAutomaton automaton) {
+        int main = automaton.getMain();
+        return main != -1 && automaton.getAnalysis().isDeterministic(main)
+                ? DETERMINISTIC : ADAPTIVE;
+    }
+
+    /**
+     * Seleciona o mecanismo de reconhecimento do autômato compilado no modo
+     * informado: o modo completo utiliza sempre a biblioteca AA4J, e os
+     * modos rápidos utilizam a tabela determinística ou o mecanismo nativo.
+     *
+     * @param automaton Autômato compilado.
+     * @param mode Modo de reconhecimento.
+     * @return Mecanismo de reconhecimento.
+     */
+    public static Engine select(CompiledAutomaton automaton, Mode mode) {
+        if (mode == Mode.FULL) {
+            return ADAPTIVE;
+        }
+        return select(automaton) == DETERMINISTIC ? DETERMINISTIC : NATIVE;
+    }
+
+    /**
+     * Descreve o mecanismo selecionado para o autômato compilado, incluindo o
+     * motivo quando a tabela determinística não pode ser utilizada.
+     *
+     * @param automaton Autômato compilado.
+     * @return Descrição textual da seleção.
+     */
+    public static String describe(CompiledAutomaton automaton) {
+        return describe(automaton, select(automaton) == DETERMINISTIC
+                ? Mode.ACCEPT_FIRST : Mode.FULL);
+    }
+
+    /**
+     * Descreve o mecanismo selecionado para o autômato compilado no modo
+     * informado.
+     *
+     * @param automaton Autômato compilado.
+     * @param mode Modo de reconhecimento.
+     * @return Descrição textual da seleção.
+     */
+    public static String describe(CompiledAutomaton automaton, Mode mode) {
+        Engine engine = select(automaton, mode);
+        int main = automaton.getMain();
+        if (engine == DETERMINISTIC || main == -1) {
+            return engine.getDescription();
+        }
+        return String.format("%s (a submáquina principal '%s' %s)",
+                engine.getDescription(), automaton.getSubmachineName(main),
+                automaton.getAnalysis().describe(main));
+    }
+
+    /**
+     * Descreve o mecanismo selecionado para o autômato compilado no modo
+     * informado, incluindo, no mecanismo nativo com mais de uma thread, se
+     * as ramificações são exploradas em paralelo ou se a exploração em
+     * largura é mantida e o paralelismo não é utilizado.
+     *
+     * @param automaton Autômato compilado.
+     * @param mode Modo de reconhecimento.
+     * @param parallelism Número de threads da exploração paralela.
+     * @param checkpoints Número máximo de pontos de retomada dos prefixos,
+     * ou zero para não guardá-los.
+     * @return Descrição textual da seleção.
+     */
+    public static String describe(CompiledAutomaton automaton, Mode mode,
+            int parallelism, int checkpoints) {
+        String description = describe(automaton, mode);
+        if (select(automaton, mode) != NATIVE || parallelism < 2) {
+            return description;
+        }
+        if (NativeEngine.isBreadthFirst(automaton, mode, checkpoints)) {
+            return description.concat(", explorado em largura; as "
+                    + "configurações idênticas são unificadas e o "
+                    + "paralelismo não é utilizado");
+        }
+        return String.format("%s, explorado em paralelo em %d threads",
+                description, parallelism);
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Chamada de função adaptativa associada a uma transição do mapeamento
+ * nativo, com o nome da ação e os valores dos argumentos. Os valores são
+ * mantidos na forma textual, tal como aparecem na especificação ou como foram
+ * ligados durante a execução das ações adaptativas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Invocation {
+
+    // atributos da classe
+    private final String action;
+    private final Object[] arguments;
+    private final int hash;
+
+    /**
+     * Construtor.
+     *
+     * @param action Nome da ação adaptativa.
+     * @param arguments Argumentos da chamada, ou nulo.
+     */
+    public Invocation(String action, Object[] arguments) {
+        this.action = action;
+        this.arguments = arguments == null ? new Object[0] : arguments;
+        this.hash = 31 * action.hashCode() + Arrays.hashCode(this.arguments);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Invocation)) {
+            return false;
+        }
+        Invocation other = (Invocation) object;
+        return hash == other.hash && action.equals(other.action)
+                && Arrays.equals(arguments, other.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return action + Arrays.toString(arguments);
+    }
+
+    /**
+     * Verifica se as duas chamadas são iguais, considerando a ausência de
+     * chamada.
+     *
+     * @param a Primeira chamada, ou nulo.
+     * @param b Segunda chamada, ou nulo.
+     * @return Valor lógico indicando a igualdade.
+     */
+    static boolean same(Invocation a, Invocation b) {
+        return Objects.equals(a, b);
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+/**
+ * Limites de execução de um reconhecimento.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Limit {
+
+    BRANCHES("número máximo de ramificações ativas"),
+    STEPS("número máximo de passos"),
+    STATES("número máximo de estados gerados"),
+    HEAP("orçamento de memória"),
+    TIME("tempo máximo de execução");
+
+    // descrição do limite
+    private final String description;
+
+    /**
+     * Construtor.
+     *
+     * @param description Descrição do limite.
+     */
+    private Limit(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+}
@@ -0,0 +1,225 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+/**
+ * Conjunto imutável de limites de execução de um reconhecimento: ramificações
+ * ativas, passos, estados gerados pelas funções adaptativas, memória em uso
+ * na máquina virtual, em bytes, e tempo de execução, em milissegundos. O
+ * valor zero indica a ausência do limite.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Limits {
+
+    // ausência de limites
+    public static final Limits NONE = new Limits(0, 0, 0, 0, 0);
+
+    // atributos da classe
+    private final int branches;
+    private final long steps;
+    private final long states;
+    private final long heap;
+    private final long time;
+
+    /**
+     * Construtor.
+     *
+     * @param branches Número máximo de ramificações ativas.
+     * @param steps Número máximo de passos.
+     * @param states Número máximo de estados gerados.
+     * @param heap Memória máxima em uso, em bytes.
+     */
+    public Limits(int branches, long steps, long states, long heap) {
+        this(branches, steps, states, heap, 0);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param branches Número máximo de ramificações ativas.
+     * @param steps Número máximo de passos.
+     * @param states Número máximo de estados gerados.
+     * @param heap Memória máxima em uso, em bytes.
+     * @param time Tempo máximo de execução, em milissegundos.
+     */
+    public Limits(int branches, long steps, long states, long heap,
+            long time) {
+        if (branches < 0 || steps < 0 || states < 0 || heap < 0
+                || time < 0) {
+            throw new IllegalArgumentException("Os limites de execução do "
+                    + "reconhecimento não podem ser negativos. Por favor, "
+                    + "utilize zero para indicar a ausência de um limite. O "
+                    + "programa será encerrado.");
+        }
+        this.branches = branches;
+        this.steps = steps;
+        this.states = states;
+        this.heap = heap;
+        this.time = time;
+    }
+
+    /**
+     * Obtém os limites a partir das propriedades do sistema
+     * 'xml2aa.limit.branches', 'xml2aa.limit.steps', 'xml2aa.limit.states',
+     * 'xml2aa.limit.heap' e 'xml2aa.limit.time'.
+     *
+     * @return Limites de execução.
+     */
+    public static Limits fromSystem() {
+        return new Limits(Integer.getInteger("xml2aa.limit.branches", 0),
+                Long.getLong("xml2aa.limit.steps", 0L),
+                Long.getLong("xml2aa.limit.states", 0L),
+                Long.getLong("xml2aa.limit.heap", 0L),
+                Long.getLong("xml2aa.limit.time", 0L));
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getBranches() {
+        return branches;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getStates() {
+        return states;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getHeap() {
+        return heap;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Obtém uma cópia com o número máximo de ramificações ativas alterado.
+     *
+     * @param branches Número máximo de ramificações ativas.
+     * @return Novos limites.
+     */
+    public Limits withBranches(int branches) {
+        return new Limits(branches, steps, states, heap, time);
+    }
+
+    /**
+     * Obtém uma cópia com o número máximo de passos alterado.
+     *
+     * @param steps Número máximo de passos.
+     * @return Novos limites.
+     */
+    public Limits withSteps(long steps) {
+        return new Limits(branches, steps, states, heap, time);
+    }
+
+    /**
+     * Obtém uma cópia com o número máximo de estados gerados alterado.
+     *
+     * @param states Número máximo de estados gerados.
+     * @return Novos limites.
+     */
+    public Limits withStates(long states) {
+        return new Limits(branches, steps, states, heap, time);
+    }
+
+    /**
+     * Obtém uma cópia com a memória máxima em uso alterada.
+     *
+     * @param heap Memória máxima em uso, em bytes.
+     * @return Novos limites.
+     */
+    public Limits withHeap(long heap) {
+        return new Limits(branches, steps, states, heap, time);
+    }
+
+    /**
+     * Obtém uma cópia com o tempo máximo de execução alterado.
+     *
+     * @param time Tempo máximo de execução, em milissegundos.
+     * @return Novos limites.
+     */
+    public Limits withTime(long time) {
+        return new Limits(branches, steps, states, heap, time);
+    }
+
+    /**
+     * Verifica se algum limite está definido.
+     *
+     * @return Valor lógico indicando a existência de limites.
+     */
+    public boolean isBounded() {
+        return branches != 0 || steps != 0 || states != 0 || heap != 0
+                || time != 0;
+    }
+
+    /**
+     * Obtém a representação textual dos limites.
+     *
+     * @return Representação textual.
+     */
+    @Override
+    public String toString() {
+        return String.format("ramificações: %s, passos: %s, estados: %s, "
+                + "memória: %s, tempo: %s", text(branches), text(steps),
+                text(states), heap == 0 ? "sem limite" : heap + " bytes",
+                time == 0 ? "sem limite" : time + " ms");
+    }
+
+    /**
+     * Obtém a representação textual do limite.
+     *
+     * @param value Valor do limite.
+     * @return Representação textual.
+     */
+    private static String text(long value) {
+        return value == 0 ? "sem limite" : String.valueOf(value);
+    }
+
+}
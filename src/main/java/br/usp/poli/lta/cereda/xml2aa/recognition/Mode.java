@@ -0,0 +1,88 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+/**
+ * Modos de reconhecimento. Os modos rápidos não registram caminhos nem
+ * topologias: a aceitação na primeira configuração interrompe a exploração
+ * assim que uma configuração de aceitação é encontrada, e a contagem explora
+ * todas as ramificações apenas contando os caminhos de aceitação. O modo
+ * completo utiliza a biblioteca AA4J, com os caminhos de reconhecimento e as
+ * topologias de cada passo.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Mode {
+
+    ACCEPT_FIRST("first", "aceitação na primeira configuração"),
+    COUNT("count", "contagem dos caminhos de aceitação"),
+    FULL("full", "caminhos completos");
+
+    // atributos da classe
+    private final String name;
+    private final String description;
+
+    /**
+     * Construtor.
+     *
+     * @param name Nome do modo na linha de comando.
+     * @param description Descrição do modo.
+     */
+    private Mode(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Obtém o modo de acordo com o nome informado. Os nomes válidos são
+     * 'first', 'count' e 'full'.
+     *
+     * @param name Nome do modo.
+     * @return Modo correspondente, ou nulo se o nome for nulo.
+     * @throws Exception O nome do modo é inválido.
+     */
+    public static Mode of(String name) throws Exception {
+        if (name == null) {
+            return null;
+        }
+        for (Mode mode : values()) {
+            if (mode.name.equals(name)) {
+                return mode;
+            }
+        }
+        throw new Exception("O modo de reconhecimento '" + name + "' não "
+                + "existe. Os valores válidos são 'first', 'count' e "
+                + "'full'. Por favor, verifique o valor informado e tente "
+                + "novamente. O programa será encerrado.");
+    }
+
+}
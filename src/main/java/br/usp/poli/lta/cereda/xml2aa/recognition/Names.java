@@ -0,0 +1,115 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela de nomes de estados ou de símbolos do mecanismo de reconhecimento
+ * nativo. Os nomes da especificação mantêm os identificadores do autômato
+ * compilado, e os nomes criados pelas ações adaptativas durante a execução
+ * recebem os identificadores seguintes. A consulta não requer bloqueios; a
+ * criação de nomes é sincronizada.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Names {
+
+    // identificadores a
+    // partir dos nomes
+    private final Map<String, Integer> ids;
+
+    // nomes a partir dos
+    // identificadores
+    private final List<String> names;
+
+    /**
+     * Construtor.
+     *
+     * @param initial Nomes da especificação, indexados pelo identificador.
+     */
+    public Names(String[] initial) {
+        ids = new ConcurrentHashMap<>(initial.length * 2);
+        names = new ArrayList<>(initial.length);
+        for (String name : initial) {
+            ids.put(name, names.size());
+            names.add(name);
+        }
+    }
+
+    /**
+     * Obtém o identificador do nome.
+     *
+     * @param name Nome.
+     * @return Identificador do nome, ou -1 se não existir.
+     */
+    public int get(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtém o identificador do nome, criando-o caso ainda não exista.
+     *
+     * @param name Nome.
+     * @return Identificador do nome.
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                names.add(name);
+                ids.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Obtém o nome a partir do identificador.
+     *
+     * @param id Identificador.
+     * @return Nome correspondente.
+     */
+    public synchronized String name(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Obtém a quantidade de nomes.
+     *
+     * @return Quantidade de nomes.
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+}
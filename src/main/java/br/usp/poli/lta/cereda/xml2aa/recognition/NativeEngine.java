@@ -0,0 +1,1648 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.Alphabet;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SymbolBuffer;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan;
+import br.usp.poli.lta.cereda.xml2aa.model.ActionPlan.Operation;
+import br.usp.poli.lta.cereda.xml2aa.model.StateGenerator;
+import br.usp.poli.lta.cereda.xml2aa.recognition.SubsetCache.Subset;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mecanismo de reconhecimento nativo, executado diretamente sobre o autômato
+ * compilado. As configurações (estado, posição, submáquina, pilha de chamadas
+ * e mapeamento) são exploradas em profundidade, e cada ramificação que
+ * executa uma função adaptativa passa a ter o seu próprio mapeamento. Nos
+ * trechos em que a pilha está vazia e não há funções adaptativas nem
+ * chamadas de submáquinas, os estados alcançáveis são percorridos em
+ * conjunto por meio de uma cache de subconjuntos: a do mapeamento inicial é
+ * compartilhada por todos os reconhecimentos, e a dos mapeamentos alterados
+ * pertence a cada exploração e é descartada quando a versão do mapeamento
+ * muda. As ramificações podem ainda ser exploradas em paralelo em um
+ * conjunto de threads com roubo de tarefas, sendo interrompidas assim que
+ * uma delas aceita a cadeia.
+ *
+ * Quando o autômato possui chamadas de submáquinas, presentes na
+ * especificação ou adicionadas por funções adaptativas, o reconhecimento é
+ * realizado em largura, posição por posição da cadeia, mesmo que um conjunto
+ * de threads seja informado: as configurações idênticas (estado, submáquina,
+ * pilha e versão do mapeamento) são unificadas em cada posição, e as pilhas
+ * de chamadas formam um grafo compartilhado, no qual cada retorno é
+ * identificado pelo estado e pela submáquina de retorno, pela posição da
+ * chamada e pela versão do mapeamento. Desta forma, especificações ambíguas
+ * construídas a partir de chamadas de submáquinas são reconhecidas em tempo
+ * polinomial.
+ *
+ * Os reconhecimentos podem ser limitados pelo número de ramificações ativas,
+ * de passos e de estados gerados pelas funções adaptativas, pela memória em
+ * uso na máquina virtual e pelo tempo de execução. Os limites são definidos
+ * para o mecanismo e podem ser substituídos a cada reconhecimento; ao atingir
+ * um limite, a exploração é interrompida com um veredito inconclusivo, e o
+ * contador correspondente do mecanismo é incrementado.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class NativeEngine {
+
+    // número máximo de conjuntos
+    // de cada cache, por omissão
+    public static final int CAPACITY = 4096;
+
+    // cadeia codificada de cada
+    // thread, reaproveitada entre
+    // os reconhecimentos
+    private static final ThreadLocal<SymbolBuffer> BUFFERS
+            = ThreadLocal.withInitial(SymbolBuffer::new);
+
+    // passos acumulados localmente por
+    // cada exploração antes de serem
+    // publicados na execução, e intervalo
+    // de verificação da memória em uso
+    private static final int STRIDE = 1024;
+
+    // atributos da classe
+    private final CompiledAutomaton automaton;
+    private final TransitionMapping template;
+    private final Names states;
+    private final Names symbols;
+    private final ActionInterpreter interpreter;
+    private final SubsetCache cache;
+    private final int capacity;
+    private final int main;
+    private final boolean calls;
+    private final Alphabet alphabet;
+    private final Limits limits;
+    private final AtomicLongArray triggered;
+
+    // pontos de retomada dos prefixos
+    // já reconhecidos, ou nulo
+    private final PrefixCache<Checkpoint> prefixes;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     */
+    public NativeEngine(CompiledAutomaton automaton) {
+        this(automaton, CAPACITY, Limits.NONE);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param limits Limites de execução dos reconhecimentos.
+     */
+    public NativeEngine(CompiledAutomaton automaton, Limits limits) {
+        this(automaton, CAPACITY, limits);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param capacity Número máximo de conjuntos de cada cache.
+     * @param limits Limites de execução dos reconhecimentos.
+     */
+    public NativeEngine(CompiledAutomaton automaton, int capacity,
+            Limits limits) {
+        this(automaton, capacity, limits, 0);
+    }
+
+    /**
+     * Construtor. Com pontos de retomada, a aceitação na primeira
+     * configuração é sempre explorada em largura, retomando cada cadeia a
+     * partir do maior prefixo já reconhecido.
+     *
+     * @param automaton Autômato compilado.
+     * @param capacity Número máximo de conjuntos de cada cache.
+     * @param limits Limites de execução dos reconhecimentos.
+     * @param checkpoints Número máximo de pontos de retomada dos prefixos,
+     * ou zero para não guardá-los.
+     */
+    public NativeEngine(CompiledAutomaton automaton, int capacity,
+            Limits limits, int checkpoints) {
+        this.automaton = automaton;
+        this.limits = limits;
+        this.triggered = new AtomicLongArray(Limit.values().length);
+        this.template = TransitionMapping.of(automaton);
+        this.states = new Names(names(automaton.getStateCount(), true));
+        this.alphabet = automaton.getAlphabet();
+        this.symbols = new Names(names(alphabet.size(), false));
+        this.interpreter = new ActionInterpreter(automaton, states, symbols);
+        this.capacity = capacity;
+        this.cache = new SubsetCache(automaton, template, capacity);
+        this.main = automaton.getMain();
+        this.calls = calls(automaton);
+        this.prefixes = checkpoints > 0
+                ? new PrefixCache<Checkpoint>(checkpoints) : null;
+    }
+
+    /**
+     * Obtém os nomes de estados ou símbolos do autômato compilado.
+     *
+     * @param size Quantidade de nomes.
+     * @param state Os nomes referem-se a estados.
+     * @return Nomes indexados pelos identificadores.
+     */
+    private String[] names(int size, boolean state) {
+        String[] result = new String[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = state ? automaton.getStateName(i)
+                    : alphabet.getName(i);
+        }
+        return result;
+    }
+
+    /**
+     * Verifica se o reconhecimento do autômato compilado no modo informado é
+     * realizado em largura, com a unificação das configurações idênticas em
+     * cada posição. Neste caso, o conjunto de threads é ignorado, dado que a
+     * exploração paralela em profundidade não unifica as configurações e
+     * pode tornar-se exponencial em especificações ambíguas.
+     *
+     * @param automaton Autômato compilado.
+     * @param mode Modo de reconhecimento.
+     * @param checkpoints Número máximo de pontos de retomada dos prefixos,
+     * ou zero para não guardá-los.
+     * @return Valor lógico indicando a exploração em largura.
+     */
+    public static boolean isBreadthFirst(CompiledAutomaton automaton,
+            Mode mode, int checkpoints) {
+        return mode != Mode.COUNT && (checkpoints > 0 || calls(automaton));
+    }
+
+    /**
+     * Verifica se o reconhecimento no modo informado é realizado em largura,
+     * caso em que o conjunto de threads é ignorado.
+     *
+     * @param mode Modo de reconhecimento.
+     * @return Valor lógico indicando a exploração em largura.
+     */
+    public boolean isBreadthFirst(Mode mode) {
+        return mode != Mode.COUNT && (calls || prefixes != null);
+    }
+
+    /**
+     * Verifica se o autômato possui chamadas de submáquinas alcançáveis
+     * pela submáquina principal, ou se alguma ação adaptativa adiciona
+     * transições com chamadas.
+     *
+     * @param automaton Autômato compilado.
+     * @return Valor lógico indicando a existência de chamadas.
+     */
+    private static boolean calls(CompiledAutomaton automaton) {
+        int main = automaton.getMain();
+        if (main != -1 && automaton.getAnalysis().hasCalls(main)) {
+            return true;
+        }
+        for (int action = 0; action < automaton.getActionCount(); action++) {
+            for (Operation operation : automaton.getPlan(action).
+                    getOperations()) {
+                if (operation.isCall() && operation.getType()
+                        == ActionPlan.ActionType.ADD) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public SubsetCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Obtém a cache de pontos de retomada dos prefixos.
+     *
+     * @return Cache de prefixos, ou nulo se não utilizada.
+     */
+    public PrefixCache<?> getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Limits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Obtém a quantidade de reconhecimentos interrompidos pelo limite.
+     *
+     * @param limit Limite de execução.
+     * @return Quantidade de interrupções.
+     */
+    public long getTriggered(Limit limit) {
+        return triggered.get(limit.ordinal());
+    }
+
+    /**
+     * Obtém o identificador do símbolo a partir do valor codificado. Pontos
+     * de código ausentes do alfabeto são procurados entre os símbolos
+     * criados pelas ações adaptativas durante a execução.
+     *
+     * @param value Valor codificado pelo alfabeto.
+     * @return Identificador do símbolo, ou -1 se não existir.
+     */
+    private int resolve(int value) {
+        if (value >= 0) {
+            return value;
+        }
+        return symbols.get(new String(Character.toChars(
+                Alphabet.codePoint(value))));
+    }
+
+    /**
+     * Reconhece a cadeia, em que cada ponto de código corresponde a um
+     * símbolo, interrompendo a exploração na primeira configuração de
+     * aceitação. Com chamadas de submáquinas, a exploração é realizada em
+     * largura, com a unificação das configurações idênticas. Um
+     * reconhecimento inconclusivo resulta na rejeição da cadeia.
+     *
+     * @param input Cadeia de entrada.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean recognize(CharSequence input) {
+        return evaluate(input, Mode.ACCEPT_FIRST, limits, null).isAccepted();
+    }
+
+    /**
+     * Reconhece a cadeia explorando as ramificações em paralelo no conjunto
+     * de threads informado. Ramificações pendentes são destacadas como
+     * tarefas sempre que existem poucas tarefas disponíveis para roubo, e a
+     * aceitação por qualquer ramificação interrompe as demais. Com chamadas
+     * de submáquinas ou pontos de retomada, a cadeia é reconhecida em
+     * largura e o conjunto de threads é ignorado.
+     *
+     * @param input Cadeia de entrada.
+     * @param pool Conjunto de threads.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean recognize(CharSequence input, ForkJoinPool pool) {
+        return evaluate(input, Mode.ACCEPT_FIRST, limits, pool).isAccepted();
+    }
+
+    /**
+     * Conta os caminhos de aceitação da cadeia, explorando todas as
+     * ramificações sem registrá-las. A cache de subconjuntos não é utilizada,
+     * já que esta unifica caminhos distintos.
+     *
+     * @param input Cadeia de entrada.
+     * @return Quantidade de caminhos de aceitação.
+     */
+    public long count(CharSequence input) {
+        return evaluate(input, Mode.COUNT, limits, null).getPaths();
+    }
+
+    /**
+     * Conta os caminhos de aceitação da cadeia, explorando as ramificações
+     * em paralelo no conjunto de threads informado.
+     *
+     * @param input Cadeia de entrada.
+     * @param pool Conjunto de threads.
+     * @return Quantidade de caminhos de aceitação.
+     */
+    public long count(CharSequence input, ForkJoinPool pool) {
+        return evaluate(input, Mode.COUNT, limits, pool).getPaths();
+    }
+
+    /**
+     * Reconhece a cadeia explorando as configurações em largura, com a
+     * unificação das configurações idênticas em cada posição,
+     * independentemente da existência de chamadas de submáquinas.
+     *
+     * @param input Cadeia de entrada.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean breadth(CharSequence input) {
+        return execute(encode(input), Mode.ACCEPT_FIRST, limits, null, true).
+                isAccepted();
+    }
+
+    /**
+     * Reconhece a cadeia explorando as configurações em profundidade, sem a
+     * unificação das configurações idênticas.
+     *
+     * @param input Cadeia de entrada.
+     * @return Valor lógico indicando se a cadeia foi aceita.
+     */
+    public boolean depth(CharSequence input) {
+        return execute(encode(input), Mode.ACCEPT_FIRST, limits, null, false).
+                isAccepted();
+    }
+
+    /**
+     * Inicia um reconhecimento incremental com os limites do mecanismo, cujas
+     * partes em bytes são decodificadas em UTF-8. A exploração é realizada
+     * em largura, posição por posição, à medida que os caracteres chegam.
+     *
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream() {
+        return stream(limits, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Inicia um reconhecimento incremental.
+     *
+     * @param limits Limites de execução.
+     * @param charset Conjunto de caracteres das partes em bytes.
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream(Limits limits, Charset charset) {
+        return new Stream(limits, charset);
+    }
+
+    /**
+     * Reconhece a cadeia no modo informado, com os limites de execução
+     * informados no lugar dos limites do mecanismo.
+     *
+     * @param input Cadeia de entrada.
+     * @param mode Modo de reconhecimento, a aceitação na primeira
+     * configuração ou a contagem de caminhos.
+     * @param limits Limites de execução.
+     * @param pool Conjunto de threads, ou nulo para a exploração sequencial.
+     * @return Resultado do reconhecimento.
+     */
+    public Result evaluate(CharSequence input, Mode mode, Limits limits,
+            ForkJoinPool pool) {
+        return evaluate(encode(input), mode, limits, pool);
+    }
+
+    /**
+     * Reconhece a cadeia previamente codificada pelo alfabeto do autômato no
+     * modo informado, com os limites de execução informados.
+     *
+     * @param buffer Cadeia codificada.
+     * @param mode Modo de reconhecimento, a aceitação na primeira
+     * configuração ou a contagem de caminhos.
+     * @param limits Limites de execução.
+     * @param pool Conjunto de threads, ou nulo para a exploração sequencial.
+     * @return Resultado do reconhecimento.
+     */
+    public Result evaluate(SymbolBuffer buffer, Mode mode, Limits limits,
+            ForkJoinPool pool) {
+        boolean breadth = isBreadthFirst(mode);
+        return execute(buffer, mode, limits, breadth ? null : pool, breadth);
+    }
+
+    /**
+     * Codifica a cadeia no buffer da thread corrente.
+     *
+     * @param input Cadeia de entrada.
+     * @return Cadeia codificada.
+     */
+    private SymbolBuffer encode(CharSequence input) {
+        SymbolBuffer buffer = BUFFERS.get();
+        alphabet.encode(input, buffer);
+        return buffer;
+    }
+
+    /**
+     * Executa o reconhecimento da cadeia codificada. Em um alfabeto fechado,
+     * uma cadeia com um símbolo ausente é rejeitada sem exploração.
+     *
+     * @param buffer Cadeia codificada.
+     * @param mode Modo de reconhecimento.
+     * @param limits Limites de execução.
+     * @param pool Conjunto de threads, ou nulo para a exploração sequencial.
+     * @param breadth A exploração é realizada em largura.
+     * @return Resultado do reconhecimento.
+     */
+    private Result execute(SymbolBuffer buffer, Mode mode, Limits limits,
+            ForkJoinPool pool, boolean breadth) {
+        if (mode == Mode.FULL) {
+            throw new IllegalArgumentException("O mecanismo nativo não "
+                    + "registra os caminhos de reconhecimento, o que é "
+                    + "necessário no modo completo. Por favor, utilize a "
+                    + "biblioteca AA4J para este modo. O programa será "
+                    + "encerrado.");
+        }
+        if (buffer.hasAbsent() && alphabet.isClosed()) {
+            return new Result(Verdict.REJECTED, 0, 0, Engine.NATIVE, mode,
+                    null);
+        }
+        if (breadth && prefixes != null) {
+            return resume(buffer.getSymbols(), buffer.getLength(), limits);
+        }
+        return run(new Execution(buffer.getSymbols(), buffer.getLength(),
+                mode == Mode.COUNT, limits), pool, breadth);
+    }
+
+    /**
+     * Reconhece a cadeia em largura a partir do ponto de retomada do maior
+     * prefixo existente na cache, guardando os pontos dos prefixos seguintes.
+     *
+     * @param encoded Cadeia codificada.
+     * @param length Quantidade de símbolos.
+     * @param limits Limites de execução.
+     * @return Resultado do reconhecimento.
+     */
+    private Result resume(int[] encoded, int length, Limits limits) {
+
+        // o ponto pode ter sido descartado
+        // entre a consulta e a leitura
+        PrefixCache.Node<Checkpoint> node = prefixes.find(encoded, length);
+        Checkpoint checkpoint = node == null ? null : node.getValue();
+        if (checkpoint == null) {
+            node = null;
+        }
+        Execution execution = new Execution(encoded, length, false, limits,
+                checkpoint == null ? automaton.getMaximum() + 1
+                : checkpoint.generated);
+        boolean found = false;
+        if (main != -1 && automaton.getInitial(main) != -1) {
+            found = new Frontier(execution, node, checkpoint).search();
+        }
+        return result(execution, found ? 1 : 0);
+    }
+
+    /**
+     * Executa o reconhecimento.
+     *
+     * @param execution Execução do reconhecimento.
+     * @param pool Conjunto de threads, ou nulo para a exploração sequencial.
+     * @param breadth A exploração é realizada em largura.
+     * @return Resultado do reconhecimento.
+     */
+    private Result run(Execution execution, ForkJoinPool pool,
+            boolean breadth) {
+        long found = 0;
+        if (main != -1 && automaton.getInitial(main) != -1) {
+            if (breadth) {
+                found = new Frontier(execution).search() ? 1 : 0;
+            } else if (pool == null) {
+                found = new Explorer(execution, false).
+                        explore(execution.initial());
+            } else {
+                found = pool.invoke(new Branch(execution,
+                        execution.initial()));
+            }
+        }
+        return result(execution, found);
+    }
+
+    /**
+     * Obtém o resultado da execução.
+     *
+     * @param execution Execução do reconhecimento.
+     * @param found Quantidade de caminhos de aceitação encontrados.
+     * @return Resultado do reconhecimento.
+     */
+    private Result result(Execution execution, long found) {
+
+        // a aceitação é conclusiva mesmo que um limite
+        // tenha sido atingido por outra ramificação,
+        // exceto na contagem, cujo total é parcial
+        Limit limit = execution.exceeded.get();
+        Verdict verdict;
+        if (execution.accepted && !execution.counting) {
+            verdict = Verdict.ACCEPTED;
+            limit = null;
+        } else if (limit != null) {
+            verdict = Verdict.INCONCLUSIVE;
+        } else {
+            verdict = found != 0 ? Verdict.ACCEPTED : Verdict.REJECTED;
+        }
+        long paths = execution.counting ? found
+                : verdict == Verdict.ACCEPTED ? 1 : 0;
+        return new Result(verdict, paths, execution.spent.get(),
+                Engine.NATIVE, execution.counting ? Mode.COUNT
+                : Mode.ACCEPT_FIRST, limit);
+    }
+
+    /**
+     * Verifica se o estado é de aceitação na submáquina.
+     *
+     * @param submachine Submáquina.
+     * @param state Estado.
+     * @return Valor lógico indicando se o estado é de aceitação.
+     */
+    private boolean accepting(int submachine, int state) {
+        return state < automaton.getStateCount()
+                && automaton.isAccepting(submachine, state);
+    }
+
+    /**
+     * Execução de um reconhecimento, compartilhada por todas as
+     * ramificações: a cadeia, o gerador de estados novos, o modo de
+     * reconhecimento, os limites, os passos realizados e a indicação de
+     * término.
+     */
+    private class Execution {
+
+        // atributos da classe
+        private final int[] encoded;
+        private final int length;
+        private final StateGenerator generator;
+        private final boolean counting;
+        private final Limits limits;
+        private final boolean bounded;
+        private final int first;
+
+        // instante limite da execução,
+        // em nanossegundos, se houver
+        private final long deadline;
+
+        // passos publicados pelas
+        // explorações e limite atingido
+        private final AtomicLong spent;
+        private final AtomicReference<Limit> exceeded;
+
+        // alguma ramificação
+        // aceitou a cadeia
+        private volatile boolean accepted;
+
+        /**
+         * Construtor.
+         *
+         * @param encoded Cadeia codificada, ou nulo no reconhecimento
+         * incremental.
+         * @param length Quantidade de símbolos, ou -1 no reconhecimento
+         * incremental.
+         * @param counting Todos os caminhos de aceitação devem ser contados.
+         * @param limits Limites de execução.
+         */
+        Execution(int[] encoded, int length, boolean counting,
+                Limits limits) {
+            this(encoded, length, counting, limits,
+                    automaton.getMaximum() + 1);
+        }
+
+        /**
+         * Construtor.
+         *
+         * @param encoded Cadeia codificada, ou nulo no reconhecimento
+         * incremental.
+         * @param length Quantidade de símbolos, ou -1 no reconhecimento
+         * incremental.
+         * @param counting Todos os caminhos de aceitação devem ser contados.
+         * @param limits Limites de execução.
+         * @param next Próximo estado a ser gerado, posterior ao maior estado
+         * da especificação ao retomar um prefixo.
+         */
+        Execution(int[] encoded, int length, boolean counting,
+                Limits limits, int next) {
+            this.encoded = encoded;
+            this.length = length;
+            this.first = automaton.getMaximum() + 1;
+            this.generator = new StateGenerator(next);
+            this.counting = counting;
+            this.limits = limits;
+            this.bounded = limits.isBounded();
+            this.deadline = limits.getTime() == 0 ? 0 : System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(limits.getTime());
+            this.spent = new AtomicLong();
+            this.exceeded = new AtomicReference<>();
+        }
+
+        /**
+         * Verifica se a exploração deve ser interrompida, o que ocorre na
+         * primeira aceitação quando os caminhos não são contados, ou quando
+         * algum limite foi atingido.
+         *
+         * @return Valor lógico indicando a interrupção.
+         */
+        boolean finished() {
+            return (accepted && !counting) || exceeded.get() != null;
+        }
+
+        /**
+         * Verifica os limites de execução. A memória em uso e o tempo de
+         * execução são verificados somente quando os passos publicados
+         * atingem um múltiplo do intervalo de verificação.
+         *
+         * @param live Ramificações ativas da exploração.
+         * @param local Passos ainda não publicados pela exploração.
+         * @return Valor lógico indicando se algum limite foi atingido.
+         */
+        boolean exceeds(int live, long local) {
+            if (!bounded) {
+                return false;
+            }
+            long steps = spent.get() + local;
+            if (limits.getBranches() != 0 && live > limits.getBranches()) {
+                return halt(Limit.BRANCHES);
+            }
+            if (limits.getSteps() != 0 && steps > limits.getSteps()) {
+                return halt(Limit.STEPS);
+            }
+            if (limits.getStates() != 0
+                    && generator.peek() - first > limits.getStates()) {
+                return halt(Limit.STATES);
+            }
+            if (limits.getHeap() != 0 && local == 0) {
+                Runtime runtime = Runtime.getRuntime();
+                if (runtime.totalMemory() - runtime.freeMemory()
+                        > limits.getHeap()) {
+                    return halt(Limit.HEAP);
+                }
+            }
+            if (deadline != 0 && local == 0
+                    && System.nanoTime() - deadline > 0) {
+                return halt(Limit.TIME);
+            }
+            return false;
+        }
+
+        /**
+         * Interrompe a execução pelo limite informado, incrementando o
+         * contador correspondente apenas na primeira interrupção.
+         *
+         * @param limit Limite atingido.
+         * @return Valor lógico verdadeiro.
+         */
+        private boolean halt(Limit limit) {
+            if (exceeded.compareAndSet(null, limit)) {
+                triggered.incrementAndGet(limit.ordinal());
+            }
+            return true;
+        }
+
+        /**
+         * Obtém a configuração inicial.
+         *
+         * @return Configuração inicial.
+         */
+        Configuration initial() {
+            return new Configuration(automaton.getInitial(main), 0, main,
+                    null, template, false);
+        }
+
+    }
+
+    /**
+     * Tarefa que explora uma ramificação do reconhecimento, destacando
+     * novas tarefas para as ramificações pendentes e aguardando o término
+     * destas.
+     */
+    private class Branch extends RecursiveTask<Long> {
+
+        // identificador de serialização
+        private static final long serialVersionUID = 1L;
+
+        // atributos da classe
+        private final Execution execution;
+        private final Configuration start;
+
+        /**
+         * Construtor.
+         *
+         * @param execution Execução do reconhecimento.
+         * @param start Configuração inicial da ramificação.
+         */
+        Branch(Execution execution, Configuration start) {
+            this.execution = execution;
+            this.start = start;
+        }
+
+        /**
+         * Explora a ramificação.
+         *
+         * @return Quantidade de caminhos de aceitação encontrados.
+         */
+        @Override
+        protected Long compute() {
+            Explorer explorer = new Explorer(execution, true);
+            long result = explorer.explore(start);
+            for (Branch child : explorer.children) {
+                if (execution.finished()) {
+                    child.cancel(false);
+                } else {
+                    result += child.join();
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Base das explorações, com a contagem local dos passos, publicada na
+     * execução a cada intervalo de passos e ao término da exploração.
+     */
+    private abstract class Walker {
+
+        // atributos da classe
+        protected final Execution execution;
+        private long local;
+
+        /**
+         * Construtor.
+         *
+         * @param execution Execução do reconhecimento.
+         */
+        Walker(Execution execution) {
+            this.execution = execution;
+        }
+
+        /**
+         * Registra os passos e verifica os limites de execução.
+         *
+         * @param steps Passos realizados.
+         * @param live Ramificações ativas da exploração.
+         * @return Valor lógico indicando se algum limite foi atingido.
+         */
+        protected boolean step(int steps, int live) {
+            local += steps;
+            if (local >= STRIDE) {
+                execution.spent.addAndGet(local);
+                local = 0;
+            }
+            return execution.exceeds(live, local);
+        }
+
+        /**
+         * Publica os passos ainda não publicados.
+         */
+        protected void flush() {
+            execution.spent.addAndGet(local);
+            local = 0;
+        }
+
+    }
+
+    /**
+     * Exploração em profundidade a partir de uma configuração, com a pilha
+     * de configurações pendentes e a cache dos mapeamentos alterados
+     * próprias.
+     */
+    private class Explorer extends Walker {
+
+        // quantidade de tarefas disponíveis para
+        // roubo abaixo da qual uma ramificação
+        // pendente é destacada
+        private static final int SURPLUS = 2;
+
+        // atributos da classe
+        private final int[] encoded;
+        private final int length;
+        private final Deque<Configuration> pending;
+        private final boolean parallel;
+        private final List<Branch> children;
+        private SubsetCache local;
+
+        /**
+         * Construtor.
+         *
+         * @param execution Execução do reconhecimento.
+         * @param parallel As ramificações pendentes podem ser destacadas.
+         */
+        Explorer(Execution execution, boolean parallel) {
+            super(execution);
+            this.encoded = execution.encoded;
+            this.length = execution.length;
+            this.pending = new ArrayDeque<>();
+            this.parallel = parallel;
+            this.children = new ArrayList<>();
+        }
+
+        /**
+         * Obtém a cache correspondente ao mapeamento.
+         *
+         * @param mapping Mapeamento.
+         * @return Cache do mapeamento.
+         */
+        private SubsetCache cache(TransitionMapping mapping) {
+            if (mapping == template) {
+                return cache;
+            }
+            if (local == null) {
+                local = new SubsetCache(automaton, mapping, capacity);
+            } else {
+                local.use(mapping);
+            }
+            return local;
+        }
+
+        /**
+         * Explora as configurações em profundidade até encontrar uma
+         * configuração de aceitação, até que outra ramificação aceite a
+         * cadeia ou até que algum limite seja atingido; na contagem, todas as
+         * configurações são exploradas.
+         *
+         * @param start Configuração inicial.
+         * @return Quantidade de caminhos de aceitação encontrados.
+         */
+        long explore(Configuration start) {
+            try {
+                return walk(start);
+            } finally {
+                flush();
+            }
+        }
+
+        /**
+         * Explora as configurações em profundidade.
+         *
+         * @param start Configuração inicial.
+         * @return Quantidade de caminhos de aceitação encontrados.
+         */
+        private long walk(Configuration start) {
+            long found = 0;
+            pending.push(start);
+            while (!pending.isEmpty() && !execution.finished()) {
+                if (step(1, pending.size())) {
+                    break;
+                }
+
+                // destaca a ramificação pendente mais
+                // antiga, normalmente a maior, quando
+                // há poucas tarefas disponíveis
+                if (parallel && pending.size() > 1 && ForkJoinTask.
+                        getSurplusQueuedTaskCount() < SURPLUS) {
+                    Branch branch = new Branch(execution,
+                            pending.pollLast());
+                    branch.fork();
+                    children.add(branch);
+                }
+                Configuration c = pending.pop();
+
+                // sem chamadas pendentes, os trechos
+                // puros são percorridos pela cache,
+                // exceto na contagem de caminhos
+                if (c.stack == null && !c.expanded && !execution.counting) {
+                    SubsetCache current = cache(c.mapping);
+                    Subset subset = current.start(c.state);
+                    if (subset != SubsetCache.IMPURE) {
+                        int position = c.position;
+                        while (position < length) {
+                            int symbol = resolve(encoded[position]);
+                            Subset next = symbol == -1 ? SubsetCache.DEAD
+                                    : current.step(subset, symbol);
+                            if (next == SubsetCache.IMPURE) {
+                                break;
+                            }
+                            subset = next;
+                            if (next == SubsetCache.DEAD) {
+                                break;
+                            }
+                            position++;
+                        }
+                        step(position - c.position, pending.size());
+                        if (subset == SubsetCache.DEAD) {
+                            continue;
+                        }
+                        if (position == length) {
+                            if (subset.accepting) {
+                                execution.accepted = true;
+                                return 1;
+                            }
+                            continue;
+                        }
+
+                        // o próximo passo requer o mecanismo
+                        // geral para cada estado do conjunto
+                        for (int i = subset.states.length - 1; i >= 0; i--) {
+                            pending.push(new Configuration(subset.states[i],
+                                    position, main, null, c.mapping, true));
+                        }
+                        continue;
+                    }
+                }
+                if (expand(c)) {
+                    execution.accepted = true;
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Expande a configuração, empilhando as configurações seguintes. Na
+         * primeira aceitação sem contagem, as configurações seguintes não
+         * são necessárias.
+         *
+         * @param c Configuração.
+         * @return Valor lógico indicando se a configuração é de aceitação.
+         */
+        private boolean expand(Configuration c) {
+            boolean accepting = c.position == length && c.stack == null
+                    && accepting(main, c.state);
+            if (accepting && !execution.counting) {
+                return true;
+            }
+            int mark = pending.size();
+
+            // retorno da submáquina corrente
+            if (c.stack != null && accepting(c.submachine, c.state)) {
+                pending.push(new Configuration(c.stack.state, c.position,
+                        c.stack.submachine, c.stack.next, c.mapping, false));
+            }
+            int symbol = c.position < length
+                    ? resolve(encoded[c.position]) : -1;
+            for (Edge edge : c.mapping.edges(c.state)) {
+                int label = edge.getLabel();
+                if (label >= 0) {
+                    if (label == symbol) {
+                        fire(c, edge);
+                    }
+                } else if (label == CompiledAutomaton.EPSILON) {
+
+                    // os destinos das transições em vazio
+                    // puras já pertencem ao conjunto
+                    // do qual a configuração foi obtida
+                    if (!c.expanded || edge.isAdaptive()) {
+                        fire(c, edge);
+                    }
+                } else {
+                    fire(c, edge);
+                }
+            }
+
+            // inverte as configurações empilhadas,
+            // de modo que a primeira transição da
+            // especificação seja explorada primeiro
+            reverse(pending.size() - mark);
+            return accepting;
+        }
+
+        /**
+         * Inverte a ordem das configurações no topo da pilha.
+         *
+         * @param count Quantidade de configurações.
+         */
+        private void reverse(int count) {
+            if (count < 2) {
+                return;
+            }
+            Configuration[] top = new Configuration[count];
+            for (int i = 0; i < count; i++) {
+                top[i] = pending.pop();
+            }
+            for (Configuration c : top) {
+                pending.push(c);
+            }
+        }
+
+        /**
+         * Executa a transição a partir da configuração, com as funções
+         * adaptativas anterior e posterior, se existirem.
+         *
+         * @param c Configuração.
+         * @param edge Transição.
+         */
+        private void fire(Configuration c, Edge edge) {
+            TransitionMapping mapping = c.mapping;
+
+            // a função anterior é executada antes
+            // da transição; se esta deixar de
+            // existir, a configuração é avaliada
+            // novamente com o mapeamento alterado;
+            // ações que apenas consultam utilizam
+            // o mapeamento sem duplicá-lo
+            if (edge.getPrior() != null) {
+                if (interpreter.isModifying(edge.getPrior())) {
+                    mapping = mapping.fork();
+                }
+                interpreter.execute(edge.getPrior(), mapping,
+                        execution.generator);
+                if (!mapping.contains(edge)) {
+                    pending.push(new Configuration(c.state, c.position,
+                            c.submachine, c.stack, mapping, false));
+                    return;
+                }
+            }
+
+            // efetua a transição
+            int state;
+            int position = c.position;
+            int submachine = c.submachine;
+            Frame stack = c.stack;
+            int label = edge.getLabel();
+            if (CompiledAutomaton.isCall(label)) {
+                int called = CompiledAutomaton.called(label);
+                stack = new Frame(edge.getTo(), submachine, stack);
+                submachine = called;
+                state = automaton.getInitial(called);
+                if (state == -1) {
+                    return;
+                }
+            } else {
+                state = edge.getTo();
+                if (label >= 0) {
+                    position++;
+                }
+            }
+
+            // a função posterior é executada
+            // após a transição
+            if (edge.getPost() != null) {
+                if (mapping == c.mapping
+                        && interpreter.isModifying(edge.getPost())) {
+                    mapping = mapping.fork();
+                }
+                interpreter.execute(edge.getPost(), mapping,
+                        execution.generator);
+            }
+            pending.push(new Configuration(state, position, submachine, stack,
+                    mapping, false));
+        }
+
+    }
+
+    /**
+     * Exploração em largura, posição por posição da cadeia. As configurações
+     * de cada posição são unificadas em uma tabela de chaves primitivas,
+     * esvaziada a cada posição, e as pilhas de chamadas são compartilhadas
+     * em um grafo de retornos: configurações que chamam a mesma submáquina
+     * na mesma posição, com o mesmo retorno e o mesmo mapeamento, utilizam o
+     * mesmo nó, ao qual as pilhas de cada chamador são ligadas.
+     */
+    private class Frontier extends Walker {
+
+        // atributos da classe
+        private final StateGenerator generator;
+
+        // configurações da posição corrente
+        // e da posição seguinte, com as
+        // tabelas de unificação correspondentes
+        private List<Item> current;
+        private List<Item> following;
+        private ConfigurationTable here;
+        private ConfigurationTable there;
+
+        // nós de retorno criados
+        // na posição corrente
+        private final ConfigurationTable returns;
+        private final List<Continuation> created;
+
+        // posição corrente, identificador
+        // do último nó criado e indicação
+        // de interrupção por um limite
+        private long position;
+        private int identifiers;
+        private boolean halted;
+
+        // nó do último prefixo guardado
+        // na cache, ou nulo
+        private PrefixCache.Node<Checkpoint> cursor;
+
+        /**
+         * Construtor.
+         *
+         * @param execution Execução do reconhecimento.
+         */
+        Frontier(Execution execution) {
+            this(execution, null, null);
+        }
+
+        /**
+         * Construtor. As configurações, a posição e os identificadores são
+         * restaurados a partir do ponto de retomada, se existir.
+         *
+         * @param execution Execução do reconhecimento.
+         * @param cursor Nó do prefixo retomado, ou nulo.
+         * @param checkpoint Ponto de retomada, ou nulo.
+         */
+        Frontier(Execution execution, PrefixCache.Node<Checkpoint> cursor,
+                Checkpoint checkpoint) {
+            super(execution);
+            this.generator = execution.generator;
+            this.current = new ArrayList<>();
+            this.following = new ArrayList<>();
+            this.here = new ConfigurationTable();
+            this.there = new ConfigurationTable();
+            this.returns = new ConfigurationTable();
+            this.created = new ArrayList<>();
+            this.cursor = cursor;
+            if (checkpoint != null) {
+                for (Item item : checkpoint.items) {
+                    offer(item, false);
+                }
+                this.position = checkpoint.position;
+                this.identifiers = checkpoint.identifiers;
+            }
+        }
+
+        /**
+         * Explora as configurações até encontrar uma configuração de
+         * aceitação, até que não existam configurações na posição seguinte
+         * ou até que algum limite seja atingido.
+         *
+         * @return Valor lógico indicando se a cadeia foi aceita.
+         */
+        boolean search() {
+            try {
+                if (walk()) {
+                    execution.accepted = true;
+                    return true;
+                }
+                return false;
+            } finally {
+                flush();
+            }
+        }
+
+        /**
+         * Explora as configurações em largura.
+         *
+         * @return Valor lógico indicando se a cadeia foi aceita.
+         */
+        private boolean walk() {
+            if (position == 0) {
+                begin();
+            }
+            int[] encoded = execution.encoded;
+            for (int i = (int) position; i < execution.length; i++) {
+                if (!advance(encoded[i])) {
+                    return false;
+                }
+
+                // as configurações da posição
+                // seguinte, ainda não fechadas,
+                // formam o ponto de retomada
+                if (prefixes != null && prefixes.isCheckpoint(position)) {
+                    cursor = prefixes.store(cursor, encoded, (int) position,
+                            new Checkpoint(current.toArray(
+                                    new Item[current.size()]), position,
+                                    identifiers, generator.peek()));
+                }
+            }
+            return end();
+        }
+
+        /**
+         * Inclui a configuração inicial na posição corrente.
+         */
+        void begin() {
+            offer(new Item(automaton.getInitial(main), main, null, template),
+                    false);
+        }
+
+        /**
+         * Fecha a posição corrente com o símbolo seguinte e avança para a
+         * posição seguinte.
+         *
+         * @param value Valor codificado do símbolo seguinte.
+         * @return Valor lógico indicando se ainda existem configurações, sem
+         * que algum limite tenha sido atingido.
+         */
+        boolean advance(int value) {
+            close(value, false);
+            if (halted || following.isEmpty()) {
+                current.clear();
+                return false;
+            }
+
+            // avança para a posição seguinte,
+            // reaproveitando as listas e as
+            // tabelas da posição anterior
+            List<Item> items = current;
+            current = following;
+            following = items;
+            following.clear();
+            ConfigurationTable table = here;
+            here = there;
+            there = table;
+            there.clear();
+            returns.clear();
+            created.clear();
+            position++;
+            return true;
+        }
+
+        /**
+         * Fecha a posição corrente ao término da cadeia.
+         *
+         * @return Valor lógico indicando se a cadeia foi aceita.
+         */
+        boolean end() {
+            return close(-1, true);
+        }
+
+        /**
+         * Expande as configurações da posição corrente. A lista cresce
+         * durante a iteração com as transições que não consomem símbolos.
+         *
+         * @param value Valor codificado do símbolo seguinte.
+         * @param end A posição corrente é o término da cadeia.
+         * @return Valor lógico indicando se alguma configuração de aceitação
+         * foi encontrada.
+         */
+        private boolean close(int value, boolean end) {
+            for (int i = 0; i < current.size(); i++) {
+                if (step(1, current.size() - i + following.size())) {
+                    halted = true;
+                    return false;
+                }
+                if (expand(current.get(i), value, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Inclui a configuração na posição informada, caso esta ainda não
+         * exista.
+         *
+         * @param item Configuração.
+         * @param next A configuração pertence à posição seguinte.
+         */
+        private void offer(Item item, boolean next) {
+            ConfigurationTable table = next ? there : here;
+            long key = ((long) item.state << 32)
+                    | (item.stack == null ? 0 : item.stack.id);
+            if (table.add(key, item.mapping.getVersion(), item.submachine)) {
+                (next ? following : current).add(item);
+            }
+        }
+
+        /**
+         * Expande a configuração, incluindo as configurações seguintes.
+         *
+         * @param item Configuração.
+         * @param value Valor codificado do símbolo seguinte.
+         * @param end A posição corrente é o término da cadeia.
+         * @return Valor lógico indicando se a configuração é de aceitação.
+         */
+        private boolean expand(Item item, int value, boolean end) {
+            if (end && item.stack == null
+                    && accepting(main, item.state)) {
+                return true;
+            }
+
+            // retorno da submáquina corrente para
+            // todos os chamadores ligados ao nó,
+            // registrado para os chamadores que
+            // ainda forem ligados nesta posição
+            if (item.stack != null && accepting(item.submachine, item.state)) {
+                Continuation node = item.stack;
+                if (node.position == position) {
+                    node.returned.add(item.mapping);
+                }
+                for (Continuation parent : node.parents) {
+                    offer(new Item(node.state, node.submachine, parent,
+                            item.mapping), false);
+                }
+            }
+            int symbol = end ? -1 : resolve(value);
+            for (Edge edge : item.mapping.edges(item.state)) {
+                int label = edge.getLabel();
+                if (label < 0 || label == symbol) {
+                    fire(item, edge);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Executa a transição a partir da configuração, com as funções
+         * adaptativas anterior e posterior, se existirem.
+         *
+         * @param item Configuração.
+         * @param edge Transição.
+         */
+        private void fire(Item item, Edge edge) {
+            TransitionMapping mapping = item.mapping;
+
+            // a função anterior é executada antes
+            // da transição; se esta deixar de
+            // existir, a configuração é avaliada
+            // novamente com o mapeamento alterado;
+            // ações que apenas consultam utilizam
+            // o mapeamento sem duplicá-lo
+            if (edge.getPrior() != null) {
+                if (interpreter.isModifying(edge.getPrior())) {
+                    mapping = mapping.fork();
+                }
+                interpreter.execute(edge.getPrior(), mapping, generator);
+                if (!mapping.contains(edge)) {
+                    offer(new Item(item.state, item.submachine, item.stack,
+                            mapping), false);
+                    return;
+                }
+            }
+            int label = edge.getLabel();
+            boolean call = CompiledAutomaton.isCall(label);
+            int state = call ? automaton.getInitial(
+                    CompiledAutomaton.called(label)) : edge.getTo();
+            if (state == -1) {
+                return;
+            }
+
+            // a função posterior é executada
+            // após a transição
+            if (edge.getPost() != null) {
+                if (mapping == item.mapping
+                        && interpreter.isModifying(edge.getPost())) {
+                    mapping = mapping.fork();
+                }
+                interpreter.execute(edge.getPost(), mapping, generator);
+            }
+            if (call) {
+                Continuation node = link(edge.getTo(), item.submachine,
+                        mapping, item.stack);
+                offer(new Item(state, CompiledAutomaton.called(label), node,
+                        mapping), false);
+            } else {
+                offer(new Item(state, item.submachine, item.stack, mapping),
+                        label >= 0);
+            }
+        }
+
+        /**
+         * Obtém o nó de retorno da chamada na posição corrente, ligando a
+         * pilha do chamador a este. Um chamador ligado a um nó existente
+         * recebe também os retornos já realizados nesta posição.
+         *
+         * @param state Estado de retorno.
+         * @param submachine Submáquina de retorno.
+         * @param mapping Mapeamento no início da submáquina chamada.
+         * @param parent Pilha do chamador, ou nulo.
+         * @return Nó de retorno.
+         */
+        private Continuation link(int state, int submachine,
+                TransitionMapping mapping, Continuation parent) {
+            int index = returns.get(state, mapping.getVersion(), submachine);
+            Continuation node;
+            if (index == -1) {
+                node = new Continuation(++identifiers, state, submachine,
+                        position);
+                returns.putIfAbsent(state, mapping.getVersion(), submachine,
+                        created.size());
+                created.add(node);
+            } else {
+                node = created.get(index);
+            }
+            if (!node.parents.contains(parent)) {
+                node.parents.add(parent);
+                for (TransitionMapping returned : node.returned) {
+                    offer(new Item(node.state, node.submachine, parent,
+                            returned), false);
+                }
+            }
+            return node;
+        }
+
+    }
+
+    /**
+     * Reconhecimento incremental sobre a exploração em largura, que mantém
+     * apenas as configurações da posição corrente.
+     */
+    private class Stream extends RecognitionStream {
+
+        // atributos da classe
+        private final Execution execution;
+        private final Frontier frontier;
+        private boolean alive;
+
+        /**
+         * Construtor.
+         *
+         * @param limits Limites de execução.
+         * @param charset Conjunto de caracteres das partes em bytes.
+         */
+        Stream(Limits limits, Charset charset) {
+            super(alphabet, charset);
+            this.execution = new Execution(null, -1, false, limits);
+            this.frontier = new Frontier(execution);
+            this.alive = main != -1 && automaton.getInitial(main) != -1;
+            if (alive) {
+                frontier.begin();
+            }
+        }
+
+        /**
+         * Consome os símbolos informados; após a rejeição ou a interrupção,
+         * os símbolos são descartados.
+         *
+         * @param symbols Identificadores dos símbolos.
+         * @param offset Posição do primeiro símbolo.
+         * @param length Quantidade de símbolos.
+         */
+        @Override
+        protected void consume(int[] symbols, int offset, int length) {
+            int end = offset + length;
+            for (int i = offset; i < end && alive; i++) {
+                alive = frontier.advance(symbols[i]);
+            }
+        }
+
+        /**
+         * Conclui o reconhecimento após o último caractere.
+         *
+         * @param consumed Quantidade de caracteres consumidos.
+         * @return Resultado do reconhecimento.
+         */
+        @Override
+        protected Result conclude(long consumed) {
+            if (alive && frontier.end()) {
+                execution.accepted = true;
+            }
+            frontier.flush();
+            return result(execution, execution.accepted ? 1 : 0);
+        }
+
+    }
+
+    /**
+     * Configuração do reconhecimento.
+     */
+    private static class Configuration {
+
+        // atributos da classe
+        final int state;
+        final int position;
+        final int submachine;
+        final Frame stack;
+        final TransitionMapping mapping;
+
+        // a configuração foi obtida de um
+        // conjunto da cache, já fechado
+        // pelas transições em vazio puras
+        final boolean expanded;
+
+        /**
+         * Construtor.
+         *
+         * @param state Estado corrente.
+         * @param position Posição na cadeia.
+         * @param submachine Submáquina corrente.
+         * @param stack Pilha de chamadas, ou nulo.
+         * @param mapping Mapeamento da ramificação.
+         * @param expanded A configuração foi obtida de um conjunto.
+         */
+        Configuration(int state, int position, int submachine, Frame stack,
+                TransitionMapping mapping, boolean expanded) {
+            this.state = state;
+            this.position = position;
+            this.submachine = submachine;
+            this.stack = stack;
+            this.mapping = mapping;
+            this.expanded = expanded;
+        }
+
+    }
+
+    /**
+     * Elemento imutável da pilha de chamadas de submáquinas, compartilhado
+     * entre as ramificações.
+     */
+    private static class Frame {
+
+        // atributos da classe
+        final int state;
+        final int submachine;
+        final Frame next;
+
+        /**
+         * Construtor.
+         *
+         * @param state Estado de retorno.
+         * @param submachine Submáquina de retorno.
+         * @param next Elemento seguinte, ou nulo.
+         */
+        Frame(int state, int submachine, Frame next) {
+            this.state = state;
+            this.submachine = submachine;
+            this.next = next;
+        }
+
+    }
+
+    /**
+     * Configuração da exploração em largura, cuja posição na cadeia é
+     * implícita.
+     */
+    private static class Item {
+
+        // atributos da classe
+        final int state;
+        final int submachine;
+        final Continuation stack;
+        final TransitionMapping mapping;
+
+        /**
+         * Construtor.
+         *
+         * @param state Estado corrente.
+         * @param submachine Submáquina corrente.
+         * @param stack Nó de retorno, ou nulo.
+         * @param mapping Mapeamento da configuração.
+         */
+        Item(int state, int submachine, Continuation stack,
+                TransitionMapping mapping) {
+            this.state = state;
+            this.submachine = submachine;
+            this.stack = stack;
+            this.mapping = mapping;
+        }
+
+    }
+
+    /**
+     * Ponto de retomada da exploração em largura após o consumo de um
+     * prefixo: as configurações ainda não fechadas da posição, o
+     * identificador do último nó de retorno e o próximo estado a ser gerado.
+     * Os nós de retorno das configurações não são mais alterados após a sua
+     * posição, e os mapeamentos não são alterados após a sua criação, de
+     * modo que o ponto é compartilhado entre as retomadas.
+     */
+    private static class Checkpoint {
+
+        // atributos da classe
+        final Item[] items;
+        final long position;
+        final int identifiers;
+        final int generated;
+
+        /**
+         * Construtor.
+         *
+         * @param items Configurações da posição.
+         * @param position Posição, o tamanho do prefixo.
+         * @param identifiers Identificador do último nó de retorno.
+         * @param generated Próximo estado a ser gerado.
+         */
+        Checkpoint(Item[] items, long position, int identifiers,
+                int generated) {
+            this.items = items;
+            this.position = position;
+            this.identifiers = identifiers;
+            this.generated = generated;
+        }
+
+    }
+
+    /**
+     * Nó do grafo de retornos da exploração em largura, com os nós dos
+     * chamadores (nulo para a pilha vazia) e os mapeamentos dos retornos
+     * realizados na posição da chamada.
+     */
+    private static class Continuation {
+
+        // atributos da classe
+        final int id;
+        final int state;
+        final int submachine;
+        final long position;
+        final List<Continuation> parents;
+        final List<TransitionMapping> returned;
+
+        /**
+         * Construtor.
+         *
+         * @param id Identificador do nó, positivo.
+         * @param state Estado de retorno.
+         * @param submachine Submáquina de retorno.
+         * @param position Posição da chamada.
+         */
+        Continuation(int id, int state, int submachine, long position) {
+            this.id = id;
+            this.state = state;
+            this.submachine = submachine;
+            this.position = position;
+            this.parents = new ArrayList<>(1);
+            this.returned = new ArrayList<>(1);
+        }
+
+    }
+
+}
@@ -0,0 +1,324 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de pontos de retomada do reconhecimento, organizada em uma árvore de
+ * prefixos indexada pelos símbolos consumidos. Cada nó pode guardar o ponto
+ * de retomada obtido após o consumo do prefixo correspondente, de modo que
+ * uma cadeia nova retome o reconhecimento a partir do maior prefixo em
+ * comum com as cadeias anteriores. Os pontos são guardados a cada intervalo
+ * de símbolos, a cache possui um número máximo de pontos e os menos
+ * recentemente utilizados são descartados quando este é atingido, com a
+ * remoção dos nós que deixam de ser necessários.
+ *
+ * @param <T> Tipo do ponto de retomada.
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class PrefixCache<T> {
+
+    // intervalo entre os pontos
+    // de retomada, por omissão
+    public static final int INTERVAL = 16;
+
+    // atributos da classe
+    private final int capacity;
+    private final int interval;
+
+    // raiz da árvore e sentinela da
+    // lista circular de nós com pontos
+    // de retomada, entre o mais recente
+    // e o menos recente
+    private final Node<T> root;
+    private final Node<T> recent;
+    private int size;
+
+    // contadores
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Construtor.
+     *
+     * @param capacity Número máximo de pontos de retomada.
+     */
+    public PrefixCache(int capacity) {
+        this(capacity, INTERVAL);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param capacity Número máximo de pontos de retomada.
+     * @param interval Quantidade de símbolos entre os pontos de retomada.
+     */
+    public PrefixCache(int capacity, int interval) {
+        if (capacity <= 0 || interval <= 0) {
+            throw new IllegalArgumentException(String.format("A cache de "
+                    + "prefixos requer capacidade e intervalo positivos, "
+                    + "mas foram informados %d e %d. Por favor, verifique "
+                    + "os valores informados. O programa será encerrado.",
+                    capacity, interval));
+        }
+        this.capacity = capacity;
+        this.interval = interval;
+        this.root = new Node<>(null, 0, 0);
+        this.recent = new Node<>(null, 0, 0);
+        this.recent.newer = recent;
+        this.recent.older = recent;
+    }
+
+    /**
+     * Obtém o nó do maior prefixo da cadeia com um ponto de retomada,
+     * tornando-o o mais recentemente utilizado.
+     *
+     * @param symbols Símbolos da cadeia.
+     * @param length Quantidade de símbolos.
+     * @return Nó do maior prefixo, ou nulo se nenhum prefixo possuir um
+     * ponto de retomada.
+     */
+    public synchronized Node<T> find(int[] symbols, int length) {
+        Node<T> node = root;
+        Node<T> found = null;
+        for (int i = 0; i < length; i++) {
+            node = node.children == null ? null
+                    : node.children.get(symbols[i]);
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                found = node;
+            }
+        }
+        if (found == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        unlink(found);
+        link(found);
+        return found;
+    }
+
+    /**
+     * Guarda o ponto de retomada do prefixo, descendo a partir do nó
+     * informado, caso o prefixo ainda não possua um ponto. Um nó já
+     * removido pelo descarte é substituído pela raiz.
+     *
+     * @param from Nó de um prefixo menor da cadeia, ou nulo.
+     * @param symbols Símbolos da cadeia.
+     * @param length Tamanho do prefixo.
+     * @param value Ponto de retomada.
+     * @return Nó do prefixo, a ser utilizado nas inclusões seguintes.
+     */
+    public synchronized Node<T> store(Node<T> from, int[] symbols, int length,
+            T value) {
+        Node<T> node = from == null || from.removed ? root : from;
+        for (int i = node.depth; i < length; i++) {
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node<T> child = node.children.get(symbols[i]);
+            if (child == null) {
+                child = new Node<>(node, symbols[i], i + 1);
+                node.children.put(symbols[i], child);
+            }
+            node = child;
+        }
+        if (node.value == null) {
+            node.value = value;
+            link(node);
+            if (++size > capacity) {
+                evict();
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Descarta o ponto de retomada menos recentemente utilizado, removendo
+     * os nós sem pontos de retomada e sem filhos.
+     */
+    private void evict() {
+        Node<T> node = recent.newer;
+        unlink(node);
+        node.value = null;
+        size--;
+        evictions.incrementAndGet();
+        while (node != root && node.value == null
+                && (node.children == null || node.children.isEmpty())) {
+            node.parent.children.remove(node.symbol);
+            node.removed = true;
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Inclui o nó no início da lista de utilização.
+     *
+     * @param node Nó.
+     */
+    private void link(Node<T> node) {
+        Node<T> newest = recent.older;
+        node.older = newest;
+        node.newer = recent;
+        newest.newer = node;
+        recent.older = node;
+    }
+
+    /**
+     * Retira o nó da lista de utilização.
+     *
+     * @param node Nó.
+     */
+    private void unlink(Node<T> node) {
+        node.newer.older = node.older;
+        node.older.newer = node.newer;
+        node.newer = null;
+        node.older = null;
+    }
+
+    /**
+     * Verifica se um ponto de retomada deve ser guardado após o consumo do
+     * prefixo.
+     *
+     * @param length Tamanho do prefixo.
+     * @return Valor lógico indicando se o prefixo é um ponto de retomada.
+     */
+    public boolean isCheckpoint(long length) {
+        return length % interval == 0;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Obtém a quantidade de pontos de retomada armazenados.
+     *
+     * @return Quantidade de pontos.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Obtém a quantidade de cadeias retomadas a partir de um prefixo.
+     *
+     * @return Quantidade de acertos.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Obtém a quantidade de cadeias sem nenhum prefixo na cache.
+     *
+     * @return Quantidade de faltas.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Obtém a quantidade de pontos de retomada descartados.
+     *
+     * @return Quantidade de descartes.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Nó da árvore de prefixos.
+     *
+     * @param <T> Tipo do ponto de retomada.
+     */
+    public static class Node<T> {
+
+        // posição na árvore
+        private final Node<T> parent;
+        private final int symbol;
+        private final int depth;
+        private Map<Integer, Node<T>> children;
+
+        // ponto de retomada e vizinhos
+        // na lista de utilização
+        private volatile T value;
+        private Node<T> newer;
+        private Node<T> older;
+        private boolean removed;
+
+        /**
+         * Construtor.
+         *
+         * @param parent Nó pai, ou nulo.
+         * @param symbol Símbolo da aresta a partir do pai.
+         * @param depth Tamanho do prefixo.
+         */
+        Node(Node<T> parent, int symbol, int depth) {
+            this.parent = parent;
+            this.symbol = symbol;
+            this.depth = depth;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return Objeto.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+    }
+
+}
@@ -0,0 +1,381 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.Alphabet;
+import br.usp.poli.lta.cereda.xml2aa.automaton.Tokenizer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reconhecimento incremental, no qual a cadeia é fornecida em partes por meio
+ * dos métodos de alimentação e concluída com {@link #finish()}. Cada ponto de
+ * código corresponde a um símbolo, ou os pontos de código são divididos em
+ * símbolos com a maior correspondência, codificados pelo alfabeto em um vetor
+ * reutilizável e consumidos assim que chegam, de modo que somente as
+ * configurações ativas são mantidas em memória, e não a cadeia. Partes em
+ * bytes são decodificadas com o conjunto de caracteres do reconhecimento, e
+ * pares substitutos e sequências incompletas são preservados entre as
+ * partes; sequências inválidas são substituídas pelo caractere de
+ * substituição. Em um alfabeto fechado, o primeiro símbolo ausente rejeita
+ * a cadeia, e as partes seguintes são descartadas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public abstract class RecognitionStream {
+
+    // tamanho dos vetores
+    // intermediários
+    private static final int CHUNK = 8192;
+
+    // decodificador e bytes de uma
+    // sequência incompleta ao final
+    // da parte anterior
+    private final CharsetDecoder decoder;
+    private final ByteBuffer carry;
+
+    // caracteres decodificados
+    private final CharBuffer decoded;
+
+    // alfabeto, símbolos codificados e
+    // caractere substituto alto ao final
+    // da parte anterior, ou zero
+    private final Alphabet alphabet;
+    private final Tokenizer tokenizer;
+    private final int[] encoded;
+    private int count;
+    private char high;
+
+    // caracteres consumidos, símbolo
+    // ausente e indicação de término
+    private long consumed;
+    private boolean absent;
+    private boolean finished;
+
+    /**
+     * Construtor.
+     *
+     * @param alphabet Alfabeto do autômato.
+     * @param charset Conjunto de caracteres das partes em bytes.
+     */
+    protected RecognitionStream(Alphabet alphabet, Charset charset) {
+        this.alphabet = alphabet;
+        this.tokenizer = alphabet.isTokenized()
+                ? new Tokenizer(alphabet, this::put) : null;
+        this.encoded = new int[CHUNK];
+        this.decoder = charset.newDecoder().
+                onMalformedInput(CodingErrorAction.REPLACE).
+                onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.carry = ByteBuffer.allocate(Math.max(16,
+                (int) Math.ceil(decoder.charset().newEncoder().
+                        maxBytesPerChar()) * 2));
+        this.decoded = CharBuffer.allocate(CHUNK);
+    }
+
+    /**
+     * Consome os símbolos informados; símbolos ausentes do alfabeto são
+     * valores negativos.
+     *
+     * @param symbols Identificadores dos símbolos.
+     * @param offset Posição do primeiro símbolo.
+     * @param length Quantidade de símbolos.
+     */
+    protected abstract void consume(int[] symbols, int offset, int length);
+
+    /**
+     * Conclui o reconhecimento após o último caractere.
+     *
+     * @param consumed Quantidade de caracteres consumidos.
+     * @return Resultado do reconhecimento.
+     */
+    protected abstract Result conclude(long consumed);
+
+    /**
+     * Fornece uma parte da cadeia.
+     *
+     * @param chunk Vetor de caracteres.
+     */
+    public void feed(char[] chunk) {
+        feed(chunk, 0, chunk.length);
+    }
+
+    /**
+     * Fornece uma parte da cadeia.
+     *
+     * @param chunk Vetor de caracteres.
+     * @param offset Posição do primeiro caractere.
+     * @param length Quantidade de caracteres.
+     */
+    public void feed(char[] chunk, int offset, int length) {
+        check();
+        encode(chunk, offset, length);
+    }
+
+    /**
+     * Fornece uma parte da cadeia, consumindo os caracteres restantes do
+     * buffer.
+     *
+     * @param chunk Buffer de caracteres.
+     */
+    public void feed(CharBuffer chunk) {
+        check();
+        if (chunk.hasArray()) {
+            encode(chunk.array(), chunk.arrayOffset() + chunk.position(),
+                    chunk.remaining());
+            chunk.position(chunk.limit());
+            return;
+        }
+
+        // buffers sem vetor acessível são
+        // copiados em partes intermediárias
+        char[] data = new char[Math.min(CHUNK, chunk.remaining())];
+        while (chunk.hasRemaining()) {
+            int length = Math.min(data.length, chunk.remaining());
+            chunk.get(data, 0, length);
+            encode(data, 0, length);
+        }
+    }
+
+    /**
+     * Fornece uma parte da cadeia em bytes, consumindo os bytes restantes do
+     * buffer. Uma sequência incompleta ao final da parte é completada pela
+     * parte seguinte.
+     *
+     * @param chunk Buffer de bytes.
+     */
+    public void feed(ByteBuffer chunk) {
+        check();
+
+        // completa a sequência
+        // pendente da parte anterior
+        while (carry.position() > 0 && chunk.hasRemaining()) {
+            carry.put(chunk.get());
+            carry.flip();
+            decode(carry, false);
+            carry.compact();
+        }
+        decode(chunk, false);
+
+        // guarda a sequência incompleta
+        // para a parte seguinte
+        if (chunk.hasRemaining()) {
+            carry.put(chunk);
+        }
+    }
+
+    /**
+     * Fornece os caracteres do leitor até o seu término, sem fechá-lo.
+     *
+     * @param reader Leitor.
+     * @throws IOException Erro de leitura.
+     */
+    public void feed(Reader reader) throws IOException {
+        char[] data = new char[CHUNK];
+        int length;
+        while ((length = reader.read(data)) != -1) {
+            feed(data, 0, length);
+        }
+    }
+
+    /**
+     * Fornece os bytes do fluxo até o seu término, sem fechá-lo.
+     *
+     * @param stream Fluxo de entrada.
+     * @throws IOException Erro de leitura.
+     */
+    public void feed(InputStream stream) throws IOException {
+        byte[] data = new byte[CHUNK];
+        int length;
+        while ((length = stream.read(data)) != -1) {
+            feed(ByteBuffer.wrap(data, 0, length));
+        }
+    }
+
+    /**
+     * Conclui o reconhecimento. Os bytes de uma sequência incompleta são
+     * tratados como inválidos.
+     *
+     * @return Resultado do reconhecimento.
+     */
+    public Result finish() {
+        check();
+        carry.flip();
+        decode(carry, true);
+        carry.clear();
+        decoder.flush(decoded);
+        drain();
+
+        // um caractere substituto alto sem
+        // o par é o seu próprio ponto de código
+        if (high != 0) {
+            emit(high);
+            high = 0;
+        }
+        if (tokenizer != null) {
+            tokenizer.flush();
+        }
+        release();
+        finished = true;
+        return conclude(consumed);
+    }
+
+    /**
+     * Obtém a quantidade de caracteres consumidos.
+     *
+     * @return Quantidade de caracteres.
+     */
+    public long getConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Verifica se um símbolo ausente do alfabeto fechado foi encontrado,
+     * rejeitando a cadeia.
+     *
+     * @return Valor lógico indicando a existência de um símbolo ausente.
+     */
+    public boolean isAbsent() {
+        return absent;
+    }
+
+    /**
+     * Codifica os caracteres em símbolos, consumindo-os a cada vetor
+     * completo.
+     *
+     * @param data Vetor de caracteres.
+     * @param offset Posição do primeiro caractere.
+     * @param length Quantidade de caracteres.
+     */
+    private void encode(char[] data, int offset, int length) {
+        consumed += length;
+        int end = offset + length;
+        for (int i = offset; i < end && !absent; i++) {
+            char c = data[i];
+            if (high != 0) {
+                char previous = high;
+                high = 0;
+                if (Character.isLowSurrogate(c)) {
+                    emit(Character.toCodePoint(previous, c));
+                    continue;
+                }
+                emit(previous);
+            }
+            if (Character.isHighSurrogate(c)) {
+                high = c;
+            } else {
+                emit(c);
+            }
+        }
+        release();
+    }
+
+    /**
+     * Codifica o ponto de código no vetor de símbolos, diretamente ou pela
+     * divisão com a maior correspondência.
+     *
+     * @param code Ponto de código.
+     */
+    private void emit(int code) {
+        if (absent) {
+            return;
+        }
+        if (tokenizer != null) {
+            tokenizer.push(code);
+            return;
+        }
+        int symbol = alphabet.get(code);
+        put(symbol == Alphabet.ABSENT ? Alphabet.absent(code) : symbol);
+    }
+
+    /**
+     * Inclui o símbolo no vetor de símbolos codificados.
+     *
+     * @param symbol Identificador do símbolo, ou valor negativo se ausente.
+     */
+    private void put(int symbol) {
+        if (absent) {
+            return;
+        }
+        if (symbol < 0) {
+            absent = alphabet.isClosed();
+        }
+        encoded[count++] = symbol;
+        if (count == encoded.length || absent) {
+            release();
+        }
+    }
+
+    /**
+     * Consome os símbolos codificados pendentes.
+     */
+    private void release() {
+        if (count > 0) {
+            consume(encoded, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Decodifica os bytes, consumindo os caracteres obtidos.
+     *
+     * @param bytes Buffer de bytes.
+     * @param end Não há bytes seguintes.
+     */
+    private void decode(ByteBuffer bytes, boolean end) {
+        while (decoder.decode(bytes, decoded, end).isOverflow()) {
+            drain();
+        }
+        drain();
+    }
+
+    /**
+     * Consome os caracteres decodificados.
+     */
+    private void drain() {
+        decoded.flip();
+        if (decoded.hasRemaining()) {
+            encode(decoded.array(), decoded.arrayOffset(),
+                    decoded.remaining());
+        }
+        decoded.clear();
+    }
+
+    /**
+     * Verifica se o reconhecimento ainda não foi concluído.
+     */
+    private void check() {
+        if (finished) {
+            throw new IllegalStateException("O reconhecimento incremental "
+                    + "já foi concluído e não pode receber novas partes da "
+                    + "cadeia. Por favor, inicie um novo reconhecimento. O "
+                    + "programa será encerrado.");
+        }
+    }
+
+}
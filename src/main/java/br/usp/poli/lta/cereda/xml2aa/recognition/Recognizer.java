@@ -0,0 +1,292 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.aa.execution.AdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.Utils;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonPool;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reconhecedor que combina os mecanismos disponíveis de acordo com o modo
+ * solicitado. O modo completo utiliza as instâncias da biblioteca AA4J,
+ * obtidas de um conjunto de instâncias a cada reconhecimento; os modos
+ * rápidos utilizam a tabela determinística, quando a especificação permite,
+ * ou o mecanismo nativo, que podem ser compartilhados entre linhas de
+ * execução. Os limites de execução são aplicados ao mecanismo nativo; a
+ * tabela determinística realiza exatamente um passo por símbolo, e a
+ * biblioteca AA4J não permite a interrupção do reconhecimento.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Recognizer {
+
+    // atributos da classe
+    private final CompiledAutomaton automaton;
+    private final AutomatonPool library;
+    private final ForkJoinPool pool;
+    private final Limits limits;
+    private final int checkpoints;
+
+    // mecanismos dos modos rápidos,
+    // construídos apenas no primeiro
+    // reconhecimento que os utiliza
+    private volatile DeterministicEngine table;
+    private volatile NativeEngine engine;
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param library Instância do autômato na biblioteca AA4J, ou nulo se o
+     * modo completo não for utilizado.
+     */
+    public Recognizer(CompiledAutomaton automaton,
+            AdaptiveAutomaton library) {
+        this(automaton, library, null, Limits.NONE);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param library Instância do autômato na biblioteca AA4J, ou nulo se o
+     * modo completo não for utilizado.
+     * @param pool Conjunto de threads para a exploração paralela no
+     * mecanismo nativo, ou nulo.
+     * @param limits Limites de execução de cada reconhecimento.
+     */
+    public Recognizer(CompiledAutomaton automaton, AdaptiveAutomaton library,
+            ForkJoinPool pool, Limits limits) {
+        this(automaton, library, pool, limits, 0);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param library Instância do autômato na biblioteca AA4J, ou nulo se o
+     * modo completo não for utilizado.
+     * @param pool Conjunto de threads para a exploração paralela no
+     * mecanismo nativo, ou nulo.
+     * @param limits Limites de execução de cada reconhecimento.
+     * @param checkpoints Número máximo de pontos de retomada dos prefixos no
+     * mecanismo nativo, ou zero para não guardá-los.
+     */
+    public Recognizer(CompiledAutomaton automaton, AdaptiveAutomaton library,
+            ForkJoinPool pool, Limits limits, int checkpoints) {
+        this(automaton, library == null ? (AutomatonPool) null
+                : new AutomatonPool(() -> library, 1), pool, limits,
+                checkpoints);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param library Conjunto de instâncias do autômato na biblioteca AA4J,
+     * ou nulo se o modo completo não for utilizado.
+     * @param pool Conjunto de threads para a exploração paralela no
+     * mecanismo nativo, ou nulo.
+     * @param limits Limites de execução de cada reconhecimento.
+     * @param checkpoints Número máximo de pontos de retomada dos prefixos no
+     * mecanismo nativo, ou zero para não guardá-los.
+     */
+    public Recognizer(CompiledAutomaton automaton, AutomatonPool library,
+            ForkJoinPool pool, Limits limits, int checkpoints) {
+        this.automaton = automaton;
+        this.library = library;
+        this.pool = pool;
+        this.limits = limits;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Constrói, no primeiro uso de um modo rápido, a tabela determinística
+     * ou o mecanismo nativo, de modo que o modo completo não pague pela
+     * análise nem pelas estruturas destes.
+     */
+    private void prepare() {
+        if (table != null || engine != null) {
+            return;
+        }
+        synchronized (this) {
+            if (table == null && engine == null) {
+                if (Engine.select(automaton) == Engine.DETERMINISTIC) {
+                    table = DeterministicEngine.of(automaton);
+                } else {
+                    engine = new NativeEngine(automaton,
+                            NativeEngine.CAPACITY, limits, checkpoints);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtém a cache de pontos de retomada dos prefixos do mecanismo nativo.
+     *
+     * @return Cache de prefixos, ou nulo se não utilizada.
+     */
+    public PrefixCache<?> getPrefixes() {
+        prepare();
+        return engine == null ? null : engine.getPrefixes();
+    }
+
+    /**
+     * Obtém o conjunto de instâncias do autômato na biblioteca AA4J.
+     *
+     * @return Conjunto de instâncias, ou nulo se o modo completo não for
+     * utilizado.
+     */
+    public AutomatonPool getLibrary() {
+        return library;
+    }
+
+    /**
+     * Obtém o mecanismo utilizado no modo informado.
+     *
+     * @param mode Modo de reconhecimento.
+     * @return Mecanismo correspondente.
+     */
+    public Engine getEngine(Mode mode) {
+        return Engine.select(automaton, mode);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Limits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Obtém a quantidade de reconhecimentos interrompidos pelo limite.
+     *
+     * @param limit Limite de execução.
+     * @return Quantidade de interrupções.
+     */
+    public long getTriggered(Limit limit) {
+        return engine == null ? 0 : engine.getTriggered(limit);
+    }
+
+    /**
+     * Reconhece a cadeia, em que cada ponto de código corresponde a um
+     * símbolo, com os limites de execução do reconhecedor.
+     *
+     * @param input Cadeia de entrada.
+     * @param mode Modo de reconhecimento.
+     * @return Resultado do reconhecimento.
+     */
+    public Result recognize(String input, Mode mode) {
+        return recognize(input, mode, limits);
+    }
+
+    /**
+     * Reconhece a cadeia, em que cada ponto de código corresponde a um
+     * símbolo, com os limites de execução informados.
+     *
+     * @param input Cadeia de entrada.
+     * @param mode Modo de reconhecimento.
+     * @param limits Limites de execução deste reconhecimento.
+     * @return Resultado do reconhecimento.
+     */
+    public Result recognize(String input, Mode mode, Limits limits) {
+        if (mode == Mode.FULL) {
+            if (library == null) {
+                throw new IllegalStateException("O modo de reconhecimento "
+                        + "completo requer a instância do autômato "
+                        + "adaptativo na biblioteca AA4J, que não foi "
+                        + "informada. Por favor, utilize um dos modos "
+                        + "rápidos ou informe a instância. O programa será "
+                        + "encerrado.");
+            }
+
+            // cada reconhecimento utiliza uma
+            // instância exclusiva, devolvida
+            // ao término deste
+            AdaptiveAutomaton instance;
+            try {
+                instance = library.borrow();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("O reconhecimento foi "
+                        + "interrompido enquanto aguardava uma instância do "
+                        + "autômato adaptativo na biblioteca AA4J. O "
+                        + "programa será encerrado.", exception);
+            }
+            try {
+                boolean accepted = instance.recognize(Utils.toSymbols(input,
+                        automaton.getAlphabet()));
+                return new Result(accepted ? Verdict.ACCEPTED
+                        : Verdict.REJECTED,
+                        instance.getRecognitionPaths().size(), -1,
+                        Engine.ADAPTIVE, mode, null);
+            } finally {
+                library.release(instance);
+            }
+        }
+
+        // a tabela determinística possui
+        // no máximo um caminho
+        prepare();
+        if (table != null) {
+            boolean accepted = table.recognize(input);
+            return new Result(accepted ? Verdict.ACCEPTED : Verdict.REJECTED,
+                    accepted ? 1 : 0, input.length(), Engine.DETERMINISTIC,
+                    mode, null);
+        }
+        return engine.evaluate(input, mode, limits, pool);
+    }
+
+    /**
+     * Inicia um reconhecimento incremental na aceitação na primeira
+     * configuração, com os limites de execução do reconhecedor e as partes
+     * em bytes decodificadas em UTF-8.
+     *
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream() {
+        return stream(limits, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Inicia um reconhecimento incremental na aceitação na primeira
+     * configuração. A contagem de caminhos e o modo completo requerem a
+     * cadeia inteira e não estão disponíveis de forma incremental.
+     *
+     * @param limits Limites de execução deste reconhecimento.
+     * @param charset Conjunto de caracteres das partes em bytes.
+     * @return Reconhecimento incremental.
+     */
+    public RecognitionStream stream(Limits limits, Charset charset) {
+        prepare();
+        return table != null ? table.stream(charset)
+                : engine.stream(limits, charset);
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+/**
+ * Resultado de um reconhecimento, com o veredito, a quantidade de caminhos
+ * obtida de acordo com o modo, os passos realizados, o mecanismo utilizado e,
+ * nos reconhecimentos inconclusivos, o limite atingido.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Result {
+
+    // atributos da classe
+    private final Verdict verdict;
+    private final long paths;
+    private final long steps;
+    private final Engine engine;
+    private final Mode mode;
+    private final Limit limit;
+
+    /**
+     * Construtor.
+     *
+     * @param verdict Veredito do reconhecimento.
+     * @param paths Quantidade de caminhos: de aceitação na contagem,
+     * registrados no modo completo e, no modo de aceitação na primeira
+     * configuração, um se a cadeia foi aceita. Nos reconhecimentos
+     * inconclusivos, os caminhos encontrados até a interrupção.
+     * @param steps Passos realizados, ou -1 se não disponível.
+     * @param engine Mecanismo utilizado.
+     * @param mode Modo de reconhecimento.
+     * @param limit Limite atingido, ou nulo.
+     */
+    public Result(Verdict verdict, long paths, long steps, Engine engine,
+            Mode mode, Limit limit) {
+        this.verdict = verdict;
+        this.paths = paths;
+        this.steps = steps;
+        this.engine = engine;
+        this.mode = mode;
+        this.limit = limit;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * Verifica se a cadeia foi aceita.
+     *
+     * @return Valor lógico indicando a aceitação.
+     */
+    public boolean isAccepted() {
+        return verdict == Verdict.ACCEPTED;
+    }
+
+    /**
+     * Verifica se o reconhecimento foi interrompido por um limite de
+     * execução.
+     *
+     * @return Valor lógico indicando se o reconhecimento é inconclusivo.
+     */
+    public boolean isInconclusive() {
+        return verdict == Verdict.INCONCLUSIVE;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getPaths() {
+        return paths;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Limit getLimit() {
+        return limit;
+    }
+
+}
@@ -0,0 +1,356 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de conjuntos de estados construída sob demanda, como na construção
+ * de subconjuntos de um autômato finito, sobre uma versão específica do
+ * mapeamento de transições. Cada transição (conjunto, símbolo) é calculada
+ * uma única vez e reaproveitada nas consultas seguintes, de modo que trechos
+ * não-determinísticos sem funções adaptativas sejam percorridos por consultas
+ * em tabela. Um conjunto é considerado puro quando o fecho em vazio dos seus
+ * estados não possui transições adaptativas nem chamadas de submáquinas; as
+ * transições que alcançariam um conjunto impuro são marcadas como tal, e o
+ * reconhecimento prossegue pelo mecanismo geral a partir deste ponto. A cache
+ * possui um número máximo de conjuntos e é descartada quando este é atingido
+ * ou quando a versão do mapeamento muda.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SubsetCache {
+
+    // conjunto vazio, sem
+    // continuação possível
+    static final Subset DEAD = new Subset(new int[0], false, 0, -1);
+
+    // conjunto que requer o
+    // mecanismo geral
+    static final Subset IMPURE = new Subset(new int[0], false, 0, -1);
+
+    // atributos da classe
+    private final CompiledAutomaton automaton;
+    private final int capacity;
+    private final int width;
+
+    // mapeamento e versão
+    // correspondentes
+    private TransitionMapping mapping;
+    private volatile long version;
+
+    // conjuntos já construídos
+    // e conjuntos iniciais de
+    // cada estado
+    private final Map<Subset, Subset> subsets;
+    private Subset[] starts;
+
+    // contadores
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Construtor.
+     *
+     * @param automaton Autômato compilado.
+     * @param mapping Mapeamento de transições.
+     * @param capacity Número máximo de conjuntos.
+     */
+    public SubsetCache(CompiledAutomaton automaton,
+            TransitionMapping mapping, int capacity) {
+        this.automaton = automaton;
+        this.capacity = capacity;
+        this.width = automaton.getSymbolCount();
+        this.mapping = mapping;
+        this.version = mapping.getVersion();
+        this.subsets = new HashMap<>();
+        this.starts = new Subset[automaton.getStateCount()];
+    }
+
+    /**
+     * Associa a cache ao mapeamento informado, descartando os conjuntos
+     * existentes caso a versão deste seja diferente.
+     *
+     * @param mapping Mapeamento de transições.
+     */
+    public synchronized void use(TransitionMapping mapping) {
+        if (mapping.getVersion() != version) {
+            this.mapping = mapping;
+            this.version = mapping.getVersion();
+            clear();
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Verifica se a cache corresponde ao mapeamento informado.
+     *
+     * @param mapping Mapeamento de transições.
+     * @return Valor lógico indicando a correspondência.
+     */
+    public synchronized boolean covers(TransitionMapping mapping) {
+        return mapping.getVersion() == version;
+    }
+
+    /**
+     * Descarta todos os conjuntos.
+     */
+    private void clear() {
+        subsets.clear();
+        starts = new Subset[automaton.getStateCount()];
+    }
+
+    /**
+     * Obtém o conjunto correspondente ao fecho em vazio do estado.
+     *
+     * @param state Estado.
+     * @return Conjunto, ou {@link #IMPURE}.
+     */
+    public synchronized Subset start(int state) {
+        if (state < starts.length && starts[state] != null) {
+            hits.incrementAndGet();
+            return starts[state];
+        }
+        misses.incrementAndGet();
+        Subset subset = closure(new int[]{state}, 1);
+        if (state >= starts.length) {
+            starts = Arrays.copyOf(starts, Math.max(state + 1,
+                    starts.length * 2));
+        }
+        starts[state] = subset;
+        return subset;
+    }
+
+    /**
+     * Obtém o conjunto alcançado a partir do conjunto informado com o
+     * símbolo.
+     *
+     * @param subset Conjunto de origem.
+     * @param symbol Símbolo consumido.
+     * @return Conjunto de destino, {@link #DEAD} ou {@link #IMPURE}.
+     */
+    public Subset step(Subset subset, int symbol) {
+
+        // conjuntos de versões anteriores
+        // do mapeamento não são válidos
+        if (symbol < 0 || symbol >= width || subset.version != version) {
+            return IMPURE;
+        }
+        Subset next = subset.next[symbol];
+        if (next != null) {
+            hits.incrementAndGet();
+            return next;
+        }
+        synchronized (this) {
+            misses.incrementAndGet();
+            next = move(subset, symbol);
+            subset.next[symbol] = next;
+            return next;
+        }
+    }
+
+    /**
+     * Calcula o conjunto alcançado com o símbolo.
+     *
+     * @param subset Conjunto de origem.
+     * @param symbol Símbolo consumido.
+     * @return Conjunto de destino, {@link #DEAD} ou {@link #IMPURE}.
+     */
+    private Subset move(Subset subset, int symbol) {
+        int[] targets = new int[4];
+        int count = 0;
+        for (int state : subset.states) {
+            for (Edge edge : mapping.edges(state)) {
+                if (edge.getLabel() == symbol) {
+                    if (edge.isAdaptive()) {
+                        return IMPURE;
+                    }
+                    if (count == targets.length) {
+                        targets = Arrays.copyOf(targets, count * 2);
+                    }
+                    targets[count++] = edge.getTo();
+                }
+            }
+        }
+        return count == 0 ? DEAD : closure(targets, count);
+    }
+
+    /**
+     * Calcula o fecho em vazio dos estados e obtém o conjunto
+     * correspondente.
+     *
+     * @param seeds Estados iniciais.
+     * @param count Quantidade de estados iniciais.
+     * @return Conjunto, ou {@link #IMPURE}.
+     */
+    private Subset closure(int[] seeds, int count) {
+        int[] stack = Arrays.copyOf(seeds, Math.max(count, 4));
+        int top = count;
+        int[] result = new int[Math.max(count, 4)];
+        int size = 0;
+        BitSet visited = new BitSet();
+        for (int i = 0; i < count; i++) {
+            visited.set(seeds[i]);
+        }
+        boolean accepting = false;
+        int main = automaton.getMain();
+        while (top > 0) {
+            int state = stack[--top];
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = state;
+            if (main != -1 && state < automaton.getStateCount()
+                    && automaton.isAccepting(main, state)) {
+                accepting = true;
+            }
+            for (Edge edge : mapping.edges(state)) {
+                int label = edge.getLabel();
+                if (label >= 0) {
+                    continue;
+                }
+
+                // chamadas de submáquinas e
+                // transições em vazio adaptativas
+                // requerem o mecanismo geral
+                if (CompiledAutomaton.isCall(label) || edge.isAdaptive()) {
+                    return IMPURE;
+                }
+                if (!visited.get(edge.getTo())) {
+                    visited.set(edge.getTo());
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = edge.getTo();
+                }
+            }
+        }
+        int[] states = Arrays.copyOf(result, size);
+        Arrays.sort(states);
+        Subset subset = new Subset(states, accepting, width, version);
+        Subset existing = subsets.get(subset);
+        if (existing != null) {
+            return existing;
+        }
+        if (subsets.size() >= capacity) {
+            clear();
+        }
+        subsets.put(subset, subset);
+        return subset;
+    }
+
+    /**
+     * Obtém a quantidade de conjuntos armazenados.
+     *
+     * @return Quantidade de conjuntos.
+     */
+    public synchronized int size() {
+        return subsets.size();
+    }
+
+    /**
+     * Obtém a quantidade de consultas atendidas pela cache.
+     *
+     * @return Quantidade de acertos.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Obtém a quantidade de consultas que exigiram o cálculo do conjunto.
+     *
+     * @return Quantidade de faltas.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Obtém a quantidade de descartes por mudança de versão do mapeamento.
+     *
+     * @return Quantidade de invalidações.
+     */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Conjunto de estados da cache, com as transições já calculadas.
+     */
+    static class Subset {
+
+        // estados, em ordem crescente
+        final int[] states;
+
+        // o conjunto possui estados de
+        // aceitação da submáquina principal
+        final boolean accepting;
+
+        // conjuntos alcançados com cada
+        // símbolo, calculados sob demanda
+        final Subset[] next;
+
+        // versão do mapeamento
+        // em que foi construído
+        final long version;
+
+        // código de dispersão
+        private final int hash;
+
+        /**
+         * Construtor.
+         *
+         * @param states Estados, em ordem crescente.
+         * @param accepting O conjunto possui estados de aceitação.
+         * @param width Quantidade de símbolos.
+         * @param version Versão do mapeamento.
+         */
+        Subset(int[] states, boolean accepting, int width, long version) {
+            this.states = states;
+            this.accepting = accepting;
+            this.next = new Subset[width];
+            this.version = version;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Subset
+                    && Arrays.equals(states, ((Subset) object).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
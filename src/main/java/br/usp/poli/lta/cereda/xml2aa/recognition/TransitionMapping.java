@@ -0,0 +1,440 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Mapeamento de transições manipulado pelas ações adaptativas no mecanismo de
+ * reconhecimento nativo. As transições de cada estado ficam em um vetor
+ * próprio, na ordem da especificação, armazenado em uma árvore de prefixos
+ * persistente (hash array mapped trie) indexada pelo estado de origem, com
+ * cinco bits do identificador por nível. A duplicação para uma nova
+ * ramificação apenas compartilha a raiz, em tempo constante, e cada
+ * alteração copia somente os nós do caminho até o estado alterado, de modo
+ * que as ramificações compartilhem toda a estrutura não alterada. A
+ * duplicação mantém a versão do mapeamento original, e cada inclusão ou
+ * remoção efetiva atribui uma nova versão; assim, mapeamentos com a mesma
+ * versão possuem o mesmo conteúdo, o que permite associar estruturas
+ * derivadas, como a cache de conjuntos de estados, a um conteúdo
+ * específico. O mapeamento inicial, obtido do autômato compilado, possui a
+ * versão zero e não pode ser alterado; as ramificações sempre o duplicam
+ * antes de qualquer alteração.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class TransitionMapping {
+
+    // vetor vazio compartilhado
+    private static final Edge[] NONE = new Edge[0];
+
+    // bits do identificador
+    // consumidos por nível
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    // nó vazio compartilhado
+    private static final Node EMPTY = new Node(0, new Object[0]);
+
+    // gerador de versões
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    // raiz da árvore
+    private Node root;
+
+    // quantidade de transições
+    private int size;
+
+    // maior estado de origem mais um
+    private int states;
+
+    // versão do conteúdo
+    private long version;
+
+    // o mapeamento inicial
+    // não pode ser alterado
+    private final boolean frozen;
+
+    /**
+     * Construtor.
+     *
+     * @param root Raiz da árvore.
+     * @param size Quantidade de transições.
+     * @param states Maior estado de origem mais um.
+     * @param version Versão do conteúdo.
+     * @param frozen O mapeamento não pode ser alterado.
+     */
+    private TransitionMapping(Node root, int size, int states, long version,
+            boolean frozen) {
+        this.root = root;
+        this.size = size;
+        this.states = states;
+        this.version = version;
+        this.frozen = frozen;
+    }
+
+    /**
+     * Constrói o mapeamento inicial a partir do autômato compilado, mantendo
+     * as transições de cada estado na ordem da especificação.
+     *
+     * @param automaton Autômato compilado.
+     * @return Mapeamento inicial, na versão zero.
+     */
+    public static TransitionMapping of(CompiledAutomaton automaton) {
+        int count = automaton.getTransitionCount();
+        Edge[] edges = new Edge[count];
+        int[] degree = new int[automaton.getStateCount()];
+        for (int edge = 0; edge < count; edge++) {
+            edges[automaton.getOrder(edge)] = new Edge(
+                    automaton.getSource(edge), automaton.getLabel(edge),
+                    automaton.getTarget(edge),
+                    invocation(automaton, automaton.getPrior(edge),
+                            automaton.getPriorArguments(edge)),
+                    invocation(automaton, automaton.getPost(edge),
+                            automaton.getPostArguments(edge)));
+            degree[automaton.getSource(edge)]++;
+        }
+
+        // distribui as transições por estado,
+        // na ordem da especificação
+        Edge[][] table = new Edge[degree.length][];
+        for (int state = 0; state < table.length; state++) {
+            table[state] = degree[state] == 0 ? NONE : new Edge[degree[state]];
+            degree[state] = 0;
+        }
+        for (Edge edge : edges) {
+            table[edge.getFrom()][degree[edge.getFrom()]++] = edge;
+        }
+
+        // insere as linhas não vazias
+        // na árvore de prefixos
+        Node root = EMPTY;
+        for (int state = 0; state < table.length; state++) {
+            if (table[state].length != 0) {
+                root = put(root, state, table[state], 0);
+            }
+        }
+        return new TransitionMapping(root, count, table.length, 0, true);
+    }
+
+    /**
+     * Obtém a chamada de função adaptativa correspondente.
+     *
+     * @param automaton Autômato compilado.
+     * @param action Identificador da ação adaptativa.
+     * @param arguments Argumentos da chamada.
+     * @return Chamada de função adaptativa, ou nulo.
+     */
+    private static Invocation invocation(CompiledAutomaton automaton,
+            int action, Object[] arguments) {
+        return action == CompiledAutomaton.NONE ? null
+                : new Invocation(automaton.getPlan(action).getName(),
+                        arguments);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtém a quantidade de transições.
+     *
+     * @return Quantidade de transições.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtém as transições do estado, na ordem em que foram adicionadas. O
+     * vetor retornado não deve ser alterado.
+     *
+     * @param state Estado de origem.
+     * @return Transições do estado.
+     */
+    public Edge[] edges(int state) {
+        Node node = root;
+        int shift = 0;
+        while (true) {
+            int bit = 1 << ((state >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return NONE;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap
+                    & (bit - 1))];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.state == state ? leaf.edges : NONE;
+            }
+            node = (Node) slot;
+            shift += BITS;
+        }
+    }
+
+    /**
+     * Percorre todas as transições, sem ordem definida entre os estados de
+     * origem.
+     *
+     * @param consumer Consumidor das transições.
+     */
+    public void forEach(Consumer<Edge> consumer) {
+        visit(root, consumer);
+    }
+
+    /**
+     * Percorre as transições do nó.
+     *
+     * @param node Nó da árvore.
+     * @param consumer Consumidor das transições.
+     */
+    private static void visit(Node node, Consumer<Edge> consumer) {
+        for (Object slot : node.slots) {
+            if (slot instanceof Leaf) {
+                for (Edge edge : ((Leaf) slot).edges) {
+                    consumer.accept(edge);
+                }
+            } else {
+                visit((Node) slot, consumer);
+            }
+        }
+    }
+
+    /**
+     * Obtém o maior estado de origem mais um.
+     *
+     * @return Limite dos estados de origem.
+     */
+    public int states() {
+        return states;
+    }
+
+    /**
+     * Duplica o mapeamento para uma nova ramificação, compartilhando toda a
+     * estrutura existente e mantendo a versão, dado que o conteúdo é o
+     * mesmo até a primeira alteração.
+     *
+     * @return Mapeamento duplicado.
+     */
+    public TransitionMapping fork() {
+        return new TransitionMapping(root, size, states, version, false);
+    }
+
+    /**
+     * Verifica se a transição existe no mapeamento.
+     *
+     * @param edge Transição.
+     * @return Valor lógico indicando a existência da transição.
+     */
+    public boolean contains(Edge edge) {
+        for (Edge candidate : edges(edge.getFrom())) {
+            if (candidate.equals(edge)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adiciona a transição ao mapeamento, caso esta ainda não exista.
+     *
+     * @param edge Transição.
+     * @return Valor lógico indicando se o mapeamento foi alterado.
+     */
+    public boolean add(Edge edge) {
+        check();
+        if (contains(edge)) {
+            return false;
+        }
+        int from = edge.getFrom();
+        Edge[] current = edges(from);
+        Edge[] edges = Arrays.copyOf(current, current.length + 1);
+        edges[current.length] = edge;
+        root = put(root, from, edges, 0);
+        states = Math.max(states, from + 1);
+        size++;
+        version = VERSIONS.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remove a transição do mapeamento.
+     *
+     * @param edge Transição.
+     * @return Valor lógico indicando se o mapeamento foi alterado.
+     */
+    public boolean remove(Edge edge) {
+        check();
+        Edge[] edges = edges(edge.getFrom());
+        for (int i = 0; i < edges.length; i++) {
+            if (edges[i].equals(edge)) {
+                Edge[] result = new Edge[edges.length - 1];
+                System.arraycopy(edges, 0, result, 0, i);
+                System.arraycopy(edges, i + 1, result, i,
+                        edges.length - i - 1);
+                root = put(root, edge.getFrom(), result, 0);
+                size--;
+                version = VERSIONS.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtém um novo nó com as transições do estado substituídas, copiando
+     * apenas os nós do caminho; um vetor vazio remove o estado.
+     *
+     * @param node Nó corrente.
+     * @param state Estado de origem.
+     * @param edges Novas transições do estado.
+     * @param shift Deslocamento do nível corrente.
+     * @return Novo nó.
+     */
+    private static Node put(Node node, int state, Edge[] edges, int shift) {
+        int bit = 1 << ((state >>> shift) & MASK);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+
+        // posição livre: insere uma
+        // nova folha, se necessário
+        if ((node.bitmap & bit) == 0) {
+            if (edges.length == 0) {
+                return node;
+            }
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = new Leaf(state, edges);
+            System.arraycopy(node.slots, index, slots, index + 1,
+                    node.slots.length - index);
+            return new Node(node.bitmap | bit, slots);
+        }
+
+        // posição ocupada: substitui a folha
+        // do mesmo estado, divide a folha de
+        // outro estado ou desce um nível
+        Object slot = node.slots[index];
+        Object replacement;
+        if (slot instanceof Leaf) {
+            Leaf leaf = (Leaf) slot;
+            if (leaf.state == state) {
+                replacement = edges.length == 0 ? null
+                        : new Leaf(state, edges);
+            } else {
+                if (edges.length == 0) {
+                    return node;
+                }
+                Node split = put(EMPTY, leaf.state, leaf.edges,
+                        shift + BITS);
+                replacement = put(split, state, edges, shift + BITS);
+            }
+        } else {
+            Node child = put((Node) slot, state, edges, shift + BITS);
+            if (child == slot) {
+                return node;
+            }
+            replacement = child.bitmap == 0 ? null : child;
+        }
+
+        // remove a posição que
+        // ficou vazia
+        if (replacement == null) {
+            if (node.slots.length == 1) {
+                return EMPTY;
+            }
+            Object[] slots = new Object[node.slots.length - 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            System.arraycopy(node.slots, index + 1, slots, index,
+                    slots.length - index);
+            return new Node(node.bitmap & ~bit, slots);
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new Node(node.bitmap, slots);
+    }
+
+    /**
+     * Verifica se o mapeamento pode ser alterado.
+     */
+    private void check() {
+        if (frozen) {
+            throw new IllegalStateException("O mapeamento inicial do "
+                    + "autômato adaptativo é compartilhado entre todas as "
+                    + "execuções e não pode ser alterado diretamente. "
+                    + "Por favor, duplique o mapeamento antes de aplicar "
+                    + "ações adaptativas. O programa será encerrado.");
+        }
+    }
+
+    /**
+     * Nó imutável da árvore, com as posições ocupadas indicadas no mapa de
+     * bits e os filhos compactados em ordem.
+     */
+    private static class Node {
+
+        // atributos da classe
+        final int bitmap;
+        final Object[] slots;
+
+        /**
+         * Construtor.
+         *
+         * @param bitmap Mapa de bits das posições ocupadas.
+         * @param slots Filhos (nós ou folhas).
+         */
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+    }
+
+    /**
+     * Folha imutável da árvore, com as transições de um estado.
+     */
+    private static class Leaf {
+
+        // atributos da classe
+        final int state;
+        final Edge[] edges;
+
+        /**
+         * Construtor.
+         *
+         * @param state Estado de origem.
+         * @param edges Transições do estado.
+         */
+        Leaf(int state, Edge[] edges) {
+            this.state = state;
+            this.edges = edges;
+        }
+
+    }
+
+}
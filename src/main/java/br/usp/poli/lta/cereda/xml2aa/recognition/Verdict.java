@@ -0,0 +1,58 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+/**
+ * Veredito de um reconhecimento. O reconhecimento é inconclusivo quando
+ * algum dos limites de execução é atingido antes de uma decisão.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Verdict {
+
+    ACCEPTED("cadeia aceita"),
+    REJECTED("cadeia rejeitada"),
+    INCONCLUSIVE("reconhecimento inconclusivo");
+
+    // descrição do veredito
+    private final String description;
+
+    /**
+     * Construtor.
+     *
+     * @param description Descrição do veredito.
+     */
+    private Verdict(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+}
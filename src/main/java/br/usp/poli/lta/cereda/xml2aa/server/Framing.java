@@ -0,0 +1,83 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.server;
+
+/**
+ * Delimitação das mensagens do protocolo do servidor de reconhecimento, em
+ * UTF-8: uma mensagem por linha, terminada por '\n' (com '\r' opcional), ou
+ * precedida pelo seu tamanho em bytes, em um inteiro de quatro bytes na
+ * ordem big-endian. A delimitação por tamanho permite quebras de linha nas
+ * cadeias de entrada.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public enum Framing {
+
+    LINE("line"),
+    LENGTH("length");
+
+    // atributos da classe
+    private final String name;
+
+    /**
+     * Construtor.
+     *
+     * @param name Nome da delimitação na linha de comando.
+     */
+    private Framing(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtém a delimitação de acordo com o nome informado. Os nomes válidos
+     * são 'line' e 'length'.
+     *
+     * @param name Nome da delimitação.
+     * @return Delimitação correspondente, ou nulo se o nome for nulo.
+     * @throws Exception O nome da delimitação é inválido.
+     */
+    public static Framing of(String name) throws Exception {
+        if (name == null) {
+            return null;
+        }
+        for (Framing framing : values()) {
+            if (framing.name.equals(name)) {
+                return framing;
+            }
+        }
+        throw new Exception("A delimitação de mensagens '" + name + "' não "
+                + "existe. Os valores válidos são 'line' e 'length'. Por "
+                + "favor, verifique o valor informado e tente novamente. O "
+                + "programa será encerrado.");
+    }
+
+}
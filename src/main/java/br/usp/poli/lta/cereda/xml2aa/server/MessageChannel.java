@@ -0,0 +1,427 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.server;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Canal de mensagens sobre um socket TCP ou de domínio Unix, com buffers
+ * próprios de leitura e de escrita, de acordo com a delimitação informada.
+ * A leitura e a escrita podem ocorrer simultaneamente em linhas de execução
+ * distintas, mas cada uma delas deve ocorrer em uma única linha de execução
+ * por vez. As mensagens escritas permanecem no buffer até que este esteja
+ * cheio ou seja esvaziado explicitamente, de modo que respostas consecutivas
+ * sejam enviadas em conjunto.
+ *
+ * Os endereços são informados no formato 'máquina:porta' ou 'unix:caminho';
+ * sockets de domínio Unix requerem Java 16 ou superior e são obtidos por
+ * reflexão, mantendo a compatibilidade com versões anteriores.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class MessageChannel implements Closeable {
+
+    // tamanho máximo de
+    // uma mensagem, em bytes
+    public static final int MAXIMUM = 1 << 24;
+
+    // prefixo dos endereços de
+    // sockets de domínio Unix
+    private static final String UNIX = "unix:";
+
+    // tamanho dos buffers
+    private static final int BUFFER = 1 << 16;
+
+    // atributos da classe
+    private final SocketChannel channel;
+    private final Framing framing;
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+
+    // linha em leitura que
+    // excede o buffer de leitura
+    private byte[] pending;
+
+    /**
+     * Construtor.
+     *
+     * @param channel Canal conectado.
+     * @param framing Delimitação das mensagens.
+     */
+    public MessageChannel(SocketChannel channel, Framing framing) {
+        this.channel = channel;
+        this.framing = framing;
+        this.input = ByteBuffer.allocate(BUFFER);
+        this.input.flip();
+        this.output = ByteBuffer.allocateDirect(BUFFER);
+        this.pending = new byte[256];
+    }
+
+    /**
+     * Conecta-se ao endereço informado.
+     *
+     * @param address Endereço, no formato 'máquina:porta' ou 'unix:caminho'.
+     * @param framing Delimitação das mensagens.
+     * @return Canal de mensagens conectado.
+     * @throws IOException Erro de conexão.
+     */
+    public static MessageChannel connect(String address, Framing framing)
+            throws IOException {
+        SocketChannel channel;
+        if (address.startsWith(UNIX)) {
+            channel = (SocketChannel) open(SocketChannel.class);
+            channel.connect(resolve(address));
+        } else {
+            channel = SocketChannel.open(resolve(address));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        return new MessageChannel(channel, framing);
+    }
+
+    /**
+     * Abre o canal de escuta no endereço informado. O arquivo de um socket
+     * de domínio Unix remanescente de uma execução anterior é removido.
+     *
+     * @param address Endereço, no formato 'máquina:porta' ou 'unix:caminho'.
+     * @return Canal de escuta.
+     * @throws IOException Erro de abertura.
+     */
+    static ServerSocketChannel listen(String address) throws IOException {
+        ServerSocketChannel channel;
+        if (address.startsWith(UNIX)) {
+            Files.deleteIfExists(Paths.get(address.substring(UNIX.length())));
+            channel = (ServerSocketChannel) open(ServerSocketChannel.class);
+        } else {
+            channel = ServerSocketChannel.open();
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        }
+        channel.bind(resolve(address));
+        return channel;
+    }
+
+    /**
+     * Remove o arquivo do socket de domínio Unix, se for o caso.
+     *
+     * @param address Endereço de escuta.
+     * @throws IOException Erro de remoção.
+     */
+    static void release(String address) throws IOException {
+        if (address.startsWith(UNIX)) {
+            Files.deleteIfExists(Paths.get(address.substring(UNIX.length())));
+        }
+    }
+
+    /**
+     * Obtém o endereço de socket correspondente ao endereço informado.
+     *
+     * @param address Endereço, no formato 'máquina:porta' ou 'unix:caminho'.
+     * @return Endereço de socket.
+     * @throws IOException O endereço é inválido ou não é suportado.
+     */
+    private static SocketAddress resolve(String address) throws IOException {
+        if (address.startsWith(UNIX)) {
+            try {
+                return (SocketAddress) Class.forName(
+                        "java.net.UnixDomainSocketAddress").
+                        getMethod("of", String.class).invoke(null,
+                                address.substring(UNIX.length()));
+            } catch (ReflectiveOperationException exception) {
+                throw unsupported(exception);
+            }
+        }
+        int colon = address.lastIndexOf(':');
+        try {
+            int port = Integer.parseInt(address.substring(colon + 1));
+            String host = colon <= 0 ? "localhost"
+                    : address.substring(0, colon);
+            return new InetSocketAddress(host, port);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("O endereço '" + address + "' é inválido. "
+                    + "Os formatos válidos são 'máquina:porta' e "
+                    + "'unix:caminho'. Por favor, verifique o valor "
+                    + "informado e tente novamente. O programa será "
+                    + "encerrado.", exception);
+        }
+    }
+
+    /**
+     * Abre um canal da família de protocolos de domínio Unix.
+     *
+     * @param type Classe do canal, com o método estático 'open' que recebe a
+     * família de protocolos.
+     * @return Canal aberto.
+     * @throws IOException Sockets de domínio Unix não são suportados.
+     */
+    private static Object open(Class<?> type) throws IOException {
+        try {
+            ProtocolFamily family = StandardProtocolFamily.valueOf("UNIX");
+            return type.getMethod("open", ProtocolFamily.class).invoke(null,
+                    family);
+        } catch (IllegalArgumentException
+                | ReflectiveOperationException exception) {
+            throw unsupported(exception);
+        }
+    }
+
+    /**
+     * Obtém a exceção de sockets de domínio Unix não suportados.
+     *
+     * @param cause Causa da exceção.
+     * @return Exceção correspondente.
+     */
+    private static IOException unsupported(Exception cause) {
+        return new IOException("Sockets de domínio Unix requerem Java 16 ou "
+                + "superior. Por favor, utilize um endereço TCP no formato "
+                + "'máquina:porta'. O programa será encerrado.", cause);
+    }
+
+    /**
+     * Lê a próxima mensagem.
+     *
+     * @return Mensagem lida, ou nulo ao término do canal.
+     * @throws IOException Erro de leitura, mensagem incompleta ou excedendo
+     * o tamanho máximo.
+     */
+    public String read() throws IOException {
+        return framing == Framing.LINE ? line() : frame();
+    }
+
+    /**
+     * Lê a próxima mensagem delimitada por quebra de linha. A última linha
+     * do canal pode não possuir a quebra.
+     *
+     * @return Mensagem lida, ou nulo ao término do canal.
+     * @throws IOException Erro de leitura ou linha excedendo o tamanho
+     * máximo.
+     */
+    private String line() throws IOException {
+        int length = 0;
+        while (true) {
+            byte[] data = input.array();
+            int begin = input.position();
+            int end = input.limit();
+            for (int i = begin; i < end; i++) {
+                if (data[i] == '\n') {
+                    input.position(i + 1);
+                    if (length == 0) {
+                        int last = i > begin && data[i - 1] == '\r'
+                                ? i - 1 : i;
+                        return new String(data, begin, last - begin,
+                                StandardCharsets.UTF_8);
+                    }
+                    length = append(length, data, begin, i);
+                    if (length > 0 && pending[length - 1] == '\r') {
+                        length--;
+                    }
+                    return new String(pending, 0, length,
+                            StandardCharsets.UTF_8);
+                }
+            }
+
+            // a linha continua além do
+            // buffer, sendo acumulada
+            length = append(length, data, begin, end);
+            input.position(end);
+            if (!fill()) {
+                return length == 0 ? null : new String(pending, 0, length,
+                        StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Acumula parte da linha em leitura.
+     *
+     * @param length Tamanho acumulado.
+     * @param data Dados lidos.
+     * @param begin Posição inicial.
+     * @param end Posição final.
+     * @return Novo tamanho acumulado.
+     * @throws IOException A linha excede o tamanho máximo.
+     */
+    private int append(int length, byte[] data, int begin, int end)
+            throws IOException {
+        int size = length + end - begin;
+        if (size > MAXIMUM) {
+            throw exceeded(size);
+        }
+        if (size > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(size,
+                    pending.length * 2));
+        }
+        System.arraycopy(data, begin, pending, length, end - begin);
+        return size;
+    }
+
+    /**
+     * Lê a próxima mensagem precedida pelo seu tamanho.
+     *
+     * @return Mensagem lida, ou nulo ao término do canal.
+     * @throws IOException Erro de leitura, mensagem incompleta ou excedendo
+     * o tamanho máximo.
+     */
+    private String frame() throws IOException {
+        while (input.remaining() < 4) {
+            if (!fill()) {
+                if (input.hasRemaining()) {
+                    throw incomplete();
+                }
+                return null;
+            }
+        }
+        int size = input.getInt();
+        if (size < 0 || size > MAXIMUM) {
+            throw exceeded(size);
+        }
+        byte[] payload = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            if (!input.hasRemaining() && !fill()) {
+                throw incomplete();
+            }
+            int length = Math.min(input.remaining(), size - offset);
+            input.get(payload, offset, length);
+            offset += length;
+        }
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê mais dados do canal, preservando os dados ainda não consumidos.
+     *
+     * @return Valor lógico indicando se o canal não terminou.
+     * @throws IOException Erro de leitura.
+     */
+    private boolean fill() throws IOException {
+        input.compact();
+        int read = channel.read(input);
+        input.flip();
+        return read >= 0;
+    }
+
+    /**
+     * Obtém a exceção de mensagem excedendo o tamanho máximo.
+     *
+     * @param size Tamanho da mensagem.
+     * @return Exceção correspondente.
+     */
+    private static IOException exceeded(long size) {
+        return new IOException(String.format("A mensagem recebida possui "
+                + "%d bytes, o que excede o tamanho máximo de %d bytes "
+                + "suportado pelo protocolo. A conexão será encerrada.",
+                size, MAXIMUM));
+    }
+
+    /**
+     * Obtém a exceção de mensagem incompleta.
+     *
+     * @return Exceção correspondente.
+     */
+    private static IOException incomplete() {
+        return new EOFException("A conexão foi encerrada no meio de uma "
+                + "mensagem, que foi descartada. A conexão será "
+                + "encerrada.");
+    }
+
+    /**
+     * Escreve a mensagem no buffer de escrita, que é esvaziado no canal
+     * apenas quando cheio.
+     *
+     * @param message Mensagem.
+     * @throws IOException Erro de escrita.
+     */
+    public void write(String message) throws IOException {
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        if (framing == Framing.LENGTH) {
+            if (output.remaining() < 4) {
+                flush();
+            }
+            output.putInt(data.length);
+        }
+        int offset = 0;
+        while (offset < data.length) {
+            if (!output.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(output.remaining(), data.length - offset);
+            output.put(data, offset, length);
+            offset += length;
+        }
+        if (framing == Framing.LINE) {
+            if (!output.hasRemaining()) {
+                flush();
+            }
+            output.put((byte) '\n');
+        }
+    }
+
+    /**
+     * Esvazia o buffer de escrita no canal.
+     *
+     * @throws IOException Erro de escrita.
+     */
+    public void flush() throws IOException {
+        output.flip();
+        try {
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+        } finally {
+            output.clear();
+        }
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public Framing getFraming() {
+        return framing;
+    }
+
+    /**
+     * Fecha o canal.
+     *
+     * @throws IOException Erro ao fechar o canal.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
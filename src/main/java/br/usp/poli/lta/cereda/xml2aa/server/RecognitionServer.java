@@ -0,0 +1,681 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.server;
+
+import br.usp.poli.lta.cereda.xml2aa.Utils;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonBuilder;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonPool;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Engine;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Limit;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Limits;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Result;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import br.usp.poli.lta.cereda.xml2aa.snapshot.Snapshot;
+import br.usp.poli.lta.cereda.xml2aa.snapshot.SnapshotCache;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor de reconhecimento, que mantém uma ou mais especificações
+ * carregadas e atende requisições em um socket TCP ou de domínio Unix. Cada
+ * conexão possui uma linha de execução de leitura e outra de escrita, e cada
+ * requisição é atendida em uma linha de execução própria, de modo que as
+ * requisições de uma mesma conexão são processadas em paralelo, sem
+ * aguardar as respostas anteriores, e as respostas são enviadas na ordem das
+ * requisições. O número de requisições pendentes de cada conexão é limitado,
+ * e a leitura é suspensa ao atingir o limite.
+ *
+ * As linhas de execução são virtuais quando a máquina virtual as suporta
+ * (Java 21 ou superior), sendo obtidas por reflexão; caso contrário, as
+ * requisições são atendidas por um conjunto fixo de linhas de execução, com
+ * uma por processador. O reconhecedor de cada especificação é compartilhado
+ * pelas requisições; no modo completo, cada requisição obtém uma instância
+ * exclusiva da biblioteca AA4J do conjunto de instâncias do reconhecedor,
+ * cujas métricas de disputa são incluídas nas estatísticas.
+ *
+ * O protocolo possui as seguintes requisições, em mensagens delimitadas de
+ * acordo com a delimitação do servidor:
+ *
+ * 'recognize especificação modo cadeia': reconhece a cadeia (o restante da
+ * mensagem, possivelmente vazio) no modo informado ('first', 'count',
+ * 'full' ou '-' para o modo padrão da especificação), respondendo 'OK
+ * veredito caminhos passos latência limite', com a latência em
+ * nanossegundos e '-' na ausência de limite atingido.
+ *
+ * 'stats': responde 'OK' seguido das estatísticas em um objeto JSON.
+ *
+ * 'specs': responde 'OK' seguido dos nomes das especificações.
+ *
+ * 'ping': responde 'OK pong'.
+ *
+ * Requisições inválidas são respondidas com 'ERR' seguido da descrição do
+ * erro. O tempo máximo de cada reconhecimento é aplicado como um limite de
+ * execução, produzindo um veredito inconclusivo com o limite 'TIME', e como
+ * um prazo da resposta: o modo completo, executado pela biblioteca, não pode
+ * ser interrompido, e a requisição que não for concluída no prazo é
+ * respondida com o mesmo veredito, sem bloquear as respostas seguintes da
+ * conexão; o resultado obtido posteriormente é descartado.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class RecognitionServer implements Closeable {
+
+    // requisições pendentes
+    // de cada conexão
+    public static final int PIPELINE = 256;
+
+    // término da leitura
+    // de uma conexão
+    private static final CompletableFuture<String> END
+            = CompletableFuture.completedFuture(null);
+
+    // especificações
+    private final Map<String, Service> services;
+
+    // configuração
+    private final Framing framing;
+    private final long timeout;
+    private final int pipeline;
+
+    // linhas de execução das
+    // conexões e das requisições
+    private final boolean virtual;
+    private final ExecutorService connections;
+    private final ExecutorService workers;
+
+    // prazos das respostas, ou
+    // nulo na ausência de tempo máximo
+    private final ScheduledExecutorService timer;
+
+    // estatísticas e conexões abertas
+    private final ServerStats stats;
+    private final Set<SocketChannel> open;
+
+    // canal e endereço de escuta
+    private ServerSocketChannel listener;
+    private String address;
+    private Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Construtor.
+     *
+     * @param framing Delimitação das mensagens.
+     * @param timeout Tempo máximo de cada reconhecimento, em milissegundos,
+     * ou zero para os limites dos reconhecedores.
+     * @param pipeline Número máximo de requisições pendentes por conexão.
+     */
+    public RecognitionServer(Framing framing, long timeout, int pipeline) {
+        if (timeout < 0 || pipeline <= 0) {
+            throw new IllegalArgumentException(String.format("O servidor "
+                    + "de reconhecimento requer um tempo máximo não negativo "
+                    + "e um número positivo de requisições pendentes, mas "
+                    + "foram informados %d e %d. Por favor, verifique os "
+                    + "valores informados. O programa será encerrado.",
+                    timeout, pipeline));
+        }
+        this.services = new LinkedHashMap<>();
+        this.framing = framing;
+        this.timeout = timeout;
+        this.pipeline = pipeline;
+        this.stats = new ServerStats();
+        this.open = ConcurrentHashMap.newKeySet();
+
+        // linhas de execução virtuais, quando
+        // disponíveis; caso contrário, as
+        // conexões utilizam linhas de execução
+        // sob demanda, e as requisições, um
+        // conjunto fixo destas
+        ExecutorService executor = virtualExecutor();
+        this.virtual = executor != null;
+        if (virtual) {
+            this.connections = executor;
+            this.workers = executor;
+        } else {
+            this.connections = Executors.newCachedThreadPool(
+                    (Runnable task) -> daemon(task, "xml2aa-connection"));
+            this.workers = Executors.newFixedThreadPool(Runtime.getRuntime().
+                    availableProcessors(), (Runnable task) -> daemon(task,
+                            "xml2aa-worker"));
+        }
+        this.timer = timeout == 0 ? null
+                : Executors.newSingleThreadScheduledExecutor(
+                        (Runnable task) -> daemon(task, "xml2aa-timer"));
+    }
+
+    /**
+     * Obtém o executor de linhas de execução virtuais por reflexão.
+     *
+     * @return Executor, ou nulo se a máquina virtual não possuir suporte.
+     */
+    private static ExecutorService virtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException
+                exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Cria uma linha de execução de serviço.
+     *
+     * @param task Tarefa.
+     * @param name Nome da linha de execução.
+     * @return Linha de execução.
+     */
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Registra uma especificação.
+     *
+     * @param name Nome da especificação nas requisições.
+     * @param recognizer Reconhecedor da especificação.
+     * @param mode Modo de reconhecimento padrão.
+     */
+    public synchronized void register(String name, Recognizer recognizer,
+            Mode mode) {
+        if (name.isEmpty() || name.indexOf(' ') >= 0
+                || services.containsKey(name)) {
+            throw new IllegalArgumentException("O nome de especificação '"
+                    + name + "' é inválido ou já foi registrado no servidor. "
+                    + "Por favor, utilize nomes distintos e sem espaços. O "
+                    + "programa será encerrado.");
+        }
+        services.put(name, new Service(recognizer, mode));
+    }
+
+    /**
+     * Inicia o atendimento no endereço informado.
+     *
+     * @param address Endereço, no formato 'máquina:porta' ou 'unix:caminho'.
+     * @throws IOException Erro de abertura do canal de escuta.
+     */
+    public synchronized void start(String address) throws IOException {
+        if (listener != null) {
+            throw new IllegalStateException("O servidor de reconhecimento "
+                    + "já foi iniciado. O programa será encerrado.");
+        }
+        this.address = address;
+        this.listener = MessageChannel.listen(address);
+        this.acceptor = daemon(this::accept, "xml2aa-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Aceita as conexões até o encerramento do servidor.
+     */
+    private void accept() {
+        while (!closed) {
+            try {
+                SocketChannel socket = listener.accept();
+                open.add(socket);
+                stats.connected();
+                connections.execute(() -> serve(socket));
+            } catch (ClosedChannelException exception) {
+                return;
+            } catch (IOException exception) {
+                if (closed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê as requisições da conexão, submetendo cada uma a uma linha de
+     * execução própria e incluindo a resposta pendente na fila da conexão.
+     *
+     * @param socket Conexão.
+     */
+    private void serve(SocketChannel socket) {
+        MessageChannel channel = new MessageChannel(socket, framing);
+        BlockingQueue<CompletableFuture<String>> pending
+                = new ArrayBlockingQueue<>(pipeline);
+        connections.execute(() -> respond(socket, channel, pending));
+        try {
+            String message;
+            while ((message = channel.read()) != null) {
+                pending.put(submit(message));
+            }
+        } catch (IOException exception) {
+            // conexão encerrada ou
+            // mensagem inválida
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pending.put(END);
+            } catch (InterruptedException exception) {
+                quietly(socket);
+            }
+        }
+    }
+
+    /**
+     * Submete a requisição a uma linha de execução própria, agendando o
+     * prazo da resposta das requisições de reconhecimento quando houver um
+     * tempo máximo.
+     *
+     * @param message Requisição.
+     * @return Resposta pendente.
+     */
+    private CompletableFuture<String> submit(String message) {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        workers.execute(() -> handle(message, response));
+        if (timer != null && message.startsWith("recognize ")) {
+            timer.schedule(() -> expire(response), timeout,
+                    TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    /**
+     * Responde a requisição com um veredito inconclusivo por tempo, caso
+     * ainda não tenha sido respondida.
+     *
+     * @param response Resposta pendente.
+     */
+    private void expire(CompletableFuture<String> response) {
+        long latency = TimeUnit.MILLISECONDS.toNanos(timeout);
+        Result result = new Result(Verdict.INCONCLUSIVE, 0, -1, null, null,
+                Limit.TIME);
+        if (response.complete(format(result, latency))) {
+            stats.record(result, latency);
+        }
+    }
+
+    /**
+     * Escreve as respostas da conexão na ordem das requisições. O buffer de
+     * escrita é esvaziado quando a próxima resposta ainda não está pronta,
+     * de modo que as respostas já concluídas sejam enviadas em conjunto.
+     * Após uma falha de escrita, as respostas restantes são descartadas.
+     *
+     * @param socket Conexão.
+     * @param channel Canal de mensagens da conexão.
+     * @param pending Respostas pendentes.
+     */
+    private void respond(SocketChannel socket, MessageChannel channel,
+            BlockingQueue<CompletableFuture<String>> pending) {
+        boolean writable = true;
+        try {
+            while (true) {
+                CompletableFuture<String> next = pending.take();
+                if (next == END) {
+                    break;
+                }
+                String response = next.join();
+                if (writable) {
+                    try {
+                        channel.write(response);
+                        CompletableFuture<String> following = pending.peek();
+                        if (following == null || !following.isDone()) {
+                            channel.flush();
+                        }
+                    } catch (IOException exception) {
+                        writable = false;
+                        quietly(socket);
+                    }
+                }
+            }
+            if (writable) {
+                channel.flush();
+            }
+        } catch (IOException exception) {
+            // conexão encerrada
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            quietly(socket);
+            open.remove(socket);
+            stats.disconnected();
+        }
+    }
+
+    /**
+     * Atende a requisição, completando a resposta pendente. As estatísticas
+     * são registradas apenas se a resposta não tiver sido completada pelo
+     * prazo.
+     *
+     * @param message Requisição.
+     * @param response Resposta pendente.
+     */
+    private void handle(String message, CompletableFuture<String> response) {
+        String[] parts = message.split(" ", 4);
+        try {
+            switch (parts[0]) {
+                case "recognize":
+                    recognize(parts, response);
+                    break;
+                case "stats":
+                    response.complete("OK " + stats.toJson(pools()));
+                    break;
+                case "specs":
+                    response.complete("OK " + String.join(" ",
+                            services.keySet()));
+                    break;
+                case "ping":
+                    response.complete("OK pong");
+                    break;
+                default:
+                    throw new IllegalArgumentException("A requisição '"
+                            + parts[0] + "' não existe. As requisições "
+                            + "válidas são 'recognize', 'stats', 'specs' e "
+                            + "'ping'.");
+            }
+        } catch (Exception exception) {
+            if (response.complete("ERR " + String.valueOf(exception.
+                    getMessage()).replace('\n', ' '))) {
+                stats.failed();
+            }
+        }
+    }
+
+    /**
+     * Atende a requisição de reconhecimento, com uma instância ociosa do
+     * reconhecedor da especificação.
+     *
+     * @param parts Partes da requisição: o nome da requisição, a
+     * especificação, o modo e a cadeia, possivelmente ausente.
+     * @param response Resposta pendente.
+     * @throws Exception A requisição é inválida ou o reconhecimento falhou.
+     */
+    private void recognize(String[] parts, CompletableFuture<String> response)
+            throws Exception {
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("A requisição de "
+                    + "reconhecimento requer a especificação, o modo e a "
+                    + "cadeia, no formato 'recognize especificação modo "
+                    + "cadeia'.");
+        }
+        Service service = services.get(parts[1]);
+        if (service == null) {
+            throw new IllegalArgumentException("A especificação '"
+                    + parts[1] + "' não foi carregada no servidor.");
+        }
+        Mode mode = "-".equals(parts[2]) ? service.mode : Mode.of(parts[2]);
+        String input = parts.length == 4 ? parts[3] : "";
+        Recognizer recognizer = service.recognizer;
+        Limits limits = timeout == 0 ? recognizer.getLimits()
+                : recognizer.getLimits().withTime(timeout);
+        long start = System.nanoTime();
+        Result result = recognizer.recognize(input, mode, limits);
+        long latency = System.nanoTime() - start;
+        if (response.complete(format(result, latency))) {
+            stats.record(result, latency);
+        }
+    }
+
+    /**
+     * Formata a resposta de um reconhecimento.
+     *
+     * @param result Resultado do reconhecimento.
+     * @param latency Latência, em nanossegundos.
+     * @return Resposta.
+     */
+    private static String format(Result result, long latency) {
+        return "OK " + result.getVerdict().name() + " " + result.getPaths()
+                + " " + result.getSteps() + " " + latency + " "
+                + (result.getLimit() == null ? "-"
+                : result.getLimit().name());
+    }
+
+    /**
+     * Obtém os conjuntos de instâncias da biblioteca AA4J de cada
+     * especificação.
+     *
+     * @return Conjuntos de instâncias, indexados pelos nomes.
+     */
+    private Map<String, AutomatonPool> pools() {
+        Map<String, AutomatonPool> pools = new LinkedHashMap<>();
+        services.forEach((String name, Service service) -> {
+            if (service.recognizer.getLibrary() != null) {
+                pools.put(name, service.recognizer.getLibrary());
+            }
+        });
+        return pools;
+    }
+
+    /**
+     * Fecha a conexão, ignorando erros.
+     *
+     * @param socket Conexão.
+     */
+    private static void quietly(SocketChannel socket) {
+        try {
+            socket.close();
+        } catch (IOException nothandled) {
+            // a conexão já foi
+            // encerrada
+        }
+    }
+
+    /**
+     * Aguarda o encerramento do servidor.
+     *
+     * @throws InterruptedException A espera foi interrompida.
+     */
+    public void await() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public ServerStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Verifica se as requisições são atendidas em linhas de execução
+     * virtuais.
+     *
+     * @return Valor lógico indicando o uso de linhas de execução virtuais.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Encerra o servidor, fechando o canal de escuta e as conexões abertas.
+     *
+     * @throws IOException Erro ao fechar o canal de escuta.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (listener != null) {
+                listener.close();
+                MessageChannel.release(address);
+            }
+        } finally {
+            for (SocketChannel socket : open) {
+                quietly(socket);
+            }
+            connections.shutdownNow();
+            workers.shutdownNow();
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Especificação registrada: o reconhecedor, compartilhado pelas
+     * requisições, e o modo padrão.
+     */
+    private static class Service {
+
+        // atributos da classe
+        final Recognizer recognizer;
+        final Mode mode;
+
+        /**
+         * Construtor.
+         *
+         * @param recognizer Reconhecedor da especificação.
+         * @param mode Modo de reconhecimento padrão.
+         */
+        Service(Recognizer recognizer, Mode mode) {
+            this.recognizer = recognizer;
+            this.mode = mode;
+        }
+
+    }
+
+    /**
+     * Método principal. Os argumentos são os arquivos das especificações,
+     * identificadas nas requisições pelo nome do arquivo sem a extensão.
+     * A propriedade 'xml2aa.server' define o endereço de escuta (por padrão,
+     * 'localhost:7070'), 'xml2aa.server.framing' a delimitação das mensagens
+     * ('line' ou 'length'), 'xml2aa.server.timeout' o tempo máximo de cada
+     * reconhecimento, em milissegundos (quando informado, o modo padrão das
+     * especificações é o de aceitação na primeira configuração, executado
+     * pelo mecanismo nativo), 'xml2aa.server.pipeline' o número máximo de
+     * requisições pendentes por conexão e 'xml2aa.pool' o número máximo de
+     * instâncias da biblioteca AA4J por especificação (por padrão, uma por
+     * processador); as demais propriedades de reconhecimento são as mesmas
+     * do terminal.
+     *
+     * @param args Argumentos de linha de comando.
+     */
+    public static void main(String[] args) {
+        Utils.line();
+        Utils.linebreak("Servidor de reconhecimento (versão 1.1)");
+        Utils.line();
+        try {
+            if (args.length == 0) {
+                throw new Exception("É necessário informar ao menos um "
+                        + "arquivo contendo a especificação XML do autômato "
+                        + "adaptativo. Informe a localização correta dos "
+                        + "arquivos e tente novamente. O programa será "
+                        + "encerrado.");
+            }
+            Framing framing = Framing.of(System.getProperty(
+                    "xml2aa.server.framing"));
+            long timeout = Long.getLong("xml2aa.server.timeout", 0L);
+            RecognitionServer server = new RecognitionServer(
+                    framing == null ? Framing.LINE : framing, timeout,
+                    Integer.getInteger("xml2aa.server.pipeline", PIPELINE));
+
+            // carrega as especificações com as
+            // mesmas propriedades do terminal
+            Transformation transformation = Transformation.
+                    of(System.getProperty("xml2aa.parser"));
+            SnapshotCache cache = new SnapshotCache(transformation,
+                    Boolean.getBoolean("xml2aa.snapshot"),
+                    "all".equals(System.getProperty("xml2aa.report")));
+            Mode preferred = Mode.of(System.getProperty("xml2aa.mode"));
+            Limits limits = Limits.fromSystem();
+            int checkpoints = Integer.getInteger("xml2aa.checkpoints", 0);
+            int instances = Integer.getInteger("xml2aa.pool",
+                    Runtime.getRuntime().availableProcessors());
+            AutomatonBuilder builder = new AutomatonBuilder();
+            for (String argument : args) {
+                File file = Utils.ensure(new String[]{argument});
+                Snapshot snapshot = cache.get(file);
+                XMLAdaptiveAutomaton xml = snapshot.getSpecification();
+                AutomatonValidator validator = new AutomatonValidator(xml,
+                        snapshot.getIndex());
+                CompiledAutomaton compiled = new AutomatonCompiler().
+                        compile(xml, validator.getIndex());
+                // com tempo máximo, o modo padrão é
+                // executado pelo mecanismo nativo, que
+                // respeita o limite, e não pela biblioteca
+                Mode mode = preferred != null ? preferred : timeout > 0
+                        || Engine.select(compiled) == Engine.DETERMINISTIC
+                        ? Mode.ACCEPT_FIRST : Mode.FULL;
+                String name = file.getName().replaceFirst("\\.[^.]*$", "");
+                AutomatonPool library = new AutomatonPool(builder.template(
+                        xml, validator.getIndex()), instances);
+                server.register(name, new Recognizer(compiled, library, null,
+                        limits, checkpoints), mode);
+                Utils.linebreak(String.format("Especificação '%s': %s", name,
+                        Engine.describe(compiled, mode)));
+            }
+
+            String address = System.getProperty("xml2aa.server",
+                    "localhost:7070");
+            server.start(address);
+            Utils.linebreak(String.format("Atendendo em '%s', com "
+                    + "delimitação '%s' e linhas de execução %s (pressione "
+                    + "CTRL+C para encerrar)", address,
+                    server.framing.getName(), server.isVirtual()
+                    ? "virtuais" : "da plataforma"));
+            Utils.line();
+
+            // imprime as estatísticas
+            // ao encerrar o servidor
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException nothandled) {
+                    // o servidor será
+                    // encerrado de qualquer forma
+                }
+                Utils.line();
+                Utils.linebreak(server.getStats().toString());
+            }));
+            server.await();
+
+        } catch (Exception exception) {
+            Utils.center("O programa encontrou uma exceção!");
+            Utils.line("-");
+            Utils.linebreak(Utils.maybe(exception));
+        }
+    }
+
+}
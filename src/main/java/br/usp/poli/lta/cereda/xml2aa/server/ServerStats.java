@@ -0,0 +1,338 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.server;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonPool;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Limit;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Result;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estatísticas do servidor de reconhecimento, atualizadas sem bloqueios
+ * pelas requisições concorrentes: conexões, requisições, erros, vereditos,
+ * limites atingidos e a distribuição das latências. As latências são
+ * agrupadas em faixas logarítmicas, cada potência de dois dividida em oito
+ * subfaixas, de modo que os percentis são obtidos com erro relativo de até
+ * 12,5% e memória constante.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class ServerStats {
+
+    // bits das subfaixas de
+    // cada potência de dois
+    private static final int PRECISION = 3;
+
+    // início das medições
+    private final long started;
+
+    // conexões e requisições
+    private final AtomicLong active;
+    private final AtomicLong connections;
+    private final AtomicLong requests;
+    private final AtomicLong errors;
+
+    // vereditos, limites atingidos
+    // e distribuição das latências
+    private final AtomicLongArray verdicts;
+    private final AtomicLongArray limits;
+    private final AtomicLongArray latencies;
+    private final AtomicLong maximum;
+
+    /**
+     * Construtor.
+     */
+    ServerStats() {
+        this.started = System.nanoTime();
+        this.active = new AtomicLong();
+        this.connections = new AtomicLong();
+        this.requests = new AtomicLong();
+        this.errors = new AtomicLong();
+        this.verdicts = new AtomicLongArray(Verdict.values().length);
+        this.limits = new AtomicLongArray(Limit.values().length);
+        this.latencies = new AtomicLongArray(Long.SIZE << PRECISION);
+        this.maximum = new AtomicLong();
+    }
+
+    /**
+     * Registra a abertura de uma conexão.
+     */
+    void connected() {
+        connections.incrementAndGet();
+        active.incrementAndGet();
+    }
+
+    /**
+     * Registra o encerramento de uma conexão.
+     */
+    void disconnected() {
+        active.decrementAndGet();
+    }
+
+    /**
+     * Registra uma requisição com erro.
+     */
+    void failed() {
+        requests.incrementAndGet();
+        errors.incrementAndGet();
+    }
+
+    /**
+     * Registra o resultado de uma requisição de reconhecimento.
+     *
+     * @param result Resultado do reconhecimento.
+     * @param latency Latência, em nanossegundos.
+     */
+    void record(Result result, long latency) {
+        requests.incrementAndGet();
+        verdicts.incrementAndGet(result.getVerdict().ordinal());
+        if (result.getLimit() != null) {
+            limits.incrementAndGet(result.getLimit().ordinal());
+        }
+        latencies.incrementAndGet(bucket(latency));
+        long current = maximum.get();
+        while (latency > current
+                && !maximum.compareAndSet(current, latency)) {
+            current = maximum.get();
+        }
+    }
+
+    /**
+     * Obtém a faixa da latência: os valores menores que oito ocupam uma
+     * faixa cada, e os demais são identificados pelo expoente e pelos três
+     * bits seguintes ao bit mais significativo.
+     *
+     * @param value Latência, em nanossegundos.
+     * @return Faixa correspondente.
+     */
+    private static int bucket(long value) {
+        if (value < (1 << PRECISION)) {
+            return (int) Math.max(value, 0);
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value)
+                - PRECISION;
+        return ((shift + 1) << PRECISION)
+                | (int) ((value >>> shift) & ((1 << PRECISION) - 1));
+    }
+
+    /**
+     * Obtém o maior valor da faixa.
+     *
+     * @param bucket Faixa.
+     * @return Maior latência da faixa, em nanossegundos.
+     */
+    private static long upper(int bucket) {
+        if (bucket < (1 << PRECISION)) {
+            return bucket;
+        }
+        int shift = (bucket >> PRECISION) - 1;
+        long mantissa = (bucket & ((1 << PRECISION) - 1)) | (1 << PRECISION);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getActive() {
+        return active.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * Obtém a quantidade de requisições com o veredito informado.
+     *
+     * @param verdict Veredito.
+     * @return Quantidade de requisições.
+     */
+    public long getCount(Verdict verdict) {
+        return verdicts.get(verdict.ordinal());
+    }
+
+    /**
+     * Obtém a quantidade de requisições interrompidas pelo limite.
+     *
+     * @param limit Limite de execução.
+     * @return Quantidade de requisições.
+     */
+    public long getTriggered(Limit limit) {
+        return limits.get(limit.ordinal());
+    }
+
+    /**
+     * Obtém o tempo decorrido desde o início do servidor.
+     *
+     * @return Tempo decorrido, em milissegundos.
+     */
+    public long getUptime() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    /**
+     * Obtém a quantidade média de requisições por segundo desde o início do
+     * servidor.
+     *
+     * @return Requisições por segundo.
+     */
+    public double getThroughput() {
+        long elapsed = System.nanoTime() - started;
+        return elapsed == 0 ? 0 : requests.get()
+                * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Obtém o percentil das latências dos reconhecimentos, limitado
+     * superiormente pela maior latência registrada.
+     *
+     * @param percentile Percentil, entre 0 e 100.
+     * @return Latência, em nanossegundos, ou zero sem reconhecimentos.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[latencies.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencies.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upper(i), maximum.get());
+            }
+        }
+        return maximum.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     * Obtém a representação das estatísticas em um objeto JSON, em uma
+     * única linha, incluindo as métricas dos conjuntos de instâncias do
+     * autômato na biblioteca AA4J de cada especificação.
+     *
+     * @param pools Conjuntos de instâncias de cada especificação.
+     * @return Objeto JSON.
+     */
+    public String toJson(Map<String, AutomatonPool> pools) {
+        StringBuilder output = new StringBuilder(512);
+        output.append("{\"uptime_ms\":").append(getUptime()).
+                append(",\"connections_active\":").append(getActive()).
+                append(",\"connections_total\":").append(getConnections()).
+                append(",\"requests\":").append(getRequests()).
+                append(",\"errors\":").append(getErrors());
+        for (Verdict verdict : Verdict.values()) {
+            output.append(",\"").
+                    append(verdict.name().toLowerCase(Locale.ROOT)).
+                    append("\":").append(getCount(verdict));
+        }
+        output.append(",\"limits\":{");
+        for (Limit limit : Limit.values()) {
+            output.append(limit.ordinal() == 0 ? "\"" : ",\"").
+                    append(limit.name().toLowerCase(Locale.ROOT)).
+                    append("\":").append(getTriggered(limit));
+        }
+        output.append("},\"throughput\":").
+                append(String.format(Locale.ROOT, "%.1f", getThroughput())).
+                append(",\"latency_p50_ns\":").append(getPercentile(50)).
+                append(",\"latency_p99_ns\":").append(getPercentile(99)).
+                append(",\"latency_max_ns\":").append(getMaximum()).
+                append(",\"pools\":{");
+        boolean first = true;
+        for (Map.Entry<String, AutomatonPool> entry : pools.entrySet()) {
+            AutomatonPool pool = entry.getValue();
+            output.append(first ? "\"" : ",\"").append(entry.getKey()).
+                    append("\":{\"maximum\":").append(pool.getMaximum()).
+                    append(",\"created\":").append(pool.getCreated()).
+                    append(",\"busy\":").append(pool.getBusy()).
+                    append(",\"peak\":").append(pool.getPeak()).
+                    append(",\"borrowed\":").append(pool.getBorrowed()).
+                    append(",\"contended\":").append(pool.getContended()).
+                    append(",\"waited_ns\":").append(pool.getWaited()).
+                    append(",\"longest_ns\":").append(pool.getLongest()).
+                    append('}');
+            first = false;
+        }
+        return output.append("}}").toString();
+    }
+
+    /**
+     * Obtém a representação textual das estatísticas.
+     *
+     * @return Representação textual.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d requisições (%d aceitas, %d rejeitadas, %d "
+                + "inconclusivas, %d erros) em %d conexões, %.0f "
+                + "requisições por segundo, latência p50 de %.1f µs e p99 "
+                + "de %.1f µs", getRequests(), getCount(Verdict.ACCEPTED),
+                getCount(Verdict.REJECTED), getCount(Verdict.INCONCLUSIVE),
+                getErrors(), getConnections(), getThroughput(),
+                getPercentile(50) / 1e3, getPercentile(99) / 1e3);
+    }
+
+}
@@ -0,0 +1,72 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.snapshot;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+
+/**
+ * Representa uma especificação XML do autômato adaptativo já validada,
+ * acompanhada do seu índice (estados convertidos para inteiros, alfabeto,
+ * alvos das chamadas e contagens), de modo que a especificação restaurada
+ * não precise ser percorrida novamente. As tabelas compiladas não fazem
+ * parte da representação, sendo construídas a partir do índice.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class Snapshot {
+
+    // atributos da classe
+    private final XMLAdaptiveAutomaton specification;
+    private final SpecIndex index;
+
+    /**
+     * Construtor.
+     *
+     * @param specification Especificação XML do autômato adaptativo.
+     * @param index Índice da especificação validada.
+     */
+    public Snapshot(XMLAdaptiveAutomaton specification, SpecIndex index) {
+        this.specification = specification;
+        this.index = index;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public XMLAdaptiveAutomaton getSpecification() {
+        return specification;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return Objeto.
+     */
+    public SpecIndex getIndex() {
+        return index;
+    }
+
+}
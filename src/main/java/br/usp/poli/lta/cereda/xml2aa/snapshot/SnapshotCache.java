@@ -0,0 +1,178 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.snapshot;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Obtém especificações validadas a partir de arquivos XML, mantendo ao lado
+ * de cada arquivo a sua representação binária. A representação é indexada
+ * pelo resumo criptográfico do conteúdo do arquivo XML, sendo reconstruída
+ * automaticamente sempre que este é alterado. A representação contém a
+ * especificação e o seu índice, dispensando a conversão, a validação e a
+ * passagem pelas transições; as tabelas compiladas não são armazenadas, e
+ * o compilador as constrói a partir do índice em cada execução. Como a
+ * representação é escrita no diretório do arquivo XML, o terminal e o
+ * servidor só a utilizam quando a propriedade 'xml2aa.snapshot' tem o valor
+ * 'true'.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SnapshotCache {
+
+    // extensão do arquivo contendo
+    // a representação binária
+    public static final String EXTENSION = ".snapshot";
+
+    // algoritmo do resumo criptográfico
+    private static final String ALGORITHM = "SHA-256";
+
+    // atributos da classe
+    private final Transformation transformation;
+    private final boolean enabled;
+    private final boolean complete;
+
+    /**
+     * Construtor.
+     *
+     * @param transformation Transformação XML utilizada na ausência de uma
+     * representação binária atualizada.
+     * @param enabled Indica se as representações binárias devem ser lidas e
+     * escritas; caso contrário, o arquivo XML é sempre convertido e validado.
+     */
+    public SnapshotCache(Transformation transformation, boolean enabled) {
+        this(transformation, enabled, false);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param transformation Transformação XML utilizada na ausência de uma
+     * representação binária atualizada.
+     * @param enabled Indica se as representações binárias devem ser lidas e
+     * escritas; caso contrário, o arquivo XML é sempre convertido e validado.
+     * @param complete Indica se a validação deve reunir todas as violações da
+     * especificação, em vez de interromper na primeira.
+     */
+    public SnapshotCache(Transformation transformation, boolean enabled,
+            boolean complete) {
+        this.transformation = transformation;
+        this.enabled = enabled;
+        this.complete = complete;
+    }
+
+    /**
+     * Obtém a especificação validada correspondente ao arquivo XML.
+     *
+     * @param file Arquivo XML.
+     * @return Especificação validada.
+     * @throws Exception O arquivo está malformado ou a especificação é
+     * inválida.
+     */
+    public Snapshot get(File file) throws Exception {
+
+        // o mecanismo está desabilitado, então
+        // a especificação é sempre convertida
+        // e validada novamente
+        if (!enabled) {
+            return convert(file);
+        }
+
+        byte[] hash = hash(file.toPath());
+        Path path = new File(file.getPath() + EXTENSION).toPath();
+
+        // existe uma representação binária,
+        // que é utilizada se estiver
+        // atualizada e íntegra
+        if (path.toFile().isFile()) {
+            try {
+                Snapshot snapshot = new SnapshotReader().read(path, hash);
+                if (snapshot != null) {
+                    return snapshot;
+                }
+            } catch (IOException | RuntimeException nothandled) {
+                // a representação está corrompida
+                // e será reconstruída a seguir
+            }
+        }
+
+        // converte e valida a especificação,
+        // escrevendo a representação binária
+        // para as próximas execuções
+        Snapshot snapshot = convert(file);
+        try {
+            new SnapshotWriter().write(path, hash, snapshot);
+        } catch (IOException nothandled) {
+            // não é possível escrever no diretório,
+            // então a especificação segue apenas
+            // em memória
+        }
+        return snapshot;
+    }
+
+    /**
+     * Converte e valida a especificação do arquivo XML.
+     *
+     * @param file Arquivo XML.
+     * @return Especificação validada.
+     * @throws Exception O arquivo está malformado ou a especificação é
+     * inválida.
+     */
+    private Snapshot convert(File file) throws Exception {
+        XMLAdaptiveAutomaton xml = transformation.get(file);
+        AutomatonValidator validator = new AutomatonValidator(xml);
+        SpecIndex index = complete ? validator.validateAll()
+                : validator.validate();
+        return new Snapshot(xml, index);
+    }
+
+    /**
+     * Calcula o resumo criptográfico do conteúdo do arquivo.
+     *
+     * @param path Caminho do arquivo.
+     * @return Resumo criptográfico.
+     * @throws IOException Erro de leitura.
+     * @throws NoSuchAlgorithmException O algoritmo não está disponível.
+     */
+    private static byte[] hash(Path path) throws IOException,
+            NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+        }
+        return digest.digest();
+    }
+
+}
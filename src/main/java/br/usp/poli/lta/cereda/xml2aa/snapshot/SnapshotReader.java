@@ -0,0 +1,270 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.snapshot;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachines;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransitions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lê a representação binária de uma especificação validada, mapeando o
+ * arquivo diretamente em memória.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SnapshotReader {
+
+    // conteúdo mapeado
+    // em memória
+    private ByteBuffer buffer;
+
+    // tabela de cadeias
+    private String[] table;
+
+    /**
+     * Lê a representação binária do caminho informado, desde que esta tenha
+     * sido gerada a partir do arquivo XML com o resumo criptográfico
+     * informado.
+     *
+     * @param path Caminho do arquivo.
+     * @param hash Resumo criptográfico do arquivo XML de origem.
+     * @return Representação da especificação, ou nulo se o arquivo está
+     * desatualizado ou foi gerado por outra versão do formato.
+     * @throws IOException Erro de leitura.
+     */
+    public Snapshot read(Path path, byte[] hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+
+            // verifica o cabeçalho e o resumo
+            // criptográfico do arquivo de origem
+            if (buffer.getInt() != SnapshotWriter.MAGIC
+                    || buffer.getInt() != SnapshotWriter.VERSION) {
+                return null;
+            }
+            byte[] stored = new byte[buffer.getInt()];
+            buffer.get(stored);
+            if (!Arrays.equals(stored, hash)) {
+                return null;
+            }
+
+            // tabela de cadeias
+            table = new String[buffer.getInt()];
+            for (int i = 0; i < table.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                table[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            return body();
+        } finally {
+            buffer = null;
+            table = null;
+        }
+    }
+
+    /**
+     * Lê a estrutura do autômato.
+     *
+     * @return Representação da especificação.
+     */
+    private Snapshot body() {
+
+        // índice: estados das transições,
+        // tabela de estados, alfabeto, alvos
+        // das chamadas e contagens
+        int[] from = ints();
+        int[] to = ints();
+        int[] states = ints();
+        int maximum = buffer.getInt();
+        int declared = buffer.getInt();
+        Set<String> symbols = set();
+        Set<String> submachineCalls = set();
+        Set<String> actionCalls = set();
+        SpecIndex index = new SpecIndex(from, to, states, maximum, declared,
+                symbols, submachineCalls, actionCalls, ints());
+
+        XMLAdaptiveAutomaton xml = new XMLAdaptiveAutomaton();
+
+        // transições
+        int size = buffer.getInt();
+        List<XMLTransition> transitions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            XMLTransition t = new XMLTransition();
+            t.setFrom(ref());
+            t.setTo(ref());
+            t.setSymbol(ref());
+            t.setCall(ref());
+            t.setPreAdaptiveFunction(call());
+            t.setPostAdaptiveFunction(call());
+            transitions.add(t);
+        }
+        XMLTransitions xt = new XMLTransitions();
+        xt.setTransitions(transitions);
+        xml.setTransitions(xt);
+
+        // submáquinas
+        size = buffer.getInt();
+        List<XMLSubmachine> submachines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            XMLSubmachine submachine = new XMLSubmachine();
+            submachine.setName(ref());
+            submachine.setMain(ref());
+            int count = buffer.getInt();
+            List<XMLState> list = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                XMLState state = new XMLState();
+                state.setName(ref());
+                state.setStart(ref());
+                state.setAccepting(ref());
+                list.add(state);
+            }
+            submachine.setStates(list);
+            submachines.add(submachine);
+        }
+        XMLSubmachines xs = new XMLSubmachines();
+        xs.setSubmachines(submachines);
+        xml.setSubmachines(xs);
+
+        // ações adaptativas
+        size = buffer.getInt();
+        if (size != SnapshotWriter.NULL) {
+            List<XMLAdaptiveAction> actions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                XMLAdaptiveAction action = new XMLAdaptiveAction();
+                action.setName(ref());
+                action.setParameters(list());
+                action.setVariables(list());
+                action.setGenerators(list());
+                int count = buffer.getInt();
+                List<XMLAction> list = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    XMLAction elementary = new XMLAction();
+                    elementary.setType(ref());
+                    elementary.setFrom(ref());
+                    elementary.setTo(ref());
+                    elementary.setSymbol(ref());
+                    elementary.setCall(ref());
+                    elementary.setPreAdaptiveFunction(call());
+                    elementary.setPostAdaptiveFunction(call());
+                    list.add(elementary);
+                }
+                action.setActions(list);
+                actions.add(action);
+            }
+            xml.setActions(actions);
+        }
+
+        return new Snapshot(xml, index);
+    }
+
+    /**
+     * Lê a referência de uma cadeia.
+     *
+     * @return Cadeia correspondente, ou nulo.
+     */
+    private String ref() {
+        int index = buffer.getInt();
+        return index == SnapshotWriter.NULL ? null : table[index];
+    }
+
+    /**
+     * Lê um vetor de inteiros.
+     *
+     * @return Vetor de inteiros.
+     */
+    private int[] ints() {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * values.length);
+        return values;
+    }
+
+    /**
+     * Lê um conjunto de cadeias, preservando a ordem de escrita.
+     *
+     * @return Conjunto de cadeias.
+     */
+    private Set<String> set() {
+        int size = buffer.getInt();
+        Set<String> values = new LinkedHashSet<>(Math.max(16,
+                size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            values.add(ref());
+        }
+        return values;
+    }
+
+    /**
+     * Lê uma lista de cadeias.
+     *
+     * @return Lista de cadeias, ou nulo.
+     */
+    private List<String> list() {
+        int size = buffer.getInt();
+        if (size == SnapshotWriter.NULL) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(ref());
+        }
+        return values;
+    }
+
+    /**
+     * Lê uma chamada de função adaptativa.
+     *
+     * @return Chamada de função adaptativa, ou nulo.
+     */
+    private XMLActionCall call() {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        XMLActionCall call = new XMLActionCall();
+        call.setName(ref());
+        call.setParameters(list());
+        return call;
+    }
+
+}
@@ -0,0 +1,302 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.snapshot;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escreve a representação binária de uma especificação validada. O formato
+ * é composto por um cabeçalho (identificador, versão e resumo criptográfico
+ * do arquivo XML de origem), uma tabela de cadeias, o índice da
+ * especificação e a estrutura do autômato, nos quais toda cadeia é
+ * referenciada pela sua posição na tabela.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SnapshotWriter {
+
+    // identificador e versão
+    // do formato binário
+    static final int MAGIC = 0x58324141;
+    static final int VERSION = 2;
+
+    // referência nula
+    static final int NULL = -1;
+
+    // tamanho do buffer de escrita
+    private static final int BUFFER = 1 << 16;
+
+    // tabela de cadeias
+    private final Map<String, Integer> table;
+
+    /**
+     * Construtor.
+     */
+    public SnapshotWriter() {
+        this.table = new LinkedHashMap<>();
+    }
+
+    /**
+     * Escreve a representação binária no caminho informado. A escrita ocorre
+     * em um arquivo temporário, movido para o destino apenas ao final, de
+     * modo que leitores nunca encontrem um arquivo parcialmente escrito.
+     *
+     * @param path Caminho do arquivo de destino.
+     * @param hash Resumo criptográfico do arquivo XML de origem.
+     * @param snapshot Representação da especificação.
+     * @throws IOException Erro de escrita.
+     */
+    public void write(Path path, byte[] hash, Snapshot snapshot)
+            throws IOException {
+
+        // primeira passagem: apenas constrói
+        // a tabela de cadeias, descartando
+        // a estrutura escrita
+        table.clear();
+        body(new DataOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }), snapshot);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory,
+                path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary),
+                            BUFFER))) {
+
+                // cabeçalho
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(hash.length);
+                out.write(hash);
+
+                // tabela de cadeias
+                out.writeInt(table.size());
+                for (String value : table.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                // segunda passagem: escreve a
+                // estrutura propriamente dita
+                body(out, snapshot);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Escreve a estrutura do autômato.
+     *
+     * @param out Fluxo de saída.
+     * @param snapshot Representação da especificação.
+     * @throws IOException Erro de escrita.
+     */
+    private void body(DataOutputStream out, Snapshot snapshot)
+            throws IOException {
+
+        // índice: estados das transições,
+        // tabela de estados, alfabeto, alvos
+        // das chamadas e contagens
+        SpecIndex index = snapshot.getIndex();
+        ints(out, index.getFrom());
+        ints(out, index.getTo());
+        ints(out, index.getStates());
+        out.writeInt(index.getMaximum());
+        out.writeInt(index.getSubmachineStates());
+        set(out, index.getSymbols());
+        set(out, index.getSubmachineCalls());
+        set(out, index.getActionCalls());
+        ints(out, index.getCounts());
+
+        XMLAdaptiveAutomaton xml = snapshot.getSpecification();
+
+        // transições
+        List<XMLTransition> transitions = xml.getTransitions().
+                getTransitions();
+        out.writeInt(transitions.size());
+        for (XMLTransition t : transitions) {
+            ref(out, t.getFrom());
+            ref(out, t.getTo());
+            ref(out, t.getSymbol());
+            ref(out, t.getCall());
+            call(out, t.getPreAdaptiveFunction());
+            call(out, t.getPostAdaptiveFunction());
+        }
+
+        // submáquinas
+        List<XMLSubmachine> submachines = xml.getSubmachines().
+                getSubmachines();
+        out.writeInt(submachines.size());
+        for (XMLSubmachine submachine : submachines) {
+            ref(out, submachine.getName());
+            ref(out, submachine.getMain());
+            out.writeInt(submachine.getStates().size());
+            for (XMLState state : submachine.getStates()) {
+                ref(out, state.getName());
+                ref(out, state.getStart());
+                ref(out, state.getAccepting());
+            }
+        }
+
+        // ações adaptativas
+        if (xml.getActions() == null) {
+            out.writeInt(NULL);
+        } else {
+            out.writeInt(xml.getActions().size());
+            for (XMLAdaptiveAction action : xml.getActions()) {
+                ref(out, action.getName());
+                list(out, action.getParameters());
+                list(out, action.getVariables());
+                list(out, action.getGenerators());
+                out.writeInt(action.getActions().size());
+                for (XMLAction elementary : action.getActions()) {
+                    ref(out, elementary.getType());
+                    ref(out, elementary.getFrom());
+                    ref(out, elementary.getTo());
+                    ref(out, elementary.getSymbol());
+                    ref(out, elementary.getCall());
+                    call(out, elementary.getPreAdaptiveFunction());
+                    call(out, elementary.getPostAdaptiveFunction());
+                }
+            }
+        }
+    }
+
+    /**
+     * Escreve a referência de uma cadeia, incluindo-a na tabela se
+     * necessário.
+     *
+     * @param out Fluxo de saída.
+     * @param value Cadeia.
+     * @throws IOException Erro de escrita.
+     */
+    private void ref(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+        } else {
+            Integer index = table.get(value);
+            if (index == null) {
+                index = table.size();
+                table.put(value, index);
+            }
+            out.writeInt(index);
+        }
+    }
+
+    /**
+     * Escreve uma lista de cadeias.
+     *
+     * @param out Fluxo de saída.
+     * @param values Lista de cadeias.
+     * @throws IOException Erro de escrita.
+     */
+    private void list(DataOutputStream out, List<String> values)
+            throws IOException {
+        if (values == null) {
+            out.writeInt(NULL);
+        } else {
+            out.writeInt(values.size());
+            for (String value : values) {
+                ref(out, value);
+            }
+        }
+    }
+
+    /**
+     * Escreve um vetor de inteiros.
+     *
+     * @param out Fluxo de saída.
+     * @param values Vetor de inteiros.
+     * @throws IOException Erro de escrita.
+     */
+    private static void ints(DataOutputStream out, int[] values)
+            throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Escreve um conjunto de cadeias, na ordem de iteração.
+     *
+     * @param out Fluxo de saída.
+     * @param values Conjunto de cadeias.
+     * @throws IOException Erro de escrita.
+     */
+    private void set(DataOutputStream out, Set<String> values)
+            throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            ref(out, value);
+        }
+    }
+
+    /**
+     * Escreve uma chamada de função adaptativa.
+     *
+     * @param out Fluxo de saída.
+     * @param call Chamada de função adaptativa.
+     * @throws IOException Erro de escrita.
+     */
+    private void call(DataOutputStream out, XMLActionCall call)
+            throws IOException {
+        out.writeBoolean(call != null);
+        if (call != null) {
+            ref(out, call.getName());
+            list(out, call.getParameters());
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.xml;
+
+/**
+ * Mensagens comuns às transformações XML.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+class Messages {
+
+    /**
+     * Cria a exceção referente a uma especificação que não pôde ser
+     * convertida.
+     *
+     * @param name Nome do arquivo de origem, ou nulo se a especificação não
+     * foi obtida a partir de um arquivo.
+     * @return Exceção correspondente.
+     */
+    static Exception failure(String name) {
+        return new Exception((name != null
+                ? "O arquivo '" + name + "' não foi convertido"
+                : "A especificação informada não foi convertida")
+                + " para o formato intermediário de representação do "
+                + "autômato adaptativo. É possível que este não seja um "
+                + "arquivo XML válido. Por favor, verifique os elementos "
+                + "descritos no arquivo e tente novamente. O programa será "
+                + "encerrado.");
+    }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.xml;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Define uma transformação de um arquivo XML na especificação XML do autômato
+ * adaptativo. As implementações não guardam estado entre conversões e podem
+ * ser compartilhadas entre linhas de execução.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public interface Transformation {
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do arquivo XML.
+     *
+     * @param file Arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O arquivo está malformado.
+     */
+    public XMLAdaptiveAutomaton get(File file) throws Exception;
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do caminho
+     * do arquivo XML.
+     *
+     * @param path Caminho do arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O arquivo está malformado.
+     */
+    public XMLAdaptiveAutomaton get(Path path) throws Exception;
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do fluxo de
+     * entrada. O fluxo não é fechado.
+     *
+     * @param stream Fluxo de entrada.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    public XMLAdaptiveAutomaton get(InputStream stream) throws Exception;
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do leitor de
+     * caracteres. O leitor não é fechado.
+     *
+     * @param reader Leitor de caracteres.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    public XMLAdaptiveAutomaton get(Reader reader) throws Exception;
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do conteúdo
+     * do buffer, entre a posição corrente e o limite. A posição do buffer
+     * informado não é alterada.
+     *
+     * @param buffer Buffer contendo o arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    public XMLAdaptiveAutomaton get(ByteBuffer buffer) throws Exception;
+
+    /**
+     * Obtém a transformação de acordo com o nome informado. Os nomes válidos
+     * são 'xstream' (padrão) e 'stax'.
+     *
+     * @param name Nome da transformação.
+     * @return Transformação correspondente.
+     * @throws Exception O nome da transformação é inválido.
+     */
+    public static Transformation of(String name) throws Exception {
+
+        // a transformação padrão
+        // é baseada no XStream
+        if (name == null || name.equals("xstream")) {
+            return new XMLTransformation();
+        }
+
+        // transformação baseada em
+        // um analisador de fluxo
+        if (name.equals("stax")) {
+            return new XMLStreamTransformation();
+        }
+
+        throw new Exception("A transformação '" + name + "' não existe. "
+                + "Os valores válidos são 'xstream' e 'stax'. Por favor, "
+                + "verifique o valor informado e tente novamente. O "
+                + "programa será encerrado.");
+    }
+
+}
@@ -0,0 +1,511 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.xml;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLActionCall;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAction;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLState;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachine;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLSubmachines;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransitions;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Implementa uma transformação XML baseada em um analisador de fluxo (StAX),
+ * preenchendo diretamente a especificação XML do autômato adaptativo, sem
+ * árvores intermediárias e sem uso de reflexão. As instâncias não guardam
+ * estado e podem ser utilizadas concorrentemente.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class XMLStreamTransformation implements Transformation {
+
+    // tamanho do buffer de
+    // leitura do arquivo
+    private static final int BUFFER = 1 << 16;
+
+    // fábrica de analisadores, configurada uma
+    // única vez por linha de execução, já que
+    // a especificação StAX não garante o uso
+    // concorrente de uma mesma fábrica
+    private static final ThreadLocal<XMLInputFactory> FACTORY
+            = ThreadLocal.withInitial(XMLStreamTransformation::factory);
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do arquivo XML.
+     *
+     * @param file Arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O arquivo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(File file) throws Exception {
+        try (InputStream stream = new BufferedInputStream(
+                new FileInputStream(file), BUFFER)) {
+
+            // retorna a especificação
+            // XML do autômato adaptativo
+            return read(FACTORY.get().createXMLStreamReader(stream));
+        } catch (Exception exception) {
+            throw Messages.failure(file.getName());
+        }
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do caminho
+     * do arquivo XML.
+     *
+     * @param path Caminho do arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O arquivo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(Path path) throws Exception {
+        return get(path.toFile());
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do fluxo de
+     * entrada. O fluxo não é fechado.
+     *
+     * @param stream Fluxo de entrada.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(InputStream stream) throws Exception {
+        try {
+            return read(FACTORY.get().createXMLStreamReader(stream));
+        } catch (Exception exception) {
+            throw Messages.failure(null);
+        }
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do leitor de
+     * caracteres. O leitor não é fechado.
+     *
+     * @param reader Leitor de caracteres.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(Reader reader) throws Exception {
+        try {
+            return read(FACTORY.get().createXMLStreamReader(reader));
+        } catch (Exception exception) {
+            throw Messages.failure(null);
+        }
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do conteúdo
+     * do buffer, entre a posição corrente e o limite. A posição do buffer
+     * informado não é alterada.
+     *
+     * @param buffer Buffer contendo o arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(ByteBuffer buffer) throws Exception {
+        return get(new ByteBufferInputStream(buffer));
+    }
+
+    /**
+     * Lê a especificação XML do autômato adaptativo a partir do analisador.
+     *
+     * @param reader Analisador de fluxo.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws XMLStreamException O conteúdo está malformado.
+     */
+    private XMLAdaptiveAutomaton read(XMLStreamReader reader)
+            throws XMLStreamException {
+        try {
+            return new Parser(reader).automaton();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Cria a fábrica de analisadores, desabilitando recursos desnecessários
+     * (e potencialmente inseguros) como DTDs e entidades externas.
+     *
+     * @return Fábrica de analisadores.
+     */
+    private static XMLInputFactory factory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.
+                IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Analisador descendente da especificação XML. Cada método consome
+     * exatamente um elemento, terminando posicionado no fim deste.
+     */
+    private static class Parser {
+
+        // analisador de fluxo
+        private final XMLStreamReader reader;
+
+        // repositório de cadeias, de modo que
+        // nomes repetidos de estados e símbolos
+        // compartilhem a mesma instância
+        private final Map<String, String> pool;
+
+        /**
+         * Construtor.
+         *
+         * @param reader Analisador de fluxo.
+         */
+        Parser(XMLStreamReader reader) {
+            this.reader = reader;
+            this.pool = new HashMap<>();
+        }
+
+        /**
+         * Lê o autômato adaptativo.
+         *
+         * @return Especificação XML do autômato adaptativo.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        XMLAdaptiveAutomaton automaton() throws XMLStreamException {
+
+            // posiciona o analisador
+            // no elemento raiz
+            reader.nextTag();
+            expect("adaptiveAutomaton");
+
+            XMLAdaptiveAutomaton automaton = new XMLAdaptiveAutomaton();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "transitions":
+                        automaton.setTransitions(transitions());
+                        break;
+                    case "submachines":
+                        automaton.setSubmachines(submachines());
+                        break;
+                    case "actions":
+                        automaton.setActions(actions());
+                        break;
+                    default:
+                        throw unexpected();
+                }
+            }
+            return automaton;
+        }
+
+        /**
+         * Lê a lista de transições.
+         *
+         * @return Lista de transições.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLTransitions transitions() throws XMLStreamException {
+            List<XMLTransition> list = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expect("transition");
+                list.add(transition());
+            }
+            XMLTransitions transitions = new XMLTransitions();
+            transitions.setTransitions(list);
+            return transitions;
+        }
+
+        /**
+         * Lê uma transição.
+         *
+         * @return Transição.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLTransition transition() throws XMLStreamException {
+            XMLTransition transition = new XMLTransition();
+            transition.setFrom(attribute("from"));
+            transition.setTo(attribute("to"));
+            transition.setSymbol(attribute("symbol"));
+            transition.setCall(attribute("call"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "preAdaptiveFunction":
+                        transition.setPreAdaptiveFunction(call());
+                        break;
+                    case "postAdaptiveFunction":
+                        transition.setPostAdaptiveFunction(call());
+                        break;
+                    default:
+                        throw unexpected();
+                }
+            }
+            return transition;
+        }
+
+        /**
+         * Lê uma chamada de função adaptativa.
+         *
+         * @return Chamada de função adaptativa.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLActionCall call() throws XMLStreamException {
+            XMLActionCall call = new XMLActionCall();
+            call.setName(attribute("name"));
+            List<String> parameters = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expect("parameter");
+                if (parameters == null) {
+                    parameters = new ArrayList<>();
+                }
+                parameters.add(text());
+            }
+            call.setParameters(parameters);
+            return call;
+        }
+
+        /**
+         * Lê a lista de submáquinas.
+         *
+         * @return Lista de submáquinas.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLSubmachines submachines() throws XMLStreamException {
+            List<XMLSubmachine> list = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expect("submachine");
+                list.add(submachine());
+            }
+            XMLSubmachines submachines = new XMLSubmachines();
+            submachines.setSubmachines(list);
+            return submachines;
+        }
+
+        /**
+         * Lê uma submáquina.
+         *
+         * @return Submáquina.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLSubmachine submachine() throws XMLStreamException {
+            XMLSubmachine submachine = new XMLSubmachine();
+            submachine.setName(attribute("name"));
+            submachine.setMain(attribute("main"));
+            List<XMLState> states = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expect("state");
+                if (states == null) {
+                    states = new ArrayList<>();
+                }
+                XMLState state = new XMLState();
+                state.setName(attribute("name"));
+                state.setStart(attribute("start"));
+                state.setAccepting(attribute("accepting"));
+                states.add(state);
+                end();
+            }
+            submachine.setStates(states);
+            return submachine;
+        }
+
+        /**
+         * Lê a lista de ações adaptativas.
+         *
+         * @return Lista de ações adaptativas.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private List<XMLAdaptiveAction> actions() throws XMLStreamException {
+            List<XMLAdaptiveAction> list = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expect("adaptiveAction");
+                list.add(action());
+            }
+            return list;
+        }
+
+        /**
+         * Lê uma ação adaptativa.
+         *
+         * @return Ação adaptativa.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLAdaptiveAction action() throws XMLStreamException {
+            XMLAdaptiveAction action = new XMLAdaptiveAction();
+            action.setName(attribute("name"));
+            List<String> parameters = null;
+            List<String> variables = null;
+            List<String> generators = null;
+            List<XMLAction> actions = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "parameter":
+                        if (parameters == null) {
+                            parameters = new ArrayList<>();
+                        }
+                        parameters.add(text());
+                        break;
+                    case "variable":
+                        if (variables == null) {
+                            variables = new ArrayList<>();
+                        }
+                        variables.add(text());
+                        break;
+                    case "generator":
+                        if (generators == null) {
+                            generators = new ArrayList<>();
+                        }
+                        generators.add(text());
+                        break;
+                    case "action":
+                        if (actions == null) {
+                            actions = new ArrayList<>();
+                        }
+                        actions.add(elementary());
+                        break;
+                    default:
+                        throw unexpected();
+                }
+            }
+            action.setParameters(parameters);
+            action.setVariables(variables);
+            action.setGenerators(generators);
+            action.setActions(actions);
+            return action;
+        }
+
+        /**
+         * Lê uma ação adaptativa elementar.
+         *
+         * @return Ação adaptativa elementar.
+         * @throws XMLStreamException O fluxo está malformado.
+         */
+        private XMLAction elementary() throws XMLStreamException {
+            XMLAction action = new XMLAction();
+            action.setType(attribute("type"));
+            action.setFrom(attribute("from"));
+            action.setTo(attribute("to"));
+            action.setSymbol(attribute("symbol"));
+            action.setCall(attribute("call"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "preAdaptiveFunction":
+                        action.setPreAdaptiveFunction(call());
+                        break;
+                    case "postAdaptiveFunction":
+                        action.setPostAdaptiveFunction(call());
+                        break;
+                    default:
+                        throw unexpected();
+                }
+            }
+            return action;
+        }
+
+        /**
+         * Obtém o valor do atributo do elemento corrente.
+         *
+         * @param name Nome do atributo.
+         * @return Valor do atributo, ou nulo se este não existir.
+         */
+        private String attribute(String name) {
+            return shared(reader.getAttributeValue(null, name));
+        }
+
+        /**
+         * Obtém o texto do elemento corrente.
+         *
+         * @return Texto do elemento.
+         * @throws XMLStreamException O elemento não contém apenas texto.
+         */
+        private String text() throws XMLStreamException {
+            return shared(reader.getElementText());
+        }
+
+        /**
+         * Obtém a instância compartilhada da cadeia informada.
+         *
+         * @param value Cadeia.
+         * @return Instância compartilhada.
+         */
+        private String shared(String value) {
+            if (value == null) {
+                return null;
+            }
+            String result = pool.putIfAbsent(value, value);
+            return result == null ? value : result;
+        }
+
+        /**
+         * Consome o restante de um elemento sem filhos.
+         *
+         * @throws XMLStreamException O elemento possui filhos.
+         */
+        private void end() throws XMLStreamException {
+            if (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                throw unexpected();
+            }
+        }
+
+        /**
+         * Verifica se o elemento corrente possui o nome esperado.
+         *
+         * @param name Nome esperado.
+         * @throws XMLStreamException O elemento possui outro nome.
+         */
+        private void expect(String name) throws XMLStreamException {
+            if (!reader.getLocalName().equals(name)) {
+                throw unexpected();
+            }
+        }
+
+        /**
+         * Cria a exceção referente a um elemento inesperado.
+         *
+         * @return Exceção.
+         */
+        private XMLStreamException unexpected() {
+            return new XMLStreamException("Elemento inesperado: '"
+                    + reader.getLocalName() + "'.", reader.getLocation());
+        }
+
+    }
+
+}
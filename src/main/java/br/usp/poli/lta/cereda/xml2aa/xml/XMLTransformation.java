@@ -32,27 +32,38 @@ import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransition;
 import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLTransitions;
 import com.thoughtworks.xstream.XStream;
 import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
- * Implementa uma transformação XML.
+ * Implementa uma transformação XML. As instâncias compartilham um único
+ * conversor, configurado na carga da classe, e podem ser utilizadas
+ * concorrentemente.
  *
  * @author Paulo Roberto Massa Cereda
  * @version 1.1
  * @since 1.0
  */
-public class XMLTransformation {
+public class XMLTransformation implements Transformation {
 
-    // atributo da classe
-    private final XStream xstream;
+    // conversor da especificação XML, configurado
+    // uma única vez e compartilhado por todas as
+    // instâncias (o conversor é seguro para uso
+    // concorrente após a configuração)
+    private static final XStream XSTREAM = configure();
 
     /**
-     * Construtor.
+     * Configura o conversor da especificação XML.
+     *
+     * @return Conversor configurado.
      */
-    public XMLTransformation() {
+    private static XStream configure() {
 
         // define o conversor da
         // especificação XML
-        xstream = new XStream();
+        XStream xstream = new XStream();
 
         // transições
         xstream.alias("transition", XMLTransition.class);
@@ -111,6 +122,8 @@ public class XMLTransformation {
         xstream.aliasAttribute(XMLAction.class, "to", "to");
         xstream.aliasAttribute(XMLAction.class, "symbol", "symbol");
         xstream.aliasAttribute(XMLAction.class, "call", "call");
+
+        return xstream;
     }
 
     /**
@@ -120,20 +133,77 @@ public class XMLTransformation {
      * @return Especificação XML do autômato adaptativo.
      * @throws Exception O arquivo está malformado.
      */
+    @Override
     public XMLAdaptiveAutomaton get(File file) throws Exception {
         try {
 
             // retorna a especificação
             // XML do autômato adaptativo
-            return (XMLAdaptiveAutomaton) xstream.fromXML(file);
+            return (XMLAdaptiveAutomaton) XSTREAM.fromXML(file);
         } catch (Exception exception) {
-            throw new Exception("O arquivo '" + file.getName() + "' não foi "
-                    + "convertido para o formato intermediário de "
-                    + "representação do autômato adaptativo. É possível que "
-                    + "este não seja um arquivo XML válido. Por favor, "
-                    + "verifique os elementos descritos no arquivo e tente "
-                    + "novamente. O programa será encerrado.");
+            throw Messages.failure(file.getName());
         }
     }
 
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do caminho
+     * do arquivo XML.
+     *
+     * @param path Caminho do arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O arquivo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(Path path) throws Exception {
+        return get(path.toFile());
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do fluxo de
+     * entrada. O fluxo não é fechado.
+     *
+     * @param stream Fluxo de entrada.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(InputStream stream) throws Exception {
+        try {
+            return (XMLAdaptiveAutomaton) XSTREAM.fromXML(stream);
+        } catch (Exception exception) {
+            throw Messages.failure(null);
+        }
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do leitor de
+     * caracteres. O leitor não é fechado.
+     *
+     * @param reader Leitor de caracteres.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(Reader reader) throws Exception {
+        try {
+            return (XMLAdaptiveAutomaton) XSTREAM.fromXML(reader);
+        } catch (Exception exception) {
+            throw Messages.failure(null);
+        }
+    }
+
+    /**
+     * Obtém a especificação XML do autômato adaptativo a partir do conteúdo
+     * do buffer, entre a posição corrente e o limite. A posição do buffer
+     * informado não é alterada.
+     *
+     * @param buffer Buffer contendo o arquivo XML.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception O conteúdo está malformado.
+     */
+    @Override
+    public XMLAdaptiveAutomaton get(ByteBuffer buffer) throws Exception {
+        return get(new ByteBufferInputStream(buffer));
+    }
+
 }
@@ -0,0 +1,106 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.InputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a construção do alfabeto a partir das funções adaptativas. Na
+ * especificação de teste, o argumento '10' é utilizado apenas como destino
+ * de uma consulta, e não pode ser incluído como símbolo; caso contrário, a
+ * cadeia '10' seria dividida em um único símbolo e rejeitada. O argumento
+ * 'y', por sua vez, é o símbolo de uma transição incluída.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AlphabetTest {
+
+    /**
+     * Verifica os símbolos do alfabeto.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void symbols() throws Exception {
+        Alphabet alphabet = compile(load()).getAlphabet();
+        for (String symbol : new String[]{"0", "1", "y", "z"}) {
+            Assert.assertNotEquals(symbol, Alphabet.ABSENT,
+                    alphabet.getSymbol(symbol));
+        }
+        Assert.assertEquals(Alphabet.ABSENT, alphabet.getSymbol("10"));
+        Assert.assertFalse(alphabet.isTokenized());
+    }
+
+    /**
+     * Verifica se a cadeia '10' é aceita pelos modos de reconhecimento do
+     * mecanismo nativo, que dividem a cadeia de acordo com o alfabeto.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void recognition() throws Exception {
+        XMLAdaptiveAutomaton xml = load();
+        SpecIndex index = new AutomatonValidator(xml).validate();
+        Recognizer recognizer = new Recognizer(new AutomatonCompiler().
+                compile(xml, index), null);
+        for (Mode mode : new Mode[]{Mode.ACCEPT_FIRST, Mode.COUNT}) {
+            Assert.assertTrue(mode.name(), recognizer.recognize("10", mode).
+                    isAccepted());
+            Assert.assertFalse(mode.name(), recognizer.recognize("1", mode).
+                    isAccepted());
+        }
+    }
+
+    /**
+     * Obtém a especificação de teste.
+     *
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static XMLAdaptiveAutomaton load() throws Exception {
+        try (InputStream stream = AlphabetTest.class.
+                getResourceAsStream("symbols.xml")) {
+            return Transformation.of("stax").get(stream);
+        }
+    }
+
+    /**
+     * Compila a especificação.
+     *
+     * @param xml Especificação XML do autômato adaptativo.
+     * @return Autômato compilado.
+     * @throws Exception A especificação é inválida.
+     */
+    private static CompiledAutomaton compile(XMLAdaptiveAutomaton xml)
+            throws Exception {
+        return new AutomatonCompiler().compile(xml,
+                new AutomatonValidator(xml).validate());
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.automaton;
+
+import br.usp.poli.lta.cereda.xml2aa.model.AutomatonSpecException;
+import br.usp.poli.lta.cereda.xml2aa.model.Violation;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a validação da especificação XML do autômato adaptativo, tanto
+ * no modo que interrompe na primeira violação quanto no modo que reúne
+ * todas as violações.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class AutomatonValidatorTest {
+
+    /**
+     * Verifica se todas as violações de uma especificação inválida são
+     * reunidas, na mesma ordem da validação sequencial.
+     *
+     * @throws Exception Erro na transformação da especificação.
+     */
+    @Test
+    public void validateAll() throws Exception {
+        XMLAdaptiveAutomaton xml = load("invalid.xml");
+        List<Violation> violations = null;
+        try {
+            new AutomatonValidator(xml).validateAll();
+            Assert.fail();
+        } catch (AutomatonSpecException exception) {
+            violations = exception.getViolations();
+        }
+        Assert.assertTrue(violations.size() > 1);
+        for (Violation violation : violations) {
+            Assert.assertTrue(violation.getLocation().
+                    startsWith("/adaptiveAutomaton"));
+        }
+
+        // a primeira violação coletada é a
+        // mesma da validação sequencial
+        try {
+            new AutomatonValidator(xml).validate();
+            Assert.fail();
+        } catch (AutomatonSpecException exception) {
+            Assert.assertEquals(violations.get(0).getMessage(),
+                    exception.getMessage());
+        }
+
+        // a ordem não depende do
+        // paralelismo utilizado
+        Assert.assertEquals(violations.toString(), new AutomatonValidator(
+                xml).collect(new ForkJoinPool(1)).toString());
+    }
+
+    /**
+     * Verifica se nenhuma violação é coletada em uma especificação válida.
+     *
+     * @throws Exception Erro na transformação da especificação.
+     */
+    @Test
+    public void valid() throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(new File("samples/ape.xml"));
+        Assert.assertTrue(new AutomatonValidator(xml).collect().isEmpty());
+        Assert.assertNotNull(new AutomatonValidator(xml).validateAll());
+    }
+
+    /**
+     * Carrega uma especificação dos recursos de teste.
+     *
+     * @param name Nome do recurso.
+     * @return Especificação XML do autômato adaptativo.
+     * @throws Exception Erro na transformação da especificação.
+     */
+    private static XMLAdaptiveAutomaton load(String name) throws Exception {
+        return Transformation.of("stax").get(new File(
+                AutomatonValidatorTest.class.getResource(name).toURI()));
+    }
+
+}
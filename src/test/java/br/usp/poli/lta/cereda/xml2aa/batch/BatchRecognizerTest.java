@@ -0,0 +1,143 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.batch;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica o reconhecimento em lote de ponta a ponta: o arquivo de entrada
+ * contém todas as cadeias do exemplo de autômato de pilha estruturado até
+ * um comprimento máximo, em mais partes do que linhas de execução, e os
+ * vereditos de cada linha da saída são comparados com os do reconhecimento
+ * sequencial de cada cadeia, nos dois formatos de saída.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class BatchRecognizerTest {
+
+    // linhas de execução
+    private static final int WORKERS = 3;
+
+    /**
+     * Reconhece o lote no formato CSV.
+     *
+     * @throws Exception Erro na obtenção da especificação ou no lote.
+     */
+    @Test
+    public void csv() throws Exception {
+        run(Format.CSV);
+    }
+
+    /**
+     * Reconhece o lote no formato JSONL.
+     *
+     * @throws Exception Erro na obtenção da especificação ou no lote.
+     */
+    @Test
+    public void jsonl() throws Exception {
+        run(Format.JSONL);
+    }
+
+    /**
+     * Reconhece o lote no formato informado, comparando a saída e o resumo
+     * com os vereditos do reconhecimento sequencial.
+     *
+     * @param format Formato de saída.
+     * @throws Exception Erro na obtenção da especificação ou no lote.
+     */
+    private static void run(Format format) throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(new File("samples", "ape.xml"));
+        SpecIndex index = new AutomatonValidator(xml).validate();
+        CompiledAutomaton compiled = new AutomatonCompiler().
+                compile(xml, index);
+        Recognizer reference = new Recognizer(compiled, null);
+
+        // cadeias de 'a' e 'b' até o comprimento 12,
+        // com a última linha sem a quebra de linha
+        List<String> inputs = new ArrayList<>();
+        inputs.add("");
+        for (int i = 0; inputs.get(i).length() < 12; i++) {
+            inputs.add(inputs.get(i) + "a");
+            inputs.add(inputs.get(i) + "b");
+        }
+
+        Path input = Files.createTempFile("xml2aa-batch", ".txt");
+        Path output = Files.createTempFile("xml2aa-batch",
+                "." + format.getExtension());
+        try {
+            Files.write(input, String.join("\n", inputs).
+                    getBytes(StandardCharsets.UTF_8));
+            BatchReport report = new BatchRecognizer(() -> new Recognizer(
+                    compiled, null), Mode.ACCEPT_FIRST, WORKERS, format).
+                    run(input, output);
+
+            List<String> lines = Files.readAllLines(output,
+                    StandardCharsets.UTF_8);
+            if (format == Format.CSV) {
+                Assert.assertEquals(format.header().trim(), lines.remove(0));
+            }
+            Assert.assertEquals(inputs.size(), lines.size());
+            Assert.assertEquals(inputs.size(), report.getInputs());
+
+            long accepted = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                Verdict expected = reference.recognize(inputs.get(i),
+                        Mode.ACCEPT_FIRST).getVerdict();
+                if (expected == Verdict.ACCEPTED) {
+                    accepted++;
+                }
+                String line = lines.get(i);
+                String prefix = format == Format.CSV ? (i + 1) + ","
+                        + expected.name() + ","
+                        : "{\"line\":" + (i + 1) + ",\"verdict\":\""
+                        + expected.name() + "\"";
+                Assert.assertTrue(line, line.startsWith(prefix));
+            }
+            Assert.assertEquals(accepted,
+                    report.getCount(Verdict.ACCEPTED));
+            Assert.assertEquals(inputs.size() - accepted,
+                    report.getCount(Verdict.REJECTED));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+}
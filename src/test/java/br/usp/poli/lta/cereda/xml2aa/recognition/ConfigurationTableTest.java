@@ -0,0 +1,89 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a tabela de configurações, incluindo o crescimento da capacidade
+ * e o esvaziamento por meio da geração corrente.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class ConfigurationTableTest {
+
+    // quantidade de chaves, suficiente para
+    // dobrar a capacidade várias vezes
+    private static final int KEYS = 5000;
+
+    /**
+     * Verifica se todas as entradas permanecem acessíveis após o
+     * crescimento da tabela, e se chaves repetidas não são inseridas.
+     */
+    @Test
+    public void grow() {
+        ConfigurationTable table = new ConfigurationTable();
+        for (int i = 0; i < KEYS; i++) {
+            Assert.assertEquals(-1, table.putIfAbsent(i, -i, i % 7, i));
+        }
+        Assert.assertEquals(KEYS, table.size());
+        for (int i = 0; i < KEYS; i++) {
+            Assert.assertEquals(i, table.get(i, -i, i % 7));
+            Assert.assertEquals(i, table.putIfAbsent(i, -i, i % 7, KEYS));
+            Assert.assertFalse(table.add(i, -i, i % 7));
+
+            // chaves que diferem em apenas
+            // um componente são distintas
+            Assert.assertEquals(-1, table.get(i, -i, i % 7 + 1));
+            Assert.assertEquals(-1, table.get(i, i + 1, i % 7));
+        }
+        Assert.assertEquals(KEYS, table.size());
+    }
+
+    /**
+     * Verifica se o esvaziamento remove todas as entradas, mantendo a tabela
+     * utilizável nas gerações seguintes.
+     */
+    @Test
+    public void clear() {
+        ConfigurationTable table = new ConfigurationTable();
+        for (int generation = 0; generation < 100; generation++) {
+            for (int i = 0; i < KEYS / 10; i++) {
+                Assert.assertTrue(table.add(i, generation, 0));
+            }
+            Assert.assertEquals(KEYS / 10, table.size());
+            table.clear();
+            Assert.assertEquals(0, table.size());
+            for (int i = 0; i < KEYS / 10; i++) {
+                Assert.assertEquals(-1, table.get(i, generation, 0));
+            }
+        }
+
+        // as mesmas chaves podem ser
+        // inseridas novamente
+        Assert.assertTrue(table.add(0, 0, 0));
+        Assert.assertEquals(0, table.get(0, 0, 0));
+    }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica se um limite de execução atingido interrompe o reconhecimento
+ * com um veredito inconclusivo e incrementa o contador correspondente do
+ * mecanismo nativo.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class LimitsTest {
+
+    // cadeia aceita pelo exemplo
+    // de autômato adaptativo
+    private static final String INPUT = "aaabbbccc";
+
+    /**
+     * Verifica o limite de passos.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void steps() throws Exception {
+        check(Limits.NONE.withSteps(3), Limit.STEPS, null);
+    }
+
+    /**
+     * Verifica o limite de estados gerados pelas funções adaptativas.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void states() throws Exception {
+        check(Limits.NONE.withStates(1), Limit.STATES, null);
+    }
+
+    /**
+     * Verifica o limite de passos na exploração paralela.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void parallel() throws Exception {
+        check(Limits.NONE.withSteps(3), Limit.STEPS, new ForkJoinPool(2));
+    }
+
+    /**
+     * Verifica se os limites do mecanismo são aplicados quando nenhum outro
+     * é informado, e se um reconhecimento inconclusivo resulta na rejeição
+     * da cadeia.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void engine() throws Exception {
+        NativeEngine engine = new NativeEngine(automaton(),
+                Limits.NONE.withSteps(3));
+        Assert.assertFalse(engine.recognize(INPUT));
+        Assert.assertEquals(1, engine.getTriggered(Limit.STEPS));
+    }
+
+    /**
+     * Compara o reconhecimento sem limites com o reconhecimento limitado.
+     *
+     * @param limits Limites de execução.
+     * @param limit Limite esperado.
+     * @param pool Conjunto de threads, ou nulo.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static void check(Limits limits, Limit limit, ForkJoinPool pool)
+            throws Exception {
+        NativeEngine engine = new NativeEngine(automaton());
+        Result result = engine.evaluate(INPUT, Mode.ACCEPT_FIRST,
+                Limits.NONE, pool);
+        Assert.assertEquals(Verdict.ACCEPTED, result.getVerdict());
+        Assert.assertNull(result.getLimit());
+
+        result = engine.evaluate(INPUT, Mode.ACCEPT_FIRST, limits, pool);
+        Assert.assertEquals(Verdict.INCONCLUSIVE, result.getVerdict());
+        Assert.assertTrue(result.isInconclusive());
+        Assert.assertFalse(result.isAccepted());
+        Assert.assertEquals(limit, result.getLimit());
+        for (Limit candidate : Limit.values()) {
+            Assert.assertEquals(candidate == limit ? 1 : 0,
+                    engine.getTriggered(candidate));
+        }
+    }
+
+    /**
+     * Obtém o autômato compilado do exemplo de autômato adaptativo.
+     *
+     * @return Autômato compilado.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static CompiledAutomaton automaton() throws Exception {
+        return new AutomatonCompiler().compile(Transformation.of("stax").
+                get(new File("samples/aa.xml")));
+    }
+
+}
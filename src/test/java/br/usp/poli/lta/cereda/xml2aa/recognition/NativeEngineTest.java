@@ -0,0 +1,213 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica os vereditos do mecanismo nativo em cada exemplo, para todas as
+ * cadeias do alfabeto até um comprimento máximo, em relação à linguagem
+ * reconhecida pelo exemplo. A exploração paralela deve produzir os mesmos
+ * vereditos da exploração sequencial, assim como as explorações em
+ * profundidade e em largura, e a contagem de caminhos deve ser positiva
+ * apenas para as cadeias aceitas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class NativeEngineTest {
+
+    // diretório dos exemplos
+    private static final File SAMPLES = new File("samples");
+
+    // conjunto de threads da
+    // exploração paralela
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * Verifica o exemplo de autômato finito, que reconhece (ab)+.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void finite() throws Exception {
+        compare("af.xml", 8, (String input) -> input.matches("(ab)+"));
+    }
+
+    /**
+     * Verifica o exemplo de autômato de pilha estruturado, que reconhece
+     * a^n b^n, com n maior ou igual a zero.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void structured() throws Exception {
+        compare("ape.xml", 8, (String input) -> balanced(input, 0, "a",
+                "b"));
+    }
+
+    /**
+     * Verifica o exemplo de autômato adaptativo, que reconhece a^n b^n c^n,
+     * com n maior ou igual a um.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void adaptive() throws Exception {
+        compare("aa.xml", 6, (String input) -> balanced(input, 1, "a", "b",
+                "c"));
+    }
+
+    /**
+     * Verifica se a exploração em largura é mantida com chamadas de
+     * submáquinas ou pontos de retomada, mesmo com um conjunto de threads,
+     * e se a contagem de caminhos continua a utilizá-lo.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void breadth() throws Exception {
+        CompiledAutomaton finite = compile("af.xml");
+        CompiledAutomaton structured = compile("ape.xml");
+        Assert.assertFalse(NativeEngine.isBreadthFirst(finite,
+                Mode.ACCEPT_FIRST, 0));
+        Assert.assertTrue(NativeEngine.isBreadthFirst(finite,
+                Mode.ACCEPT_FIRST, 16));
+        Assert.assertTrue(NativeEngine.isBreadthFirst(structured,
+                Mode.ACCEPT_FIRST, 0));
+        Assert.assertFalse(NativeEngine.isBreadthFirst(structured,
+                Mode.COUNT, 0));
+
+        NativeEngine engine = new NativeEngine(structured);
+        Assert.assertTrue(engine.isBreadthFirst(Mode.ACCEPT_FIRST));
+        Assert.assertFalse(engine.isBreadthFirst(Mode.COUNT));
+        Assert.assertTrue(engine.recognize("aaabbb", POOL));
+        Assert.assertFalse(engine.recognize("aaabb", POOL));
+        Assert.assertFalse(new NativeEngine(finite).
+                isBreadthFirst(Mode.ACCEPT_FIRST));
+    }
+
+    /**
+     * Obtém o autômato compilado do exemplo.
+     *
+     * @param name Nome do arquivo do exemplo.
+     * @return Autômato compilado.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static CompiledAutomaton compile(String name) throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(new File(SAMPLES, name));
+        return new AutomatonCompiler().compile(xml,
+                new AutomatonValidator(xml).validate());
+    }
+
+    /**
+     * Compara os vereditos do mecanismo com a linguagem do exemplo.
+     *
+     * @param name Nome do arquivo do exemplo.
+     * @param length Comprimento máximo das cadeias.
+     * @param language Linguagem reconhecida pelo exemplo.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static void compare(String name, int length,
+            Predicate<String> language) throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(new File(SAMPLES, name));
+        SpecIndex index = new AutomatonValidator(xml).validate();
+        CompiledAutomaton compiled = new AutomatonCompiler().
+                compile(xml, index);
+        NativeEngine engine = new NativeEngine(compiled);
+
+        for (String input : words(index.getSymbols(), length)) {
+            boolean expected = language.test(input);
+            String message = String.format("%s: '%s'", name, input);
+            Assert.assertEquals(message, expected, engine.recognize(input));
+            Assert.assertEquals(message, expected,
+                    engine.recognize(input, POOL));
+            Assert.assertEquals(message, expected, engine.depth(input));
+            Assert.assertEquals(message, expected, engine.breadth(input));
+            long count = engine.count(input);
+            Assert.assertEquals(message, expected, count > 0);
+            Assert.assertEquals(message, count, engine.count(input, POOL));
+        }
+    }
+
+    /**
+     * Verifica se a cadeia é formada por blocos consecutivos de cada
+     * símbolo, todos com o mesmo comprimento.
+     *
+     * @param input Cadeia de entrada.
+     * @param minimum Comprimento mínimo de cada bloco.
+     * @param symbols Símbolos de cada bloco, em ordem.
+     * @return Valor lógico indicando se a cadeia pertence à linguagem.
+     */
+    private static boolean balanced(String input, int minimum,
+            String... symbols) {
+        if (input.length() % symbols.length != 0) {
+            return false;
+        }
+        int n = input.length() / symbols.length;
+        StringBuilder sb = new StringBuilder();
+        for (String symbol : symbols) {
+            for (int i = 0; i < n; i++) {
+                sb.append(symbol);
+            }
+        }
+        return n >= minimum && sb.toString().equals(input);
+    }
+
+    /**
+     * Gera todas as cadeias do alfabeto até o comprimento informado.
+     *
+     * @param symbols Símbolos do alfabeto.
+     * @param length Comprimento máximo.
+     * @return Cadeias, em ordem crescente de comprimento.
+     */
+    static List<String> words(Iterable<String> symbols, int length) {
+        List<String> words = new ArrayList<>();
+        words.add("");
+        int begin = 0;
+        for (int i = 0; i < length; i++) {
+            int end = words.size();
+            for (int j = begin; j < end; j++) {
+                for (String symbol : symbols) {
+                    words.add(words.get(j) + symbol);
+                }
+            }
+            begin = end;
+        }
+        return words;
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a cache de prefixos, incluindo a busca pelo maior prefixo com
+ * ponto de retomada, a remoção do ponto utilizado há mais tempo e os
+ * contadores de acertos e de falhas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class PrefixCacheTest {
+
+    /**
+     * Verifica se a busca retorna o maior prefixo armazenado da cadeia.
+     */
+    @Test
+    public void longest() {
+        PrefixCache<String> cache = new PrefixCache<>(8);
+        int[] symbols = {1, 2, 3, 4, 5};
+        PrefixCache.Node<String> prefix = cache.store(null, symbols, 2, "ab");
+        cache.store(prefix, symbols, 4, "abcd");
+
+        PrefixCache.Node<String> node = cache.find(symbols, 5);
+        Assert.assertEquals("abcd", node.getValue());
+        Assert.assertEquals(4, node.getDepth());
+        Assert.assertEquals("ab", cache.find(symbols, 3).getValue());
+        Assert.assertNull(cache.find(symbols, 1));
+        Assert.assertNull(cache.find(new int[]{2, 3}, 2));
+
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    /**
+     * Verifica se o ponto de retomada utilizado há mais tempo é removido
+     * quando a capacidade é excedida, e se uma busca renova a utilização do
+     * ponto encontrado.
+     */
+    @Test
+    public void eviction() {
+        PrefixCache<String> cache = new PrefixCache<>(2);
+        cache.store(null, new int[]{1}, 1, "a");
+        cache.store(null, new int[]{2}, 1, "b");
+
+        // a busca torna 'a' o mais recente,
+        // de modo que 'b' é removido
+        Assert.assertEquals("a", cache.find(new int[]{1}, 1).getValue());
+        cache.store(null, new int[]{3}, 1, "c");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+
+        Assert.assertNull(cache.find(new int[]{2}, 1));
+        Assert.assertEquals("a", cache.find(new int[]{1}, 1).getValue());
+        Assert.assertEquals("c", cache.find(new int[]{3}, 1).getValue());
+        Assert.assertEquals(3, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        // um ponto removido pode
+        // ser armazenado novamente
+        cache.store(null, new int[]{2}, 1, "b");
+        Assert.assertEquals(2, cache.getEvictions());
+        Assert.assertEquals("b", cache.find(new int[]{2}, 1).getValue());
+        Assert.assertNull(cache.find(new int[]{1}, 1));
+    }
+
+    /**
+     * Verifica se capacidades não positivas são rejeitadas.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void capacity() {
+        new PrefixCache<String>(0);
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica se o reconhecimento incremental, com a cadeia informada em
+ * partes de um caractere ou de um byte, produz os mesmos vereditos do
+ * reconhecimento da cadeia inteira.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class RecognitionStreamTest {
+
+    // diretório dos exemplos
+    private static final File SAMPLES = new File("samples");
+
+    /**
+     * Verifica o exemplo de autômato finito, reconhecido pela tabela
+     * determinística.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void finite() throws Exception {
+        compare("af.xml", 8);
+    }
+
+    /**
+     * Verifica o exemplo de autômato de pilha estruturado.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void structured() throws Exception {
+        compare("ape.xml", 8);
+    }
+
+    /**
+     * Verifica o exemplo de autômato adaptativo.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void adaptive() throws Exception {
+        compare("aa.xml", 6);
+    }
+
+    /**
+     * Compara o reconhecimento incremental com o reconhecimento da cadeia
+     * inteira.
+     *
+     * @param name Nome do arquivo do exemplo.
+     * @param length Comprimento máximo das cadeias.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static void compare(String name, int length) throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").
+                get(new File(SAMPLES, name));
+        SpecIndex index = new AutomatonValidator(xml).validate();
+        Recognizer recognizer = new Recognizer(new AutomatonCompiler().
+                compile(xml, index), null);
+
+        for (String input : NativeEngineTest.words(index.getSymbols(),
+                length)) {
+            Verdict expected = recognizer.recognize(input,
+                    Mode.ACCEPT_FIRST).getVerdict();
+            String message = String.format("%s: '%s'", name, input);
+
+            RecognitionStream stream = recognizer.stream();
+            for (char symbol : input.toCharArray()) {
+                stream.feed(new char[]{symbol});
+            }
+            Assert.assertEquals(message, input.length(),
+                    stream.getConsumed());
+            Assert.assertEquals(message, expected,
+                    stream.finish().getVerdict());
+
+            stream = recognizer.stream();
+            for (byte value : input.getBytes(StandardCharsets.UTF_8)) {
+                stream.feed(ByteBuffer.wrap(new byte[]{value}));
+            }
+            Assert.assertEquals(message, expected,
+                    stream.finish().getVerdict());
+        }
+    }
+
+}
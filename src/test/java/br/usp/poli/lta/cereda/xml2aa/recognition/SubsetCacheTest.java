@@ -0,0 +1,86 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import java.io.File;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a construção dos conjuntos de estados sob demanda e a sua
+ * invalidação quando o mapeamento de transições muda de versão.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SubsetCacheTest {
+
+    /**
+     * Verifica se os conjuntos construídos são descartados quando o
+     * mapeamento é substituído por outra versão, e se os novos conjuntos
+     * refletem as transições do novo mapeamento.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void invalidation() throws Exception {
+        CompiledAutomaton automaton = new AutomatonCompiler().compile(
+                Transformation.of("stax").get(new File("samples/af.xml")));
+        int initial = automaton.getState("0");
+        int a = automaton.getSymbol("a");
+        int b = automaton.getSymbol("b");
+
+        TransitionMapping mapping = TransitionMapping.of(automaton);
+        SubsetCache cache = new SubsetCache(automaton, mapping, 64);
+        SubsetCache.Subset start = cache.start(initial);
+        Assert.assertFalse(cache.step(start, a).accepting);
+        Assert.assertSame(SubsetCache.DEAD, cache.step(start, b));
+        Assert.assertTrue(cache.size() > 0);
+        Assert.assertTrue(cache.covers(mapping));
+
+        // a nova transição leva o estado
+        // inicial diretamente à aceitação
+        TransitionMapping fork = mapping.fork();
+        Assert.assertTrue(fork.add(new Edge(initial, b,
+                automaton.getState("2"), null, null)));
+        Assert.assertFalse(cache.covers(fork));
+
+        cache.use(fork);
+        Assert.assertEquals(1, cache.getInvalidations());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertTrue(cache.covers(fork));
+
+        // conjuntos da versão anterior
+        // não são mais utilizados
+        Assert.assertSame(SubsetCache.IMPURE, cache.step(start, b));
+        Assert.assertTrue(cache.step(cache.start(initial), b).accepting);
+
+        // a mesma versão não
+        // invalida novamente
+        cache.use(fork);
+        Assert.assertEquals(1, cache.getInvalidations());
+    }
+
+}
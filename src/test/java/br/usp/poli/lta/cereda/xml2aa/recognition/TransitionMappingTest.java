@@ -0,0 +1,168 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.recognition;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import java.io.File;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica o isolamento entre as ramificações do mapeamento de transições e
+ * a regra de versões, segundo a qual mapeamentos com a mesma versão possuem
+ * o mesmo conteúdo.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class TransitionMappingTest {
+
+    // quantidade de estados adicionados,
+    // suficiente para ocupar mais de um
+    // nível da árvore de prefixos
+    private static final int STATES = 100;
+
+    /**
+     * Verifica se as alterações de uma ramificação não são vistas pelo
+     * mapeamento original nem pelas demais ramificações.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void isolation() throws Exception {
+        TransitionMapping mapping = TransitionMapping.of(automaton());
+        String expected = describe(mapping);
+
+        TransitionMapping left = mapping.fork();
+        TransitionMapping right = mapping.fork();
+        for (int state = 0; state < STATES; state++) {
+            Assert.assertTrue(left.add(new Edge(state, 0, STATES + state,
+                    null, null)));
+        }
+        Edge removed = mapping.edges(0)[0];
+        Assert.assertTrue(right.remove(removed));
+
+        Assert.assertEquals(expected, describe(mapping));
+        Assert.assertTrue(mapping.contains(removed));
+        Assert.assertTrue(left.contains(removed));
+        Assert.assertFalse(right.contains(removed));
+        Assert.assertEquals(mapping.size() + STATES, left.size());
+        Assert.assertEquals(mapping.size() - 1, right.size());
+        for (int state = 0; state < STATES; state++) {
+            Edge edge = new Edge(state, 0, STATES + state, null, null);
+            Assert.assertTrue(left.contains(edge));
+            Assert.assertFalse(right.contains(edge));
+        }
+
+        // uma ramificação da ramificação
+        // também não altera a original
+        TransitionMapping nested = left.fork();
+        Edge last = new Edge(STATES - 1, 0, 2 * STATES - 1, null, null);
+        Assert.assertTrue(nested.remove(last));
+        Assert.assertFalse(nested.contains(last));
+        Assert.assertTrue(left.contains(last));
+    }
+
+    /**
+     * Verifica se a duplicação mantém a versão e se apenas as alterações
+     * efetivas atribuem uma nova versão, de modo que versões iguais
+     * impliquem conteúdos iguais.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test
+    public void versions() throws Exception {
+        TransitionMapping mapping = TransitionMapping.of(automaton());
+        Assert.assertEquals(0, mapping.getVersion());
+
+        TransitionMapping first = mapping.fork();
+        TransitionMapping second = mapping.fork();
+        Assert.assertEquals(mapping.getVersion(), first.getVersion());
+        Assert.assertEquals(describe(mapping), describe(first));
+
+        // alterações sem efeito
+        // mantêm a versão
+        Edge existing = mapping.edges(0)[0];
+        Assert.assertFalse(first.add(existing));
+        Assert.assertFalse(first.remove(new Edge(STATES, 0, STATES, null,
+                null)));
+        Assert.assertEquals(mapping.getVersion(), first.getVersion());
+
+        // a mesma alteração em ramificações
+        // distintas produz versões distintas
+        Edge edge = new Edge(0, 0, STATES, null, null);
+        Assert.assertTrue(first.add(edge));
+        Assert.assertTrue(second.add(edge));
+        Assert.assertNotEquals(mapping.getVersion(), first.getVersion());
+        Assert.assertNotEquals(first.getVersion(), second.getVersion());
+
+        // a ramificação de uma ramificação
+        // alterada possui o mesmo conteúdo
+        TransitionMapping third = first.fork();
+        Assert.assertEquals(first.getVersion(), third.getVersion());
+        Assert.assertEquals(describe(first), describe(third));
+        Assert.assertTrue(third.remove(edge));
+        Assert.assertNotEquals(first.getVersion(), third.getVersion());
+    }
+
+    /**
+     * Verifica se o mapeamento inicial não pode ser alterado.
+     *
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void frozen() throws Exception {
+        TransitionMapping.of(automaton()).add(new Edge(0, 0, 0, null, null));
+    }
+
+    /**
+     * Obtém o autômato compilado do exemplo de autômato adaptativo.
+     *
+     * @return Autômato compilado.
+     * @throws Exception Erro na obtenção da especificação.
+     */
+    private static CompiledAutomaton automaton() throws Exception {
+        return new AutomatonCompiler().compile(Transformation.of("stax").
+                get(new File("samples/aa.xml")));
+    }
+
+    /**
+     * Descreve textualmente o conteúdo do mapeamento, estado por estado.
+     *
+     * @param mapping Mapeamento de transições.
+     * @return Descrição textual.
+     */
+    private static String describe(TransitionMapping mapping) {
+        StringBuilder sb = new StringBuilder();
+        for (int state = 0; state < mapping.states(); state++) {
+            for (Edge edge : mapping.edges(state)) {
+                sb.append(edge.getFrom()).append(' ').
+                        append(edge.getLabel()).append(' ').
+                        append(edge.getTo()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,140 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.server;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonCompiler;
+import br.usp.poli.lta.cereda.xml2aa.automaton.CompiledAutomaton;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Mode;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Recognizer;
+import br.usp.poli.lta.cereda.xml2aa.recognition.Verdict;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import java.io.File;
+import java.net.ServerSocket;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica o servidor de reconhecimento de ponta a ponta, em um socket TCP
+ * local: as requisições de uma conexão são enviadas sem aguardar as
+ * respostas, que devem retornar na ordem das requisições, e as estatísticas
+ * devem refletir as requisições atendidas.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class RecognitionServerTest {
+
+    /**
+     * Verifica as requisições com mensagens delimitadas por linhas.
+     *
+     * @throws Exception Erro no servidor ou na conexão.
+     */
+    @Test
+    public void line() throws Exception {
+        run(Framing.LINE);
+    }
+
+    /**
+     * Verifica as requisições com mensagens prefixadas pelo comprimento.
+     *
+     * @throws Exception Erro no servidor ou na conexão.
+     */
+    @Test
+    public void length() throws Exception {
+        run(Framing.LENGTH);
+    }
+
+    /**
+     * Envia as requisições ao servidor, com a delimitação informada, e
+     * verifica as respostas.
+     *
+     * @param framing Delimitação das mensagens.
+     * @throws Exception Erro no servidor ou na conexão.
+     */
+    private static void run(Framing framing) throws Exception {
+        CompiledAutomaton automaton = new AutomatonCompiler().compile(
+                Transformation.of("stax").get(new File("samples/ape.xml")));
+        String address = "localhost:" + port();
+
+        try (RecognitionServer server = new RecognitionServer(framing, 0,
+                RecognitionServer.PIPELINE)) {
+            server.register("ape", new Recognizer(automaton, null),
+                    Mode.ACCEPT_FIRST);
+            server.start(address);
+
+            try (MessageChannel client = MessageChannel.connect(address,
+                    framing)) {
+
+                // requisições enviadas em
+                // conjunto, sem aguardar
+                // as respostas
+                String[] requests = {
+                    "ping",
+                    "recognize ape - aabb",
+                    "recognize ape first aab",
+                    "recognize ape count ",
+                    "recognize xyz - ab",
+                    "specs"
+                };
+                for (String request : requests) {
+                    client.write(request);
+                }
+                client.flush();
+
+                Assert.assertEquals("OK pong", client.read());
+                Assert.assertTrue(client.read().startsWith("OK ACCEPTED 1 "));
+                Assert.assertTrue(client.read().startsWith("OK REJECTED 0 "));
+                Assert.assertTrue(client.read().startsWith("OK ACCEPTED 1 "));
+                Assert.assertTrue(client.read().startsWith("ERR "));
+                Assert.assertEquals("OK ape", client.read());
+
+                // as estatísticas são solicitadas
+                // após as respostas anteriores
+                client.write("stats");
+                client.flush();
+                String stats = client.read();
+                Assert.assertTrue(stats, stats.startsWith("OK {"));
+                Assert.assertTrue(stats, stats.contains("\"requests\":4,"));
+                Assert.assertTrue(stats, stats.contains("\"errors\":1,"));
+                Assert.assertTrue(stats, stats.contains("\"accepted\":2,"));
+                Assert.assertTrue(stats, stats.contains("\"rejected\":1,"));
+            }
+
+            Assert.assertEquals(1, server.getStats().getConnections());
+            Assert.assertEquals(2, server.getStats().
+                    getCount(Verdict.ACCEPTED));
+        }
+    }
+
+    /**
+     * Obtém uma porta TCP livre.
+     *
+     * @return Porta livre.
+     * @throws Exception Erro na abertura do socket.
+     */
+    private static int port() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
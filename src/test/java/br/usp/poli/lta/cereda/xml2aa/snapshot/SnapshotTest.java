@@ -0,0 +1,159 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.snapshot;
+
+import br.usp.poli.lta.cereda.xml2aa.automaton.AutomatonValidator;
+import br.usp.poli.lta.cereda.xml2aa.automaton.SpecIndex;
+import br.usp.poli.lta.cereda.xml2aa.xml.Transformation;
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica a escrita e a leitura da representação binária da especificação,
+ * incluindo a rejeição de arquivos desatualizados ou gerados por outra
+ * versão do formato.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class SnapshotTest {
+
+    // especificação de exemplo
+    private static final File SAMPLE = new File("samples/ape.xml");
+
+    // resumos criptográficos
+    // fictícios do arquivo XML
+    private static final byte[] HASH = {1, 2, 3, 4};
+    private static final byte[] STALE = {1, 2, 3, 5};
+
+    /**
+     * Verifica se a representação lida é igual à representação escrita.
+     *
+     * @throws Exception Erro de escrita ou de leitura.
+     */
+    @Test
+    public void roundTrip() throws Exception {
+        Snapshot expected = load();
+        Path path = Files.createTempFile("xml2aa", SnapshotCache.EXTENSION);
+        try {
+            new SnapshotWriter().write(path, HASH, expected);
+            Snapshot actual = new SnapshotReader().read(path, HASH);
+            Assert.assertNotNull(actual);
+            compare(expected.getIndex(), actual.getIndex());
+
+            // a especificação lida deve
+            // produzir o mesmo índice
+            compare(expected.getIndex(), new AutomatonValidator(
+                    actual.getSpecification()).validate());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Verifica se um arquivo gerado a partir de outro conteúdo XML é
+     * rejeitado.
+     *
+     * @throws Exception Erro de escrita ou de leitura.
+     */
+    @Test
+    public void staleHash() throws Exception {
+        Path path = write();
+        try {
+            Assert.assertNull(new SnapshotReader().read(path, STALE));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Verifica se um arquivo gerado por outra versão do formato é
+     * rejeitado.
+     *
+     * @throws Exception Erro de escrita ou de leitura.
+     */
+    @Test
+    public void staleVersion() throws Exception {
+        Path path = write();
+        try {
+
+            // a versão segue o
+            // número mágico
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(),
+                    "rw")) {
+                file.seek(Integer.BYTES);
+                file.writeInt(SnapshotWriter.VERSION + 1);
+            }
+            Assert.assertNull(new SnapshotReader().read(path, HASH));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Escreve a representação do exemplo em um arquivo temporário.
+     *
+     * @return Caminho do arquivo.
+     * @throws Exception Erro de escrita.
+     */
+    private static Path write() throws Exception {
+        Path path = Files.createTempFile("xml2aa", SnapshotCache.EXTENSION);
+        new SnapshotWriter().write(path, HASH, load());
+        return path;
+    }
+
+    /**
+     * Carrega e valida o exemplo, obtendo a sua representação.
+     *
+     * @return Representação da especificação.
+     * @throws Exception Erro na transformação ou na validação.
+     */
+    private static Snapshot load() throws Exception {
+        XMLAdaptiveAutomaton xml = Transformation.of("stax").get(SAMPLE);
+        return new Snapshot(xml, new AutomatonValidator(xml).validate());
+    }
+
+    /**
+     * Compara os índices da especificação.
+     *
+     * @param expected Índice esperado.
+     * @param actual Índice obtido.
+     */
+    private static void compare(SpecIndex expected, SpecIndex actual) {
+        Assert.assertArrayEquals(expected.getCounts(), actual.getCounts());
+        Assert.assertArrayEquals(expected.getFrom(), actual.getFrom());
+        Assert.assertArrayEquals(expected.getTo(), actual.getTo());
+        Assert.assertArrayEquals(expected.getStates(), actual.getStates());
+        Assert.assertEquals(expected.getMaximum(), actual.getMaximum());
+        Assert.assertEquals(expected.getSymbols(), actual.getSymbols());
+        Assert.assertEquals(expected.getSubmachineCalls(),
+                actual.getSubmachineCalls());
+        Assert.assertEquals(expected.getActionCalls(),
+                actual.getActionCalls());
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * ------------------------------------------------------
+ *    Laboratório de Linguagens e Técnicas Adaptativas
+ *       Escola Politécnica, Universidade São Paulo
+ * ------------------------------------------------------
+ *
+ * This program is free software: you can redistribute it
+ * and/or modify  it under the  terms of the  GNU General
+ * Public  License  as  published by  the  Free  Software
+ * Foundation, either  version 3  of the License,  or (at
+ * your option) any later version.
+ *
+ * This program is  distributed in the hope  that it will
+ * be useful, but WITHOUT  ANY WARRANTY; without even the
+ * implied warranty  of MERCHANTABILITY or FITNESS  FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ *
+ */
+package br.usp.poli.lta.cereda.xml2aa.xml;
+
+import br.usp.poli.lta.cereda.xml2aa.xml.model.XMLAdaptiveAutomaton;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifica se as transformações baseadas no XStream e no analisador de
+ * fluxo produzem a mesma especificação XML do autômato adaptativo para cada
+ * um dos exemplos.
+ *
+ * @author Paulo Roberto Massa Cereda
+ * @version 1.1
+ * @since 1.1
+ */
+public class TransformationTest {
+
+    // diretório dos exemplos
+    private static final File SAMPLES = new File("samples");
+
+    /**
+     * Compara as transformações em todos os exemplos.
+     *
+     * @throws Exception Erro na transformação de um dos exemplos.
+     */
+    @Test
+    public void samples() throws Exception {
+        File[] files = SAMPLES.listFiles((File directory, String name)
+                -> name.endsWith(".xml"));
+        Assert.assertNotNull(files);
+        Assert.assertTrue(files.length > 0);
+        for (File file : files) {
+            XMLAdaptiveAutomaton expected = Transformation.of("xstream").
+                    get(file);
+            XMLAdaptiveAutomaton actual = Transformation.of("stax").
+                    get(file);
+            Assert.assertEquals(file.getName(), describe(expected),
+                    describe(actual));
+        }
+    }
+
+    /**
+     * Verifica se um nome de transformação inválido é rejeitado.
+     *
+     * @throws Exception A transformação foi aceita.
+     */
+    @Test(expected = Exception.class)
+    public void invalid() throws Exception {
+        Transformation.of("dom");
+    }
+
+    /**
+     * Descreve textualmente um objeto do modelo, percorrendo os seus
+     * getters em ordem alfabética; listas e cadeias são descritas pelos
+     * seus elementos e pelo seu conteúdo.
+     *
+     * @param object Objeto do modelo.
+     * @return Descrição textual.
+     * @throws Exception Erro na chamada de um getter.
+     */
+    private static String describe(Object object) throws Exception {
+        if (object == null) {
+            return "null";
+        }
+        if (object instanceof String) {
+            return "'" + object + "'";
+        }
+        if (object instanceof List) {
+            StringBuilder sb = new StringBuilder("[");
+            for (Object element : (List<?>) object) {
+                sb.append(describe(element)).append(", ");
+            }
+            return sb.append("]").toString();
+        }
+        Method[] methods = object.getClass().getMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::getName));
+        StringBuilder sb = new StringBuilder(object.getClass().
+                getSimpleName()).append("{");
+        for (Method method : methods) {
+            if (method.getName().startsWith("get")
+                    && method.getParameterCount() == 0
+                    && method.getDeclaringClass() != Object.class) {
+                sb.append(method.getName()).append("=").
+                        append(describe(method.invoke(object))).
+                        append(", ");
+            }
+        }
+        return sb.append("}").toString();
+    }
+
+}